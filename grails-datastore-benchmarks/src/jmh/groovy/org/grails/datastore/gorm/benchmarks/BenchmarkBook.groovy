@@ -0,0 +1,18 @@
+package org.grails.datastore.gorm.benchmarks
+
+import grails.gorm.annotation.Entity
+
+/**
+ * The entity used by the benchmarks
+ */
+@Entity
+class BenchmarkBook {
+    String title
+    String author
+    Integer pages
+
+    static constraints = {
+        title blank: false
+        pages min: 1
+    }
+}
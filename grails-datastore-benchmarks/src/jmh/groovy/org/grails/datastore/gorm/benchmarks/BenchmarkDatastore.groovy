@@ -0,0 +1,57 @@
+package org.grails.datastore.gorm.benchmarks
+
+import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+
+/**
+ * Creates a {@link SimpleMapDatastore} populated with books and binds a session to the current thread
+ */
+@CompileStatic
+class BenchmarkDatastore implements Closeable {
+
+    static final int BOOK_COUNT = 1000
+
+    final SimpleMapDatastore datastore
+    final List<Long> ids
+    Session session
+
+    BenchmarkDatastore() {
+        datastore = new SimpleMapDatastore(BenchmarkBook)
+        ids = (List<Long>) BenchmarkBook.withNewSession { Session newSession ->
+            List<Long> created = []
+            for (int i = 0; i < BOOK_COUNT; i++) {
+                BenchmarkBook book = new BenchmarkBook(title: "Title $i", author: "Author ${i % 10}", pages: i + 1)
+                book.save()
+                created.add(book.id)
+            }
+            newSession.flush()
+            created
+        }
+        session = DatastoreUtils.bindSession(datastore.connect())
+    }
+
+    /**
+     * Deletes the books saved after the datastore was populated, so that every iteration measures the same data
+     */
+    void removeAddedBooks() {
+        Set<Long> populated = new HashSet<>(ids)
+        BenchmarkBook.withNewSession { Session newSession ->
+            for (BenchmarkBook book in BenchmarkBook.list()) {
+                if (!populated.contains(book.id)) {
+                    newSession.delete(book)
+                }
+            }
+            newSession.flush()
+        }
+        session.clear()
+    }
+
+    @Override
+    void close() {
+        DatastoreUtils.unbindSession(session)
+        session.disconnect()
+        datastore.close()
+    }
+}
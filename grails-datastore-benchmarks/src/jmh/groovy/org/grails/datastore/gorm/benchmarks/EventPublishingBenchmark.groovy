@@ -0,0 +1,84 @@
+package org.grails.datastore.gorm.benchmarks
+
+import groovy.transform.CompileStatic
+import org.grails.datastore.gorm.events.DefaultApplicationEventPublisher
+import org.grails.datastore.mapping.engine.event.AbstractPersistenceEvent
+import org.grails.datastore.mapping.engine.event.AbstractPersistenceEventListener
+import org.grails.datastore.mapping.engine.event.PostLoadEvent
+import org.grails.datastore.mapping.engine.event.PreInsertEvent
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.openjdk.jmh.annotations.*
+import org.springframework.context.ApplicationEvent
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * Benchmarks publishing persistence events to listeners that do and do not support them
+ */
+@CompileStatic
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class EventPublishingBenchmark {
+
+    SimpleMapDatastore datastore
+    DefaultApplicationEventPublisher publisher
+    PersistentEntity entity
+    BenchmarkBook book
+
+    @Setup(Level.Trial)
+    void setup() {
+        datastore = new SimpleMapDatastore(BenchmarkBook)
+        publisher = new DefaultApplicationEventPublisher()
+        for (int i = 0; i < 10; i++) {
+            publisher.addApplicationListener(new InsertListener(datastore))
+        }
+        entity = datastore.mappingContext.getPersistentEntity(BenchmarkBook.name)
+        book = new BenchmarkBook(title: "The Stand", author: "Stephen King", pages: 1152)
+    }
+
+    @TearDown(Level.Trial)
+    void tearDown() {
+        datastore.close()
+    }
+
+    @Benchmark
+    Object publishWithListeners() {
+        PreInsertEvent event = new PreInsertEvent(datastore, entity, datastore.mappingContext.createEntityAccess(entity, book))
+        publisher.publishEvent(event)
+        event
+    }
+
+    @Benchmark
+    Object publishWithoutListeners() {
+        PostLoadEvent event = new PostLoadEvent(datastore, entity, datastore.mappingContext.createEntityAccess(entity, book))
+        publisher.publishEvent(event)
+        event
+    }
+
+    @Benchmark
+    Object publishToDatastore() {
+        PostLoadEvent event = new PostLoadEvent(datastore, entity, datastore.mappingContext.createEntityAccess(entity, book))
+        datastore.applicationEventPublisher.publishEvent(event)
+        event
+    }
+
+    static class InsertListener extends AbstractPersistenceEventListener {
+        int count
+
+        InsertListener(SimpleMapDatastore datastore) {
+            super(datastore)
+        }
+
+        @Override
+        protected void onPersistenceEvent(AbstractPersistenceEvent event) {
+            count++
+        }
+
+        @Override
+        boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+            PreInsertEvent.isAssignableFrom(eventType)
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package org.grails.datastore.gorm.benchmarks
+
+import grails.gorm.DetachedCriteria
+import groovy.transform.CompileDynamic
+import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.query.Query
+import org.openjdk.jmh.annotations.*
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * Benchmarks dynamic finders as well as the building and execution of criteria and where queries
+ */
+@CompileStatic
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class QueryBenchmark {
+
+    BenchmarkDatastore benchmarkDatastore
+
+    @Setup(Level.Trial)
+    void setup() {
+        benchmarkDatastore = new BenchmarkDatastore()
+    }
+
+    @TearDown(Level.Trial)
+    void tearDown() {
+        benchmarkDatastore.close()
+    }
+
+    @Benchmark
+    @CompileDynamic
+    Object dynamicFinder() {
+        BenchmarkBook.findByTitle("Title 500")
+    }
+
+    @Benchmark
+    @CompileDynamic
+    Object dynamicFinderWithConjunction() {
+        BenchmarkBook.findAllByAuthorAndPagesGreaterThan("Author 5", 500)
+    }
+
+    @Benchmark
+    Object buildCriteriaQuery() {
+        Query query = benchmarkDatastore.session.createQuery(BenchmarkBook)
+        query.eq("author", "Author 5")
+             .gt("pages", 500)
+             .order(Query.Order.desc("pages"))
+             .max(10)
+        query
+    }
+
+    @Benchmark
+    @CompileDynamic
+    Object executeCriteriaQuery() {
+        BenchmarkBook.createCriteria().list {
+            eq("author", "Author 5")
+            gt("pages", 500)
+            order("pages", "desc")
+            maxResults(10)
+        }
+    }
+
+    @Benchmark
+    @CompileDynamic
+    Object buildWhereQuery() {
+        DetachedCriteria query = BenchmarkBook.where {
+            author == "Author 5" && pages > 500
+        }
+        query
+    }
+
+    @Benchmark
+    @CompileDynamic
+    Object executeWhereQuery() {
+        BenchmarkBook.where {
+            author == "Author 5" && pages > 500
+        }.list(max: 10, sort: "pages", order: "desc")
+    }
+
+    @Benchmark
+    Object count() {
+        BenchmarkBook.count()
+    }
+}
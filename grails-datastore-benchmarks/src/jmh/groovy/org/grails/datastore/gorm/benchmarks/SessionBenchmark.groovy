@@ -0,0 +1,74 @@
+package org.grails.datastore.gorm.benchmarks
+
+import groovy.transform.CompileStatic
+import org.openjdk.jmh.annotations.*
+import org.openjdk.jmh.infra.Blackhole
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * Benchmarks the save, flush, retrieval and dirty checking paths of the session and persister
+ */
+@CompileStatic
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class SessionBenchmark {
+
+    BenchmarkDatastore benchmarkDatastore
+    int next
+
+    @Setup(Level.Trial)
+    void setup() {
+        benchmarkDatastore = new BenchmarkDatastore()
+    }
+
+    @TearDown(Level.Trial)
+    void tearDown() {
+        benchmarkDatastore.close()
+    }
+
+    @Setup(Level.Iteration)
+    void clearSession() {
+        benchmarkDatastore.session.clear()
+    }
+
+    @TearDown(Level.Iteration)
+    void removeSavedBooks() {
+        benchmarkDatastore.removeAddedBooks()
+    }
+
+    private Long nextId() {
+        List<Long> ids = benchmarkDatastore.ids
+        ids.get(next++ % ids.size())
+    }
+
+    @Benchmark
+    Object saveAndFlush() {
+        BenchmarkBook book = new BenchmarkBook(title: "The Stand", author: "Stephen King", pages: 1152)
+        book.save(flush: true)
+        benchmarkDatastore.session.clear(book)
+        book
+    }
+
+    @Benchmark
+    Object getWithWarmCache() {
+        // the same instance is retrieved from the first level cache on every invocation after the first
+        BenchmarkBook.get(benchmarkDatastore.ids.get(0))
+    }
+
+    @Benchmark
+    Object getWithColdCache() {
+        benchmarkDatastore.session.clear()
+        BenchmarkBook.get(nextId())
+    }
+
+    @Benchmark
+    void dirtyCheck(Blackhole blackhole) {
+        BenchmarkBook book = BenchmarkBook.get(benchmarkDatastore.ids.get(1))
+        book.pages = book.pages + 1
+        blackhole.consume(benchmarkDatastore.session.isDirty(book))
+        blackhole.consume(book.hasChanged('pages'))
+        book.discard()
+    }
+}
@@ -0,0 +1,38 @@
+package org.grails.datastore.gorm.benchmarks
+
+import groovy.transform.CompileStatic
+import org.openjdk.jmh.annotations.*
+
+import java.util.concurrent.TimeUnit
+
+/**
+ * Benchmarks the validation of valid and invalid instances
+ */
+@CompileStatic
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+class ValidationBenchmark {
+
+    BenchmarkDatastore benchmarkDatastore
+
+    @Setup(Level.Trial)
+    void setup() {
+        benchmarkDatastore = new BenchmarkDatastore()
+    }
+
+    @TearDown(Level.Trial)
+    void tearDown() {
+        benchmarkDatastore.close()
+    }
+
+    @Benchmark
+    boolean validateValid() {
+        new BenchmarkBook(title: "The Stand", author: "Stephen King", pages: 1152).validate()
+    }
+
+    @Benchmark
+    boolean validateInvalid() {
+        new BenchmarkBook(title: "", author: "Stephen King", pages: 0).validate()
+    }
+}
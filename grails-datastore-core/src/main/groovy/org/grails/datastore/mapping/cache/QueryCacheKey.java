@@ -0,0 +1,203 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.cache;
+
+import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.query.AssociationQuery;
+import org.grails.datastore.mapping.query.Query;
+import org.grails.datastore.mapping.query.api.QueryableCriteria;
+import org.grails.datastore.mapping.query.criteria.FunctionCallingCriterion;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * An immutable key for a {@link QueryResultCache} entry built from a normalized form of a query's criteria,
+ * projections, ordering and pagination. Two queries that would produce the same results produce equal keys.
+ *
+ * <p>
+ * Queries containing subqueries or criterion types that cannot be normalized are not cacheable, in which case
+ * {@link #create(PersistentEntity, Query.Junction, List, List, int, int, boolean)} returns null.
+ * </p>
+ *
+ * @since 9.0
+ */
+@SuppressWarnings({"rawtypes", "unchecked"})
+public final class QueryCacheKey {
+
+    private final String entityName;
+    private final List<Object> shape;
+    private final Set<String> entityNames;
+    private final boolean projection;
+    private final int hashCode;
+
+    private QueryCacheKey(String entityName, List<Object> shape, Set<String> entityNames, boolean projection) {
+        this.entityName = entityName;
+        this.shape = shape;
+        this.entityNames = Collections.unmodifiableSet(entityNames);
+        this.projection = projection;
+        this.hashCode = 31 * entityName.hashCode() + shape.hashCode();
+    }
+
+    /**
+     * Creates a key for the given query state
+     *
+     * @param entity The entity being queried
+     * @param criteria The criteria
+     * @param projections The projections
+     * @param orderBy The ordering
+     * @param max The maximum number of results
+     * @param offset The offset
+     * @param uniqueResult Whether a unique result was requested
+     * @return The key or null if the query cannot be cached
+     */
+    public static QueryCacheKey create(PersistentEntity entity, Query.Junction criteria, List<Query.Projection> projections, List<Query.Order> orderBy, int max, int offset, boolean uniqueResult) {
+        Set<String> entityNames = new LinkedHashSet<>();
+        entityNames.add(entity.getName());
+
+        Object normalizedCriteria = normalize(criteria, entityNames);
+        if (normalizedCriteria == null) {
+            return null;
+        }
+
+        List<Object> normalizedProjections = new ArrayList<>(projections.size());
+        for (Query.Projection projection : projections) {
+            if (projection instanceof Query.PropertyProjection) {
+                normalizedProjections.add(Arrays.asList(projection.getClass().getName(), ((Query.PropertyProjection) projection).getPropertyName()));
+            }
+            else {
+                normalizedProjections.add(projection.getClass().getName());
+            }
+        }
+
+        List<Object> normalizedOrder = new ArrayList<>(orderBy.size());
+        for (Query.Order order : orderBy) {
+            normalizedOrder.add(Arrays.asList(order.getProperty(), order.getDirection(), order.isIgnoreCase()));
+        }
+
+        List<Object> shape = Arrays.asList(normalizedCriteria, normalizedProjections, normalizedOrder, max, offset, uniqueResult);
+        return new QueryCacheKey(entity.getName(), shape, entityNames, !projections.isEmpty());
+    }
+
+    private static Object normalize(Query.Criterion criterion, Set<String> entityNames) {
+        String type = criterion.getClass().getName();
+        if (criterion instanceof AssociationQuery) {
+            AssociationQuery associationQuery = (AssociationQuery) criterion;
+            PersistentEntity associatedEntity = associationQuery.getEntity();
+            if (associatedEntity != null) {
+                entityNames.add(associatedEntity.getName());
+            }
+            Object nested = normalize(associationQuery.getCriteria(), entityNames);
+            return nested == null ? null : Arrays.asList(type, associationQuery.getAssociation().getName(), nested);
+        }
+        if (criterion instanceof Query.Junction) {
+            List<Query.Criterion> children = ((Query.Junction) criterion).getCriteria();
+            List<Object> normalized = new ArrayList<>(children.size() + 1);
+            normalized.add(type);
+            for (Query.Criterion child : children) {
+                Object nested = normalize(child, entityNames);
+                if (nested == null) {
+                    return null;
+                }
+                normalized.add(nested);
+            }
+            return normalized;
+        }
+        if (criterion instanceof FunctionCallingCriterion) {
+            FunctionCallingCriterion functionCall = (FunctionCallingCriterion) criterion;
+            Object nested = normalize(functionCall.getPropertyCriterion(), entityNames);
+            return nested == null ? null : Arrays.asList(type, functionCall.getProperty(), functionCall.getFunctionName(), functionCall.isOnValue(), nested);
+        }
+        if (criterion instanceof Query.Between) {
+            Query.Between between = (Query.Between) criterion;
+            return Arrays.asList(type, between.getProperty(), between.getFrom(), between.getTo());
+        }
+        if (criterion instanceof Query.In) {
+            Query.In in = (Query.In) criterion;
+            if (in.getSubquery() != null) {
+                return null;
+            }
+            return Arrays.asList(type, in.getProperty(), new ArrayList<Object>(in.getValues()));
+        }
+        if (criterion instanceof Query.SubqueryCriterion) {
+            return null;
+        }
+        if (criterion instanceof Query.PropertyCriterion) {
+            Query.PropertyCriterion propertyCriterion = (Query.PropertyCriterion) criterion;
+            Object value = propertyCriterion.getValue();
+            if (value instanceof QueryableCriteria) {
+                return null;
+            }
+            if (value instanceof Collection) {
+                value = new ArrayList<Object>((Collection) value);
+            }
+            return Arrays.asList(type, propertyCriterion.getProperty(), value);
+        }
+        if (criterion instanceof Query.PropertyComparisonCriterion) {
+            Query.PropertyComparisonCriterion comparison = (Query.PropertyComparisonCriterion) criterion;
+            return Arrays.asList(type, comparison.getProperty(), comparison.getOtherProperty());
+        }
+        if (criterion.getClass() == Query.IsNull.class || criterion.getClass() == Query.IsNotNull.class ||
+                criterion.getClass() == Query.IsEmpty.class || criterion.getClass() == Query.IsNotEmpty.class) {
+            return Arrays.asList(type, ((Query.PropertyNameCriterion) criterion).getProperty());
+        }
+        // unknown criterion types (including exists subqueries) cannot be safely normalized
+        return null;
+    }
+
+    /**
+     * @return The name of the entity being queried
+     */
+    public String getEntityName() {
+        return entityName;
+    }
+
+    /**
+     * @return The names of all the entities whose modification invalidates results stored under this key
+     */
+    public Set<String> getEntityNames() {
+        return entityNames;
+    }
+
+    /**
+     * @return Whether the query uses projections, in which case the raw results are cached rather than identifiers
+     */
+    public boolean isProjection() {
+        return projection;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof QueryCacheKey)) return false;
+        QueryCacheKey that = (QueryCacheKey) o;
+        return hashCode == that.hashCode && entityName.equals(that.entityName) && shape.equals(that.shape);
+    }
+
+    @Override
+    public int hashCode() {
+        return hashCode;
+    }
+
+    @Override
+    public String toString() {
+        return entityName + ':' + shape;
+    }
+}
@@ -0,0 +1,74 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.cache;
+
+import org.grails.datastore.mapping.model.PersistentEntity;
+
+import java.util.List;
+
+/**
+ * <p>
+ * A cache for the results of queries that have been marked as cacheable via {@link org.grails.datastore.mapping.query.Query#cache(boolean)}.
+ * For queries returning entities only the identifiers are cached and the entities themselves are resolved through the session,
+ * for projection queries the projected values are cached.
+ * </p>
+ * <p>
+ * Invalidation is timestamp based: each modification of an entity type advances a timestamp for that type and any
+ * result cached before that timestamp for a query depending on the type is considered stale. Callers should obtain
+ * the current timestamp via {@link #getTimestamp()} <b>before</b> executing the query and pass it to
+ * {@link #put(QueryCacheKey, List, long)} so that modifications made while the query executes are not missed.
+ * </p>
+ * <p>
+ * Concurrency: implementations must be thread-safe.
+ * </p>
+ *
+ * @since 9.0
+ */
+public interface QueryResultCache {
+
+    /**
+     * @return The current timestamp of the cache, to be obtained before the query to be cached executes
+     */
+    long getTimestamp();
+
+    /**
+     * Obtains the cached results for the given key
+     *
+     * @param key The key
+     * @return The cached results or null if there are none or they have been invalidated
+     */
+    List get(QueryCacheKey key);
+
+    /**
+     * Stores results for the given key
+     *
+     * @param key The key
+     * @param results The identifiers or projected values to cache
+     * @param timestamp The timestamp obtained from {@link #getTimestamp()} before the query executed
+     */
+    void put(QueryCacheKey key, List results, long timestamp);
+
+    /**
+     * Invalidates all results of queries depending on the given entity or one of its parent entities
+     *
+     * @param entity The entity that was modified
+     */
+    void invalidate(PersistentEntity entity);
+
+    /**
+     * Removes all cached results
+     */
+    void clear();
+}
@@ -0,0 +1,30 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.cache;
+
+import org.grails.datastore.mapping.core.Datastore;
+
+/**
+ * A {@link Datastore} that is capable of caching the results of cacheable queries
+ *
+ * @since 9.0
+ */
+public interface QueryResultCacheCapableDatastore extends Datastore {
+
+    /**
+     * @return The query result cache or null if query caching is disabled
+     */
+    QueryResultCache getQueryResultCache();
+}
@@ -49,4 +49,26 @@ public interface TPCacheAdapter<T> {
      * @throws CacheException runtime exception indicating any cache-related problems
      */
     T getCachedEntry(Serializable key) throws CacheException;
+
+    /**
+     * Removes the entry stored for the specified key, if any. Invoked when an entity is deleted so that stale
+     * native entries are not served from the cache.
+     * <p>
+     * The default implementation does nothing for backwards compatibility with adapters written against
+     * earlier versions of this interface.
+     * </p>
+     * @param key the entry key
+     * @throws CacheException runtime exception indicating any cache-related problems
+     */
+    default void evictEntry(Serializable key) throws CacheException {
+        // no-op by default
+    }
+
+    /**
+     * Removes all entries held by this adapter.
+     * @throws CacheException runtime exception indicating any cache-related problems
+     */
+    default void clear() throws CacheException {
+        // no-op by default
+    }
 }
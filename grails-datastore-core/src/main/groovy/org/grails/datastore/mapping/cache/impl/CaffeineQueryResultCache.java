@@ -0,0 +1,134 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.cache.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.grails.datastore.mapping.cache.QueryCacheKey;
+import org.grails.datastore.mapping.cache.QueryResultCache;
+import org.grails.datastore.mapping.model.PersistentEntity;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * A bounded {@link QueryResultCache} backed by a Caffeine cache.
+ *
+ * @since 9.0
+ */
+@SuppressWarnings("rawtypes")
+public class CaffeineQueryResultCache implements QueryResultCache {
+
+    /**
+     * The default maximum number of cached query results
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 1000;
+
+    private final Cache<QueryCacheKey, CachedResults> cache;
+    private final AtomicLong clock = new AtomicLong();
+    private final Map<String, Long> lastModified = new ConcurrentHashMap<>();
+
+    public CaffeineQueryResultCache() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * @param maximumSize The maximum number of cached query results
+     */
+    public CaffeineQueryResultCache(long maximumSize) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .recordStats()
+                .build();
+    }
+
+    @Override
+    public long getTimestamp() {
+        return clock.get();
+    }
+
+    @Override
+    public List get(QueryCacheKey key) {
+        CachedResults cached = cache.getIfPresent(key);
+        if (cached == null) {
+            return null;
+        }
+        for (String entityName : key.getEntityNames()) {
+            Long modified = lastModified.get(entityName);
+            if (modified != null && modified > cached.timestamp) {
+                cache.invalidate(key);
+                return null;
+            }
+        }
+        return cached.results;
+    }
+
+    @Override
+    public void put(QueryCacheKey key, List results, long timestamp) {
+        if (key == null || results == null) {
+            return;
+        }
+        cache.put(key, new CachedResults(Collections.unmodifiableList(new ArrayList(results)), timestamp));
+    }
+
+    @Override
+    public void invalidate(PersistentEntity entity) {
+        long now = clock.incrementAndGet();
+        while (entity != null) {
+            lastModified.put(entity.getName(), now);
+            entity = entity.getParentEntity();
+        }
+    }
+
+    @Override
+    public void clear() {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return The approximate number of cached query results
+     */
+    public long getEstimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * @return The number of lookups that found results, including results later found to be stale
+     */
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * @return The number of lookups that did not find results
+     */
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    private static class CachedResults {
+        final List results;
+        final long timestamp;
+
+        CachedResults(List results, long timestamp) {
+            this.results = results;
+            this.timestamp = timestamp;
+        }
+    }
+}
@@ -0,0 +1,189 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.cache.impl;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.grails.datastore.mapping.cache.TPCacheAdapter;
+import org.grails.datastore.mapping.cache.exception.CacheException;
+
+import java.io.Serializable;
+import java.time.Duration;
+import java.util.function.ToIntFunction;
+
+/**
+ * A bounded implementation of {@link TPCacheAdapter} backed by a Caffeine cache.
+ *
+ * <p>
+ * Entries are evicted using Caffeine's W-TinyLFU policy once the configured maximum size (entry count) or
+ * maximum weight (estimated bytes) is exceeded, and can optionally expire after a fixed time since they were
+ * written or last accessed. Hit, miss and eviction counts are recorded and can be read through the statistics
+ * accessors.
+ * </p>
+ *
+ * @since 9.0
+ */
+public class CaffeineTPCacheAdapter<T> implements TPCacheAdapter<T> {
+
+    /**
+     * The default maximum number of entries held per entity
+     */
+    public static final long DEFAULT_MAXIMUM_SIZE = 10000;
+
+    private final Cache<Serializable, T> cache;
+
+    /**
+     * Creates a cache adapter holding at most {@link #DEFAULT_MAXIMUM_SIZE} entries
+     */
+    public CaffeineTPCacheAdapter() {
+        this(DEFAULT_MAXIMUM_SIZE);
+    }
+
+    /**
+     * Creates a cache adapter holding at most the given number of entries
+     *
+     * @param maximumSize The maximum number of entries
+     */
+    public CaffeineTPCacheAdapter(long maximumSize) {
+        this(maximumSize, null, null);
+    }
+
+    /**
+     * Creates a cache adapter holding at most the given number of entries
+     *
+     * @param maximumSize The maximum number of entries
+     * @param expireAfterWrite The time after which an entry expires once written, or null if entries should not expire
+     * @param expireAfterAccess The time after which an entry expires once last read or written, or null if entries should not expire
+     */
+    public CaffeineTPCacheAdapter(long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess) {
+        this(CaffeineTPCacheAdapter.<T>buildCache(maximumSize, expireAfterWrite, expireAfterAccess));
+    }
+
+    /**
+     * Creates a cache adapter bounded by the estimated size in bytes of the entries it holds
+     *
+     * @param maximumBytes The maximum total estimated size of all entries
+     * @param sizeEstimator Estimates the size in bytes of a single entry
+     * @param expireAfterWrite The time after which an entry expires once written, or null if entries should not expire
+     * @param expireAfterAccess The time after which an entry expires once last read or written, or null if entries should not expire
+     */
+    public CaffeineTPCacheAdapter(long maximumBytes, ToIntFunction<T> sizeEstimator, Duration expireAfterWrite, Duration expireAfterAccess) {
+        this(buildWeightedCache(maximumBytes, sizeEstimator, expireAfterWrite, expireAfterAccess));
+    }
+
+    private CaffeineTPCacheAdapter(Cache<Serializable, T> cache) {
+        this.cache = cache;
+    }
+
+    @Override
+    public void cacheEntry(Serializable key, T entry) throws CacheException {
+        if (key == null) {
+            return;
+        }
+        if (entry == null) {
+            cache.invalidate(key);
+        }
+        else {
+            cache.put(key, entry);
+        }
+    }
+
+    @Override
+    public T getCachedEntry(Serializable key) throws CacheException {
+        if (key == null) {
+            return null;
+        }
+        return cache.getIfPresent(key);
+    }
+
+    @Override
+    public void evictEntry(Serializable key) throws CacheException {
+        if (key != null) {
+            cache.invalidate(key);
+        }
+    }
+
+    @Override
+    public void clear() throws CacheException {
+        cache.invalidateAll();
+    }
+
+    /**
+     * @return The approximate number of entries currently held
+     */
+    public long getEstimatedSize() {
+        return cache.estimatedSize();
+    }
+
+    /**
+     * @return The number of lookups that returned a cached entry
+     */
+    public long getHitCount() {
+        return cache.stats().hitCount();
+    }
+
+    /**
+     * @return The number of lookups that did not find a cached entry
+     */
+    public long getMissCount() {
+        return cache.stats().missCount();
+    }
+
+    /**
+     * @return The ratio of hits to lookups, or 1.0 if there have been no lookups
+     */
+    public double getHitRate() {
+        return cache.stats().hitRate();
+    }
+
+    /**
+     * @return The number of entries evicted due to size or expiry constraints
+     */
+    public long getEvictionCount() {
+        return cache.stats().evictionCount();
+    }
+
+    /**
+     * Performs any pending maintenance such as evictions and expirations. Mainly useful for tests since
+     * maintenance is otherwise performed incrementally during reads and writes.
+     */
+    public void cleanUp() {
+        cache.cleanUp();
+    }
+
+    private static <T> Cache<Serializable, T> buildCache(long maximumSize, Duration expireAfterWrite, Duration expireAfterAccess) {
+        Caffeine<Object, Object> builder = Caffeine.newBuilder()
+                .maximumSize(maximumSize);
+        configureExpiry(builder, expireAfterWrite, expireAfterAccess);
+        return builder.recordStats().build();
+    }
+
+    private static <T> Cache<Serializable, T> buildWeightedCache(long maximumBytes, ToIntFunction<T> sizeEstimator, Duration expireAfterWrite, Duration expireAfterAccess) {
+        Caffeine<Serializable, T> builder = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((Serializable key, T value) -> Math.max(0, sizeEstimator.applyAsInt(value)));
+        configureExpiry(builder, expireAfterWrite, expireAfterAccess);
+        return builder.recordStats().build();
+    }
+
+    private static void configureExpiry(Caffeine<?, ?> builder, Duration expireAfterWrite, Duration expireAfterAccess) {
+        if (expireAfterWrite != null) {
+            builder.expireAfterWrite(expireAfterWrite);
+        }
+        if (expireAfterAccess != null) {
+            builder.expireAfterAccess(expireAfterAccess);
+        }
+    }
+}
@@ -0,0 +1,100 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.cache.impl;
+
+import org.grails.datastore.mapping.cache.TPCacheAdapter;
+import org.grails.datastore.mapping.cache.TPCacheAdapterRepository;
+import org.grails.datastore.mapping.model.PersistentEntity;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * A {@link TPCacheAdapterRepository} that lazily creates a bounded {@link CaffeineTPCacheAdapter} for each entity
+ * the first time it is requested. Entities that need different limits can be registered explicitly through
+ * {@link #setMaximumSize(String, long)} or one of the <code>setTPCacheAdapter</code> methods.
+ *
+ * @since 9.0
+ */
+public class CaffeineTPCacheAdapterRepository<T> implements TPCacheAdapterRepository<T> {
+
+    private final Map<String, TPCacheAdapter<T>> adapters = new ConcurrentHashMap<>();
+    private final Map<String, Long> maximumSizes = new ConcurrentHashMap<>();
+    private final long defaultMaximumSize;
+    private final Duration expireAfterWrite;
+    private final Duration expireAfterAccess;
+
+    public CaffeineTPCacheAdapterRepository() {
+        this(CaffeineTPCacheAdapter.DEFAULT_MAXIMUM_SIZE, null, null);
+    }
+
+    /**
+     * @param defaultMaximumSize The maximum number of entries cached for each entity
+     * @param expireAfterWrite The time after which an entry expires once written, or null if entries should not expire
+     * @param expireAfterAccess The time after which an entry expires once last read or written, or null if entries should not expire
+     */
+    public CaffeineTPCacheAdapterRepository(long defaultMaximumSize, Duration expireAfterWrite, Duration expireAfterAccess) {
+        this.defaultMaximumSize = defaultMaximumSize;
+        this.expireAfterWrite = expireAfterWrite;
+        this.expireAfterAccess = expireAfterAccess;
+    }
+
+    /**
+     * Overrides the maximum number of entries cached for the given entity. Must be called before the adapter
+     * for the entity is first requested.
+     *
+     * @param entityJavaClassFQN equivalent to {@link PersistentEntity#getJavaClass()}.getName()
+     * @param maximumSize The maximum number of entries
+     */
+    public void setMaximumSize(String entityJavaClassFQN, long maximumSize) {
+        maximumSizes.put(entityJavaClassFQN, maximumSize);
+    }
+
+    @Override
+    public TPCacheAdapter<T> getTPCacheAdapter(PersistentEntity entity) {
+        if (entity == null) {
+            return null;
+        }
+
+        return adapters.computeIfAbsent(entity.getJavaClass().getName(), this::createCacheAdapter);
+    }
+
+    @Override
+    public void setTPCacheAdapter(PersistentEntity entity, TPCacheAdapter<T> cacheAdapter) {
+        setTPCacheAdapter(entity.getJavaClass(), cacheAdapter);
+    }
+
+    @Override
+    public void setTPCacheAdapter(@SuppressWarnings("rawtypes") Class entityJavaClass, TPCacheAdapter<T> cacheAdapter) {
+        setTPCacheAdapter(entityJavaClass.getName(), cacheAdapter);
+    }
+
+    @Override
+    public void setTPCacheAdapter(String entityJavaClassFQN, TPCacheAdapter<T> cacheAdapter) {
+        adapters.put(entityJavaClassFQN, cacheAdapter);
+    }
+
+    /**
+     * Creates the cache adapter for the given entity. Subclasses can override to customize the cache per entity.
+     *
+     * @param entityJavaClassFQN The entity class name
+     * @return The cache adapter
+     */
+    protected TPCacheAdapter<T> createCacheAdapter(String entityJavaClassFQN) {
+        long maximumSize = maximumSizes.getOrDefault(entityJavaClassFQN, defaultMaximumSize);
+        return new CaffeineTPCacheAdapter<>(maximumSize, expireAfterWrite, expireAfterAccess);
+    }
+}
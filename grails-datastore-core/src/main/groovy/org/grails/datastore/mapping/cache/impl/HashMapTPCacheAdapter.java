@@ -10,7 +10,9 @@ import java.util.concurrent.ConcurrentHashMap;
  * Simple implementation of {@link org.grails.datastore.mapping.cache.TPCacheAdapter} backed by a local hash map.
  *
  * @author Roman Stepanenko
+ * @deprecated This cache is unbounded and never evicts. Use {@link CaffeineTPCacheAdapter} instead
  */
+@Deprecated
 public class HashMapTPCacheAdapter<T> implements TPCacheAdapter<T> {
     public void cacheEntry(Serializable key, T entry) throws CacheException {
         cache.put(key, entry);
@@ -20,5 +22,15 @@ public class HashMapTPCacheAdapter<T> implements TPCacheAdapter<T> {
         return cache.get(key);
     }
 
+    @Override
+    public void evictEntry(Serializable key) throws CacheException {
+        cache.remove(key);
+    }
+
+    @Override
+    public void clear() throws CacheException {
+        cache.clear();
+    }
+
     private ConcurrentHashMap<Object, T> cache = new ConcurrentHashMap<Object, T>();
 }
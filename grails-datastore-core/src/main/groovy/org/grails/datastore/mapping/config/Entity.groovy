@@ -71,6 +71,12 @@ class Entity<P extends Property> {
      */
     boolean version = true
 
+    /**
+     * @return The number of uninitialized proxies and collection elements of this entity loaded together when one of
+     * them is initialized, or null to use the default of the datastore
+     */
+    Integer batchSize = null
+
     /**
      * @return The property configurations
      */
@@ -54,6 +54,77 @@ public interface Settings {
      * The multi tenancy resolver class
      */
     String SETTING_MULTI_TENANT_RESOLVER = PREFIX + '.' + "multiTenancy.tenantResolver";
+
+    /**
+     * Whether the results of queries marked as cacheable should be cached
+     */
+    String SETTING_QUERY_CACHE_ENABLED = PREFIX + '.' + "queryCache.enabled";
+
+    /**
+     * The maximum number of cached query results
+     */
+    String SETTING_QUERY_CACHE_MAX_SIZE = PREFIX + '.' + "queryCache.maxSize";
+
+    /**
+     * The maximum number of pending operations of an entity passed to its persister in a single batch on flush
+     */
+    String SETTING_FLUSH_BATCH_SIZE = PREFIX + '.' + "flush.batchSize";
+
+    /**
+     * The maximum number of instances of an entity held by the first level cache of a session
+     */
+    String SETTING_SESSION_CACHE_MAX_SIZE = PREFIX + '.' + "session.cache.maxSize";
+
+    /**
+     * How clean instances are referenced by the first level cache of a session (strong, weak or soft)
+     */
+    String SETTING_SESSION_CACHE_REFERENCES = PREFIX + '.' + "session.cache.references";
+
+    /**
+     * Whether clean instances are evicted from the first level cache after the session is flushed
+     */
+    String SETTING_SESSION_CACHE_EVICT_AFTER_FLUSH = PREFIX + '.' + "session.cache.evictAfterFlush";
+
+    /**
+     * Whether read-only sessions keep loaded instances in their first level cache. Disable it for sessions that only read projections or
+     * never load the same instance twice.
+     */
+    String SETTING_SESSION_READ_ONLY_IDENTITY_MAP = PREFIX + '.' + "session.readOnly.identityMap";
+
+    /**
+     * The default number of lazy proxies and collection elements of the same type loaded together when one of them is initialized
+     */
+    String SETTING_BATCH_FETCH_SIZE = PREFIX + '.' + "fetch.batchSize";
+
+    /**
+     * The time in milliseconds after which an unused connection source created on demand is closed
+     */
+    String SETTING_CONNECTION_SOURCES_IDLE_TIMEOUT = PREFIX + '.' + "connectionSources.idleTimeout";
+
+    /**
+     * The maximum number of connection sources created on demand that are open at once
+     */
+    String SETTING_CONNECTION_SOURCES_MAX_OPEN = PREFIX + '.' + "connectionSources.maxOpen";
+
+    /**
+     * The executor running asynchronous GORM work (fixed, virtual or common)
+     */
+    String SETTING_ASYNC_EXECUTOR = PREFIX + '.' + "async.executor";
+
+    /**
+     * The number of threads of the fixed executor running asynchronous GORM work
+     */
+    String SETTING_ASYNC_POOL_SIZE = PREFIX + '.' + "async.poolSize";
+
+    /**
+     * The maximum number of sessions opened by asynchronous GORM work at once
+     */
+    String SETTING_ASYNC_MAX_SESSIONS = PREFIX + '.' + "async.maxSessions";
+
+    /**
+     * The maximum number of units of asynchronous GORM work waiting for a session before further work is rejected
+     */
+    String SETTING_ASYNC_MAX_QUEUE_DEPTH = PREFIX + '.' + "async.maxQueueDepth";
     /**
      * The data sources setting
      */
@@ -18,14 +18,19 @@ import groovy.lang.Closure;
 import groovy.lang.GroovySystem;
 import groovy.lang.MetaClassRegistry;
 import groovy.util.ConfigObject;
+import org.grails.datastore.mapping.cache.QueryResultCache;
+import org.grails.datastore.mapping.cache.QueryResultCacheCapableDatastore;
 import org.grails.datastore.mapping.cache.TPCacheAdapterRepository;
 import org.grails.datastore.mapping.config.Property;
+import org.grails.datastore.mapping.config.Settings;
+import org.grails.datastore.mapping.engine.event.DatastoreShutdownEvent;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
 import org.grails.datastore.mapping.model.PropertyMapping;
 import org.grails.datastore.mapping.model.types.BasicTypeConverterRegistrar;
 import org.grails.datastore.mapping.reflect.ClassPropertyFetcher;
+import org.grails.datastore.mapping.query.jpa.JpaQueryBuilder;
 import org.grails.datastore.mapping.reflect.FieldEntityAccess;
 import org.grails.datastore.mapping.services.DefaultServiceRegistry;
 import org.grails.datastore.mapping.services.Service;
@@ -53,7 +58,7 @@ import java.util.Map;
  * @since 1.0
  */
 @SuppressWarnings({"rawtypes", "unchecked"})
-public abstract class AbstractDatastore implements Datastore, StatelessDatastore, ServiceRegistry {
+public abstract class AbstractDatastore implements Datastore, StatelessDatastore, ServiceRegistry, QueryResultCacheCapableDatastore {
     protected static final Logger LOG = LoggerFactory.getLogger(AbstractDatastore.class);
     private ApplicationContext applicationContext;
 
@@ -61,6 +66,11 @@ public abstract class AbstractDatastore implements Datastore, StatelessDatastore
     protected final ServiceRegistry serviceRegistry;
     protected final PropertyResolver connectionDetails;
     protected final TPCacheAdapterRepository cacheAdapterRepository;
+    protected QueryResultCache queryResultCache;
+    protected int flushBatchSize = AbstractSession.DEFAULT_FLUSH_BATCH_SIZE;
+    protected FirstLevelCachePolicy firstLevelCachePolicy = FirstLevelCachePolicy.UNBOUNDED;
+    protected int batchFetchSize = 0;
+    protected boolean readOnlyIdentityMap = true;
 
 
     public AbstractDatastore(MappingContext mappingContext) {
@@ -83,6 +93,12 @@ public abstract class AbstractDatastore implements Datastore, StatelessDatastore
         this.connectionDetails = connectionDetails;
         setApplicationContext(ctx);
         this.cacheAdapterRepository = cacheAdapterRepository;
+        if (connectionDetails != null) {
+            this.flushBatchSize = connectionDetails.getProperty(Settings.SETTING_FLUSH_BATCH_SIZE, Integer.class, AbstractSession.DEFAULT_FLUSH_BATCH_SIZE);
+            this.firstLevelCachePolicy = FirstLevelCachePolicy.fromConfiguration(connectionDetails);
+            this.batchFetchSize = connectionDetails.getProperty(Settings.SETTING_BATCH_FETCH_SIZE, Integer.class, 0);
+            this.readOnlyIdentityMap = connectionDetails.getProperty(Settings.SETTING_SESSION_READ_ONLY_IDENTITY_MAP, Boolean.class, true);
+        }
         DefaultServiceRegistry defaultServiceRegistry = new DefaultServiceRegistry(this);
         this.serviceRegistry = defaultServiceRegistry;
         defaultServiceRegistry.initialize();
@@ -109,7 +125,12 @@ public abstract class AbstractDatastore implements Datastore, StatelessDatastore
 
     @PreDestroy
     public void destroy() {
+        ApplicationEventPublisher applicationEventPublisher = getApplicationEventPublisher();
+        if (applicationEventPublisher != null) {
+            applicationEventPublisher.publishEvent(new DatastoreShutdownEvent(this));
+        }
         FieldEntityAccess.clearReflectors();
+        JpaQueryBuilder.clearQueryCache();
         final MetaClassRegistry registry = GroovySystem.getMetaClassRegistry();
         for (PersistentEntity persistentEntity : getMappingContext().getPersistentEntities()) {
             final Class cls = persistentEntity.getJavaClass();
@@ -121,6 +142,81 @@ public abstract class AbstractDatastore implements Datastore, StatelessDatastore
         }
     }
 
+    @Override
+    public QueryResultCache getQueryResultCache() {
+        return queryResultCache;
+    }
+
+    /**
+     * Sets the cache used to store the results of cacheable queries. Datastores setting a cache are responsible for
+     * registering a {@link org.grails.datastore.mapping.cache.QueryResultCacheEventListener} so that results are invalidated on modification.
+     *
+     * @param queryResultCache The query result cache or null to disable query caching
+     */
+    public void setQueryResultCache(QueryResultCache queryResultCache) {
+        this.queryResultCache = queryResultCache;
+    }
+
+    /**
+     * @return The maximum number of pending operations of an entity passed to its persister in a single batch when
+     * sessions created by this datastore are flushed
+     */
+    public int getFlushBatchSize() {
+        return flushBatchSize;
+    }
+
+    /**
+     * @param flushBatchSize The maximum number of pending operations of an entity passed to its persister in a single
+     * batch when sessions created by this datastore are flushed. A value less than one means there is no limit.
+     */
+    public void setFlushBatchSize(int flushBatchSize) {
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    /**
+     * @return The policy of the first level cache of sessions created by this datastore
+     */
+    public FirstLevelCachePolicy getFirstLevelCachePolicy() {
+        return firstLevelCachePolicy;
+    }
+
+    /**
+     * @param firstLevelCachePolicy The policy of the first level cache of sessions created by this datastore
+     */
+    public void setFirstLevelCachePolicy(FirstLevelCachePolicy firstLevelCachePolicy) {
+        this.firstLevelCachePolicy = firstLevelCachePolicy != null ? firstLevelCachePolicy : FirstLevelCachePolicy.UNBOUNDED;
+    }
+
+    /**
+     * @return The default number of lazy proxies and collection elements of the same type loaded together when one
+     * of them is initialized by sessions created by this datastore
+     */
+    public int getBatchFetchSize() {
+        return batchFetchSize;
+    }
+
+    /**
+     * @param batchFetchSize The default number of lazy proxies and collection elements of the same type loaded
+     * together when one of them is initialized. A value less than two disables batch fetching.
+     */
+    public void setBatchFetchSize(int batchFetchSize) {
+        this.batchFetchSize = batchFetchSize;
+    }
+
+    /**
+     * @return Whether read-only sessions created by this datastore keep loaded instances in their first level cache
+     */
+    public boolean isReadOnlyIdentityMap() {
+        return readOnlyIdentityMap;
+    }
+
+    /**
+     * @param readOnlyIdentityMap Whether read-only sessions created by this datastore keep loaded instances in their first level cache
+     */
+    public void setReadOnlyIdentityMap(boolean readOnlyIdentityMap) {
+        this.readOnlyIdentityMap = readOnlyIdentityMap;
+    }
+
     public void setApplicationContext(ApplicationContext ctx) {
         applicationContext = ctx;
     }
@@ -15,13 +15,16 @@
 package org.grails.datastore.mapping.core;
 
 import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
 import com.github.benmanes.caffeine.cache.RemovalListener;
 import org.grails.datastore.mapping.cache.TPCacheAdapterRepository;
 import org.grails.datastore.mapping.config.Entity;
+import org.grails.datastore.mapping.core.connections.ReplicaRouter;
 import org.grails.datastore.mapping.core.impl.*;
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable;
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckingSupport;
 import org.grails.datastore.mapping.engine.*;
+import org.grails.datastore.mapping.model.ClassMapping;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
@@ -34,6 +37,7 @@ import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.core.convert.ConversionFailedException;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.InvalidDataAccessApiUsageException;
 import org.springframework.dao.InvalidDataAccessResourceUsageException;
 import org.springframework.transaction.NoTransactionException;
 import org.springframework.transaction.TransactionDefinition;
@@ -61,6 +65,11 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
 
     public static final String ENTITY_ACCESS = "org.grails.gorm.ENTITY_ACCESS";
 
+    /**
+     * The default maximum number of pending operations of an entity passed to its persister in a single batch
+     */
+    public static final int DEFAULT_FLUSH_BATCH_SIZE = 500;
+
     private static final RemovalListener<PersistentEntity, Collection<PendingInsert>> EXCEPTION_THROWING_INSERT_LISTENER =
             (key, value, cause) -> {
                 if (cause.wasEvicted()) {
@@ -93,6 +102,8 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
     protected Map<Class, Map<Serializable, Object>> firstLevelCache = new ConcurrentHashMap<>();
     protected Map<Class, Map<Serializable, Object>> firstLevelEntryCache = new ConcurrentHashMap<>();
     protected Map<Class, Map<Serializable, Object>> firstLevelEntryCacheDirtyCheck = new ConcurrentHashMap<>();
+    // strong references to the instances that may not be released while the first level cache holds weak or soft references
+    private final Map<Class, Map<Serializable, Object>> pinnedInstances = new ConcurrentHashMap<>();
     protected Map<CollectionKey, Collection> firstLevelCollectionCache = new ConcurrentHashMap<>();
 
     protected TPCacheAdapterRepository cacheAdapterRepository;
@@ -121,7 +132,13 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
     protected ApplicationEventPublisher publisher;
 
     protected boolean stateless = false;
+    protected boolean readOnly = false;
+    protected boolean readOnlyIdentityMap = true;
     protected boolean flushActive = false;
+    protected int flushBatchSize = DEFAULT_FLUSH_BATCH_SIZE;
+    protected FirstLevelCachePolicy firstLevelCachePolicy = FirstLevelCachePolicy.UNBOUNDED;
+    protected int batchFetchSize = 0;
+    private final BatchFetchRegistry batchFetchRegistry = new BatchFetchRegistry();
 
 
     public AbstractSession(Datastore datastore, MappingContext mappingContext,
@@ -135,6 +152,12 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         this.datastore = datastore;
         this.publisher = publisher;
         this.stateless = stateless;
+        if (datastore instanceof AbstractDatastore) {
+            this.flushBatchSize = ((AbstractDatastore) datastore).getFlushBatchSize();
+            this.firstLevelCachePolicy = ((AbstractDatastore) datastore).getFirstLevelCachePolicy();
+            this.batchFetchSize = ((AbstractDatastore) datastore).getBatchFetchSize();
+            this.readOnlyIdentityMap = ((AbstractDatastore) datastore).isReadOnlyIdentityMap();
+        }
     }
 
     public AbstractSession(Datastore datastore, MappingContext mappingContext,
@@ -154,9 +177,42 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         return this.datastore.isSchemaless();
     }
 
+    /**
+     * A read-only session that does not keep an identity map behaves like a stateless session
+     */
     @Override
     public boolean isStateless() {
-        return this.stateless;
+        return this.stateless || (this.readOnly && !this.readOnlyIdentityMap);
+    }
+
+    @Override
+    public boolean isReadOnly() {
+        return readOnly;
+    }
+
+    /**
+     * Makes the session read-only. While it is read-only the session does not keep the snapshots of native entries used for dirty
+     * checking, loaded instances do not track changes and flushing pending inserts, updates or deletes throws an exception.
+     *
+     * @param readOnly Whether the session is read-only
+     */
+    @Override
+    public void setReadOnly(boolean readOnly) {
+        this.readOnly = readOnly;
+    }
+
+    /**
+     * @return Whether the session keeps loaded instances in its first level cache while it is read-only
+     */
+    public boolean isReadOnlyIdentityMap() {
+        return readOnlyIdentityMap;
+    }
+
+    /**
+     * @param readOnlyIdentityMap Whether the session keeps loaded instances in its first level cache while it is read-only
+     */
+    public void setReadOnlyIdentityMap(boolean readOnlyIdentityMap) {
+        this.readOnlyIdentityMap = readOnlyIdentityMap;
     }
 
     public void addPostFlushOperation(Runnable runnable) {
@@ -257,7 +313,10 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             return;
         }
 
-        cacheEntry(key, entry, getEntryCache(entity.getJavaClass(), true), true);
+        if (!readOnly) {
+            // read-only sessions never flush updates, so they do not need the snapshot used for dirty checking
+            cacheEntry(key, entry, getEntryCache(entity.getJavaClass(), true), true);
+        }
         cacheEntry(key, entry, getEntryCache(entity.getJavaClass(), false), false);
     }
 
@@ -333,6 +392,10 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             flushActive = true;
 
             hasInserts = hasUpdates();
+            if (hasInserts && readOnly) {
+                throw new InvalidDataAccessApiUsageException(
+                        "Cannot flush a read-only Session with pending inserts, updates or deletes");
+            }
             if (hasInserts) {
                 flushPendingInserts(pendingInserts);
                 flushPendingUpdates(pendingUpdates);
@@ -341,20 +404,30 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
                 firstLevelCollectionCache.clear();
 
                 executePendings(postFlushOperations);
+
+                // reads that follow the write, also outside of a transaction, must not be routed to a replica
+                ReplicaRouter.pinToPrimary(this);
             }
 
         } finally {
             clearPendingOperations();
             flushActive = false;
         }
+        if (hasInserts) {
+            applyFirstLevelCachePolicyAfterFlush();
+        }
         postFlush(hasInserts);
     }
 
+    /**
+     * Flushes the pending deletes in batches of at most {@link #getFlushBatchSize()} operations per entity, children
+     * before the entities they reference.
+     *
+     * @param pendingDeletes The delete operations
+     * @see EntityPersister#executeDeleteBatch(PersistentEntity, List)
+     */
     protected void flushPendingDeletes(Map<PersistentEntity, Collection<PendingDelete>> pendingDeletes) {
-        final Collection<Collection<PendingDelete>> deletes = pendingDeletes.values();
-        for (Collection<PendingDelete> delete : deletes) {
-            flushPendingOperations(delete);
-        }
+        flushInBatches(pendingDeletes, true, (persister, entity, batch) -> persister.executeDeleteBatch(entity, batch));
     }
 
     public boolean isDirty(Object instance) {
@@ -399,42 +472,120 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
 
 
     /**
-     * The default implementation of flushPendingUpdates is to iterate over each update operation
-     * and execute them one by one. This may be suboptimal for stores that support batch update
-     * operations. Subclasses can override this method to implement batch update more efficiently.
+     * The default implementation of flushPendingUpdates groups the update operations per entity and passes them
+     * to {@link EntityPersister#executeUpdateBatch(PersistentEntity, List)} in batches of at most
+     * {@link #getFlushBatchSize()} operations. Persisters for stores that support batch updates can override that
+     * method to write each batch in a single call.
      *
-     * @param updates
+     * @param updates The update operations
      */
     protected void flushPendingUpdates(Map<PersistentEntity, Collection<PendingUpdate>> updates) {
-        for (Collection<PendingUpdate> pending : updates.values()) {
-            flushPendingOperations(pending);
-        }
+        flushInBatches(updates, false, (persister, entity, batch) -> persister.executeUpdateBatch(entity, batch));
     }
 
     /**
-     * The default implementation of flushPendingInserts is to iterate over each insert operations
-     * and execute them one by one. This may be suboptimal for stores that support batch insert
-     * operations. Subclasses can override this method to implement batch insert more efficiently.
+     * The default implementation of flushPendingInserts groups the insert operations per entity and passes them
+     * to {@link EntityPersister#executeBatch(PersistentEntity, List)} in batches of at most
+     * {@link #getFlushBatchSize()} operations. Entities are flushed in dependency order, so that the entities
+     * referenced through to-one associations are inserted before the entities referencing them.
      *
      * @param inserts The insert operations
      */
     protected void flushPendingInserts(Map<PersistentEntity, Collection<PendingInsert>> inserts) {
-        for (Collection<PendingInsert> pending : inserts.values()) {
-            flushPendingOperations(pending);
+        flushInBatches(inserts, false, (persister, entity, batch) -> persister.executeBatch(entity, batch));
+    }
+
+    private <T extends PendingOperation> void flushInBatches(Map<PersistentEntity, Collection<T>> operations, boolean reverse, BatchExecutor<T> executor) {
+        // operations executed during the flush may register pending operations for further entities
+        List<PersistentEntity> entities = entitiesWithPendingOperations(operations);
+        while (!entities.isEmpty()) {
+            List<PersistentEntity> ordered = EntityDependencyOrder.sort(entities);
+            if (reverse) {
+                Collections.reverse(ordered);
+            }
+            for (PersistentEntity entity : ordered) {
+                Collection<T> pending = operations.get(entity);
+                if (pending != null) {
+                    flushInBatches(entity, pending, executor);
+                }
+            }
+            entities = entitiesWithPendingOperations(operations);
         }
     }
 
-    private void flushPendingOperations(Collection operations) {
-        for (Object o : operations) {
-            PendingOperation pendingOperation = (PendingOperation) o;
-            try {
-                PendingOperationExecution.executePendingOperation(pendingOperation);
-            } catch (RuntimeException e) {
-                setFlushMode(FlushModeType.COMMIT);
-                exceptionOccurred = true;
-                throw e;
+    private static <T extends PendingOperation> List<PersistentEntity> entitiesWithPendingOperations(Map<PersistentEntity, Collection<T>> operations) {
+        List<PersistentEntity> entities = new ArrayList<>(operations.size());
+        for (Map.Entry<PersistentEntity, Collection<T>> entry : operations.entrySet()) {
+            if (!entry.getValue().isEmpty()) {
+                entities.add(entry.getKey());
             }
         }
+        return entities;
+    }
+
+    private <T extends PendingOperation> void flushInBatches(PersistentEntity entity, Collection<T> pending, BatchExecutor<T> executor) {
+        Persister persister = getPersister(entity.getJavaClass());
+        EntityPersister entityPersister = persister instanceof EntityPersister ? (EntityPersister) persister : null;
+        int batchSize = flushBatchSize > 0 ? flushBatchSize : Integer.MAX_VALUE;
+        List<T> batch = new ArrayList<>(Math.min(batchSize, 64));
+        try {
+            // executing a batch may queue further operations for the same entity, so the queue is drained until it stays empty
+            while (!pending.isEmpty()) {
+                T operation;
+                while ((operation = nextPending(pending)) != null) {
+                    if (entityPersister == null) {
+                        PendingOperationExecution.executePendingOperation(operation);
+                        continue;
+                    }
+                    batch.add(operation);
+                    if (batch.size() >= batchSize) {
+                        executor.execute(entityPersister, entity, batch);
+                        batch = new ArrayList<>(Math.min(batchSize, 64));
+                    }
+                }
+                if (!batch.isEmpty()) {
+                    executor.execute(entityPersister, entity, batch);
+                    batch = new ArrayList<>(Math.min(batchSize, 64));
+                }
+            }
+        } catch (RuntimeException e) {
+            setFlushMode(FlushModeType.COMMIT);
+            exceptionOccurred = true;
+            throw e;
+        }
+    }
+
+    /**
+     * @return The maximum number of pending operations of an entity passed to its persister in a single batch
+     * on flush. A value less than one means there is no limit.
+     */
+    public int getFlushBatchSize() {
+        return flushBatchSize;
+    }
+
+    /**
+     * @param flushBatchSize The maximum number of pending operations of an entity passed to its persister in a
+     * single batch on flush. A value less than one means there is no limit.
+     */
+    public void setFlushBatchSize(int flushBatchSize) {
+        this.flushBatchSize = flushBatchSize;
+    }
+
+    private static <T> T nextPending(Collection<T> pending) {
+        if (pending instanceof Queue) {
+            return ((Queue<T>) pending).poll();
+        }
+        Iterator<T> iterator = pending.iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+        T operation = iterator.next();
+        iterator.remove();
+        return operation;
+    }
+
+    private interface BatchExecutor<T extends PendingOperation> {
+        void execute(EntityPersister persister, PersistentEntity entity, List<T> batch);
     }
 
     private boolean hasUpdates() {
@@ -459,9 +610,11 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
 
     public void clear() {
         clearMaps(firstLevelCache);
+        clearMaps(pinnedInstances);
         clearMaps(firstLevelEntryCache);
         clearMaps(firstLevelEntryCacheDirtyCheck);
         firstLevelCollectionCache.clear();
+        batchFetchRegistry.clear();
         clearPendingOperations();
         attributes.clear();
         exceptionOccurred = false;
@@ -496,7 +649,7 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             p = createPersister(cls, getMappingContext());
             if (p != null) {
                 if (!isStateless(((EntityPersister) p).getPersistentEntity())) {
-                    firstLevelCache.put(cls, new ConcurrentHashMap<Serializable, Object>());
+                    firstLevelCache.put(cls, createInstanceCache(cls));
                 }
                 persisters.put(cls, p);
             }
@@ -534,6 +687,9 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         }
         if (isStateless(getMappingContext().getPersistentEntity(type.getName()))) return;
         getInstanceCache(type).put(key, instance);
+        if (firstLevelCachePolicy.getReferenceType() != FirstLevelCachePolicy.ReferenceType.STRONG && !isEvictable(instance)) {
+            pin(type, key, instance);
+        }
     }
 
     public Object getCachedInstance(Class type, Serializable key) {
@@ -556,6 +712,8 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
             Serializable key = persister.getObjectIdentifier(o);
             if (key != null) {
                 cache.remove(key);
+                unpin(o.getClass(), key);
+                evictEntries(o.getClass(), key);
             }
         }
         removeAttributesForEntity(o);
@@ -648,6 +806,11 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
 
         Object o = getInstanceCache(type).get(key);
         if (o == null) {
+            if (entity != null && getBatchFetchSize(entity) > 1 && batchFetchRegistry.getPendingCount(type) > 0) {
+                // load the pending siblings of the requested entity in the same batch
+                batchFetchRegistry.remove(type, key);
+                return retrieveAll(type, Collections.singletonList(key)).get(0);
+            }
             o = persister.retrieve(key);
             if (o != null) {
                 cacheObject(key, o);
@@ -683,6 +846,9 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         Object o = getInstanceCache(type).get(key);
         if (o == null) {
             o = persister.proxy(key);
+            if (persister instanceof EntityPersister && getBatchFetchSize(((EntityPersister) persister).getPersistentEntity()) > 1) {
+                batchFetchRegistry.register(type, key);
+            }
         }
 
         return o;
@@ -817,6 +983,14 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
                 toRetrieve.add(serializable);
             }
         }
+        if (toRetrieve.isEmpty()) {
+            return list;
+        }
+        int requested = toRetrieve.size();
+        int batchSize = getBatchFetchSize(p.getPersistentEntity());
+        if (batchSize > requested) {
+            toRetrieve.addAll(batchFetchRegistry.nextBatch(type, batchSize - requested, key -> !cache.containsKey(key)));
+        }
         List<Object> retrieved = p.retrieveAll(toRetrieve);
         Iterator<Serializable> keyIterator = toRetrieve.iterator();
         Map<Serializable, Object> retrievedMap = new HashMap<Serializable, Object>();
@@ -826,6 +1000,11 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
                 retrievedMap.put(identifier, o);
             }
         }
+        // cache the pending siblings loaded in the same batch
+        for (int i = requested; i < toRetrieve.size(); i++) {
+            Serializable key = (Serializable) mappingContext.getConversionService().convert(toRetrieve.get(i), p.getPersistentEntity().getIdentity().getType());
+            cacheInstance(type, key, retrievedMap.get(key));
+        }
         // now fill in the null entries (possibly with more nulls)
         for (int i = 0; i < list.size(); i++) {
             Object o = list.get(i);
@@ -888,7 +1067,7 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
     private Map<Serializable, Object> getInstanceCache(Class c) {
         Map<Serializable, Object> cache = firstLevelCache.get(c);
         if (cache == null) {
-            cache = new ConcurrentHashMap<>();
+            cache = createInstanceCache(c);
             firstLevelCache.put(c, cache);
         }
         return cache;
@@ -898,12 +1077,235 @@ public abstract class AbstractSession<N> extends AbstractAttributeStoringSession
         Map<Class, Map<Serializable, Object>> caches = forDirtyCheck ? firstLevelEntryCacheDirtyCheck : firstLevelEntryCache;
         Map<Serializable, Object> cache = caches.get(c);
         if (cache == null) {
-            cache = new ConcurrentHashMap<>();
+            cache = createEntryCache(forDirtyCheck);
             caches.put(c, cache);
         }
         return cache;
     }
 
+    /**
+     * Creates the cache of the instances of the given type according to the {@link FirstLevelCachePolicy}. Instances
+     * that are evicted or garbage collected have their cached native entries removed as well.
+     *
+     * @param type The type
+     * @return The cache
+     */
+    protected Map<Serializable, Object> createInstanceCache(Class type) {
+        if (!firstLevelCachePolicy.isBounded()) {
+            return new ConcurrentHashMap<>();
+        }
+
+        RemovalListener<Serializable, Object> entryEvictingListener = (Serializable key, Object value, RemovalCause cause) -> {
+            if (cause == RemovalCause.SIZE && value != null && !isEvictable(value)) {
+                // the weight is only computed when an instance is cached, so an instance changed since then is cached
+                // again, which weighs it again, instead of losing its changes
+                Map<Serializable, Object> cache = firstLevelCache.get(type);
+                if (cache != null) {
+                    cache.put(key, value);
+                    if (firstLevelCachePolicy.getReferenceType() != FirstLevelCachePolicy.ReferenceType.STRONG) {
+                        pin(type, key, value);
+                    }
+                    return;
+                }
+            }
+            if (cause.wasEvicted() && key != null) {
+                evictEntries(type, key);
+            }
+        };
+        Caffeine<Serializable, Object> builder = Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .removalListener(entryEvictingListener);
+        switch (firstLevelCachePolicy.getReferenceType()) {
+            case WEAK:
+                builder.weakValues();
+                break;
+            case SOFT:
+                builder.softValues();
+                break;
+            default:
+                break;
+        }
+        int maxSize = firstLevelCachePolicy.getMaxSize();
+        if (maxSize > 0) {
+            // instances that are not evictable weigh nothing, so that they never count towards the limit
+            builder.maximumWeight(maxSize)
+                    .weigher((Serializable key, Object value) -> isEvictable(value) ? 1 : 0);
+        }
+        return builder.build().asMap();
+    }
+
+    /**
+     * Creates the cache of the native entries of a type. The cache of the entries read by queries is bounded by the
+     * maximum size of the {@link FirstLevelCachePolicy}. The entries used for dirty checking are kept as long as their
+     * instance is cached and removed when it is evicted.
+     *
+     * @param forDirtyCheck Whether the cache holds the entries used for dirty checking
+     * @return The cache
+     */
+    protected Map<Serializable, Object> createEntryCache(boolean forDirtyCheck) {
+        int maxSize = firstLevelCachePolicy.getMaxSize();
+        if (maxSize < 1 || forDirtyCheck) {
+            return new ConcurrentHashMap<>();
+        }
+        return Caffeine.newBuilder()
+                .executor(Runnable::run)
+                .maximumSize(maxSize)
+                .<Serializable, Object>build()
+                .asMap();
+    }
+
+    /**
+     * Whether the given instance may be evicted from the first level cache. Instances with pending operations or
+     * changes that were not yet saved are kept.
+     *
+     * @param instance The instance
+     * @return True if it can be evicted
+     */
+    protected boolean isEvictable(Object instance) {
+        if (instance instanceof DirtyCheckable && ((DirtyCheckable) instance).hasChanged()) {
+            return false;
+        }
+        return getPersister(instance) == null || !isPendingAlready(instance);
+    }
+
+    private void evictEntries(Class type, Serializable key) {
+        Map<Serializable, Object> entries = firstLevelEntryCache.get(type);
+        if (entries != null) {
+            entries.remove(key);
+        }
+        Map<Serializable, Object> dirtyCheckEntries = firstLevelEntryCacheDirtyCheck.get(type);
+        if (dirtyCheckEntries != null) {
+            dirtyCheckEntries.remove(key);
+        }
+    }
+
+    private void pin(Class type, Serializable key, Object instance) {
+        pinnedInstances.computeIfAbsent(type, c -> new ConcurrentHashMap<>()).put(key, instance);
+    }
+
+    private void unpin(Class type, Serializable key) {
+        Map<Serializable, Object> pinned = pinnedInstances.get(type);
+        if (pinned != null) {
+            pinned.remove(key);
+        }
+    }
+
+    private void applyFirstLevelCachePolicyAfterFlush() {
+        // instances that had pending operations may be released again
+        for (Map<Serializable, Object> pinned : pinnedInstances.values()) {
+            pinned.values().removeIf(this::isEvictable);
+        }
+        if (firstLevelCachePolicy.isEvictAfterFlush()) {
+            for (Map.Entry<Class, Map<Serializable, Object>> cache : firstLevelCache.entrySet()) {
+                Class type = cache.getKey();
+                cache.getValue().entrySet().removeIf(entry -> {
+                    if (isEvictable(entry.getValue())) {
+                        evictEntries(type, entry.getKey());
+                        return true;
+                    }
+                    return false;
+                });
+            }
+        }
+        else if (firstLevelCachePolicy.getMaxSize() > 0) {
+            // instances that had pending operations are evictable again now, so weigh them again
+            for (Map<Serializable, Object> cache : firstLevelCache.values()) {
+                cache.replaceAll((key, value) -> value);
+            }
+        }
+    }
+
+    /**
+     * @return The policy of the first level cache of this session
+     */
+    public FirstLevelCachePolicy getFirstLevelCachePolicy() {
+        return firstLevelCachePolicy;
+    }
+
+    /**
+     * Changes the policy of the first level cache. Only caches of types that are not yet cached are affected, so this
+     * should be called before the session is used.
+     *
+     * @param firstLevelCachePolicy The policy
+     */
+    public void setFirstLevelCachePolicy(FirstLevelCachePolicy firstLevelCachePolicy) {
+        this.firstLevelCachePolicy = firstLevelCachePolicy != null ? firstLevelCachePolicy : FirstLevelCachePolicy.UNBOUNDED;
+    }
+
+    /**
+     * @return The default number of lazy proxies and collection elements of the same type loaded together when one
+     * of them is initialized. A value less than two disables batch fetching.
+     */
+    public int getBatchFetchSize() {
+        return batchFetchSize;
+    }
+
+    /**
+     * @param batchFetchSize The default number of lazy proxies and collection elements of the same type loaded
+     * together when one of them is initialized. A value less than two disables batch fetching.
+     */
+    public void setBatchFetchSize(int batchFetchSize) {
+        this.batchFetchSize = batchFetchSize;
+    }
+
+    /**
+     * Resolves the batch fetch size of the given entity, which is the {@link org.grails.datastore.mapping.config.Entity#getBatchSize()}
+     * of its mapping if specified, otherwise the default batch fetch size of the session
+     *
+     * @param entity The entity
+     * @return The batch fetch size
+     */
+    protected int getBatchFetchSize(PersistentEntity entity) {
+        ClassMapping mapping = entity.getMapping();
+        Entity mappedForm = mapping != null ? mapping.getMappedForm() : null;
+        Integer batchSize = mappedForm != null ? mappedForm.getBatchSize() : null;
+        return batchSize != null ? batchSize : batchFetchSize;
+    }
+
+    /**
+     * Registers the keys of entities referenced by an uninitialized collection, so that they are loaded in the same
+     * batch as the next entities of the given type retrieved by this session
+     *
+     * @param type The entity type
+     * @param keys The keys
+     */
+    public void registerBatchFetchKeys(Class type, Collection keys) {
+        PersistentEntity entity = type != null ? getMappingContext().getPersistentEntity(type.getName()) : null;
+        if (entity != null && getBatchFetchSize(entity) > 1) {
+            batchFetchRegistry.registerAll(type, keys);
+        }
+    }
+
+    /**
+     * @return The number of instances currently held by the first level cache
+     */
+    public int getCachedInstanceCount() {
+        return countCached(firstLevelCache);
+    }
+
+    /**
+     * @return The number of native entries currently held by the first level cache, including the copies kept for
+     * dirty checking
+     */
+    public int getCachedEntryCount() {
+        return countCached(firstLevelEntryCache) + countCached(firstLevelEntryCacheDirtyCheck);
+    }
+
+    /**
+     * @return The number of association collections currently held by the first level cache
+     */
+    public int getCachedCollectionCount() {
+        return firstLevelCollectionCache.size();
+    }
+
+    private static int countCached(Map<Class, Map<Serializable, Object>> mapOfMaps) {
+        int count = 0;
+        for (Map<Serializable, Object> cache : mapOfMaps.values()) {
+            count += cache.size();
+        }
+        return count;
+    }
+
     @Override
     public EntityAccess createEntityAccess(PersistentEntity entity, Object instance) {
         return getMappingContext().createEntityAccess(entity, instance);
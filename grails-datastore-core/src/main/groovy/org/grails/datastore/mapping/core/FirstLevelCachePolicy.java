@@ -0,0 +1,123 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core;
+
+import org.grails.datastore.mapping.config.Settings;
+import org.springframework.core.env.PropertyResolver;
+
+import java.util.Locale;
+
+/**
+ * Configures how a {@link AbstractSession} caches the instances it has loaded or persisted. The default policy keeps
+ * every instance until the session is cleared, like earlier versions did.
+ *
+ * <p>
+ * A bounded policy limits the number of instances cached per entity and can hold clean instances through weak or soft
+ * references, so that long running sessions do not grow without bound. Instances with pending operations or unsaved
+ * changes are never evicted.
+ * </p>
+ *
+ * @since 9.0
+ */
+public final class FirstLevelCachePolicy {
+
+    /**
+     * How clean instances are referenced by the first level cache
+     */
+    public enum ReferenceType {
+        /**
+         * Instances are kept until evicted or the session is cleared
+         */
+        STRONG,
+        /**
+         * Instances are released as soon as they are no longer referenced by the application
+         */
+        WEAK,
+        /**
+         * Instances are released when the JVM runs low on memory
+         */
+        SOFT
+    }
+
+    /**
+     * The default unbounded policy
+     */
+    public static final FirstLevelCachePolicy UNBOUNDED = new FirstLevelCachePolicy(-1, ReferenceType.STRONG, false);
+
+    private final int maxSize;
+    private final ReferenceType referenceType;
+    private final boolean evictAfterFlush;
+
+    /**
+     * @param maxSize The maximum number of instances cached per entity, a value less than one means there is no limit
+     * @param referenceType How clean instances are referenced
+     * @param evictAfterFlush Whether clean instances are evicted once the session has been flushed
+     */
+    public FirstLevelCachePolicy(int maxSize, ReferenceType referenceType, boolean evictAfterFlush) {
+        this.maxSize = maxSize;
+        this.referenceType = referenceType != null ? referenceType : ReferenceType.STRONG;
+        this.evictAfterFlush = evictAfterFlush;
+    }
+
+    /**
+     * Reads the policy from the {@link Settings#SETTING_SESSION_CACHE_MAX_SIZE},
+     * {@link Settings#SETTING_SESSION_CACHE_REFERENCES} and {@link Settings#SETTING_SESSION_CACHE_EVICT_AFTER_FLUSH}
+     * settings
+     *
+     * @param configuration The configuration
+     * @return The policy
+     */
+    public static FirstLevelCachePolicy fromConfiguration(PropertyResolver configuration) {
+        if (configuration == null) {
+            return UNBOUNDED;
+        }
+        int maxSize = configuration.getProperty(Settings.SETTING_SESSION_CACHE_MAX_SIZE, Integer.class, -1);
+        String references = configuration.getProperty(Settings.SETTING_SESSION_CACHE_REFERENCES, String.class, ReferenceType.STRONG.name());
+        ReferenceType referenceType = ReferenceType.valueOf(references.trim().toUpperCase(Locale.ENGLISH));
+        boolean evictAfterFlush = configuration.getProperty(Settings.SETTING_SESSION_CACHE_EVICT_AFTER_FLUSH, Boolean.class, false);
+        if (maxSize < 1 && referenceType == ReferenceType.STRONG && !evictAfterFlush) {
+            return UNBOUNDED;
+        }
+        return new FirstLevelCachePolicy(maxSize, referenceType, evictAfterFlush);
+    }
+
+    /**
+     * @return The maximum number of instances cached per entity, a value less than one means there is no limit
+     */
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    /**
+     * @return How clean instances are referenced
+     */
+    public ReferenceType getReferenceType() {
+        return referenceType;
+    }
+
+    /**
+     * @return Whether clean instances are evicted once the session has been flushed
+     */
+    public boolean isEvictAfterFlush() {
+        return evictAfterFlush;
+    }
+
+    /**
+     * @return Whether the policy bounds the number of cached instances or releases them before the session is cleared
+     */
+    public boolean isBounded() {
+        return maxSize > 0 || referenceType != ReferenceType.STRONG;
+    }
+}
@@ -173,6 +173,29 @@ public interface Session extends QueryCreator {
      */
     FlushModeType getFlushMode();
 
+    /**
+     * Whether the session is read-only. A read-only session does not keep the state needed to detect changes of the instances it loads
+     * and rejects flushing inserts, updates or deletes.
+     *
+     * @return True if the session is read-only
+     */
+    default boolean isReadOnly() {
+        return false;
+    }
+
+    /**
+     * Makes the session read-only or writable again. Instances loaded while the session is read-only are not checked for changes once it is
+     * writable again and must be saved explicitly.
+     *
+     * @param readOnly Whether the session is read-only
+     * @throws UnsupportedOperationException If the session does not support a read-only mode
+     */
+    default void setReadOnly(boolean readOnly) {
+        if (readOnly) {
+            throw new UnsupportedOperationException("Session [" + getClass().getName() + "] does not support read-only mode");
+        }
+    }
+
     /**
      * Obtains a write lock on the given object
      *
@@ -0,0 +1,31 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.connections;
+
+/**
+ * Notified when a {@link LazyConnectionSources} closes a connection source, so that state derived from it can be released
+ *
+ * @since 9.0
+ */
+public interface ConnectionSourceEvictionListener<T, S extends ConnectionSourceSettings> {
+
+    /**
+     * Triggered after a connection source was closed because it was idle or the maximum number of open connection
+     * sources was reached. It is created again on the next access.
+     *
+     * @param connectionSource The closed connection source
+     */
+    void connectionSourceEvicted(ConnectionSource<T, S> connectionSource);
+}
@@ -74,6 +74,11 @@ class ConnectionSourceSettings implements Settings {
      */
     MultiTenancySettings multiTenancy = new MultiTenancySettings()
 
+    /**
+     * The read replicas of the connection source
+     */
+    ReplicaSettings replicas = new ReplicaSettings()
+
     /**
      * @return Any defaults
      */
@@ -0,0 +1,409 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.connections
+
+import groovy.transform.CompileStatic
+import groovy.util.logging.Slf4j
+import org.grails.datastore.mapping.config.Settings
+import org.springframework.core.env.PropertyResolver
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CompletionException
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.Executors
+import java.util.concurrent.ScheduledExecutorService
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+import java.util.concurrent.locks.ReentrantLock
+
+/**
+ * A {@link ConnectionSources} implementation that creates each configured {@link ConnectionSource} on first access instead of at startup,
+ * which keeps startup time and memory flat for database per tenant setups with many tenants.
+ *
+ * <p>Connection sources that were not accessed for longer than {@link Settings#SETTING_CONNECTION_SOURCES_IDLE_TIMEOUT} are closed and the
+ * number of open connection sources can be capped with {@link Settings#SETTING_CONNECTION_SOURCES_MAX_OPEN}, closing the least recently used
+ * one when the limit is reached. A closed connection source is created again on its next access. Connection sources obtained through
+ * {@link #acquire(String)} are in use until they are {@link #release(ConnectionSource) released} and are never closed while in use, so
+ * datastores acquire the connection source of each session they open. The default connection source is created eagerly and never closed.</p>
+ *
+ * <p>Connection sources are created outside of the lock guarding the open connection sources, so creating the connection source of one
+ * tenant does not block the lookup of the others.</p>
+ *
+ * <p>Enable it by setting {@code grails.gorm.connectionSourcesClass} to this class.</p>
+ *
+ * @since 9.0
+ */
+@CompileStatic
+@Slf4j
+class LazyConnectionSources<T, S extends ConnectionSourceSettings> extends AbstractConnectionSources<T, S> {
+
+    protected final Set<String> connectionSourceNames = new LinkedHashSet<>()
+    protected final Map<String, PropertyResolver> runtimeConfigurations = [:]
+    protected final Collection<ConnectionSourceEvictionListener<T, S>> evictionListeners = new CopyOnWriteArrayList<>()
+
+    // a lock rather than synchronized, so that virtual threads creating a connection source do not pin their carrier thread
+    private final ReentrantLock lock = new ReentrantLock()
+    private final LinkedHashMap<String, OpenConnectionSource<T, S>> openConnectionSources = new LinkedHashMap<>(16, 0.75f, true)
+    private final Map<String, CompletableFuture<ConnectionSource<T, S>>> creations = new HashMap<>()
+    private final AtomicLong createdCount = new AtomicLong()
+    private final AtomicLong evictedCount = new AtomicLong()
+    private final long idleTimeout
+    private final int maxOpen
+    private ScheduledExecutorService evictionScheduler
+
+    LazyConnectionSources(ConnectionSource<T, S> defaultConnectionSource, ConnectionSourceFactory<T, S> connectionSourceFactory, PropertyResolver configuration) {
+        super(defaultConnectionSource, connectionSourceFactory, configuration)
+        this.idleTimeout = this.configuration.getProperty(Settings.SETTING_CONNECTION_SOURCES_IDLE_TIMEOUT, Long, 0L)
+        this.maxOpen = this.configuration.getProperty(Settings.SETTING_CONNECTION_SOURCES_MAX_OPEN, Integer, 0)
+
+        for (String name : getConnectionSourceNames(connectionSourceFactory, this.configuration)) {
+            if (name == "dataSource" || name == ConnectionSource.DEFAULT) continue // data source is reserved name for the default
+            connectionSourceNames.add(name)
+        }
+
+        if (idleTimeout > 0) {
+            evictionScheduler = Executors.newSingleThreadScheduledExecutor({ Runnable runnable ->
+                Thread thread = new Thread(runnable, "gorm-connection-source-eviction")
+                thread.setDaemon(true)
+                return thread
+            })
+            long period = Math.max(idleTimeout >> 1, 1L)
+            evictionScheduler.scheduleWithFixedDelay({ evictIdle() } as Runnable, period, period, TimeUnit.MILLISECONDS)
+        }
+    }
+
+    /**
+     * @return The names of all connection sources, whether they are open or not
+     */
+    Set<String> getConnectionSourceNames() {
+        lock.lock()
+        try {
+            return Collections.unmodifiableSet(new LinkedHashSet<>(connectionSourceNames))
+        } finally {
+            lock.unlock()
+        }
+    }
+
+    /**
+     * Returns every connection source, creating the ones that are not open when the returned iterable is iterated
+     */
+    @Override
+    Iterable<ConnectionSource<T, S>> getAllConnectionSources() {
+        List<String> names = [ConnectionSource.DEFAULT]
+        names.addAll(getConnectionSourceNames())
+        return { ->
+            Iterator<String> nameIterator = names.iterator()
+            return new Iterator<ConnectionSource<T, S>>() {
+                @Override
+                boolean hasNext() {
+                    return nameIterator.hasNext()
+                }
+
+                @Override
+                ConnectionSource<T, S> next() {
+                    return getConnectionSource(nameIterator.next())
+                }
+            }
+        } as Iterable<ConnectionSource<T, S>>
+    }
+
+    @Override
+    ConnectionSource<T, S> getConnectionSource(String name) {
+        return obtain(name, false)
+    }
+
+    /**
+     * Obtains the connection source of the given name, creating it if it is not open, and marks it as in use. A connection source in use
+     * is not closed when it is idle or the maximum number of open connection sources is reached until every acquisition is released.
+     *
+     * @param name The name
+     * @return The connection source or null if there is no connection source of the given name
+     */
+    ConnectionSource<T, S> acquire(String name) {
+        return obtain(name, true)
+    }
+
+    /**
+     * Releases a connection source obtained through {@link #acquire(String)}
+     *
+     * @param connectionSource The connection source
+     */
+    void release(ConnectionSource<T, S> connectionSource) {
+        if (connectionSource == null || connectionSource.is(defaultConnectionSource)) {
+            return
+        }
+        List<ConnectionSource<T, S>> evicted = []
+        lock.lock()
+        try {
+            OpenConnectionSource<T, S> open = openConnectionSources.get(connectionSource.name)
+            if (open != null && open.connectionSource.is(connectionSource) && open.inUse > 0) {
+                long now = currentTime()
+                open.lastAccess = now
+                if (--open.inUse == 0) {
+                    collectEvictions(now, null, evicted)
+                }
+            }
+        } finally {
+            lock.unlock()
+        }
+        close(evicted)
+    }
+
+    @Override
+    ConnectionSource<T, S> addConnectionSource(String name, PropertyResolver configuration) {
+        if (name == null) {
+            throw new IllegalArgumentException("Argument [name] cannot be null")
+        }
+        if (configuration == null) {
+            throw new IllegalArgumentException("Argument [configuration] cannot be null")
+        }
+        lock.lock()
+        try {
+            runtimeConfigurations.put(name, configuration)
+            connectionSourceNames.add(name)
+        } finally {
+            lock.unlock()
+        }
+        ConnectionSource<T, S> connectionSource = getConnectionSource(name)
+        if (connectionSource == null) {
+            throw new IllegalStateException("ConnectionSource factory returned null")
+        }
+        for (listener in listeners) {
+            listener.newConnectionSource(connectionSource)
+        }
+        return connectionSource
+    }
+
+    /**
+     * Adds a listener notified when a connection source is closed by this connection sources
+     *
+     * @param listener The listener
+     * @return This connection sources
+     */
+    LazyConnectionSources<T, S> addEvictionListener(ConnectionSourceEvictionListener<T, S> listener) {
+        evictionListeners.add(listener)
+        return this
+    }
+
+    /**
+     * Closes the connection sources that were not accessed within the idle timeout. This is called periodically if an idle timeout is configured.
+     */
+    void evictIdle() {
+        List<ConnectionSource<T, S>> evicted = []
+        lock.lock()
+        try {
+            collectEvictions(currentTime(), null, evicted)
+        } finally {
+            lock.unlock()
+        }
+        close(evicted)
+    }
+
+    /**
+     * @return The number of connection sources currently open, excluding the default connection source
+     */
+    int getOpenCount() {
+        lock.lock()
+        try {
+            return openConnectionSources.size()
+        } finally {
+            lock.unlock()
+        }
+    }
+
+    /**
+     * @return The number of connection sources created so far, including those created again after they were closed
+     */
+    long getCreatedCount() {
+        createdCount.get()
+    }
+
+    /**
+     * @return The number of connection sources closed because they were idle or the maximum number of open connection sources was reached
+     */
+    long getEvictedCount() {
+        evictedCount.get()
+    }
+
+    @Override
+    void close() throws IOException {
+        evictionScheduler?.shutdownNow()
+        List<ConnectionSource<T, S>> open
+        lock.lock()
+        try {
+            open = openConnectionSources.values().collect { OpenConnectionSource<T, S> o -> o.connectionSource }
+            openConnectionSources.clear()
+        } finally {
+            lock.unlock()
+        }
+        for (ConnectionSource<T, S> connectionSource in open) {
+            connectionSource.close()
+        }
+        defaultConnectionSource.close()
+    }
+
+    private ConnectionSource<T, S> obtain(String name, boolean acquire) {
+        if (name == ConnectionSource.DEFAULT) {
+            return defaultConnectionSource
+        }
+        while (true) {
+            List<ConnectionSource<T, S>> evicted = []
+            ConnectionSource<T, S> connectionSource = null
+            CompletableFuture<ConnectionSource<T, S>> creation = null
+            boolean creator = false
+            lock.lock()
+            try {
+                if (!connectionSourceNames.contains(name)) {
+                    return null
+                }
+                OpenConnectionSource<T, S> open = openConnectionSources.get(name)
+                if (open != null) {
+                    long now = currentTime()
+                    open.lastAccess = now
+                    if (acquire) {
+                        open.inUse++
+                    }
+                    connectionSource = open.connectionSource
+                    collectEvictions(now, name, evicted)
+                }
+                else {
+                    creation = creations.get(name)
+                    if (creation == null) {
+                        creation = new CompletableFuture<ConnectionSource<T, S>>()
+                        creations.put(name, creation)
+                        creator = true
+                    }
+                }
+            } finally {
+                lock.unlock()
+            }
+            if (connectionSource != null) {
+                close(evicted)
+                return connectionSource
+            }
+            ConnectionSource<T, S> created = creator ? createAndOpen(name, creation) : awaitCreation(creation)
+            if (created == null) {
+                return null
+            }
+            // the connection source is open now, the next iteration records the access
+        }
+    }
+
+    private ConnectionSource<T, S> createAndOpen(String name, CompletableFuture<ConnectionSource<T, S>> creation) {
+        ConnectionSource<T, S> connectionSource
+        try {
+            connectionSource = createConnectionSource(name)
+        } catch (Throwable e) {
+            lock.lock()
+            try {
+                creations.remove(name)
+            } finally {
+                lock.unlock()
+            }
+            creation.completeExceptionally(e)
+            throw e
+        }
+        lock.lock()
+        try {
+            creations.remove(name)
+            if (connectionSource != null) {
+                OpenConnectionSource<T, S> open = new OpenConnectionSource<T, S>(connectionSource)
+                open.lastAccess = currentTime()
+                openConnectionSources.put(name, open)
+                createdCount.incrementAndGet()
+            }
+        } finally {
+            lock.unlock()
+        }
+        creation.complete(connectionSource)
+        return connectionSource
+    }
+
+    private static <T, S extends ConnectionSourceSettings> ConnectionSource<T, S> awaitCreation(CompletableFuture<ConnectionSource<T, S>> creation) {
+        try {
+            return creation.join()
+        } catch (CompletionException e) {
+            throw e.cause ?: e
+        }
+    }
+
+    /**
+     * Creates the connection source of the given name
+     *
+     * @param name The name
+     * @return The connection source or null if the factory does not create one
+     */
+    protected ConnectionSource<T, S> createConnectionSource(String name) {
+        PropertyResolver runtimeConfiguration = runtimeConfigurations.get(name)
+        if (runtimeConfiguration != null) {
+            return connectionSourceFactory.createRuntime(name, runtimeConfiguration, (S) defaultConnectionSource.getSettings())
+        }
+        return connectionSourceFactory.create(name, configuration, defaultConnectionSource.getSettings())
+    }
+
+    /**
+     * @return The current time in milliseconds used to track the last access of connection sources
+     */
+    protected long currentTime() {
+        TimeUnit.NANOSECONDS.toMillis(System.nanoTime())
+    }
+
+    private void collectEvictions(long now, String accessed, List<ConnectionSource<T, S>> evicted) {
+        Iterator<Map.Entry<String, OpenConnectionSource<T, S>>> i = openConnectionSources.entrySet().iterator()
+        int open = openConnectionSources.size()
+        // iteration is in access order, so the least recently used connection sources come first
+        while (i.hasNext()) {
+            OpenConnectionSource<T, S> candidate = i.next().value
+            boolean idle = idleTimeout > 0 && now - candidate.lastAccess > idleTimeout
+            boolean overLimit = maxOpen > 0 && open > maxOpen
+            if (!idle && !overLimit) {
+                break
+            }
+            if (candidate.inUse > 0 || candidate.connectionSource.name == accessed) {
+                // sources in use are closed once released, the accessed one is about to be returned
+                continue
+            }
+            i.remove()
+            open--
+            evicted.add(candidate.connectionSource)
+        }
+    }
+
+    private void close(List<ConnectionSource<T, S>> evicted) {
+        for (ConnectionSource<T, S> connectionSource in evicted) {
+            evictedCount.incrementAndGet()
+            log.debug("Closing connection source [{}]", connectionSource.name)
+            try {
+                connectionSource.close()
+            } catch (Throwable e) {
+                log.error("Error closing connection source [${connectionSource.name}]: ${e.message}", e)
+            }
+            for (listener in evictionListeners) {
+                listener.connectionSourceEvicted(connectionSource)
+            }
+        }
+    }
+
+    @CompileStatic
+    private static class OpenConnectionSource<T, S extends ConnectionSourceSettings> {
+        final ConnectionSource<T, S> connectionSource
+        long lastAccess
+        int inUse
+
+        OpenConnectionSource(ConnectionSource<T, S> connectionSource) {
+            this.connectionSource = connectionSource
+        }
+    }
+}
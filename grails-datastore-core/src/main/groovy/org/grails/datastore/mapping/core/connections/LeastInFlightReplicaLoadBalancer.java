@@ -0,0 +1,66 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.connections;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * A {@link ReplicaLoadBalancer} that chooses the replica with the fewest running read-only transactions. Replicas with the same number
+ * of running transactions are chosen in the order they are declared.
+ *
+ * @since 9.0
+ */
+public class LeastInFlightReplicaLoadBalancer implements ReplicaLoadBalancer {
+
+    private final Map<String, AtomicInteger> inFlight = new ConcurrentHashMap<>();
+
+    @Override
+    public String acquire(List<String> replicas) {
+        String chosen = null;
+        AtomicInteger chosenCount = null;
+        int fewest = Integer.MAX_VALUE;
+        for (String replica : replicas) {
+            AtomicInteger count = inFlight.computeIfAbsent(replica, name -> new AtomicInteger());
+            int current = count.get();
+            if (current < fewest) {
+                fewest = current;
+                chosen = replica;
+                chosenCount = count;
+            }
+        }
+        chosenCount.incrementAndGet();
+        return chosen;
+    }
+
+    @Override
+    public void release(String replica) {
+        AtomicInteger count = inFlight.get(replica);
+        if (count != null) {
+            count.updateAndGet(current -> current > 0 ? current - 1 : 0);
+        }
+    }
+
+    /**
+     * @param replica The name of the replica
+     * @return The number of read-only transactions currently routed to the replica
+     */
+    public int getInFlight(String replica) {
+        AtomicInteger count = inFlight.get(replica);
+        return count != null ? count.get() : 0;
+    }
+}
@@ -0,0 +1,42 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.connections;
+
+import java.util.List;
+
+/**
+ * Chooses the read replica a read-only transaction is routed to
+ *
+ * @since 9.0
+ */
+public interface ReplicaLoadBalancer {
+
+    /**
+     * Chooses a replica for a new read-only transaction
+     *
+     * @param replicas The names of the replica connection sources, never empty
+     * @return The name of the chosen replica
+     */
+    String acquire(List<String> replicas);
+
+    /**
+     * Called once the read-only transaction routed to the given replica completed
+     *
+     * @param replica The name of the replica
+     */
+    default void release(String replica) {
+        // no-op
+    }
+}
@@ -0,0 +1,192 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.connections;
+
+import org.grails.datastore.mapping.core.Datastore;
+import org.grails.datastore.mapping.core.Session;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+/**
+ * Routes read-only transactions of a datastore to its read replicas.
+ *
+ * <p>A replica is only used when the read-only transaction does not run after a write to the primary. Beginning a transaction that is not
+ * read-only, or flushing a session that wrote, pins the session and the current thread to the primary, so that reads later in the same
+ * session or on the same thread, for example within the same request, see the written data. The thread stays pinned for
+ * {@link ReplicaSettings#getPinDuration()} milliseconds after the last write or until {@link #unpin()} is called, for example when the
+ * request completed.</p>
+ *
+ * @see ReplicaSettings
+ * @see org.grails.datastore.mapping.transactions.DatastoreTransactionManager#setReplicaRouter(ReplicaRouter)
+ * @since 9.0
+ */
+public class ReplicaRouter {
+
+    /**
+     * The session property marking a session pinned to the primary
+     */
+    public static final String PINNED_TO_PRIMARY = ReplicaRouter.class.getName() + ".pinnedToPrimary";
+
+    /**
+     * The default number of milliseconds the current thread stays pinned to the primary after a write
+     */
+    public static final long DEFAULT_PIN_DURATION = 5000L;
+
+    // the time of the last write per datastore, the datastores are weakly referenced so that pooled threads do not retain them
+    private static final ThreadLocal<Map<Datastore, Long>> PINNED_DATASTORES = ThreadLocal.withInitial(WeakHashMap::new);
+
+    private final MultipleConnectionSourceCapableDatastore datastore;
+    private final List<String> replicas;
+    private final ReplicaLoadBalancer loadBalancer;
+    private final long pinDuration;
+
+    /**
+     * @param datastore The datastore holding the primary and replica connection sources
+     * @param replicas The names of the replica connection sources
+     * @param loadBalancer The strategy used to choose a replica
+     */
+    public ReplicaRouter(MultipleConnectionSourceCapableDatastore datastore, List<String> replicas, ReplicaLoadBalancer loadBalancer) {
+        this(datastore, replicas, loadBalancer, DEFAULT_PIN_DURATION);
+    }
+
+    /**
+     * @param datastore The datastore holding the primary and replica connection sources
+     * @param replicas The names of the replica connection sources
+     * @param loadBalancer The strategy used to choose a replica
+     * @param pinDuration The number of milliseconds the current thread stays pinned to the primary after a write
+     */
+    public ReplicaRouter(MultipleConnectionSourceCapableDatastore datastore, List<String> replicas, ReplicaLoadBalancer loadBalancer, long pinDuration) {
+        if (replicas == null || replicas.isEmpty()) {
+            throw new IllegalArgumentException("Argument [replicas] cannot be empty");
+        }
+        this.datastore = datastore;
+        this.replicas = Collections.unmodifiableList(replicas);
+        this.loadBalancer = loadBalancer;
+        this.pinDuration = pinDuration;
+    }
+
+    /**
+     * Creates the router for the replicas declared by the given settings
+     *
+     * @param datastore The datastore holding the primary and replica connection sources
+     * @param settings The settings of the primary connection source
+     * @return The router or null if the settings declare no replicas
+     */
+    public static ReplicaRouter fromSettings(MultipleConnectionSourceCapableDatastore datastore, ConnectionSourceSettings settings) {
+        ReplicaSettings replicaSettings = settings != null ? settings.getReplicas() : null;
+        if (replicaSettings == null || replicaSettings.getConnections() == null || replicaSettings.getConnections().isEmpty()) {
+            return null;
+        }
+        return new ReplicaRouter(datastore, replicaSettings.getConnections(), replicaSettings.getLoadBalancer(), replicaSettings.getPinDuration());
+    }
+
+    /**
+     * @return The names of the replica connection sources
+     */
+    public List<String> getReplicas() {
+        return replicas;
+    }
+
+    /**
+     * @return The strategy used to choose a replica
+     */
+    public ReplicaLoadBalancer getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    /**
+     * @return The number of milliseconds the current thread stays pinned to the primary after a write
+     */
+    public long getPinDuration() {
+        return pinDuration;
+    }
+
+    /**
+     * @return Whether the current thread wrote to the primary within the last {@link #getPinDuration()} milliseconds
+     */
+    public boolean isThreadPinnedToPrimary() {
+        Map<Datastore, Long> pinned = PINNED_DATASTORES.get();
+        Long pinnedAt = pinned.get(datastore);
+        if (pinnedAt == null) {
+            return false;
+        }
+        if (System.currentTimeMillis() - pinnedAt < pinDuration) {
+            return true;
+        }
+        pinned.remove(datastore);
+        return false;
+    }
+
+    /**
+     * Chooses the replica for a new read-only transaction. Each call must be followed by a call to {@link #release(String)} once the
+     * transaction completed.
+     *
+     * @return The name of the replica
+     */
+    public String acquire() {
+        return loadBalancer.acquire(replicas);
+    }
+
+    /**
+     * @param replica The name of a replica returned by {@link #acquire()}
+     * @return The datastore of the replica
+     */
+    public Datastore getReplicaDatastore(String replica) {
+        return datastore.getDatastoreForConnection(replica);
+    }
+
+    /**
+     * Signals that the read-only transaction routed to the given replica completed
+     *
+     * @param replica The name of the replica
+     */
+    public void release(String replica) {
+        loadBalancer.release(replica);
+    }
+
+    /**
+     * Pins the given session and the current thread to the primary, so that later read-only transactions running within the session or on
+     * the thread are not routed to a replica
+     *
+     * @param session The session
+     */
+    public static void pinToPrimary(Session session) {
+        if (session != null) {
+            session.setSessionProperty(PINNED_TO_PRIMARY, Boolean.TRUE);
+            Datastore sessionDatastore = session.getDatastore();
+            if (sessionDatastore != null) {
+                PINNED_DATASTORES.get().put(sessionDatastore, System.currentTimeMillis());
+            }
+        }
+    }
+
+    /**
+     * @param session The session
+     * @return Whether the session is pinned to the primary
+     */
+    public static boolean isPinnedToPrimary(Session session) {
+        return session != null && Boolean.TRUE.equals(session.getSessionProperty(PINNED_TO_PRIMARY));
+    }
+
+    /**
+     * Releases the pins of the current thread, for example once the request that wrote completed
+     */
+    public static void unpin() {
+        PINNED_DATASTORES.remove();
+    }
+}
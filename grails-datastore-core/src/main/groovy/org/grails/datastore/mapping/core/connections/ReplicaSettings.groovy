@@ -0,0 +1,77 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.connections
+
+import groovy.transform.AutoClone
+import groovy.transform.CompileStatic
+import groovy.transform.builder.Builder
+import groovy.transform.builder.SimpleStrategy
+import org.springframework.beans.BeanUtils
+
+/**
+ * The read replicas of a {@link ConnectionSource}. Read-only transactions are routed to one of the replicas, chosen by the configured
+ * {@link ReplicaLoadBalancer}.
+ *
+ * @since 9.0
+ */
+@Builder(builderStrategy = SimpleStrategy, prefix = '')
+@AutoClone
+@CompileStatic
+class ReplicaSettings {
+
+    /**
+     * The names of the connection sources that replicate this connection source
+     */
+    List<String> connections = []
+
+    /**
+     * The strategy used to choose a replica
+     */
+    LoadBalancing loadBalancing = LoadBalancing.ROUND_ROBIN
+
+    /**
+     * A custom load balancer class, used instead of the load balancing strategy
+     */
+    Class<? extends ReplicaLoadBalancer> loadBalancerClass
+
+    /**
+     * The number of milliseconds read-only transactions on a thread that wrote stay on the primary
+     */
+    long pinDuration = ReplicaRouter.DEFAULT_PIN_DURATION
+
+    /**
+     * @return A new load balancer for the replicas
+     */
+    ReplicaLoadBalancer getLoadBalancer() {
+        if (loadBalancerClass != null) {
+            return BeanUtils.instantiateClass(loadBalancerClass)
+        }
+        return loadBalancing == LoadBalancing.LEAST_IN_FLIGHT ? new LeastInFlightReplicaLoadBalancer() : new RoundRobinReplicaLoadBalancer()
+    }
+
+    /**
+     * The built-in load balancing strategies
+     */
+    static enum LoadBalancing {
+        /**
+         * Chooses the replicas in turn
+         */
+        ROUND_ROBIN,
+        /**
+         * Chooses the replica with the fewest running read-only transactions
+         */
+        LEAST_IN_FLIGHT
+    }
+}
@@ -0,0 +1,45 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.context;
+
+/**
+ * A piece of state bound to the current thread, such as the current tenant, that can be captured by a {@link ContextSnapshot}
+ * and bound to another thread
+ *
+ * @param <T> The type of the value
+ * @since 9.0
+ */
+public interface ContextElement<T> {
+
+    /**
+     * @return The value bound to the current thread, or null if there is none
+     */
+    T capture();
+
+    /**
+     * Binds the given value to the current thread
+     *
+     * @param value The value, possibly null to unbind the current value
+     * @return The value that was bound before, to be passed to {@link #restore(Object)}
+     */
+    T bind(T value);
+
+    /**
+     * Restores the value that was bound before {@link #bind(Object)} was called
+     *
+     * @param previous The previous value, possibly null
+     */
+    void restore(T previous);
+}
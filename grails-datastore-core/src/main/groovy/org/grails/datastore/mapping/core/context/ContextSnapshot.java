@@ -0,0 +1,253 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.context;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+
+/**
+ * An immutable snapshot of the GORM state bound to a thread, such as the current tenant, which can be bound to another thread
+ * for the scope of a unit of work. This allows work handed to executors, promises or virtual threads to run with the context of
+ * the thread that submitted it, without relying on inheritable thread locals:
+ *
+ * <pre class="code">
+ * Executor executor = ContextSnapshot.propagating(Executors.newVirtualThreadPerTaskExecutor())
+ * Tenants.withId("acme") {
+ *     executor.execute { Book.list() } // runs with the tenant "acme"
+ * }
+ * </pre>
+ *
+ * <p>Values are bound in the manner of a {@code ScopedValue}: a snapshot is bound for the duration of {@link #run(Runnable)},
+ * {@link #call(Callable)} or a {@link Scope} and the previous values are restored afterwards, also when the unit of work fails.
+ * {@link #where(ContextElement, Object)} derives a snapshot with a different value for a single element.</p>
+ *
+ * <p>The elements captured by {@link #capture()} are registered with {@link #register(ContextElement)}. The sessions bound to the
+ * thread are only captured by {@link #captureWithSessions()}, since a session must not be used by several threads at the same time.</p>
+ *
+ * @since 9.0
+ */
+public final class ContextSnapshot {
+
+    private static final List<ContextElement<?>> ELEMENTS = new CopyOnWriteArrayList<>();
+
+    private static final ContextSnapshot EMPTY = new ContextSnapshot(Collections.emptyMap());
+
+    private final Map<ContextElement<?>, Object> values;
+
+    private ContextSnapshot(Map<ContextElement<?>, Object> values) {
+        this.values = values;
+    }
+
+    /**
+     * Registers an element captured by every snapshot
+     *
+     * @param element The element
+     */
+    public static void register(ContextElement<?> element) {
+        if (element != null && !ELEMENTS.contains(element)) {
+            ELEMENTS.add(element);
+        }
+    }
+
+    /**
+     * Unregisters an element
+     *
+     * @param element The element
+     */
+    public static void unregister(ContextElement<?> element) {
+        ELEMENTS.remove(element);
+    }
+
+    /**
+     * @return A snapshot of the registered elements bound to the current thread
+     */
+    public static ContextSnapshot capture() {
+        if (ELEMENTS.isEmpty()) {
+            return EMPTY;
+        }
+        Map<ContextElement<?>, Object> values = new LinkedHashMap<>(ELEMENTS.size());
+        for (ContextElement<?> element : ELEMENTS) {
+            values.put(element, element.capture());
+        }
+        return new ContextSnapshot(values);
+    }
+
+    /**
+     * Captures the registered elements together with the sessions bound to the current thread. The unit of work the snapshot is bound
+     * to then shares the sessions of the current thread, so the current thread must not use them until the unit of work completes.
+     *
+     * @return The snapshot
+     */
+    public static ContextSnapshot captureWithSessions() {
+        return capture().where(SessionContextElement.INSTANCE, SessionContextElement.INSTANCE.capture());
+    }
+
+    /**
+     * @return A snapshot that binds nothing
+     */
+    public static ContextSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * Creates a snapshot that binds the given value for the given element in addition to the values of this snapshot
+     *
+     * @param element The element
+     * @param value The value, possibly null to bind no value
+     * @param <T> The type of the value
+     * @return The new snapshot
+     */
+    public <T> ContextSnapshot where(ContextElement<T> element, T value) {
+        Map<ContextElement<?>, Object> newValues = new LinkedHashMap<>(values);
+        newValues.put(element, value);
+        return new ContextSnapshot(newValues);
+    }
+
+    /**
+     * @param element The element
+     * @param <T> The type of the value
+     * @return The value this snapshot binds for the given element, or null if there is none
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(ContextElement<T> element) {
+        return (T) values.get(element);
+    }
+
+    /**
+     * Binds this snapshot to the current thread until the returned scope is closed, which has to happen on the same thread
+     *
+     * @return The scope
+     */
+    public Scope open() {
+        return new Scope(this);
+    }
+
+    /**
+     * Runs the given runnable with this snapshot bound to the current thread
+     *
+     * @param runnable The runnable
+     */
+    public void run(Runnable runnable) {
+        try (Scope ignored = open()) {
+            runnable.run();
+        }
+    }
+
+    /**
+     * Calls the given callable with this snapshot bound to the current thread
+     *
+     * @param callable The callable
+     * @param <T> The return type
+     * @return The result of the callable
+     * @throws Exception if the callable fails
+     */
+    public <T> T call(Callable<T> callable) throws Exception {
+        try (Scope ignored = open()) {
+            return callable.call();
+        }
+    }
+
+    /**
+     * @param runnable The runnable
+     * @return A runnable that runs the given runnable with this snapshot bound
+     */
+    public Runnable wrap(Runnable runnable) {
+        return () -> run(runnable);
+    }
+
+    /**
+     * @param callable The callable
+     * @param <T> The return type
+     * @return A callable that calls the given callable with this snapshot bound
+     */
+    public <T> Callable<T> wrap(Callable<T> callable) {
+        return () -> call(callable);
+    }
+
+    /**
+     * Wraps an executor so that each task runs with the snapshot captured when the task was submitted
+     *
+     * @param executor The executor
+     * @return The wrapped executor
+     */
+    public static Executor propagating(Executor executor) {
+        return command -> executor.execute(capture().wrap(command));
+    }
+
+    /**
+     * The binding of a {@link ContextSnapshot} to a thread, which restores the previous values when closed
+     */
+    public static final class Scope implements AutoCloseable {
+        private final Thread thread;
+        private final List<Binding> bindings;
+        private boolean closed;
+
+        private Scope(ContextSnapshot snapshot) {
+            this.thread = Thread.currentThread();
+            this.bindings = new ArrayList<>(snapshot.values.size());
+            try {
+                for (Map.Entry<ContextElement<?>, Object> entry : snapshot.values.entrySet()) {
+                    bindings.add(Binding.bind(entry.getKey(), entry.getValue()));
+                }
+            } catch (RuntimeException | Error e) {
+                close();
+                throw e;
+            }
+        }
+
+        /**
+         * Restores the values bound before this scope was opened
+         */
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            if (Thread.currentThread() != thread) {
+                throw new IllegalStateException("A context scope must be closed by the thread that opened it");
+            }
+            closed = true;
+            for (int i = bindings.size() - 1; i >= 0; i--) {
+                bindings.get(i).restore();
+            }
+        }
+    }
+
+    private static final class Binding {
+        private final ContextElement<Object> element;
+        private final Object previous;
+
+        private Binding(ContextElement<Object> element, Object previous) {
+            this.element = element;
+            this.previous = previous;
+        }
+
+        @SuppressWarnings("unchecked")
+        static Binding bind(ContextElement<?> element, Object value) {
+            ContextElement<Object> e = (ContextElement<Object>) element;
+            return new Binding(e, e.bind(value));
+        }
+
+        void restore() {
+            element.restore(previous);
+        }
+    }
+}
@@ -0,0 +1,89 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.context;
+
+import org.grails.datastore.mapping.core.Datastore;
+import org.grails.datastore.mapping.transactions.SessionHolder;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The sessions bound to the current thread, keyed by their {@link Datastore}. Binding them to another thread makes that thread
+ * use the same sessions, including their session attributes and first level cache.
+ *
+ * @since 9.0
+ * @see ContextSnapshot#captureWithSessions()
+ */
+public final class SessionContextElement implements ContextElement<Map<Datastore, SessionHolder>> {
+
+    public static final SessionContextElement INSTANCE = new SessionContextElement();
+
+    private SessionContextElement() {
+    }
+
+    @Override
+    public Map<Datastore, SessionHolder> capture() {
+        Map<Object, Object> resources = TransactionSynchronizationManager.getResourceMap();
+        if (resources.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Datastore, SessionHolder> sessions = new LinkedHashMap<>();
+        for (Map.Entry<Object, Object> resource : resources.entrySet()) {
+            if (resource.getKey() instanceof Datastore && resource.getValue() instanceof SessionHolder) {
+                sessions.put((Datastore) resource.getKey(), (SessionHolder) resource.getValue());
+            }
+        }
+        return sessions;
+    }
+
+    @Override
+    public Map<Datastore, SessionHolder> bind(Map<Datastore, SessionHolder> sessions) {
+        if (sessions == null || sessions.isEmpty()) {
+            return Collections.emptyMap();
+        }
+        Map<Datastore, SessionHolder> previous = new LinkedHashMap<>();
+        for (Map.Entry<Datastore, SessionHolder> session : sessions.entrySet()) {
+            Datastore datastore = session.getKey();
+            Object existing = TransactionSynchronizationManager.getResource(datastore);
+            if (existing == session.getValue() || (existing != null && !(existing instanceof SessionHolder))) {
+                continue;
+            }
+            if (existing != null) {
+                TransactionSynchronizationManager.unbindResource(datastore);
+            }
+            // remember which datastores were bound by this call, with the holder they replaced if any
+            previous.put(datastore, (SessionHolder) existing);
+            TransactionSynchronizationManager.bindResource(datastore, session.getValue());
+        }
+        return previous;
+    }
+
+    @Override
+    public void restore(Map<Datastore, SessionHolder> previous) {
+        if (previous == null) {
+            return;
+        }
+        for (Map.Entry<Datastore, SessionHolder> session : previous.entrySet()) {
+            Datastore datastore = session.getKey();
+            TransactionSynchronizationManager.unbindResourceIfPossible(datastore);
+            if (session.getValue() != null) {
+                TransactionSynchronizationManager.bindResource(datastore, session.getValue());
+            }
+        }
+    }
+}
@@ -0,0 +1,123 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.impl;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Keeps track, per session and entity type, of the keys of lazy proxies and persistent collections that have not been
+ * initialized yet. When one of them is initialized, the keys of its pending siblings are loaded in the same batch so
+ * that walking a list of results does not retrieve associated entities one at a time.
+ *
+ * @since 9.0
+ */
+public class BatchFetchRegistry {
+
+    private final Map<Class, Set<Serializable>> pendingKeys = new HashMap<>();
+
+    /**
+     * Registers the key of an entity that has not been loaded yet
+     *
+     * @param type The entity type
+     * @param key The key
+     */
+    public synchronized void register(Class type, Serializable key) {
+        if (type == null || key == null) {
+            return;
+        }
+        pendingKeys.computeIfAbsent(type, t -> new LinkedHashSet<>()).add(key);
+    }
+
+    /**
+     * Registers the keys of entities that have not been loaded yet
+     *
+     * @param type The entity type
+     * @param keys The keys
+     */
+    public synchronized void registerAll(Class type, Collection keys) {
+        if (type == null || keys == null || keys.isEmpty()) {
+            return;
+        }
+        Set<Serializable> pending = pendingKeys.computeIfAbsent(type, t -> new LinkedHashSet<>());
+        for (Object key : keys) {
+            if (key instanceof Serializable) {
+                pending.add((Serializable) key);
+            }
+        }
+    }
+
+    /**
+     * Removes and returns up to the given number of pending keys of the given type. Keys the given predicate
+     * rejects, for example because the entity is already loaded, are discarded.
+     *
+     * @param type The entity type
+     * @param max The maximum number of keys to return
+     * @param pending Whether a key still needs to be loaded
+     * @return The keys, possibly empty
+     */
+    public synchronized List<Serializable> nextBatch(Class type, int max, Predicate<Serializable> pending) {
+        Set<Serializable> keys = pendingKeys.get(type);
+        if (keys == null || keys.isEmpty() || max < 1) {
+            return new ArrayList<>(0);
+        }
+        List<Serializable> batch = new ArrayList<>(Math.min(max, keys.size()));
+        for (Iterator<Serializable> i = keys.iterator(); i.hasNext() && batch.size() < max; ) {
+            Serializable key = i.next();
+            i.remove();
+            if (pending.test(key)) {
+                batch.add(key);
+            }
+        }
+        return batch;
+    }
+
+    /**
+     * Forgets the given key, typically because the entity was loaded
+     *
+     * @param type The entity type
+     * @param key The key
+     */
+    public synchronized void remove(Class type, Serializable key) {
+        Set<Serializable> keys = pendingKeys.get(type);
+        if (keys != null) {
+            keys.remove(key);
+        }
+    }
+
+    /**
+     * @param type The entity type
+     * @return The number of keys of the given type waiting to be loaded
+     */
+    public synchronized int getPendingCount(Class type) {
+        Set<Serializable> keys = pendingKeys.get(type);
+        return keys != null ? keys.size() : 0;
+    }
+
+    /**
+     * Forgets all pending keys
+     */
+    public synchronized void clear() {
+        pendingKeys.clear();
+    }
+}
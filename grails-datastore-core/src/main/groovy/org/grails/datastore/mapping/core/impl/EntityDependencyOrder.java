@@ -0,0 +1,97 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.core.impl;
+
+import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.model.types.Association;
+import org.grails.datastore.mapping.model.types.Embedded;
+import org.grails.datastore.mapping.model.types.ToOne;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Orders entities so that an entity comes after the entities it references through a to-one association, which is
+ * the order pending inserts have to be flushed in for parents to be written before their children. Deletes are
+ * flushed in the reverse order.
+ *
+ * <p>
+ * Entities without a dependency between them keep their relative order. Circular dependencies are broken by taking
+ * the first remaining entity.
+ * </p>
+ *
+ * @since 9.0
+ */
+public final class EntityDependencyOrder {
+
+    private EntityDependencyOrder() {
+    }
+
+    /**
+     * @param entities The entities
+     * @return The entities ordered such that referenced entities come first
+     */
+    public static List<PersistentEntity> sort(Collection<PersistentEntity> entities) {
+        List<PersistentEntity> remaining = new ArrayList<>(entities);
+        List<PersistentEntity> ordered = new ArrayList<>(remaining.size());
+        while (!remaining.isEmpty()) {
+            PersistentEntity next = null;
+            for (PersistentEntity candidate : remaining) {
+                if (!hasPendingDependency(candidate, remaining)) {
+                    next = candidate;
+                    break;
+                }
+            }
+            if (next == null) {
+                // circular dependency
+                next = remaining.get(0);
+            }
+            remaining.remove(next);
+            ordered.add(next);
+        }
+        return ordered;
+    }
+
+    /**
+     * @param entity The entity
+     * @param other Another entity
+     * @return Whether the entity references the other entity, or one of its parents, through a to-one association
+     */
+    public static boolean dependsOn(PersistentEntity entity, PersistentEntity other) {
+        if (entity == other) {
+            return false;
+        }
+        for (Association association : entity.getAssociations()) {
+            if (!(association instanceof ToOne) || association instanceof Embedded) {
+                continue;
+            }
+            PersistentEntity associated = association.getAssociatedEntity();
+            if (associated != null && associated.getJavaClass().isAssignableFrom(other.getJavaClass())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean hasPendingDependency(PersistentEntity entity, List<PersistentEntity> remaining) {
+        for (PersistentEntity other : remaining) {
+            if (dependsOn(entity, other)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -18,12 +18,22 @@ trait DirtyCheckable {
     @Transient
     private transient Map<String, Object> $changedProperties
 
+    /**
+     * The properties marked dirty through {@link #markDirty(int, String, Object, Object)}, indexed by
+     * {@link DirtyCheckingSupport#propertyIndex(Class, String)}. Properties with an index of 64 or more are only
+     * tracked by name.
+     */
+    @Transient
+    private transient long $changedPropertyBits
+
     /**
      * Indicates that the instance should start tacking changes. Note that if the instance is dirty this will clear any previously tracked
      * changes
      */
     void trackChanges() {
-        $changedProperties = new LinkedHashMap<String, Object>()
+        // the map holding the original values is only created once a property changes
+        $changedProperties = DirtyCheckingSupport.NO_CHANGES_MARKER
+        $changedPropertyBits = 0L
     }
 
     /**
@@ -44,12 +54,16 @@ trait DirtyCheckable {
      */
      void trackChanges(Map<String, Object> changedProperties) {
         $changedProperties = changedProperties
+        $changedPropertyBits = 0L
     }
 
     /**
      * @return True if the instance has any changes
      */
     boolean hasChanged() {
+        if($changedPropertyBits != 0L) {
+            return true
+        }
         if(this instanceof EntityProxy && !((EntityProxy)this).isInitialized()) {
             return false
         }
@@ -86,10 +100,7 @@ trait DirtyCheckable {
      */
     void markDirty(String propertyName) {
         if( $changedProperties != null && !$changedProperties.containsKey(propertyName))  {
-            if (DirtyCheckingSupport.DIRTY_CLASS_MARKER.is($changedProperties)) {
-                trackChanges()
-            }
-            $changedProperties.put propertyName, ((GroovyObject)this).getProperty(propertyName)
+            recordChange(propertyName, ((GroovyObject)this).getProperty(propertyName))
         }
     }
 
@@ -112,18 +123,39 @@ trait DirtyCheckable {
      */
     void markDirty(String propertyName, newValue, oldValue) {
         if( $changedProperties != null && !$changedProperties.containsKey(propertyName))  {
-            boolean isNull = newValue == null
-            if ((isNull && oldValue != null) ||
-                    (!isNull && oldValue == null) ||
-                    (!isNull && !newValue.equals(oldValue))) {
-                if (DirtyCheckingSupport.DIRTY_CLASS_MARKER.is($changedProperties)) {
-                    trackChanges()
-                }
-                $changedProperties.put propertyName, oldValue
+            if (DirtyCheckingSupport.hasValueChanged(newValue, oldValue)) {
+                recordChange(propertyName, oldValue)
             }
         }
     }
 
+    /**
+     * Marks the property with the given index as dirty. Called by the setters generated by the dirty checking
+     * transformation, which pass the current value of the field as the old value and skip the lookup of already
+     * dirty properties with a single bit check.
+     *
+     * @param propertyIndex The index of the property as returned by {@link DirtyCheckingSupport#propertyIndex(Class, String)}
+     * @param propertyName The property name
+     * @param newValue The new value
+     * @param oldValue The old value
+     */
+    void markDirty(int propertyIndex, String propertyName, newValue, oldValue) {
+        if( $changedProperties == null || DirtyCheckingSupport.READ_ONLY_MARKER.is($changedProperties) ) {
+            return
+        }
+        long bit = propertyIndex < 64 ? 1L << propertyIndex : 0L
+        if( ($changedPropertyBits & bit) != 0L ) {
+            return
+        }
+        if( $changedProperties.containsKey(propertyName) ) {
+            $changedPropertyBits |= bit
+        }
+        else if (DirtyCheckingSupport.hasValueChanged(newValue, oldValue)) {
+            recordChange(propertyName, oldValue)
+            $changedPropertyBits |= bit
+        }
+    }
+
     /**
      * @return A list of the dirty property names
      */
@@ -132,7 +164,7 @@ trait DirtyCheckable {
             return Collections.emptyList()
         }
 
-        if($changedProperties != null) {
+        if($changedProperties != null && !$changedProperties.isEmpty()) {
             return Collections.unmodifiableList(
                 $changedProperties.keySet().toList()
             )
@@ -153,4 +185,16 @@ trait DirtyCheckable {
             return null
         }
     }
+
+    private void recordChange(String propertyName, Object oldValue) {
+        Map<String, Object> changes = $changedProperties
+        if (DirtyCheckingSupport.READ_ONLY_MARKER.is(changes)) {
+            return
+        }
+        if (DirtyCheckingSupport.NO_CHANGES_MARKER.is(changes) || DirtyCheckingSupport.DIRTY_CLASS_MARKER.is(changes)) {
+            changes = new LinkedHashMap<String, Object>()
+            $changedProperties = changes
+        }
+        changes.put(propertyName, oldValue)
+    }
 }
@@ -38,6 +38,60 @@ class DirtyCheckingSupport {
      * Used internally as a marker. Do not use in user code
      */
     public static final  Map DIRTY_CLASS_MARKER = [:].asImmutable()
+
+    /**
+     * Used internally as the change tracking state of instances without changes. Do not use in user code
+     */
+    public static final Map NO_CHANGES_MARKER = Collections.unmodifiableMap(new LinkedHashMap())
+
+    /**
+     * Used internally as the change tracking state of instances loaded by a read-only session, which are clean and ignore
+     * changes. Do not use in user code
+     */
+    public static final Map READ_ONLY_MARKER = Collections.unmodifiableMap(new LinkedHashMap())
+
+    private static final ClassValue<Map<String, Integer>> PROPERTY_INDICES = new ClassValue<Map<String, Integer>>() {
+        @Override
+        protected Map<String, Integer> computeValue(Class<?> type) {
+            return new LinkedHashMap<String, Integer>()
+        }
+    }
+
+    /**
+     * Returns the index of the given dirty checked property. Indices are unique within a class hierarchy, so that
+     * a subclass does not reuse the index of a property of its parent.
+     *
+     * @param type The class declaring the property
+     * @param propertyName The property name
+     * @return The index
+     */
+    static int propertyIndex(Class type, String propertyName) {
+        Class root = type
+        while (root.superclass != null && DirtyCheckable.isAssignableFrom(root.superclass)) {
+            root = root.superclass
+        }
+        Map<String, Integer> indices = PROPERTY_INDICES.get(root)
+        synchronized (indices) {
+            Integer index = indices.get(propertyName)
+            if (index == null) {
+                index = indices.size()
+                indices.put(propertyName, index)
+            }
+            return index
+        }
+    }
+
+    /**
+     * @param newValue The new value
+     * @param oldValue The old value
+     * @return Whether setting the new value changes the property
+     */
+    static boolean hasValueChanged(Object newValue, Object oldValue) {
+        boolean isNull = newValue == null
+        return (isNull && oldValue != null) ||
+                (!isNull && oldValue == null) ||
+                (!isNull && !newValue.equals(oldValue))
+    }
     /**
      * Checks whether associations are dirty
      *
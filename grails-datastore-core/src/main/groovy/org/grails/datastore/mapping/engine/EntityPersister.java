@@ -22,6 +22,11 @@ import java.util.List;
 import org.grails.datastore.mapping.config.Property;
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.core.SessionImplementor;
+import org.grails.datastore.mapping.core.impl.PendingDelete;
+import org.grails.datastore.mapping.core.impl.PendingInsert;
+import org.grails.datastore.mapping.core.impl.PendingOperationExecution;
+import org.grails.datastore.mapping.core.impl.PendingUpdate;
+import org.grails.datastore.mapping.engine.event.ListenerAwareEventPublisher;
 import org.grails.datastore.mapping.engine.event.PostDeleteEvent;
 import org.grails.datastore.mapping.engine.event.PostInsertEvent;
 import org.grails.datastore.mapping.engine.event.PostLoadEvent;
@@ -36,6 +41,9 @@ import org.grails.datastore.mapping.model.PersistentProperty;
 import org.grails.datastore.mapping.model.PropertyMapping;
 import org.grails.datastore.mapping.model.config.GormProperties;
 import org.grails.datastore.mapping.proxy.ProxyFactory;
+import org.grails.datastore.mapping.query.Query;
+import org.grails.datastore.mapping.query.event.PostQueryEvent;
+import org.grails.datastore.mapping.query.event.PreQueryEvent;
 import org.grails.datastore.mapping.reflect.EntityReflector;
 import org.springframework.context.ApplicationEventPublisher;
 
@@ -187,6 +195,53 @@ public abstract class EntityPersister implements Persister {
         return persistEntities(getPersistentEntity(), objs);
     }
 
+    /**
+     * Executes a batch of pending inserts of the given entity when the session is flushed. The default implementation
+     * executes each operation in turn. Persisters for stores that support batch writes can override this method
+     * to write the whole batch in a single call. The size of the batches is controlled by
+     * {@link org.grails.datastore.mapping.config.Settings#SETTING_FLUSH_BATCH_SIZE}.
+     *
+     * @param entity The entity
+     * @param inserts The pending inserts
+     * @since 9.0
+     */
+    @SuppressWarnings("rawtypes")
+    public void executeBatch(PersistentEntity entity, List<PendingInsert> inserts) {
+        for (PendingInsert insert : inserts) {
+            PendingOperationExecution.executePendingOperation(insert);
+        }
+    }
+
+    /**
+     * Executes a batch of pending updates of the given entity when the session is flushed
+     *
+     * @param entity The entity
+     * @param updates The pending updates
+     * @see #executeBatch(PersistentEntity, List)
+     * @since 9.0
+     */
+    @SuppressWarnings("rawtypes")
+    public void executeUpdateBatch(PersistentEntity entity, List<PendingUpdate> updates) {
+        for (PendingUpdate update : updates) {
+            PendingOperationExecution.executePendingOperation(update);
+        }
+    }
+
+    /**
+     * Executes a batch of pending deletes of the given entity when the session is flushed
+     *
+     * @param entity The entity
+     * @param deletes The pending deletes
+     * @see #executeBatch(PersistentEntity, List)
+     * @since 9.0
+     */
+    @SuppressWarnings("rawtypes")
+    public void executeDeleteBatch(PersistentEntity entity, List<PendingDelete> deletes) {
+        for (PendingDelete delete : deletes) {
+            PendingOperationExecution.executePendingOperation(delete);
+        }
+    }
+
     public List<Object> retrieveAll(Iterable<Serializable> keys) {
         return retrieveAllEntities(getPersistentEntity(), keys);
     }
@@ -224,6 +279,50 @@ public abstract class EntityPersister implements Persister {
         return o;
     }
 
+    /**
+     * Checks whether an entity with the given key exists without loading it. The default implementation executes
+     * a query that only projects the identifier, so no instance is created and no load events are fired.
+     *
+     * @param key The key
+     * @return True if an entity with the given key exists
+     */
+    public boolean exists(Serializable key) {
+        if (key == null) {
+            return false;
+        }
+        Query query = createQuery();
+        query.idEq(key);
+        query.projections().id();
+        query.max(1);
+        return !query.list().isEmpty();
+    }
+
+    /**
+     * Counts the persisted entities without loading them
+     *
+     * @return The number of persisted entities
+     */
+    public long count() {
+        Query query = createQuery();
+        query.projections().count();
+        Object result = query.singleResult();
+        return result instanceof Number ? ((Number) result).longValue() : 0L;
+    }
+
+    /**
+     * Whether queries of this persister have to be executed as {@link Query} instances because a listener for
+     * {@link PreQueryEvent} or {@link PostQueryEvent} is registered. Subclasses can answer {@link #exists(Serializable)}
+     * and {@link #count()} directly from the native store when this returns false.
+     *
+     * @return True if query events have listeners
+     */
+    protected boolean hasQueryListeners() {
+        Object source = session.getDatastore();
+        ApplicationEventPublisher queryPublisher = session.getDatastore().getApplicationEventPublisher();
+        return ListenerAwareEventPublisher.hasListeners(queryPublisher, PreQueryEvent.class, source) ||
+                ListenerAwareEventPublisher.hasListeners(queryPublisher, PostQueryEvent.class, source);
+    }
+
     /**
      * Retrieve a PersistentEntity for the given mappingContext and key
      *
@@ -357,7 +456,7 @@ public abstract class EntityPersister implements Persister {
 
     public void firePostLoadEvent(final PersistentEntity persistentEntity, final EntityAccess entityAccess) {
         publisher.publishEvent(new PostLoadEvent(
-                session.getDatastore(), persistentEntity, entityAccess));
+                session.getDatastore(), persistentEntity, entityAccess, session));
     }
 
     public boolean isVersioned(final EntityAccess ea) {
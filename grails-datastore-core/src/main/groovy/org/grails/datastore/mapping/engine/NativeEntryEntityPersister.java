@@ -27,6 +27,9 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.SortedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
 
 import jakarta.persistence.CascadeType;
 import jakarta.persistence.FetchType;
@@ -39,6 +42,7 @@ import org.grails.datastore.mapping.collection.PersistentList;
 import org.grails.datastore.mapping.collection.PersistentSet;
 import org.grails.datastore.mapping.collection.PersistentSortedSet;
 import org.grails.datastore.mapping.config.Property;
+import org.grails.datastore.mapping.core.AbstractSession;
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.core.SessionImplementor;
 import org.grails.datastore.mapping.core.impl.PendingInsert;
@@ -51,6 +55,7 @@ import org.grails.datastore.mapping.core.impl.PendingUpdateAdapter;
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable;
 import org.grails.datastore.mapping.engine.internal.MappingUtils;
 import org.grails.datastore.mapping.engine.types.CustomTypeMarshaller;
+import org.grails.datastore.mapping.model.AbstractPersistentEntity;
 import org.grails.datastore.mapping.model.ClassMapping;
 import org.grails.datastore.mapping.model.EmbeddedPersistentEntity;
 import org.grails.datastore.mapping.model.MappingContext;
@@ -60,9 +65,12 @@ import org.grails.datastore.mapping.model.PropertyMapping;
 import org.grails.datastore.mapping.model.types.*;
 import org.grails.datastore.mapping.proxy.ProxyFactory;
 import org.grails.datastore.mapping.query.Query;
+import org.grails.datastore.mapping.reflect.EntityReflector;
 import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.convert.ConversionException;
 import org.springframework.core.convert.ConversionService;
 import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.util.ClassUtils;
 
 /**
  * Provides an implementation of the {@link org.grails.datastore.mapping.engine.EntityPersister} class that
@@ -74,7 +82,15 @@ import org.springframework.dao.CannotAcquireLockException;
 @SuppressWarnings({"unused", "rawtypes", "unchecked"})
 public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEntityPersister<T> {
     public static final String EMBEDDED_PREFIX = "embedded:";
+    /**
+     * The default maximum number of keys passed to {@link #retrieveEntries(PersistentEntity, String, List)} at once
+     */
+    public static final int DEFAULT_RETRIEVE_BATCH_SIZE = 500;
     protected ClassMapping classMapping;
+    protected int retrieveBatchSize = DEFAULT_RETRIEVE_BATCH_SIZE;
+    protected Executor retrieveExecutor;
+    // plans of entities that do not hold persister state, computed once per persister
+    private final Map<PersistentEntity, HydrationPlan> hydrationPlans = new HashMap<>();
 
     public NativeEntryEntityPersister(MappingContext mappingContext, PersistentEntity entity,
               Session session, ApplicationEventPublisher publisher) {
@@ -122,6 +138,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
             session.setFlushMode(FlushModeType.COMMIT);
             cascadeBeforeDelete(persistentEntity, entityAccess, key, obj);
             deleteEntry(getEntityFamily(), key, obj);
+            evictFromTPCache(persistentEntity, (Serializable) key);
             cascadeAfterDelete(persistentEntity, entityAccess, key, obj);
         }
         finally {
@@ -248,6 +265,9 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
 
             if (!keys.isEmpty()) {
                 deleteEntries(getEntityFamily(), new ArrayList<K>(keys));
+                for (K key : keys) {
+                    evictFromTPCache(persistentEntity, (Serializable) key);
+                }
                 for (Object object : deleteList) {
                     firePostDeleteEvent(persistentEntity, createEntityAccess(persistentEntity, object));
                 }
@@ -397,233 +417,337 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
     protected void refreshObjectStateFromNativeEntry(PersistentEntity persistentEntity, Object obj,
                                                      Serializable nativeKey, T nativeEntry, boolean isEmbedded) {
         EntityAccess ea = createEntityAccess(persistentEntity, obj, nativeEntry);
+        HydrationPlan plan = getHydrationPlan(persistentEntity);
 
-        if (!(persistentEntity instanceof EmbeddedPersistentEntity)) {
+        if (plan.assignIdentifier) {
             String idName = ea.getIdentifierName();
             ea.setProperty(idName, nativeKey);
         }
 
-        final List<PersistentProperty> props = persistentEntity.getPersistentProperties();
-        for (final PersistentProperty prop : props) {
-            String propKey = getNativePropertyKey(prop);
-            if (prop instanceof Simple) {
-                // this magically converts most types to the correct property type, using bean converters.
-                ea.setProperty(prop.getName(), getEntryValue(nativeEntry, propKey));
-            }
-            else if (prop instanceof Basic) {
-                Basic basic = (Basic) prop;
-                CustomTypeMarshaller customTypeMarshaller = basic.getCustomTypeMarshaller();
-                if(customTypeMarshaller != null) {
-                    if (!customTypeMarshaller.supports(getMappingContext())) {
+        final HydrationSlot[] slots = plan.slots;
+        for (int i = 0; i < slots.length; i++) {
+            final HydrationSlot slot = slots[i];
+            final PersistentProperty prop = slot.property;
+            final String propKey = slot.nativeKey;
+            switch (slot.kind) {
+                case SIMPLE:
+                    writeSlot(slot, ea, getEntryValue(nativeEntry, propKey));
+                    break;
+                case BASIC:
+                    Object entryValue = getEntryValue(nativeEntry, propKey);
+                    entryValue = convertBasicEntryValue(persistentEntity, (Basic) prop, entryValue);
+                    writeSlot(slot, ea, entryValue);
+                    break;
+                case MARSHALLED:
+                    if (!slot.marshaller.supports(getMappingContext())) {
                         return;
                     }
+                    writeSlot(slot, ea, slot.marshaller.read(prop, nativeEntry));
+                    break;
+                case CUSTOM:
+                    handleCustom(prop, ea, nativeEntry);
+                    break;
+                case EMBEDDED:
+                    loadEmbedded((Embedded) prop, ea, obj, nativeEntry, propKey);
+                    break;
+                case TO_ONE:
+                    loadToOne(slot, ea, obj, nativeEntry);
+                    break;
+                case EMBEDDED_COLLECTION:
+                    loadEmbeddedCollectionProperty((EmbeddedCollection) prop, ea, obj, nativeEntry, propKey);
+                    break;
+                case ONE_TO_MANY:
+                    nativeKey = loadOneToMany(slot, ea, nativeKey, nativeEntry, isEmbedded);
+                    break;
+                case MANY_TO_MANY:
+                    nativeKey = convertIdIfNecessary(getPersistentEntity(), nativeKey);
+                    loadManyToMany(slot, persistentEntity, ea, obj, nativeKey, nativeEntry);
+                    break;
+                default:
+                    break;
+            }
+        }
+        // entity is now fully loaded.
+        firePostLoadEvent(persistentEntity, ea);
+    }
 
-                    Object value = customTypeMarshaller.read(prop, nativeEntry);
-                    ea.setProperty(prop.getName(), value);
-                }
-                else {
-                    Object entryValue = getEntryValue(nativeEntry, propKey);
-                    entryValue = convertBasicEntryValue(persistentEntity, (Basic)prop, entryValue);
-                    ea.setProperty(prop.getName(), entryValue);
-                }
+    /**
+     * Writes a value loaded from a native entry to the property of a slot through the writer resolved by the plan,
+     * converting the value to the type of the property if necessary.
+     */
+    private void writeSlot(HydrationSlot slot, EntityAccess ea, Object value) {
+        final EntityReflector.PropertyWriter writer = slot.writer;
+        if (writer == null) {
+            // this magically converts most types to the correct property type, using bean converters.
+            ea.setProperty(slot.name, value);
+            return;
+        }
+        if (value == null) {
+            if (!slot.writerType.isPrimitive()) {
+                writer.write(ea.getEntity(), null);
             }
-            else if (prop instanceof Custom) {
-                handleCustom(prop, ea, nativeEntry);
+            return;
+        }
+        if (!slot.assignableType.isInstance(value)) {
+            try {
+                value = getMappingContext().getConversionService().convert(value, slot.writerType);
+            } catch (ConversionException e) {
+                throw new IllegalArgumentException("Cannot assign value [" + value + "] to property [" + slot.name + "] of type [" +
+                        slot.writerType.getName() + "]. The value could not be converted to the appropriate type: " + e.getMessage(), e);
             }
-            else if (prop instanceof ToOne) {
-                if (prop instanceof Embedded) {
-                    Embedded embedded = (Embedded) prop;
-                    if(embedded.getAssociatedEntity() != null) {
+        }
+        writer.write(ea.getEntity(), value);
+    }
+
+    /**
+     * Obtains the {@link HydrationPlan} used to load instances of the given entity from native entries. The plan is
+     * computed once per entity and type of persister. It is held by the entity itself, so it is shared by the persisters
+     * of every session and released together with the mapping context.
+     *
+     * @param persistentEntity The entity
+     * @return The hydration plan
+     */
+    protected HydrationPlan getHydrationPlan(PersistentEntity persistentEntity) {
+        if (persistentEntity instanceof AbstractPersistentEntity) {
+            AbstractPersistentEntity entity = (AbstractPersistentEntity) persistentEntity;
+            HydrationPlan plan = (HydrationPlan) entity.getPersisterState(getClass());
+            if (plan == null) {
+                plan = (HydrationPlan) entity.putPersisterStateIfAbsent(getClass(), createHydrationPlan(persistentEntity));
+            }
+            return plan;
+        }
+        HydrationPlan plan = hydrationPlans.get(persistentEntity);
+        if (plan == null) {
+            plan = createHydrationPlan(persistentEntity);
+            hydrationPlans.put(persistentEntity, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Creates the {@link HydrationPlan} for the given entity. Subclasses can override to customize the plan.
+     *
+     * @param persistentEntity The entity
+     * @return The hydration plan
+     */
+    protected HydrationPlan createHydrationPlan(PersistentEntity persistentEntity) {
+        List<PersistentProperty> props = persistentEntity.getPersistentProperties();
+        EntityReflector reflector = persistentEntity.getReflector();
+        HydrationSlot[] slots = new HydrationSlot[props.size()];
+        for (int i = 0; i < slots.length; i++) {
+            PersistentProperty prop = props.get(i);
+            slots[i] = new HydrationSlot(prop, getNativePropertyKey(prop), resolvePropertyWriter(reflector, prop));
+        }
+        return new HydrationPlan(!(persistentEntity instanceof EmbeddedPersistentEntity), slots);
+    }
 
-                        T embeddedEntry = getEmbedded(nativeEntry, propKey);
+    private static EntityReflector.PropertyWriter resolvePropertyWriter(EntityReflector reflector, PersistentProperty property) {
+        if (reflector == null) {
+            return null;
+        }
+        try {
+            return reflector.getPropertyWriter(property.getName());
+        } catch (IllegalArgumentException e) {
+            // not writable through the reflector, fall back to the entity access
+            return null;
+        }
+    }
 
+    private void loadEmbedded(Embedded embedded, EntityAccess ea, Object obj, T nativeEntry, String propKey) {
+        if(embedded.getAssociatedEntity() != null) {
 
-                        if (embeddedEntry != null) {
-                            Object embeddedInstance =
-                                    createObjectFromEmbeddedNativeEntry(embedded.getAssociatedEntity(), embeddedEntry);
+            T embeddedEntry = getEmbedded(nativeEntry, propKey);
 
-                            ea.setProperty(propKey, embeddedInstance);
-                            cacheEmbeddedEntry(embedded.getAssociatedEntity(), createEmbeddedCacheEntryKey(embeddedInstance), embeddedEntry);
-                            Association inverseSide = embedded.getInverseSide();
-                            if (embedded.isBidirectional() && inverseSide != null) {
-                                // fix up the owner link
-                                EntityAccess embeddedEa =
-                                        createEntityAccess(embedded.getAssociatedEntity(), embeddedInstance);
-                                embeddedEa.setProperty(inverseSide.getName(), obj);
-                            }
-                        }
-                    }
+
+            if (embeddedEntry != null) {
+                Object embeddedInstance =
+                        createObjectFromEmbeddedNativeEntry(embedded.getAssociatedEntity(), embeddedEntry);
+
+                ea.setProperty(propKey, embeddedInstance);
+                cacheEmbeddedEntry(embedded.getAssociatedEntity(), createEmbeddedCacheEntryKey(embeddedInstance), embeddedEntry);
+                Association inverseSide = embedded.getInverseSide();
+                if (embedded.isBidirectional() && inverseSide != null) {
+                    // fix up the owner link
+                    EntityAccess embeddedEa =
+                            createEntityAccess(embedded.getAssociatedEntity(), embeddedInstance);
+                    embeddedEa.setProperty(inverseSide.getName(), obj);
                 }
-                else {
-                    ToOne association = (ToOne) prop;
+            }
+        }
+    }
 
-                    Serializable tmp = null;
-                    if (!association.isForeignKeyInChild()) {
-                        tmp = (Serializable) getEntryValue(nativeEntry, propKey);
-                    }
-                    else {
-                        if (association.isBidirectional() && association.getAssociatedEntity() != null) {
+    private void loadToOne(HydrationSlot slot, EntityAccess ea, Object obj, T nativeEntry) {
+        ToOne association = (ToOne) slot.property;
 
-                            Query query = session.createQuery(association.getAssociatedEntity().getJavaClass());
-                            query.eq(association.getInverseSide().getName(), obj)
-                                  .projections().id();
+        Serializable tmp = null;
+        if (!association.isForeignKeyInChild()) {
+            tmp = (Serializable) getEntryValue(nativeEntry, slot.nativeKey);
+        }
+        else {
+            if (association.isBidirectional() && association.getAssociatedEntity() != null) {
 
-                            tmp = (Serializable) query.singleResult();
-                        }
-                        else {
-                            // TODO: handle unidirectional?
-                        }
-                    }
+                Query query = session.createQuery(association.getAssociatedEntity().getJavaClass());
+                query.eq(association.getInverseSide().getName(), obj)
+                      .projections().id();
 
-                    if (isEmbeddedEntry(tmp)) {
-                        PersistentEntity associatedEntity = ((ToOne) prop).getAssociatedEntity();
-                        associatedEntity = discriminatePersistentEntity(associatedEntity, (T) tmp);
-                        Object instance = newEntityInstance(associatedEntity);
-                        refreshObjectStateFromNativeEntry(associatedEntity,instance, null, (T) tmp, false);
-                        ea.setProperty(prop.getName(), instance);
-                    }
-                    else if (tmp != null && !prop.getType().isInstance(tmp)) {
-                        PersistentEntity associatedEntity = association.getAssociatedEntity();
-                        if(associatedEntity != null) {
-                            final Serializable associationKey = convertIdIfNecessary(associatedEntity, tmp);
-                            if (associationKey != null) {
+                tmp = (Serializable) query.singleResult();
+            }
+            else {
+                // TODO: handle unidirectional?
+            }
+        }
 
-                                PropertyMapping<Property> associationPropertyMapping = prop.getMapping();
-                                boolean isLazy = isLazyAssociation(associationPropertyMapping);
+        if (isEmbeddedEntry(tmp)) {
+            PersistentEntity associatedEntity = association.getAssociatedEntity();
+            associatedEntity = discriminatePersistentEntity(associatedEntity, (T) tmp);
+            Object instance = newEntityInstance(associatedEntity);
+            refreshObjectStateFromNativeEntry(associatedEntity,instance, null, (T) tmp, false);
+            ea.setProperty(slot.name, instance);
+        }
+        else if (tmp != null && !slot.type.isInstance(tmp)) {
+            PersistentEntity associatedEntity = association.getAssociatedEntity();
+            if(associatedEntity != null) {
+                final Serializable associationKey = convertIdIfNecessary(associatedEntity, tmp);
+                if (associationKey != null) {
+                    Object value = slot.lazy ?
+                            session.proxy(slot.type, associationKey) :
+                            session.retrieve(slot.type, associationKey);
+                    ea.setProperty(slot.name, value);
+                }
+            }
+        }
+    }
 
-                                final Class propType = prop.getType();
-                                Object value = isLazy ?
-                                        session.proxy(propType, associationKey) :
-                                        session.retrieve(propType, associationKey);
-                                ea.setProperty(prop.getName(), value);
-                            }
-                        }
+    private void loadEmbeddedCollectionProperty(EmbeddedCollection embeddedCollection, EntityAccess ea, Object obj, T nativeEntry, String propKey) {
+        final Object embeddedInstances = getEntryValue(nativeEntry, propKey);
+        loadEmbeddedCollection(embeddedCollection, ea, embeddedInstances, propKey);
+        Association inverseSide = embeddedCollection.getInverseSide();
+        if (embeddedCollection.isBidirectional() && inverseSide != null) {
+            // fix up the inverse link
+            Object loadedInstances = ea.getProperty(embeddedCollection.getName());
+            if (loadedInstances instanceof Collection) {
+                Collection embeddedInstancesCollection = (Collection) loadedInstances;
+                for (Object embeddedInstance : embeddedInstancesCollection) {
+                    if (embeddedInstance != null) {
+                        EntityAccess embeddedEa =
+                                createEntityAccess(embeddedCollection.getAssociatedEntity(), embeddedInstance);
+                        embeddedEa.setProperty(inverseSide.getName(), obj);
                     }
                 }
             }
-            else if (prop instanceof EmbeddedCollection) {
-                final Object embeddedInstances = getEntryValue(nativeEntry, propKey);
-                EmbeddedCollection embeddedCollection = (EmbeddedCollection) prop;
-                loadEmbeddedCollection(embeddedCollection, ea, embeddedInstances, propKey);
-                Association inverseSide = embeddedCollection.getInverseSide();
-                if (embeddedCollection.isBidirectional() && inverseSide != null) {
-                    // fix up the inverse link
-                    Object loadedInstances = ea.getProperty(embeddedCollection.getName());
-                    if (loadedInstances instanceof Collection) {
-                        Collection embeddedInstancesCollection = (Collection) loadedInstances;
-                        for (Object embeddedInstance : embeddedInstancesCollection) {
-                            if (embeddedInstance != null) {
-                                EntityAccess embeddedEa =
-                                        createEntityAccess(embeddedCollection.getAssociatedEntity(), embeddedInstance);
-                                embeddedEa.setProperty(inverseSide.getName(), obj);
-                            }
-                        }
+        }
+    }
+
+    private Serializable loadOneToMany(HydrationSlot slot, EntityAccess ea, Serializable nativeKey, T nativeEntry, boolean isEmbedded) {
+        Association association = (Association) slot.property;
+
+        if (isEmbedded) {
+            List keys = loadEmbeddedCollectionKeys(association, ea, nativeEntry);
+            registerBatchFetchKeys(association.getAssociatedEntity().getJavaClass(), keys);
+            if (slot.collectionKind == CollectionKind.LIST) {
+                ea.setPropertyNoConversion(slot.name,
+                        new PersistentList(keys, association.getAssociatedEntity().getJavaClass(), session));
+            }
+            else if (slot.collectionKind == CollectionKind.SET || slot.collectionKind == CollectionKind.SORTED_SET) {
+                ea.setPropertyNoConversion(slot.name,
+                        new PersistentSet(keys, association.getAssociatedEntity().getJavaClass(), session));
+            }
+        }
+        else {
+            AssociationIndexer indexer = getAssociationIndexer(nativeEntry, association);
+            if(indexer != null) {
+                nativeKey = convertIdIfNecessary(getPersistentEntity(), nativeKey );
+                if (slot.lazy) {
+                    switch (slot.collectionKind) {
+                        case LIST:
+                            ea.setPropertyNoConversion(slot.name,
+                                    new PersistentList(nativeKey, session, indexer));
+                            break;
+                        case SORTED_SET:
+                            ea.setPropertyNoConversion(slot.name,
+                                    new PersistentSortedSet(nativeKey, session, indexer));
+                            break;
+                        case SET:
+                            ea.setPropertyNoConversion(slot.name,
+                                    new PersistentSet(nativeKey, session, indexer));
+                            break;
+                        default:
+                            break;
                     }
                 }
+                else {
+                    List keys = indexer.query(nativeKey);
+                    ea.setProperty(slot.name,
+                            session.retrieveAll(association.getAssociatedEntity().getJavaClass(), keys));
+                }
             }
-            else if (prop instanceof OneToMany) {
-                Association association = (Association) prop;
-                PropertyMapping<Property> associationPropertyMapping = association.getMapping();
-
-                if (isEmbedded) {
-                    List keys = loadEmbeddedCollectionKeys((Association) prop, ea, nativeEntry);
-                    if (List.class.isAssignableFrom(association.getType())) {
-                        ea.setPropertyNoConversion(association.getName(),
-                                new PersistentList(keys, association.getAssociatedEntity().getJavaClass(), session));
+        }
+        return nativeKey;
+    }
+
+    private void loadManyToMany(HydrationSlot slot, PersistentEntity persistentEntity, EntityAccess ea, Object obj,
+                                Serializable nativeKey, T nativeEntry) {
+        ManyToMany manyToMany = (ManyToMany) slot.property;
+        PersistentEntity associatedEntity = manyToMany.getAssociatedEntity();
+        if(associatedEntity != null) {
+
+            Class childType = associatedEntity.getJavaClass();
+            Collection cached = ((SessionImplementor)session).getCachedCollection(
+                    persistentEntity, nativeKey, slot.name);
+            if (cached == null) {
+                Collection collection;
+                if (slot.lazy) {
+                    Collection keys = getManyToManyKeys(persistentEntity, obj, nativeKey,
+                            nativeEntry, manyToMany);
+                    registerBatchFetchKeys(childType, keys);
+                    if (slot.collectionKind == CollectionKind.LIST) {
+                        collection = new PersistentList(keys, childType, session);
+                        ea.setPropertyNoConversion(slot.name, collection);
                     }
-                    else if (Set.class.isAssignableFrom(association.getType())) {
-                        ea.setPropertyNoConversion(association.getName(),
-                                new PersistentSet(keys, association.getAssociatedEntity().getJavaClass(), session));
+                    else if (slot.collectionKind == CollectionKind.SET || slot.collectionKind == CollectionKind.SORTED_SET) {
+                        collection = new PersistentSet(keys, childType, session);
+                        ea.setPropertyNoConversion(slot.name, collection);
                     }
-                }
-                else {
-                    boolean isLazy = isLazyAssociation(associationPropertyMapping);
-                    AssociationIndexer indexer = getAssociationIndexer(nativeEntry, association);
-                    if(indexer != null) {
-                        nativeKey = convertIdIfNecessary(getPersistentEntity(), nativeKey );
-                        if (isLazy) {
-                            if (List.class.isAssignableFrom(association.getType())) {
-                                ea.setPropertyNoConversion(association.getName(),
-                                        new PersistentList(nativeKey, session, indexer));
-                            }
-                            else if (SortedSet.class.isAssignableFrom(association.getType())) {
-                                ea.setPropertyNoConversion(association.getName(),
-                                        new PersistentSortedSet(nativeKey, session, indexer));
-                            }
-                            else if (Set.class.isAssignableFrom(association.getType())) {
-                                ea.setPropertyNoConversion(association.getName(),
-                                        new PersistentSet(nativeKey, session, indexer));
-                            }
-                        }
-                        else {
-                            if (indexer != null) {
-                                List keys = indexer.query(nativeKey);
-                                ea.setProperty(association.getName(),
-                                        session.retrieveAll(association.getAssociatedEntity().getJavaClass(), keys));
-                            }
-                        }
+                    else {
+                        collection = Collections.emptyList();
                     }
                 }
-            }
-            else if (prop instanceof ManyToMany) {
-                ManyToMany manyToMany = (ManyToMany) prop;
-                PropertyMapping<Property> associationPropertyMapping = manyToMany.getMapping();
-
-                boolean isLazy = isLazyAssociation(associationPropertyMapping);
-                nativeKey = convertIdIfNecessary(getPersistentEntity(), nativeKey);
-                PersistentEntity associatedEntity = manyToMany.getAssociatedEntity();
-                if(associatedEntity != null) {
-
-                    Class childType = associatedEntity.getJavaClass();
-                    Collection cached = ((SessionImplementor)session).getCachedCollection(
-                            persistentEntity, nativeKey, manyToMany.getName());
-                    if (cached == null) {
-                        Collection collection;
-                        if (isLazy) {
-                            Collection keys = getManyToManyKeys(persistentEntity, obj, nativeKey,
-                                    nativeEntry, manyToMany);
-                            if (List.class.isAssignableFrom(manyToMany.getType())) {
-                                collection = new PersistentList(keys, childType, session);
-                                ea.setPropertyNoConversion(manyToMany.getName(), collection);
-                            }
-                            else if (Set.class.isAssignableFrom(manyToMany.getType())) {
-                                collection = new PersistentSet(keys, childType, session);
-                                ea.setPropertyNoConversion(manyToMany.getName(), collection);
-                            }
-                            else {
-                                collection = Collections.emptyList();
-                            }
+                else {
+                    AssociationIndexer indexer = getAssociationIndexer(nativeEntry, manyToMany);
+                    if (indexer == null) {
+                        if (slot.collectionKind == CollectionKind.SET || slot.collectionKind == CollectionKind.SORTED_SET) {
+                            collection = Collections.emptySet();
                         }
                         else {
-                            AssociationIndexer indexer = getAssociationIndexer(nativeEntry, manyToMany);
-                            if (indexer == null) {
-                                if (List.class.isAssignableFrom(manyToMany.getType())) {
-                                    collection = Collections.emptyList();
-                                }
-                                else if (Set.class.isAssignableFrom(manyToMany.getType())) {
-                                    collection = Collections.emptySet();
-                                }
-                                else {
-                                    collection = Collections.emptyList();
-                                }
-                            }
-                            else {
-                                List keys = indexer.query(nativeKey);
-                                collection = session.retrieveAll(childType, keys);
-                                ea.setProperty(manyToMany.getName(), collection);
-                            }
+                            collection = Collections.emptyList();
                         }
-                        ((SessionImplementor)session).cacheCollection(
-                                persistentEntity, nativeKey, collection, manyToMany.getName());
                     }
                     else {
-                        ea.setProperty(manyToMany.getName(), cached);
+                        List keys = indexer.query(nativeKey);
+                        collection = session.retrieveAll(childType, keys);
+                        ea.setProperty(slot.name, collection);
                     }
                 }
+                ((SessionImplementor)session).cacheCollection(
+                        persistentEntity, nativeKey, collection, slot.name);
+            }
+            else {
+                ea.setProperty(slot.name, cached);
             }
         }
-        // entity is now fully loaded.
-        firePostLoadEvent(persistentEntity, ea);
+    }
+
+    /**
+     * Registers the keys held by an uninitialized collection with the session, so that they can be loaded in the same
+     * batch as other entities of the same type
+     *
+     * @param type The entity type
+     * @param keys The keys
+     */
+    protected void registerBatchFetchKeys(Class type, Collection keys) {
+        if (keys != null && session instanceof AbstractSession) {
+            ((AbstractSession) session).registerBatchFetchKeys(type, keys);
+        }
     }
 
     public static String createEmbeddedCacheEntryKey(Object instance) {
@@ -780,7 +904,7 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
         return persistentEntity;
     }
 
-    private boolean isLazyAssociation(PropertyMapping<Property> associationPropertyMapping) {
+    private static boolean isLazyAssociation(PropertyMapping<Property> associationPropertyMapping) {
         if (associationPropertyMapping == null) {
             return true;
         }
@@ -1494,8 +1618,9 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
     }
 
     /**
-     * Simplistic default implementation of retrieveAllEntities that iterates over each key and retrieves the entities
-     * one-by-one. Data stores that support batch retrieval can optimize this to retrieve all entities in one go.
+     * Retrieves the entities for the given keys, in the order of the keys. Instances already held by the session and
+     * entries held by the third party cache are reused, the remaining entries are fetched with
+     * {@link #retrieveEntries(PersistentEntity, String, List)} in chunks of {@link #getRetrieveBatchSize()} keys.
      *
      * @param persistentEntity The persist entity
      * @param keys The keys
@@ -1503,16 +1628,17 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
      */
     @Override
     protected List<Object> retrieveAllEntities(PersistentEntity persistentEntity, Iterable<Serializable> keys) {
-        List<Object> results = new ArrayList<Object>();
+        List<Serializable> keyList = new ArrayList<Serializable>();
         for (Serializable key : keys) {
-            results.add(retrieveEntity(persistentEntity, key));
+            keyList.add(key);
         }
-        return results;
+        return retrieveAllEntities(persistentEntity, keyList.toArray(new Serializable[0]));
     }
 
     /**
-     * Simplistic default implementation of retrieveAllEntities that iterates over each key and retrieves the entities
-     * one-by-one. Data stores that support batch retrieval can optimize this to retrieve all entities in one go.
+     * Retrieves the entities for the given keys, in the order of the keys. Instances already held by the session and
+     * entries held by the third party cache are reused, the remaining entries are fetched with
+     * {@link #retrieveEntries(PersistentEntity, String, List)} in chunks of {@link #getRetrieveBatchSize()} keys.
      *
      * @param persistentEntity The persist entity
      * @param keys The keys
@@ -1520,13 +1646,158 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
      */
     @Override
     protected List<Object> retrieveAllEntities(PersistentEntity persistentEntity, Serializable[] keys) {
-        List<Object> results = new ArrayList<Object>();
+        final SessionImplementor si = (SessionImplementor) session;
+        final Class type = persistentEntity.getJavaClass();
+        final Map<Serializable, Object> instances = new HashMap<Serializable, Object>();
+        final Map<Serializable, T> entries = new HashMap<Serializable, T>();
+        final Set<K> misses = new LinkedHashSet<K>();
+        for (Serializable key : keys) {
+            if (key == null) {
+                continue;
+            }
+            Serializable nativeKey = convertToNativeKey(key);
+            if (instances.containsKey(nativeKey) || entries.containsKey(nativeKey)) {
+                continue;
+            }
+            Object cached = si.getCachedInstance(type, key);
+            if (cached != null) {
+                instances.put(nativeKey, cached);
+                continue;
+            }
+            T entry = getFromTPCache(persistentEntity, key);
+            if (entry != null) {
+                entries.put(nativeKey, entry);
+            }
+            else {
+                misses.add((K) nativeKey);
+            }
+        }
+
+        if (!misses.isEmpty()) {
+            fetchEntries(persistentEntity, new ArrayList<K>(misses), entries);
+        }
+
+        List<Object> results = new ArrayList<Object>(keys.length);
         for (Serializable key : keys) {
-            results.add(retrieveEntity(persistentEntity, key));
+            if (key == null) {
+                results.add(null);
+                continue;
+            }
+            Serializable nativeKey = convertToNativeKey(key);
+            Object instance = instances.get(nativeKey);
+            if (instance == null && !instances.containsKey(nativeKey)) {
+                T entry = entries.get(nativeKey);
+                instance = entry != null ? createObjectFromNativeEntry(persistentEntity, nativeKey, entry) : null;
+                instances.put(nativeKey, instance);
+            }
+            results.add(instance);
         }
         return results;
     }
 
+    /**
+     * Fetches the entries for the given keys in chunks of {@link #getRetrieveBatchSize()} keys. When there is more
+     * than one chunk and a {@link #getRetrieveExecutor()} is set, the chunks are fetched concurrently.
+     *
+     * @param persistentEntity The entity
+     * @param keys The keys to fetch
+     * @param entries The map to add the entries found to
+     */
+    protected void fetchEntries(final PersistentEntity persistentEntity, List<K> keys, Map<Serializable, T> entries) {
+        final String family = getEntityFamily();
+        int chunkSize = retrieveBatchSize > 0 ? retrieveBatchSize : keys.size();
+        List<List<K>> chunks = new ArrayList<List<K>>();
+        for (int i = 0; i < keys.size(); i += chunkSize) {
+            chunks.add(keys.subList(i, Math.min(i + chunkSize, keys.size())));
+        }
+
+        final Executor executor = retrieveExecutor;
+        if (executor == null || chunks.size() == 1) {
+            for (List<K> chunk : chunks) {
+                addEntries(entries, retrieveEntries(persistentEntity, family, chunk));
+            }
+            return;
+        }
+
+        List<CompletableFuture<Map<K, T>>> futures = new ArrayList<CompletableFuture<Map<K, T>>>(chunks.size());
+        for (final List<K> chunk : chunks) {
+            futures.add(CompletableFuture.supplyAsync(() -> retrieveEntries(persistentEntity, family, chunk), executor));
+        }
+        for (CompletableFuture<Map<K, T>> future : futures) {
+            try {
+                addEntries(entries, future.join());
+            } catch (CompletionException e) {
+                if (e.getCause() instanceof RuntimeException) {
+                    throw (RuntimeException) e.getCause();
+                }
+                throw e;
+            }
+        }
+    }
+
+    private void addEntries(Map<Serializable, T> entries, Map<K, T> retrieved) {
+        for (Map.Entry<K, T> entry : retrieved.entrySet()) {
+            if (entry.getValue() != null) {
+                entries.put((Serializable) entry.getKey(), entry.getValue());
+            }
+        }
+    }
+
+    /**
+     * Retrieves the entries for multiple keys. This default implementation calls
+     * {@link #retrieveEntry(PersistentEntity, String, Serializable)} for each key, datastores that support multi-get
+     * should override it to fetch all the entries in a single round trip.
+     *
+     * <p>When a {@link #getRetrieveExecutor()} is set this method may be called concurrently for different chunks of
+     * keys, so it must not touch the session.</p>
+     *
+     * @param persistentEntity The entity
+     * @param family The family
+     * @param keys The native keys
+     * @return The entries found, by key. Keys without an entry can be left out.
+     */
+    protected Map<K, T> retrieveEntries(PersistentEntity persistentEntity, String family, List<K> keys) {
+        Map<K, T> entries = new HashMap<K, T>(keys.size() * 2);
+        for (K key : keys) {
+            T entry = retrieveEntry(persistentEntity, family, (Serializable) key);
+            if (entry != null) {
+                entries.put(key, entry);
+            }
+        }
+        return entries;
+    }
+
+    /**
+     * @return The maximum number of keys passed to {@link #retrieveEntries(PersistentEntity, String, List)} at once.
+     * A value less than one means there is no limit.
+     */
+    public int getRetrieveBatchSize() {
+        return retrieveBatchSize;
+    }
+
+    /**
+     * @param retrieveBatchSize The maximum number of keys passed to
+     * {@link #retrieveEntries(PersistentEntity, String, List)} at once. A value less than one means there is no limit.
+     */
+    public void setRetrieveBatchSize(int retrieveBatchSize) {
+        this.retrieveBatchSize = retrieveBatchSize;
+    }
+
+    /**
+     * @return The executor used to fetch chunks of entries concurrently, or null to fetch them one after another
+     */
+    public Executor getRetrieveExecutor() {
+        return retrieveExecutor;
+    }
+
+    /**
+     * @param retrieveExecutor The executor used to fetch chunks of entries concurrently, or null to fetch them one
+     * after another
+     */
+    public void setRetrieveExecutor(Executor retrieveExecutor) {
+        this.retrieveExecutor = retrieveExecutor;
+    }
+
     /**
      * Used to establish the native key to use from the identifier defined by the object
      * @param family The family
@@ -1636,6 +1907,138 @@ public abstract class NativeEntryEntityPersister<T, K> extends ThirdPartyCacheEn
         return newId;
     }
 
+    /**
+     * The kinds of property handled when loading an entity from a native entry
+     */
+    protected enum SlotKind {
+        SIMPLE, BASIC, MARSHALLED, CUSTOM, EMBEDDED, TO_ONE, EMBEDDED_COLLECTION, ONE_TO_MANY, MANY_TO_MANY, NONE
+    }
+
+    /**
+     * The kinds of collection created for to-many associations
+     */
+    protected enum CollectionKind {
+        LIST, SORTED_SET, SET, OTHER
+    }
+
+    /**
+     * The precomputed steps to load an entity from a native entry: whether the identifier is assigned and one
+     * {@link HydrationSlot} per persistent property, in the order of {@link PersistentEntity#getPersistentProperties()}.
+     *
+     * @since 9.0
+     */
+    protected static final class HydrationPlan {
+        final boolean assignIdentifier;
+        final HydrationSlot[] slots;
+
+        public HydrationPlan(boolean assignIdentifier, HydrationSlot[] slots) {
+            this.assignIdentifier = assignIdentifier;
+            this.slots = slots;
+        }
+
+        public boolean isAssignIdentifier() {
+            return assignIdentifier;
+        }
+
+        public HydrationSlot[] getSlots() {
+            return slots;
+        }
+    }
+
+    /**
+     * A persistent property with everything needed to load it resolved up front: the native key, the kind of
+     * property, the writer of the property, the marshaller, whether it is fetched lazily and the kind of collection it holds.
+     *
+     * @since 9.0
+     */
+    protected static final class HydrationSlot {
+        final PersistentProperty property;
+        final String name;
+        final String nativeKey;
+        final Class type;
+        final SlotKind kind;
+        final CustomTypeMarshaller marshaller;
+        final boolean lazy;
+        final CollectionKind collectionKind;
+        final EntityReflector.PropertyWriter writer;
+        final Class writerType;
+        final Class assignableType;
+
+        public HydrationSlot(PersistentProperty property, String nativeKey) {
+            this(property, nativeKey, null);
+        }
+
+        public HydrationSlot(PersistentProperty property, String nativeKey, EntityReflector.PropertyWriter writer) {
+            this.property = property;
+            this.writer = writer;
+            this.writerType = writer != null ? writer.propertyType() : null;
+            this.assignableType = writerType != null ? ClassUtils.resolvePrimitiveIfNecessary(writerType) : null;
+            this.name = property.getName();
+            this.nativeKey = nativeKey;
+            this.type = property.getType();
+            CustomTypeMarshaller marshaller = null;
+            if (property instanceof Simple) {
+                kind = SlotKind.SIMPLE;
+            }
+            else if (property instanceof Basic) {
+                marshaller = ((Basic) property).getCustomTypeMarshaller();
+                kind = marshaller != null ? SlotKind.MARSHALLED : SlotKind.BASIC;
+            }
+            else if (property instanceof Custom) {
+                kind = SlotKind.CUSTOM;
+            }
+            else if (property instanceof Embedded) {
+                kind = SlotKind.EMBEDDED;
+            }
+            else if (property instanceof ToOne) {
+                kind = SlotKind.TO_ONE;
+            }
+            else if (property instanceof EmbeddedCollection) {
+                kind = SlotKind.EMBEDDED_COLLECTION;
+            }
+            else if (property instanceof OneToMany) {
+                kind = SlotKind.ONE_TO_MANY;
+            }
+            else if (property instanceof ManyToMany) {
+                kind = SlotKind.MANY_TO_MANY;
+            }
+            else {
+                kind = SlotKind.NONE;
+            }
+            this.marshaller = marshaller;
+            this.lazy = property instanceof Association && isLazyAssociation(property.getMapping());
+
+            if (List.class.isAssignableFrom(type)) {
+                collectionKind = CollectionKind.LIST;
+            }
+            else if (SortedSet.class.isAssignableFrom(type)) {
+                collectionKind = CollectionKind.SORTED_SET;
+            }
+            else if (Set.class.isAssignableFrom(type)) {
+                collectionKind = CollectionKind.SET;
+            }
+            else {
+                collectionKind = CollectionKind.OTHER;
+            }
+        }
+
+        public PersistentProperty getProperty() {
+            return property;
+        }
+
+        public String getNativeKey() {
+            return nativeKey;
+        }
+
+        public SlotKind getKind() {
+            return kind;
+        }
+
+        public EntityReflector.PropertyWriter getWriter() {
+            return writer;
+        }
+    }
+
     protected class NativeEntryModifyingEntityAccess extends BeanEntityAccess {
 
         T nativeEntry;
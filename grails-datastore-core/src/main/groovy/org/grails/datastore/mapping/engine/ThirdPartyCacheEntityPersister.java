@@ -53,6 +53,17 @@ public abstract class ThirdPartyCacheEntityPersister<T> extends LockableEntityPe
         }
     }
 
+    protected void evictFromTPCache(PersistentEntity persistentEntity, Serializable id) {
+        if (cacheAdapterRepository == null || id == null) {
+            return;
+        }
+
+        TPCacheAdapter<T> cacheAdapter = cacheAdapterRepository.getTPCacheAdapter(persistentEntity);
+        if (cacheAdapter != null) {
+            cacheAdapter.evictEntry(id);
+        }
+    }
+
     protected T getFromTPCache(PersistentEntity persistentEntity, Serializable id) {
         if (cacheAdapterRepository == null) {
             return null;
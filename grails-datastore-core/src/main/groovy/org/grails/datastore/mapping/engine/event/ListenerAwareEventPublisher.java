@@ -0,0 +1,77 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.engine.event;
+
+import org.springframework.context.ApplicationEvent;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * An {@link ApplicationEventPublisher} that can tell whether any listener would receive an event, which allows
+ * callers to skip creating and publishing events nobody listens to.
+ *
+ * @since 9.0
+ */
+public interface ListenerAwareEventPublisher extends ApplicationEventPublisher {
+
+    /**
+     * @param eventType The type of event
+     * @param sourceType The type of the source of the event
+     * @return Whether a listener is registered that would receive events of the given type from the given source
+     */
+    boolean hasListeners(Class<? extends ApplicationEvent> eventType, Class<?> sourceType);
+
+    /**
+     * @param listenerType The type of listener
+     * @return Whether a listener of the given type is registered
+     */
+    boolean hasListener(Class<?> listenerType);
+
+    /**
+     * Checks whether the given publisher has listeners for the given event type. Publishers that are not a
+     * {@link ListenerAwareEventPublisher} are assumed to have listeners.
+     *
+     * @param publisher The publisher, possibly null
+     * @param eventType The type of event
+     * @param source The source of the event
+     * @return Whether events of the given type need to be published
+     */
+    static boolean hasListeners(ApplicationEventPublisher publisher, Class<? extends ApplicationEvent> eventType, Object source) {
+        if (publisher == null) {
+            return false;
+        }
+        if (publisher instanceof ListenerAwareEventPublisher) {
+            return ((ListenerAwareEventPublisher) publisher).hasListeners(eventType, source != null ? source.getClass() : Object.class);
+        }
+        return true;
+    }
+
+    /**
+     * Checks whether the given publisher has a listener of the given type. Publishers that are not a
+     * {@link ListenerAwareEventPublisher} are assumed to have one.
+     *
+     * @param publisher The publisher, possibly null
+     * @param listenerType The type of listener
+     * @return Whether a listener of the given type may be registered
+     */
+    static boolean hasListener(ApplicationEventPublisher publisher, Class<?> listenerType) {
+        if (publisher == null) {
+            return false;
+        }
+        if (publisher instanceof ListenerAwareEventPublisher) {
+            return ((ListenerAwareEventPublisher) publisher).hasListener(listenerType);
+        }
+        return true;
+    }
+}
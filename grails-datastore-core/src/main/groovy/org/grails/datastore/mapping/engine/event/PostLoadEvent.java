@@ -15,6 +15,7 @@
 package org.grails.datastore.mapping.engine.event;
 
 import org.grails.datastore.mapping.core.Datastore;
+import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.engine.EntityAccess;
 import org.grails.datastore.mapping.model.PersistentEntity;
 
@@ -25,21 +26,39 @@ public class PostLoadEvent extends AbstractPersistenceEvent {
 
     private static final long serialVersionUID = 1;
 
+    private final transient Session session;
+
     public PostLoadEvent(final Datastore source, final PersistentEntity entity,
             final EntityAccess entityAccess) {
+        this(source, entity, entityAccess, null);
+    }
+
+    public PostLoadEvent(final Datastore source, final PersistentEntity entity,
+            final EntityAccess entityAccess, final Session session) {
         super(source, entity, entityAccess);
+        this.session = session;
     }
 
     public PostLoadEvent(final Datastore source, final Object entity) {
         super(source, entity);
+        this.session = null;
     }
 
     public PostLoadEvent(Object source, PersistentEntity entity, EntityAccess entityAccess) {
         super(source, entity, entityAccess);
+        this.session = null;
     }
 
     public PostLoadEvent(Object source, PersistentEntity entity) {
         super(source, entity);
+        this.session = null;
+    }
+
+    /**
+     * @return The session that loaded the entity, or null if unknown
+     */
+    public Session getSession() {
+        return session;
     }
 
     @Override
@@ -19,6 +19,7 @@ import java.beans.PropertyDescriptor;
 import java.lang.annotation.Annotation;
 import java.lang.reflect.Modifier;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 import org.grails.datastore.mapping.config.Entity;
 import org.grails.datastore.mapping.core.EntityCreationException;
@@ -63,6 +64,7 @@ public abstract class AbstractPersistentEntity<T extends Entity> implements Pers
     private EntityReflector entityReflector;
     private final boolean isMultiTenant;
     private TenantId tenantId;
+    private final Map<Object, Object> persisterState = new ConcurrentHashMap<>();
 
     public AbstractPersistentEntity(Class javaClass, MappingContext context) {
         Assert.notNull(javaClass, "The argument [javaClass] cannot be null");
@@ -263,6 +265,31 @@ public abstract class AbstractPersistentEntity<T extends Entity> implements Pers
         return this.entityReflector;
     }
 
+    /**
+     * Obtains state computed by a persister for this entity, such as the plan used to load its instances. Persisters are
+     * created per session, so keeping the state on the entity shares it between sessions for the lifetime of the mapping context.
+     *
+     * @param key The key of the state, usually the type of the persister
+     * @return The state or null if none was stored
+     * @since 9.0
+     */
+    public Object getPersisterState(Object key) {
+        return persisterState.get(key);
+    }
+
+    /**
+     * Stores state computed by a persister for this entity unless state is already stored for the key
+     *
+     * @param key The key of the state, usually the type of the persister
+     * @param state The state
+     * @return The state stored for the key
+     * @since 9.0
+     */
+    public Object putPersisterStateIfAbsent(Object key, Object state) {
+        Object existing = persisterState.putIfAbsent(key, state);
+        return existing != null ? existing : state;
+    }
+
     protected boolean isAnnotatedSuperClass(MappingConfigurationStrategy mappingSyntaxStrategy, Class superClass) {
 
         Annotation[] annotations = superClass.getAnnotations();
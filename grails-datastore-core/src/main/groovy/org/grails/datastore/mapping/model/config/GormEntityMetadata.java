@@ -0,0 +1,176 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.model.config;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * The static mapping declarations of an entity class, such as {@code hasMany}, {@code belongsTo} or {@code mapping}, as generated at
+ * compile time by the GORM entity transformation.
+ *
+ * <p>Each transformed class declares a static {@value #METHOD_NAME} method returning the declarations of the class itself, read directly
+ * from its static fields. Reading them from the metadata avoids resolving the static properties through the meta class of every class in
+ * the inheritance hierarchy. Classes without the method, for example classes compiled by an earlier version or declaring a custom getter
+ * for one of the properties, are read through reflection.</p>
+ *
+ * @see org.grails.datastore.mapping.reflect.ClassPropertyFetcher
+ * @since 9.0
+ */
+public class GormEntityMetadata {
+
+    /**
+     * The name of the static method returning the metadata of a class
+     */
+    public static final String METHOD_NAME = "$gormEntityMetadata";
+
+    /**
+     * The static properties covered by the metadata
+     */
+    public static final Set<String> STATIC_PROPERTIES = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+            GormProperties.HAS_MANY,
+            GormProperties.HAS_ONE,
+            GormProperties.BELONGS_TO,
+            GormProperties.MAPPED_BY,
+            GormProperties.TRANSIENT,
+            GormProperties.EMBEDDED,
+            GormProperties.MAPPING,
+            GormProperties.CONSTRAINTS,
+            GormProperties.MAPPING_STRATEGY
+    )));
+
+    private static final ClassValue<Optional<GormEntityMetadata>> METADATA = new ClassValue<Optional<GormEntityMetadata>>() {
+        @Override
+        protected Optional<GormEntityMetadata> computeValue(Class<?> type) {
+            try {
+                Method method = type.getDeclaredMethod(METHOD_NAME);
+                if (Modifier.isStatic(method.getModifiers()) && method.getReturnType() == GormEntityMetadata.class) {
+                    method.setAccessible(true);
+                    return Optional.ofNullable((GormEntityMetadata) method.invoke(null));
+                }
+            } catch (NoSuchMethodException | SecurityException | IllegalAccessException | InvocationTargetException e) {
+                // not transformed
+            }
+            return Optional.empty();
+        }
+    };
+
+    private final Class<?> type;
+    private final Map<String, Object> staticProperties;
+
+    /**
+     * @param type The class
+     * @param staticProperties The values of the static properties declared by the class itself
+     */
+    public GormEntityMetadata(Class<?> type, Map<String, Object> staticProperties) {
+        this.type = type;
+        this.staticProperties = staticProperties != null ? staticProperties : Collections.emptyMap();
+    }
+
+    /**
+     * @param type The class
+     * @return Whether metadata was generated for the given class
+     */
+    public static boolean isGenerated(Class<?> type) {
+        return type != null && METADATA.get(type).isPresent();
+    }
+
+    /**
+     * Obtains the metadata generated for the given class. The generated method is only invoked once per class.
+     *
+     * @param type The class
+     * @return The metadata or null if the class was not transformed
+     */
+    public static GormEntityMetadata forClass(Class<?> type) {
+        return type != null ? METADATA.get(type).orElse(null) : null;
+    }
+
+    /**
+     * Reads the values of a static property from the metadata of the whole inheritance hierarchy, starting with the base class
+     *
+     * @param type The class
+     * @param name The name of the static property
+     * @param requiredType The required type of the values
+     * @return The values or null if the property is not covered by the metadata or a class of the hierarchy has no metadata
+     */
+    public static <T> List<T> getStaticPropertyValuesFromInheritanceHierarchy(Class<?> type, String name, Class<T> requiredType) {
+        if (!STATIC_PROPERTIES.contains(name)) {
+            return null;
+        }
+        List<T> values = new ArrayList<>(2);
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            GormEntityMetadata metadata = forClass(current);
+            if (metadata == null) {
+                return null;
+            }
+            Object value = metadata.staticProperties.get(name);
+            if (requiredType.isInstance(value)) {
+                values.add(requiredType.cast(value));
+            }
+        }
+        Collections.reverse(values);
+        return values;
+    }
+
+    /**
+     * Reads the value of a static property, declared by the class or inherited from one of its super classes
+     *
+     * @param type The class
+     * @param name The name of the static property
+     * @return An optional holding the value, which is empty if the value is null, or null if the property is not covered by the metadata
+     * or a class of the hierarchy has no metadata
+     */
+    public static Optional<Object> getStaticPropertyValue(Class<?> type, String name) {
+        if (!STATIC_PROPERTIES.contains(name)) {
+            return null;
+        }
+        Object found = null;
+        boolean declared = false;
+        for (Class<?> current = type; current != null && current != Object.class; current = current.getSuperclass()) {
+            GormEntityMetadata metadata = forClass(current);
+            if (metadata == null) {
+                return null;
+            }
+            if (!declared && metadata.staticProperties.containsKey(name)) {
+                found = metadata.staticProperties.get(name);
+                declared = true;
+            }
+        }
+        return Optional.ofNullable(found);
+    }
+
+    /**
+     * @return The class
+     */
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * @return The values of the static properties declared by the class itself
+     */
+    public Map<String, Object> getStaticProperties() {
+        return staticProperties;
+    }
+}
@@ -14,7 +14,13 @@
  */
 package org.grails.datastore.mapping.query;
 
+import org.grails.datastore.mapping.cache.QueryCacheKey;
+import org.grails.datastore.mapping.cache.QueryResultCache;
+import org.grails.datastore.mapping.cache.QueryResultCacheCapableDatastore;
+import org.grails.datastore.mapping.core.Datastore;
 import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.engine.EntityAccess;
+import org.grails.datastore.mapping.engine.event.ListenerAwareEventPublisher;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
@@ -33,9 +39,14 @@ import jakarta.persistence.FetchType;
 import jakarta.persistence.FlushModeType;
 import jakarta.persistence.LockModeType;
 import jakarta.persistence.criteria.JoinType;
+import java.io.Closeable;
+import java.io.IOException;
 import java.io.Serializable;
+import java.io.UncheckedIOException;
 import java.util.*;
 import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * Models a query that can be executed against a data store.
@@ -46,6 +57,11 @@ import java.util.regex.Pattern;
 @SuppressWarnings({"rawtypes", "unchecked"})
 public abstract class Query implements Cloneable{
 
+    /**
+     * The default number of results fetched at a time by {@link #stream()}
+     */
+    public static final int DEFAULT_FETCH_SIZE = 100;
+
     protected final PersistentEntity entity;
     protected final Session session;
 
@@ -578,17 +594,250 @@ public abstract class Query implements Cloneable{
         return results.isEmpty() ? null : results.get(0);
     }
 
+    /**
+     * Executes the query returning the results as a stream that fetches {@link #DEFAULT_FETCH_SIZE} results at a time.
+     *
+     * @return The results
+     * @see #scroll(int)
+     */
+    public Stream<Object> stream() {
+        return scroll(DEFAULT_FETCH_SIZE);
+    }
+
+    /**
+     * Executes the query returning the results as a stream backed by a cursor, which fetches results as they are
+     * consumed instead of materializing the full result list. Entities that have been consumed are detached from the
+     * session, so that iterating over a large number of results runs in constant memory.
+     *
+     * <p>The stream has to be consumed while the session is open and should be closed once done, for example using
+     * try-with-resources, to release the underlying cursor. Since the results are never held as a list, no
+     * {@link PostQueryEvent} is published.</p>
+     *
+     * @param fetchSize The number of results to fetch at a time
+     * @return The results
+     */
+    public Stream<Object> scroll(int fetchSize) {
+        uniqueResult = false;
+        flushBeforeQuery();
+
+        Datastore datastore = session.getDatastore();
+        ApplicationEventPublisher publisher = datastore.getApplicationEventPublisher();
+        if(ListenerAwareEventPublisher.hasListeners(publisher, PreQueryEvent.class, datastore)) {
+            publisher.publishEvent(new PreQueryEvent(this));
+        }
+
+        final Iterator<Object> cursor = executeCursor(entity, criteria, fetchSize > 0 ? fetchSize : DEFAULT_FETCH_SIZE);
+        final DetachingIterator results = new DetachingIterator(cursor, projections.isEmpty() ? session : null);
+        Stream<Object> stream = StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(results, Spliterator.ORDERED), false);
+        return stream.onClose(results::close);
+    }
+
+    /**
+     * Executes the query returning a cursor over the results. Datastores are expected to override this method with
+     * a native cursor, returning a {@link Closeable} iterator if the cursor holds resources.
+     *
+     * <p>This default implementation pages through the results with {@link #executeQuery(PersistentEntity, Junction)},
+     * fetching {@code fetchSize} results per page. The identifier is appended to the orders of each page as the final
+     * tie-breaker, so the order is stable across pages even if the query is sorted by a non-unique property. If the
+     * results are entities ordered by non-nullable properties, each page after the first one starts after the sort
+     * values of the last result of the previous page instead of skipping the previous pages with an offset, so the
+     * cost of a page does not grow with the number of results already read. The orders of this query are not
+     * modified.</p>
+     *
+     * @param entity The entity
+     * @param criteria The criteria
+     * @param fetchSize The number of results to fetch at a time
+     * @return The cursor
+     */
+    protected Iterator<Object> executeCursor(final PersistentEntity entity, final Junction criteria, final int fetchSize) {
+        final List<Order> pageOrders = new ArrayList<>(orderBy);
+        final PersistentProperty identity = entity.getIdentity();
+        if (identity != null && !isOrderedBy(pageOrders, identity.getName())) {
+            pageOrders.add(Order.asc(identity.getName()));
+        }
+        final boolean keyset = identity != null && projections.isEmpty() && isKeysetOrder(entity, pageOrders);
+        final int firstResult = offset;
+        final int maxResults = max;
+        return new Iterator<Object>() {
+            int fetched = 0;
+            Object last;
+            Iterator<Object> page = Collections.emptyIterator();
+            boolean exhausted = false;
+
+            @Override
+            public boolean hasNext() {
+                while (!page.hasNext() && !exhausted) {
+                    int pageSize = maxResults > -1 ? Math.min(fetchSize, maxResults - fetched) : fetchSize;
+                    if (pageSize <= 0) {
+                        exhausted = true;
+                        break;
+                    }
+                    Junction after = keyset && last != null ? createKeysetCriterion(entity, pageOrders, last) : null;
+                    List<Order> orders = new ArrayList<>(orderBy);
+                    List results;
+                    try {
+                        orderBy.clear();
+                        orderBy.addAll(pageOrders);
+                        max = pageSize;
+                        if (after != null) {
+                            offset = 0;
+                            Junction pageCriteria = after;
+                            if (!criteria.isEmpty()) {
+                                pageCriteria = new Conjunction();
+                                pageCriteria.add(criteria);
+                                pageCriteria.add(after);
+                            }
+                            results = executeQuery(entity, pageCriteria);
+                        }
+                        else {
+                            offset = firstResult + fetched;
+                            results = executeQuery(entity, criteria);
+                        }
+                    } finally {
+                        orderBy.clear();
+                        orderBy.addAll(orders);
+                        offset = firstResult;
+                        max = maxResults;
+                    }
+                    fetched += results.size();
+                    exhausted = results.size() < pageSize;
+                    if (!results.isEmpty()) {
+                        last = results.get(results.size() - 1);
+                    }
+                    page = results.iterator();
+                }
+                return page.hasNext();
+            }
+
+            @Override
+            public Object next() {
+                if (!hasNext()) {
+                    throw new NoSuchElementException();
+                }
+                return page.next();
+            }
+        };
+    }
+
+    private static boolean isOrderedBy(List<Order> orders, String property) {
+        for (Order order : orders) {
+            if (property.equals(order.getProperty())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Whether pages can start after the sort values of the previous page: every order has to be on a non-nullable
+     * property of the entity itself that is compared case-sensitively
+     */
+    private static boolean isKeysetOrder(PersistentEntity entity, List<Order> orders) {
+        for (Order order : orders) {
+            if (order.isIgnoreCase()) {
+                return false;
+            }
+            PersistentProperty identity = entity.getIdentity();
+            if (identity != null && identity.getName().equals(order.getProperty())) {
+                continue;
+            }
+            PersistentProperty property = entity.getPropertyByName(order.getProperty());
+            if (property == null || property instanceof Association || property.isNullable()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Creates the criterion matching the results that follow the given result in the given orders, or null if one
+     * of its sort values is null, in which case the page is fetched with an offset
+     */
+    private Junction createKeysetCriterion(PersistentEntity entity, List<Order> orders, Object last) {
+        EntityAccess access = session.getMappingContext().createEntityAccess(entity, last);
+        Object[] values = new Object[orders.size()];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = access.getProperty(orders.get(i).getProperty());
+            if (values[i] == null) {
+                return null;
+            }
+        }
+        // (o1 > v1) or (o1 = v1 and o2 > v2) or ... with < for descending orders
+        Disjunction after = new Disjunction();
+        for (int i = 0; i < values.length; i++) {
+            Conjunction conjunction = new Conjunction();
+            for (int j = 0; j < i; j++) {
+                conjunction.add(Restrictions.eq(orders.get(j).getProperty(), values[j]));
+            }
+            Order order = orders.get(i);
+            conjunction.add(order.getDirection() == Order.Direction.DESC ?
+                    Restrictions.lt(order.getProperty(), values[i]) :
+                    Restrictions.gt(order.getProperty(), values[i]));
+            after.add(conjunction);
+        }
+        return after;
+    }
+
+    /**
+     * Iterates over a cursor, detaching each entity from the session once the next one is requested
+     */
+    private static class DetachingIterator implements Iterator<Object>, Closeable {
+        private final Iterator<Object> cursor;
+        private final Session session;
+        private Object previous;
+
+        DetachingIterator(Iterator<Object> cursor, Session session) {
+            this.cursor = cursor;
+            this.session = session;
+        }
+
+        @Override
+        public boolean hasNext() {
+            detachPrevious();
+            return cursor.hasNext();
+        }
+
+        @Override
+        public Object next() {
+            detachPrevious();
+            Object next = cursor.next();
+            previous = next;
+            return next;
+        }
+
+        private void detachPrevious() {
+            if (previous != null && session != null) {
+                session.clear(previous);
+            }
+            previous = null;
+        }
+
+        @Override
+        public void close() {
+            detachPrevious();
+            if (cursor instanceof Closeable) {
+                try {
+                    ((Closeable) cursor).close();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }
+        }
+    }
+
     private List doList() {
         flushBeforeQuery();
 
-        ApplicationEventPublisher publisher = session.getDatastore().getApplicationEventPublisher();
-        if(publisher != null) {
+        Datastore datastore = session.getDatastore();
+        ApplicationEventPublisher publisher = datastore.getApplicationEventPublisher();
+        if(ListenerAwareEventPublisher.hasListeners(publisher, PreQueryEvent.class, datastore)) {
             publisher.publishEvent(new PreQueryEvent(this));
         }
 
-        List results = executeQuery(entity, criteria);
+        List results = executeQueryWithCache();
 
-        if(publisher != null) {
+        if(ListenerAwareEventPublisher.hasListeners(publisher, PostQueryEvent.class, datastore)) {
             PostQueryEvent postQueryEvent = new PostQueryEvent(this, results);
             publisher.publishEvent(postQueryEvent);
             results = postQueryEvent.getResults();
@@ -598,6 +847,71 @@ public abstract class Query implements Cloneable{
         return results;
     }
 
+    /**
+     * Executes the query, consulting the {@link QueryResultCache} of the datastore first if the query has been marked as cacheable
+     *
+     * @return The results
+     */
+    private List executeQueryWithCache() {
+        QueryResultCache queryResultCache = getQueryResultCache();
+        if (queryResultCache == null) {
+            return executeQuery(entity, criteria);
+        }
+
+        QueryCacheKey key = QueryCacheKey.create(entity, criteria, projections.getProjectionList(), orderBy, max, offset, uniqueResult);
+        if (key == null) {
+            return executeQuery(entity, criteria);
+        }
+
+        List cached = queryResultCache.get(key);
+        if (cached != null) {
+            if (key.isProjection()) {
+                return new ArrayList(cached);
+            }
+            List resolved = session.retrieveAll(entity.getJavaClass(), cached);
+            // an entity that has since disappeared from the datastore means the cached identifiers are out of date
+            if (!resolved.contains(null)) {
+                return resolved;
+            }
+        }
+
+        long timestamp = queryResultCache.getTimestamp();
+        List results = executeQuery(entity, criteria);
+        List toCache = key.isProjection() ? results : identifiersOf(results);
+        if (toCache != null) {
+            queryResultCache.put(key, toCache, timestamp);
+        }
+        return results;
+    }
+
+    private QueryResultCache getQueryResultCache() {
+        if (!Boolean.TRUE.equals(queryCache) || session == null) {
+            return null;
+        }
+        Datastore datastore = session.getDatastore();
+        if (datastore instanceof QueryResultCacheCapableDatastore) {
+            return ((QueryResultCacheCapableDatastore) datastore).getQueryResultCache();
+        }
+        return null;
+    }
+
+    private List<Serializable> identifiersOf(List results) {
+        Class javaClass = entity.getJavaClass();
+        List<Serializable> identifiers = new ArrayList<>(results.size());
+        for (Object result : results) {
+            // subclass instances and proxies cannot be resolved through the identifier alone
+            if (result == null || result.getClass() != javaClass) {
+                return null;
+            }
+            Serializable identifier = session.getObjectIdentifier(result);
+            if (identifier == null) {
+                return null;
+            }
+            identifiers.add(identifier);
+        }
+        return identifiers;
+    }
+
     /**
      * Here purely for compatibility
      *
@@ -15,14 +15,19 @@
 package org.grails.datastore.mapping.query.jpa;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import org.grails.datastore.mapping.model.AbstractPersistentEntity;
 import org.grails.datastore.mapping.model.PersistentEntity;
 import org.grails.datastore.mapping.model.PersistentProperty;
@@ -63,6 +68,22 @@ public class JpaQueryBuilder {
 
     public static final String LOGICAL_OR = " OR ";
     private static final Map<Class, QueryHandler> queryHandlers = new HashMap<>();
+    /**
+     * The maximum number of compiled queries kept by the query cache
+     */
+    public static final int COMPILED_QUERY_CACHE_SIZE = 1000;
+    private static final Cache<QueryShape, CompiledQuery> compiledQueries = Caffeine.newBuilder()
+            .executor(Runnable::run)
+            .maximumSize(COMPILED_QUERY_CACHE_SIZE)
+            .build();
+    private static final Set<Class> VALUE_CRITERIA = new HashSet<Class>(Arrays.asList(
+            Query.Equals.class, Query.NotEquals.class, Query.GreaterThan.class, Query.GreaterThanEquals.class,
+            Query.LessThan.class, Query.LessThanEquals.class, Query.Like.class, Query.ILike.class));
+    private static final Set<Class> NAME_CRITERIA = new HashSet<Class>(Arrays.asList(
+            Query.IsNull.class, Query.IsNotNull.class, Query.IsEmpty.class, Query.IsNotEmpty.class));
+    private static final Set<Class> PROPERTY_COMPARISON_CRITERIA = new HashSet<Class>(Arrays.asList(
+            Query.EqualsProperty.class, Query.NotEqualsProperty.class, Query.GreaterThanProperty.class,
+            Query.GreaterThanEqualsProperty.class, Query.LessThanProperty.class, Query.LessThanEqualsProperty.class));
     public static final String PARAMETER_NAME_PREFIX = "p";
     private static final String PARAMETER_PREFIX = ":p";
     private PersistentEntity entity;
@@ -123,13 +144,23 @@ public class JpaQueryBuilder {
         if (propertiesToUpdate.isEmpty()) {
             throw new InvalidDataAccessResourceUsageException("No properties specified to update");
         }
+        ShapeCollector shape = new ShapeCollector(UPDATE_CLAUSE);
+        for (String propertyName : new TreeSet<String>(propertiesToUpdate.keySet())) {
+            shape.shape.append(propertyName).append(COMMA);
+            shape.addValue(propertiesToUpdate.get(propertyName), null);
+        }
+        JpaQueryInfo cached = lookupCompiledQuery(shape);
+        if (cached != null) {
+            return cached;
+        }
+
         StringBuilder queryString = new StringBuilder(UPDATE_CLAUSE).append(entity.getName()).append(SPACE).append(logicalName);
 
         List parameters = new ArrayList();
         buildUpdateStatement(queryString, propertiesToUpdate, parameters, hibernateCompatible);
         StringBuilder whereClause = new StringBuilder();
         buildWhereClause(entity, criteria, queryString, whereClause, logicalName, false, parameters);
-        return new JpaQueryInfo(queryString.toString(), parameters);
+        return cacheCompiledQuery(shape, new JpaQueryInfo(queryString.toString(), parameters));
     }
 
     /**
@@ -138,10 +169,16 @@ public class JpaQueryBuilder {
      * @return The JpaQueryInfo
      */
     public JpaQueryInfo buildDelete() {
+        ShapeCollector shape = new ShapeCollector(DELETE_CLAUSE);
+        JpaQueryInfo cached = lookupCompiledQuery(shape);
+        if (cached != null) {
+            return cached;
+        }
+
         StringBuilder queryString = new StringBuilder(DELETE_CLAUSE).append(entity.getName()).append(SPACE).append(logicalName);
         StringBuilder whereClause = new StringBuilder();
         List parameters = buildWhereClause(entity, criteria, queryString, whereClause, logicalName, false);
-        return new JpaQueryInfo(queryString.toString(), parameters);
+        return cacheCompiledQuery(shape, new JpaQueryInfo(queryString.toString(), parameters));
     }
 
     /**
@@ -150,6 +187,22 @@ public class JpaQueryBuilder {
      * @return The JpaQueryInfo
      */
     public JpaQueryInfo buildSelect() {
+        ShapeCollector shape = new ShapeCollector(SELECT_CLAUSE);
+        for (Query.Projection projection : projectionList.getProjectionList()) {
+            shape.shape.append(projection.getClass().getName());
+            if (projection instanceof Query.PropertyProjection) {
+                shape.shape.append(DOT).append(((Query.PropertyProjection) projection).getPropertyName());
+            }
+            shape.shape.append(COMMA);
+        }
+        for (Query.Order order : orders) {
+            shape.shape.append(order.getProperty()).append(SPACE).append(order.getDirection()).append(COMMA);
+        }
+        JpaQueryInfo cached = lookupCompiledQuery(shape);
+        if (cached != null) {
+            return cached;
+        }
+
         StringBuilder queryString = new StringBuilder(SELECT_CLAUSE);
 
         buildSelectClause(queryString);
@@ -161,7 +214,54 @@ public class JpaQueryBuilder {
         }
 
         appendOrder(queryString, logicalName);
-        return new JpaQueryInfo(queryString.toString(), parameters);
+        return cacheCompiledQuery(shape, new JpaQueryInfo(queryString.toString(), parameters));
+    }
+
+    /**
+     * Clears the cache of compiled queries
+     */
+    public static void clearQueryCache() {
+        compiledQueries.invalidateAll();
+    }
+
+    /**
+     * @return The number of compiled queries currently cached
+     */
+    public static long getCachedQueryCount() {
+        compiledQueries.cleanUp();
+        return compiledQueries.estimatedSize();
+    }
+
+    /**
+     * Completes the shape of the query with its criteria and, if a query with the same shape was compiled before,
+     * binds the parameter values of this query to it.
+     *
+     * @param shape The shape collected so far
+     * @return The query or null if it has to be built
+     */
+    private JpaQueryInfo lookupCompiledQuery(ShapeCollector shape) {
+        shape.shape.append(hibernateCompatible).append(WHERE_CLAUSE);
+        if (!criteria.isEmpty()) {
+            // the type of the junction decides whether the criteria are joined with AND or OR, or negated
+            shape.shape.append(criteria.getClass().getName()).append(OPEN_BRACKET);
+            shape.describe(entity, criteria.getCriteria());
+        }
+        if (!shape.cacheable) {
+            return null;
+        }
+        CompiledQuery compiled = compiledQueries.getIfPresent(new QueryShape(entity, shape.shape.toString()));
+        return compiled != null ? compiled.bind(shape.values, conversionService) : null;
+    }
+
+    private JpaQueryInfo cacheCompiledQuery(ShapeCollector shape, JpaQueryInfo info) {
+        List parameters = info.getParameters();
+        int parameterCount = parameters != null ? parameters.size() : 0;
+        // only cache queries whose parameters are all known to the shape
+        if (shape.cacheable && parameterCount == shape.values.size()) {
+            compiledQueries.put(new QueryShape(entity, shape.shape.toString()),
+                    new CompiledQuery(info.getQuery(), parameters != null, shape.types.toArray(new Class[0])));
+        }
+        return info;
     }
 
     private void buildSelectClause(StringBuilder queryString) {
@@ -838,6 +938,148 @@ public class JpaQueryBuilder {
         return prop;
     }
 
+    /**
+     * The structure of a query: its entity plus everything except the parameter values
+     */
+    private static final class QueryShape {
+        private final PersistentEntity entity;
+        private final String shape;
+        private final int hashCode;
+
+        QueryShape(PersistentEntity entity, String shape) {
+            this.entity = entity;
+            this.shape = shape;
+            this.hashCode = 31 * System.identityHashCode(entity) + shape.hashCode();
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof QueryShape)) return false;
+            QueryShape other = (QueryShape) o;
+            return entity == other.entity && shape.equals(other.shape);
+        }
+
+        @Override
+        public int hashCode() {
+            return hashCode;
+        }
+    }
+
+    /**
+     * A generated query and the types its parameters are converted to
+     */
+    private static final class CompiledQuery {
+        private final String query;
+        private final boolean hasParameters;
+        private final Class[] parameterTypes;
+
+        CompiledQuery(String query, boolean hasParameters, Class[] parameterTypes) {
+            this.query = query;
+            this.hasParameters = hasParameters;
+            this.parameterTypes = parameterTypes;
+        }
+
+        JpaQueryInfo bind(List<Object> values, ConversionService conversionService) {
+            if (!hasParameters) {
+                return new JpaQueryInfo(query, null);
+            }
+            List parameters = new ArrayList(values.size());
+            for (int i = 0; i < parameterTypes.length; i++) {
+                Object value = values.get(i);
+                Class type = parameterTypes[i];
+                parameters.add(type != null ? conversionService.convert(value, type) : value);
+            }
+            return new JpaQueryInfo(query, parameters);
+        }
+    }
+
+    /**
+     * Walks criteria in the same order as the query handlers, collecting the structure of the criteria and the raw
+     * parameter values with the types they are converted to. Criteria whose generated query depends on more than
+     * their structure, such as subqueries and association criteria, make the query not cacheable.
+     */
+    private static final class ShapeCollector {
+        private final StringBuilder shape = new StringBuilder(64);
+        private final List<Object> values = new ArrayList<Object>();
+        private final List<Class> types = new ArrayList<Class>();
+        private boolean cacheable = true;
+
+        ShapeCollector(String kind) {
+            shape.append(kind);
+        }
+
+        void addValue(Object value, Class type) {
+            values.add(value);
+            types.add(type);
+        }
+
+        void describe(PersistentEntity entity, List<Query.Criterion> criteria) {
+            for (Query.Criterion criterion : criteria) {
+                if (!cacheable) {
+                    return;
+                }
+                Class type = criterion.getClass();
+                shape.append(type.getName()).append(OPEN_BRACKET);
+                if (type == Query.Conjunction.class || type == Query.Disjunction.class || type == Query.Negation.class) {
+                    describe(entity, ((Query.Junction) criterion).getCriteria());
+                }
+                else if (VALUE_CRITERIA.contains(type)) {
+                    Query.PropertyCriterion pc = (Query.PropertyCriterion) criterion;
+                    PersistentProperty prop = findProperty(entity, pc.getProperty());
+                    shape.append(pc.getProperty());
+                    addValue(pc.getValue(), prop != null ? prop.getType() : null);
+                }
+                else if (type == Query.IdEquals.class) {
+                    PersistentProperty identity = entity.getIdentity();
+                    cacheable = identity != null;
+                    if (cacheable) {
+                        addValue(((Query.IdEquals) criterion).getValue(), identity.getType());
+                    }
+                }
+                else if (type == Query.Between.class) {
+                    Query.Between between = (Query.Between) criterion;
+                    PersistentProperty prop = findProperty(entity, between.getProperty());
+                    shape.append(between.getProperty());
+                    addValue(between.getFrom(), prop != null ? prop.getType() : null);
+                    addValue(between.getTo(), prop != null ? prop.getType() : null);
+                }
+                else if (type == Query.In.class && ((Query.In) criterion).getSubquery() == null) {
+                    Query.In in = (Query.In) criterion;
+                    PersistentProperty prop = findProperty(entity, in.getProperty());
+                    Collection inValues = in.getValues();
+                    shape.append(in.getProperty()).append(COMMA).append(inValues.size());
+                    for (Object value : inValues) {
+                        addValue(value, prop != null ? prop.getType() : null);
+                    }
+                }
+                else if (NAME_CRITERIA.contains(type)) {
+                    shape.append(((Query.PropertyNameCriterion) criterion).getProperty());
+                }
+                else if (PROPERTY_COMPARISON_CRITERIA.contains(type)) {
+                    Query.PropertyComparisonCriterion pc = (Query.PropertyComparisonCriterion) criterion;
+                    shape.append(pc.getProperty()).append(COMMA).append(pc.getOtherProperty());
+                }
+                else {
+                    cacheable = false;
+                }
+                shape.append(CLOSE_BRACKET);
+            }
+        }
+
+        private PersistentProperty findProperty(PersistentEntity entity, String name) {
+            PersistentProperty prop;
+            try {
+                prop = validateProperty(entity, name, Query.Criterion.class);
+            } catch (InvalidDataAccessResourceUsageException e) {
+                // let the query builder report the error
+                cacheable = false;
+                return null;
+            }
+            return prop;
+        }
+    }
+
     private static interface QueryHandler {
         public int handle(PersistentEntity entity, Query.Criterion criterion, StringBuilder q, StringBuilder whereClause, String logicalName, int position, List parameters, ConversionService conversionService, boolean allowJoins, boolean hibernateCompatible);
     }
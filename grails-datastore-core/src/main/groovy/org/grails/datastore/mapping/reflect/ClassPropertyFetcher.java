@@ -21,6 +21,7 @@ import org.codehaus.groovy.reflection.CachedMethod;
 import org.codehaus.groovy.reflection.ClassInfo;
 import org.codehaus.groovy.runtime.MetaClassHelper;
 import org.codehaus.groovy.runtime.metaclass.MultipleSetterProperty;
+import org.grails.datastore.mapping.model.config.GormEntityMetadata;
 import org.springframework.beans.BeanUtils;
 
 import java.beans.IntrospectionException;
@@ -44,11 +45,31 @@ public class ClassPropertyFetcher {
     private final Class clazz;
     private final ClassInfo classInfo;
     private final MetaClass theMetaClass;
+    private final int metaClassVersion;
     private final List<MetaProperty> metaProperties;
     public static final Set EXCLUDED_PROPERTIES = new HashSet(Arrays.asList("class", "metaClass", "properties"));
 
+    private static final ClassValue<ClassPropertyFetcher> FETCHERS = new ClassValue<ClassPropertyFetcher>() {
+        @Override
+        protected ClassPropertyFetcher computeValue(Class<?> type) {
+            return new ClassPropertyFetcher(type);
+        }
+    };
+
+    /**
+     * Obtains the fetcher of the given class. Fetchers are cached per class and recreated when the meta class of the class is replaced
+     * or modified, for example by registering methods or properties with an {@link ExpandoMetaClass}.
+     *
+     * @param c The class
+     * @return The fetcher
+     */
     public static ClassPropertyFetcher forClass(final Class c) {
-        return new ClassPropertyFetcher(c);
+        ClassPropertyFetcher fetcher = FETCHERS.get(c);
+        if(fetcher.metaClassVersion != fetcher.classInfo.getVersion() || fetcher.theMetaClass != fetcher.classInfo.getMetaClass()) {
+            FETCHERS.remove(c);
+            fetcher = FETCHERS.get(c);
+        }
+        return fetcher;
     }
 
     /**
@@ -62,9 +83,11 @@ public class ClassPropertyFetcher {
     ClassPropertyFetcher(final Class clazz) {
         this.clazz = clazz;
         this.classInfo = ClassInfo.getClassInfo(clazz);
+        // read before the meta class, so that a concurrent modification recreates the fetcher
+        this.metaClassVersion = classInfo.getVersion();
         this.theMetaClass = classInfo.getMetaClass();
         List<MetaProperty> properties = theMetaClass.getProperties();
-        this.metaProperties = new ArrayList<>(properties.size());
+        List<MetaProperty> metaProperties = new ArrayList<>(properties.size());
         for (MetaProperty property : properties) {
             int modifiers = property.getModifiers();
             String propertyName = property.getName();
@@ -76,7 +99,7 @@ public class ClassPropertyFetcher {
                 MetaBeanProperty beanProperty = (MetaBeanProperty) property;
                 MetaMethod getter = beanProperty.getGetter();
                 if(getter instanceof CachedMethod) {
-                    this.metaProperties.add(property);
+                    metaProperties.add(property);
                 }
             }
             else if(property instanceof MultipleSetterProperty) {
@@ -92,7 +115,7 @@ public class ClassPropertyFetcher {
                             Method foundSetter = clazz.getDeclaredMethod(NameUtils.getSetterName(propertyName), getter.getReturnType());
                             if(foundSetter != null) {
                                 MetaMethod setter = new CachedMethod(cachedClass, foundSetter);
-                                this.metaProperties.add(new MetaBeanProperty(msp.getName(), getter.getReturnType(), getter, setter));
+                                metaProperties.add(new MetaBeanProperty(msp.getName(), getter.getReturnType(), getter, setter));
                             }
                         }
                     } catch (NoSuchMethodException e) {
@@ -101,6 +124,7 @@ public class ClassPropertyFetcher {
                 }
             }
         }
+        this.metaProperties = Collections.unmodifiableList(metaProperties);
     }
 
     /**
@@ -169,11 +193,17 @@ public class ClassPropertyFetcher {
     }
 
     public <T> T getStaticPropertyValue(String name, Class<T> c) {
+        if(hasEntityMetadata()) {
+            Optional<Object> value = GormEntityMetadata.getStaticPropertyValue(clazz, name);
+            if(value != null) {
+                return returnOnlyIfInstanceOf(value.orElse(null), c);
+            }
+        }
         return returnOnlyIfInstanceOf(getPropertyValue(name), c);
     }
 
     public static <T> T getStaticPropertyValue(Class clazz, String name, Class<T> requiredType) {
-        return returnOnlyIfInstanceOf(getStaticPropertyValue(GroovySystem.getMetaClassRegistry().getMetaClass(clazz), name), requiredType);
+        return forClass(clazz).getStaticPropertyValue(name, requiredType);
     }
 
     /**
@@ -187,6 +217,13 @@ public class ClassPropertyFetcher {
      * @return The list, with 0+ values (never null). Do not modify the returned list.
      */
     public <T> List<T> getStaticPropertyValuesFromInheritanceHierarchy(String name, Class<T> c) {
+        if(hasEntityMetadata()) {
+            // read the values generated at compile time instead of resolving the static properties of each class
+            List<T> values = GormEntityMetadata.getStaticPropertyValuesFromInheritanceHierarchy(clazz, name, c);
+            if(values != null) {
+                return values;
+            }
+        }
         ClassInfo classInfo = this.classInfo;
         return getStaticPropertyValuesFromInheritanceHierarchy(classInfo, name, c);
     }
@@ -202,7 +239,14 @@ public class ClassPropertyFetcher {
      * @return The list, with 0+ values (never null). Do not modify the returned list.
      */
     public static <T> List<T> getStaticPropertyValuesFromInheritanceHierarchy(Class theClass, String name, Class<T> requiredTyped) {
-        return getStaticPropertyValuesFromInheritanceHierarchy(ClassInfo.getClassInfo(theClass), name, requiredTyped);
+        return forClass(theClass).getStaticPropertyValuesFromInheritanceHierarchy(name, requiredTyped);
+    }
+
+    /**
+     * Static properties added at runtime through an {@link ExpandoMetaClass} are not part of the generated metadata
+     */
+    private boolean hasEntityMetadata() {
+        return !(theMetaClass instanceof ExpandoMetaClass) && GormEntityMetadata.isGenerated(clazz);
     }
 
     private static <T> List<T> getStaticPropertyValuesFromInheritanceHierarchy(ClassInfo classInfo, String name, Class<T> c) {
@@ -22,6 +22,7 @@ import org.grails.datastore.mapping.core.ConnectionNotFoundException;
 import org.grails.datastore.mapping.core.Datastore;
 import org.grails.datastore.mapping.core.DatastoreUtils;
 import org.grails.datastore.mapping.core.Session;
+import org.grails.datastore.mapping.core.connections.ReplicaRouter;
 import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.transaction.TransactionDefinition;
 import org.springframework.transaction.TransactionException;
@@ -43,6 +44,7 @@ public class DatastoreTransactionManager extends AbstractPlatformTransactionMana
 
     private Datastore datastore;
     private boolean datastoreManagedSession;
+    private ReplicaRouter replicaRouter;
 
     public void setDatastore(Datastore datastore) {
         this.datastore = datastore;
@@ -57,6 +59,19 @@ public class DatastoreTransactionManager extends AbstractPlatformTransactionMana
         this.datastoreManagedSession = datastoreManagedSession;
     }
 
+    /**
+     * Sets the router used to run read-only transactions on a read replica
+     *
+     * @param replicaRouter The router or null to run all transactions on the primary
+     */
+    public void setReplicaRouter(ReplicaRouter replicaRouter) {
+        this.replicaRouter = replicaRouter;
+    }
+
+    public ReplicaRouter getReplicaRouter() {
+        return replicaRouter;
+    }
+
     @Override
     protected Object doSuspend(Object transaction) throws TransactionException {
         TransactionObject txObject = (TransactionObject) transaction;
@@ -111,11 +126,28 @@ public class DatastoreTransactionManager extends AbstractPlatformTransactionMana
 
         Session session = null;
         try {
+            if (replicaRouter != null) {
+                if (definition.isReadOnly()) {
+                    routeToReplica(txObject);
+                }
+                else {
+                    // later reads within the same session or on the same thread must see the written data
+                    ReplicaRouter.pinToPrimary(txObject.getSessionHolder().getSession());
+                }
+            }
             session = txObject.getSessionHolder().getSession();
 
             if (definition.isReadOnly()) {
                 // Just set to NEVER in case of a new Session for this transaction.
                 session.setFlushMode(FlushModeType.COMMIT);
+                if (!session.isReadOnly()) {
+                    try {
+                        session.setReadOnly(true);
+                        txObject.setPreviousReadOnly(Boolean.FALSE);
+                    } catch (UnsupportedOperationException e) {
+                        // the session keeps tracking changes, the transaction is still never flushed on commit
+                    }
+                }
             }
 
             Transaction<?> tx = session.beginTransaction();
@@ -148,10 +180,68 @@ public class DatastoreTransactionManager extends AbstractPlatformTransactionMana
                     DatastoreUtils.closeSession(session);
                 }
             }
+            if (txObject.getReplica() != null) {
+                restoreEnclosingSession(txObject);
+            }
             throw new CannotCreateTransactionException("Could not open Datastore Session for transaction", ex);
         }
     }
 
+    /**
+     * Replaces the session of a read-only transaction with a session of a read replica, unless the transaction runs within a session
+     * that is pinned to the primary or already has a transaction, or the current thread recently wrote to the primary
+     */
+    private void routeToReplica(TransactionObject txObject) {
+        SessionHolder sessionHolder = txObject.getSessionHolder();
+        Session primarySession = sessionHolder.getSession();
+        if (!txObject.isNewSession()) {
+            Transaction<?> transaction = sessionHolder.getTransaction();
+            if ((transaction != null && transaction.isActive()) || ReplicaRouter.isPinnedToPrimary(primarySession)) {
+                return;
+            }
+        }
+        if (replicaRouter.isThreadPinnedToPrimary()) {
+            return;
+        }
+
+        String replica = replicaRouter.acquire();
+        Session replicaSession;
+        try {
+            replicaSession = replicaRouter.getReplicaDatastore(replica).connect();
+        }
+        catch (RuntimeException e) {
+            replicaRouter.release(replica);
+            throw e;
+        }
+        if (logger.isDebugEnabled()) {
+            logger.debug("Routing read-only transaction to replica [" + replica + "]");
+        }
+
+        if (txObject.isNewSession()) {
+            // the session opened for the transaction has not been used yet
+            DatastoreUtils.closeSession(primarySession);
+        }
+        else if (!txObject.isNewSessionHolder()) {
+            // the replica session takes the place of the thread-bound session until the transaction completes
+            TransactionSynchronizationManager.unbindResource(getDatastore());
+            txObject.setEnclosingSessionHolder(sessionHolder);
+        }
+        txObject.setReplicaSession(replica, replicaSession);
+    }
+
+    private void restoreEnclosingSession(TransactionObject txObject) {
+        // the replica session is bound to the primary datastore, which closing it does not unbind
+        SessionHolder boundSessionHolder = (SessionHolder) TransactionSynchronizationManager.getResource(getDatastore());
+        if (boundSessionHolder == txObject.getSessionHolder()) {
+            TransactionSynchronizationManager.unbindResource(getDatastore());
+        }
+        SessionHolder enclosingSessionHolder = txObject.getEnclosingSessionHolder();
+        if (enclosingSessionHolder != null && !TransactionSynchronizationManager.hasResource(getDatastore())) {
+            TransactionSynchronizationManager.bindResource(getDatastore(), enclosingSessionHolder);
+        }
+        replicaRouter.release(txObject.getReplica());
+    }
+
     @Override
     protected void doCommit(DefaultTransactionStatus status) throws TransactionException {
         TransactionObject txObject = (TransactionObject) status.getTransaction();
@@ -222,5 +312,16 @@ public class DatastoreTransactionManager extends AbstractPlatformTransactionMana
         }
         txObject.getSessionHolder().setSynchronizedWithTransaction(false);
 
+        if (txObject.getReplica() != null) {
+            restoreEnclosingSession(txObject);
+        }
+
+        // Restore the read-only state of a session that outlives the read-only transaction
+        Boolean previousReadOnly = txObject.getPreviousReadOnly();
+        Session session = txObject.getSessionHolder().getSession();
+        if (previousReadOnly != null && session != null && session.isConnected()) {
+            session.setReadOnly(previousReadOnly);
+        }
+
     }
 }
@@ -27,6 +27,9 @@ public class TransactionObject implements SmartTransactionObject {
     private SessionHolder sessionHolder;
     private boolean newSessionHolder;
     private boolean newSession;
+    private Boolean previousReadOnly;
+    private String replica;
+    private SessionHolder enclosingSessionHolder;
 
     public SessionHolder getSessionHolder() {
         return sessionHolder;
@@ -70,6 +73,49 @@ public class TransactionObject implements SmartTransactionObject {
         return newSession;
     }
 
+    /**
+     * @return Whether the session was read-only before a read-only transaction made it read-only, or null if the transaction did not
+     * change it
+     */
+    public Boolean getPreviousReadOnly() {
+        return previousReadOnly;
+    }
+
+    public void setPreviousReadOnly(Boolean previousReadOnly) {
+        this.previousReadOnly = previousReadOnly;
+    }
+
+    /**
+     * @return The name of the read replica the transaction was routed to, or null if it runs on the primary
+     */
+    public String getReplica() {
+        return replica;
+    }
+
+    /**
+     * Replaces the session of the transaction with a session of the given read replica
+     *
+     * @param replica The name of the replica
+     * @param session A new session of the replica
+     */
+    public void setReplicaSession(String replica, Session session) {
+        this.replica = replica;
+        this.sessionHolder = new SessionHolder(session);
+        this.newSessionHolder = true;
+        this.newSession = true;
+    }
+
+    /**
+     * @return The thread-bound session holder of the primary that the replica session replaces for the duration of the transaction
+     */
+    public SessionHolder getEnclosingSessionHolder() {
+        return enclosingSessionHolder;
+    }
+
+    public void setEnclosingSessionHolder(SessionHolder enclosingSessionHolder) {
+        this.enclosingSessionHolder = enclosingSessionHolder;
+    }
+
 
     @Override
     public boolean isRollbackOnly() {
@@ -0,0 +1,58 @@
+package org.grails.datastore.mapping.cache.impl
+
+import org.grails.datastore.mapping.model.PersistentEntity
+import spock.lang.Specification
+
+class CaffeineTPCacheAdapterSpec extends Specification {
+
+    void "test entries are cached, evicted and counted"() {
+        given:
+        def adapter = new CaffeineTPCacheAdapter<Map>(100)
+
+        when:
+        adapter.cacheEntry(1L, [name: 'Fred'])
+
+        then:
+        adapter.getCachedEntry(1L) == [name: 'Fred']
+        adapter.getCachedEntry(2L) == null
+        adapter.hitCount == 1
+        adapter.missCount == 1
+
+        when:
+        adapter.evictEntry(1L)
+
+        then:
+        adapter.getCachedEntry(1L) == null
+    }
+
+    void "test the cache does not grow beyond its maximum size"() {
+        given:
+        def adapter = new CaffeineTPCacheAdapter<String>(10)
+
+        when:
+        for (long i in 0..<1000) {
+            adapter.cacheEntry(i, "value $i".toString())
+        }
+        adapter.cleanUp()
+
+        then:
+        adapter.estimatedSize <= 10
+        adapter.evictionCount >= 990
+    }
+
+    void "test the repository creates a bounded adapter per entity"() {
+        given:
+        def repository = new CaffeineTPCacheAdapterRepository<Map>()
+        def author = Stub(PersistentEntity) { getJavaClass() >> Author }
+        def book = Stub(PersistentEntity) { getJavaClass() >> Book }
+
+        expect:
+        repository.getTPCacheAdapter(null) == null
+        repository.getTPCacheAdapter(author) instanceof CaffeineTPCacheAdapter
+        repository.getTPCacheAdapter(author).is(repository.getTPCacheAdapter(author))
+        !repository.getTPCacheAdapter(author).is(repository.getTPCacheAdapter(book))
+    }
+
+    static class Author {}
+    static class Book {}
+}
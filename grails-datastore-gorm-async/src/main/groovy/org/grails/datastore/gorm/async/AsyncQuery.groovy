@@ -16,8 +16,10 @@ package org.grails.datastore.gorm.async
 
 import grails.async.decorator.PromiseDecorator
 import grails.async.decorator.PromiseDecoratorProvider
+import org.grails.datastore.gorm.GormEnhancer
 import org.grails.datastore.gorm.async.transform.DelegateAsync
 import org.grails.datastore.gorm.query.GormOperations
+import org.grails.datastore.mapping.core.context.ContextSnapshot
 
 /**
  * Exposes all methods from the {@link GormOperations} interface asynchronously
@@ -30,19 +32,37 @@ class AsyncQuery<E> implements PromiseDecoratorProvider {
     @DelegateAsync GormOperations<E> gormOperations
 
     /**
-     * Wraps each promise in a new persistence session
+     * The executor limiting the sessions opened by this query, if one is configured
+     */
+    final AsyncSessionExecutor sessionExecutor
+
+    /**
+     * Wraps each promise in a new persistence session, carrying the context of the thread that created the promise such as the current tenant.
+     * If an executor is configured the session is only opened once the executor grants a permit.
      */
     private List<PromiseDecorator> decorators = [ { Closure callable ->
+        ContextSnapshot context = ContextSnapshot.capture()
+        AsyncSessionExecutor executor = sessionExecutor
         return { args ->
-            gormOperations.persistentClass.withNewSession {
-                callable.call(*args)
+            Closure work = {
+                context.call {
+                    gormOperations.persistentClass.withNewSession {
+                        callable.call(*args)
+                    }
+                }
             }
+            executor != null ? executor.execute(work) : work.call()
         }
     } as PromiseDecorator ]
 
 
     AsyncQuery(GormOperations<E> gormOperations) {
+        this(gormOperations, AsyncSessionExecutors.find(gormOperations.persistentClass, GormEnhancer.findDatastore(gormOperations.persistentClass)))
+    }
+
+    AsyncQuery(GormOperations<E> gormOperations, AsyncSessionExecutor sessionExecutor) {
         this.gormOperations = gormOperations
+        this.sessionExecutor = sessionExecutor
     }
 
     @Override
@@ -0,0 +1,300 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.async
+
+import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.config.Settings
+import org.springframework.core.env.PropertyResolver
+
+import java.lang.reflect.Method
+import java.util.concurrent.Callable
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.ForkJoinPool
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.Semaphore
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.atomic.AtomicInteger
+import java.util.concurrent.atomic.AtomicLong
+
+/**
+ * Runs asynchronous GORM work on a configurable {@link Executor} while limiting the number of persistence sessions open at once.
+ *
+ * <p>At most {@code maxSessions} units of work run concurrently, the others wait for a permit. Once {@code maxQueueDepth} units of work
+ * are waiting, further work is rejected with a {@link RejectedExecutionException}, which pushes back on callers that submit work faster
+ * than the datastore can process it. A limit of zero or less disables the corresponding check.</p>
+ *
+ * @since 9.0
+ */
+@CompileStatic
+class AsyncSessionExecutor implements Closeable {
+
+    /**
+     * The executor type running each unit of work on a thread of a fixed size pool
+     */
+    public static final String FIXED = "fixed"
+
+    /**
+     * The executor type running each unit of work on a new virtual thread
+     */
+    public static final String VIRTUAL = "virtual"
+
+    /**
+     * The executor type running each unit of work on the common fork join pool
+     */
+    public static final String COMMON = "common"
+
+    final Executor executor
+    final int maxSessions
+    final int maxQueueDepth
+
+    private final Semaphore sessions
+    private final boolean ownsExecutor
+    private final AtomicInteger queuedCount = new AtomicInteger()
+    private final AtomicInteger activeCount = new AtomicInteger()
+    private final AtomicLong completedCount = new AtomicLong()
+    private final AtomicLong failedCount = new AtomicLong()
+    private final AtomicLong rejectedCount = new AtomicLong()
+
+    AsyncSessionExecutor(Executor executor, int maxSessions, int maxQueueDepth) {
+        this(executor, maxSessions, maxQueueDepth, false)
+    }
+
+    protected AsyncSessionExecutor(Executor executor, int maxSessions, int maxQueueDepth, boolean ownsExecutor) {
+        if (executor == null) {
+            throw new IllegalArgumentException("Argument [executor] cannot be null")
+        }
+        this.executor = executor
+        this.maxSessions = maxSessions
+        this.maxQueueDepth = maxQueueDepth
+        this.sessions = maxSessions > 0 ? new Semaphore(maxSessions, true) : null
+        this.ownsExecutor = ownsExecutor
+    }
+
+    /**
+     * Creates an executor backed by a fixed size pool of daemon threads, opening at most one session per thread
+     *
+     * @param poolSize The number of threads
+     * @param maxQueueDepth The maximum number of units of work waiting to run
+     * @return The executor
+     */
+    static AsyncSessionExecutor fixed(int poolSize, int maxQueueDepth) {
+        if (poolSize < 1) {
+            throw new IllegalArgumentException("Argument [poolSize] must be greater than zero")
+        }
+        return new AsyncSessionExecutor(newFixedPool(poolSize), poolSize, maxQueueDepth, true)
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per unit of work. Since virtual threads are cheap, the number of open sessions is
+     * only bounded by the given limit, which should match the capacity of the datastore.
+     *
+     * @param maxSessions The maximum number of sessions open at once
+     * @param maxQueueDepth The maximum number of units of work waiting for a session
+     * @return The executor
+     * @throws UnsupportedOperationException If the JVM does not support virtual threads
+     */
+    static AsyncSessionExecutor virtualThreads(int maxSessions, int maxQueueDepth) {
+        // looked up reflectively since the code base still targets Java 17
+        Method factory
+        try {
+            factory = Executors.getMethod("newVirtualThreadPerTaskExecutor")
+        } catch (NoSuchMethodException e) {
+            throw new UnsupportedOperationException("Virtual threads require Java 21 or above", e)
+        }
+        ExecutorService executorService = (ExecutorService) factory.invoke(null)
+        return new AsyncSessionExecutor(executorService, maxSessions, maxQueueDepth, true)
+    }
+
+    /**
+     * Creates an executor from the {@code grails.gorm.async} settings of the given configuration
+     *
+     * @param configuration The configuration
+     * @return The executor or null if no executor is configured
+     */
+    static AsyncSessionExecutor fromConfiguration(PropertyResolver configuration) {
+        String type = configuration?.getProperty(Settings.SETTING_ASYNC_EXECUTOR, String, null)
+        if (!type) {
+            return null
+        }
+        int maxSessions = configuration.getProperty(Settings.SETTING_ASYNC_MAX_SESSIONS, Integer, 0)
+        int maxQueueDepth = configuration.getProperty(Settings.SETTING_ASYNC_MAX_QUEUE_DEPTH, Integer, 0)
+        switch (type.toLowerCase(Locale.ENGLISH)) {
+            case FIXED:
+                int poolSize = configuration.getProperty(Settings.SETTING_ASYNC_POOL_SIZE, Integer, Runtime.getRuntime().availableProcessors())
+                if (maxSessions > 0 && maxSessions < poolSize) {
+                    return new AsyncSessionExecutor(newFixedPool(poolSize), maxSessions, maxQueueDepth, true)
+                }
+                return fixed(poolSize, maxQueueDepth)
+            case VIRTUAL:
+                return virtualThreads(maxSessions, maxQueueDepth)
+            case COMMON:
+                return new AsyncSessionExecutor(ForkJoinPool.commonPool(), maxSessions, maxQueueDepth)
+            default:
+                throw new IllegalArgumentException("Unknown async executor [$type], expected one of [$FIXED, $VIRTUAL, $COMMON]")
+        }
+    }
+
+    /**
+     * Submits the given work to the executor
+     *
+     * @param work The work, which is responsible for opening its own session
+     * @return A future completed with the result of the work, or completed exceptionally with a {@link RejectedExecutionException} if
+     * the queue depth limit is reached
+     */
+    public <T> CompletableFuture<T> submit(Callable<T> work) {
+        CompletableFuture<T> future = new CompletableFuture<T>()
+        if (!enqueue()) {
+            future.completeExceptionally(rejection())
+            return future
+        }
+        try {
+            executor.execute({
+                try {
+                    future.complete(runQueued(work))
+                } catch (Throwable e) {
+                    future.completeExceptionally(e)
+                }
+            } as Runnable)
+        } catch (RejectedExecutionException e) {
+            queuedCount.decrementAndGet()
+            rejectedCount.incrementAndGet()
+            future.completeExceptionally(e)
+        }
+        return future
+    }
+
+    /**
+     * Runs the given work on the current thread once a session permit is available. Used to apply the session and queue depth limits to
+     * work that is dispatched by another executor, such as promises created by the {@link grails.async.PromiseFactory}.
+     *
+     * @param work The work
+     * @return The result of the work
+     * @throws RejectedExecutionException If the queue depth limit is reached
+     */
+    public <T> T execute(Callable<T> work) {
+        if (!enqueue()) {
+            throw rejection()
+        }
+        return runQueued(work)
+    }
+
+    /**
+     * @return The number of units of work waiting for a session
+     */
+    int getQueuedCount() {
+        queuedCount.get()
+    }
+
+    /**
+     * @return The number of units of work currently running
+     */
+    int getActiveCount() {
+        activeCount.get()
+    }
+
+    /**
+     * @return The number of session permits currently available, or -1 if the number of sessions is not limited
+     */
+    int getAvailableSessions() {
+        sessions != null ? sessions.availablePermits() : -1
+    }
+
+    /**
+     * @return The number of units of work that completed successfully
+     */
+    long getCompletedCount() {
+        completedCount.get()
+    }
+
+    /**
+     * @return The number of units of work that threw an exception
+     */
+    long getFailedCount() {
+        failedCount.get()
+    }
+
+    /**
+     * @return The number of units of work rejected because the queue depth limit was reached or the executor refused them
+     */
+    long getRejectedCount() {
+        rejectedCount.get()
+    }
+
+    /**
+     * Shuts down the executor if it was created by this class
+     */
+    @Override
+    void close() throws IOException {
+        if (ownsExecutor && executor instanceof ExecutorService) {
+            ((ExecutorService) executor).shutdown()
+        }
+    }
+
+    private static ExecutorService newFixedPool(int poolSize) {
+        AtomicInteger threadNumber = new AtomicInteger()
+        return Executors.newFixedThreadPool(poolSize, { Runnable runnable ->
+            Thread thread = new Thread(runnable, "gorm-async-" + threadNumber.incrementAndGet())
+            thread.setDaemon(true)
+            return thread
+        } as ThreadFactory)
+    }
+
+    private boolean enqueue() {
+        int depth = queuedCount.incrementAndGet()
+        if (maxQueueDepth > 0 && depth > maxQueueDepth) {
+            queuedCount.decrementAndGet()
+            rejectedCount.incrementAndGet()
+            return false
+        }
+        return true
+    }
+
+    private RejectedExecutionException rejection() {
+        new RejectedExecutionException("Async GORM queue is full, [$maxQueueDepth] units of work are already waiting for a session")
+    }
+
+    private <T> T runQueued(Callable<T> work) {
+        boolean acquired = false
+        try {
+            if (sessions != null) {
+                sessions.acquire()
+                acquired = true
+            }
+        } catch (InterruptedException e) {
+            queuedCount.decrementAndGet()
+            failedCount.incrementAndGet()
+            Thread.currentThread().interrupt()
+            throw e
+        }
+        queuedCount.decrementAndGet()
+        activeCount.incrementAndGet()
+        try {
+            T result = work.call()
+            completedCount.incrementAndGet()
+            return result
+        } catch (Throwable e) {
+            failedCount.incrementAndGet()
+            throw e
+        } finally {
+            activeCount.decrementAndGet()
+            if (acquired) {
+                sessions.release()
+            }
+        }
+    }
+}
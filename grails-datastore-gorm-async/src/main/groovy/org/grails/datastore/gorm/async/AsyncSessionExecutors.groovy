@@ -0,0 +1,177 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.async
+
+import groovy.transform.CompileStatic
+import org.grails.datastore.gorm.events.ConfigurableApplicationEventPublisher
+import org.grails.datastore.mapping.core.Datastore
+import org.grails.datastore.mapping.core.connections.ConnectionSourcesProvider
+import org.grails.datastore.mapping.engine.event.DatastoreShutdownEvent
+import org.springframework.context.ApplicationEvent
+import org.springframework.context.ApplicationEventPublisher
+import org.springframework.context.ConfigurableApplicationContext
+import org.springframework.context.event.SmartApplicationListener
+
+import java.util.concurrent.ConcurrentHashMap
+
+/**
+ * Holds the {@link AsyncSessionExecutor} used by the asynchronous GORM API of each entity. An executor registered for an entity takes
+ * precedence over one registered for its datastore, which in turn takes precedence over the {@code grails.gorm.async} settings of the
+ * datastore configuration. Executors created from the configuration are closed once their datastore is destroyed.
+ *
+ * @since 9.0
+ */
+@CompileStatic
+class AsyncSessionExecutors {
+
+    private static final Map<String, AsyncSessionExecutor> ENTITY_EXECUTORS = new ConcurrentHashMap<>()
+    private static final Map<Datastore, AsyncSessionExecutor> DATASTORE_EXECUTORS = Collections.synchronizedMap(new WeakHashMap<Datastore, AsyncSessionExecutor>())
+    private static final Map<Datastore, Optional<AsyncSessionExecutor>> CONFIGURED_EXECUTORS = Collections.synchronizedMap(new WeakHashMap<Datastore, Optional<AsyncSessionExecutor>>())
+
+    /**
+     * Registers the executor used for the given entity
+     *
+     * @param entityClass The entity class
+     * @param executor The executor
+     */
+    static void register(Class entityClass, AsyncSessionExecutor executor) {
+        ENTITY_EXECUTORS.put(entityClass.name, executor)
+    }
+
+    /**
+     * Registers the executor used for the entities of the given datastore
+     *
+     * @param datastore The datastore
+     * @param executor The executor
+     */
+    static void register(Datastore datastore, AsyncSessionExecutor executor) {
+        DATASTORE_EXECUTORS.put(datastore, executor)
+    }
+
+    /**
+     * Removes the executor registered for the given entity
+     *
+     * @param entityClass The entity class
+     * @return The executor that was registered, if any
+     */
+    static AsyncSessionExecutor unregister(Class entityClass) {
+        ENTITY_EXECUTORS.remove(entityClass.name)
+    }
+
+    /**
+     * Removes the executor registered for the given datastore
+     *
+     * @param datastore The datastore
+     * @return The executor that was registered, if any
+     */
+    static AsyncSessionExecutor unregister(Datastore datastore) {
+        DATASTORE_EXECUTORS.remove(datastore)
+    }
+
+    /**
+     * Finds the executor for the given entity
+     *
+     * @param entityClass The entity class
+     * @param datastore The datastore of the entity
+     * @return The executor or null if none is registered or configured, in which case the async API uses the default
+     * {@link grails.async.PromiseFactory} without limits
+     */
+    static AsyncSessionExecutor find(Class entityClass, Datastore datastore) {
+        AsyncSessionExecutor executor = entityClass != null ? ENTITY_EXECUTORS.get(entityClass.name) : null
+        if (executor != null || datastore == null) {
+            return executor
+        }
+        executor = DATASTORE_EXECUTORS.get(datastore)
+        if (executor != null) {
+            return executor
+        }
+        if (datastore instanceof ConnectionSourcesProvider) {
+            synchronized (CONFIGURED_EXECUTORS) {
+                Optional<AsyncSessionExecutor> configured = CONFIGURED_EXECUTORS.get(datastore)
+                if (configured == null) {
+                    configured = Optional.ofNullable(AsyncSessionExecutor.fromConfiguration(((ConnectionSourcesProvider) datastore).connectionSources.baseConfiguration))
+                    CONFIGURED_EXECUTORS.put(datastore, configured)
+                    if (configured.isPresent()) {
+                        addShutdownListener(datastore)
+                    }
+                }
+                return configured.orElse(null)
+            }
+        }
+        return null
+    }
+
+    /**
+     * Removes the executor registered for the given datastore and closes the one created from its configuration. Called once the
+     * datastore is destroyed
+     *
+     * @param datastore The datastore
+     */
+    static void shutdown(Datastore datastore) {
+        DATASTORE_EXECUTORS.remove(datastore)
+        Optional<AsyncSessionExecutor> configured = CONFIGURED_EXECUTORS.remove(datastore)
+        configured?.ifPresent { AsyncSessionExecutor e -> e.close() }
+    }
+
+    /**
+     * Removes all registered executors and closes the ones created from configuration
+     */
+    static void clear() {
+        ENTITY_EXECUTORS.clear()
+        DATASTORE_EXECUTORS.clear()
+        List<Optional<AsyncSessionExecutor>> configured
+        synchronized (CONFIGURED_EXECUTORS) {
+            configured = new ArrayList<>(CONFIGURED_EXECUTORS.values())
+            CONFIGURED_EXECUTORS.clear()
+        }
+        for (Optional<AsyncSessionExecutor> executor in configured) {
+            executor.ifPresent { AsyncSessionExecutor e -> e.close() }
+        }
+    }
+
+    private static void addShutdownListener(Datastore datastore) {
+        ApplicationEventPublisher publisher = datastore.applicationEventPublisher
+        DatastoreShutdownListener listener = new DatastoreShutdownListener(datastore)
+        if (publisher instanceof ConfigurableApplicationEventPublisher) {
+            ((ConfigurableApplicationEventPublisher) publisher).addApplicationListener(listener)
+        }
+        else if (publisher instanceof ConfigurableApplicationContext) {
+            ((ConfigurableApplicationContext) publisher).addApplicationListener(listener)
+        }
+    }
+
+    /**
+     * Shuts down the executors of a datastore once it is destroyed
+     */
+    private static class DatastoreShutdownListener implements SmartApplicationListener {
+        private final Datastore datastore
+
+        DatastoreShutdownListener(Datastore datastore) {
+            this.datastore = datastore
+        }
+
+        @Override
+        boolean supportsEventType(Class<? extends ApplicationEvent> eventType) {
+            DatastoreShutdownEvent.isAssignableFrom(eventType)
+        }
+
+        @Override
+        void onApplicationEvent(ApplicationEvent event) {
+            if (event.source.is(datastore)) {
+                AsyncSessionExecutors.shutdown(datastore)
+            }
+        }
+    }
+}
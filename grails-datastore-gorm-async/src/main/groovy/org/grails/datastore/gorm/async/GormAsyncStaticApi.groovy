@@ -22,6 +22,11 @@ import grails.gorm.api.GormStaticOperations
 import groovy.transform.CompileStatic
 import org.grails.datastore.gorm.GormStaticApi
 import org.grails.datastore.gorm.async.transform.DelegateAsync
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.core.context.ContextSnapshot
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ForkJoinPool
 
 /**
  * Transforms the GormStaticApi into an asynchronous API
@@ -31,17 +36,40 @@ import org.grails.datastore.gorm.async.transform.DelegateAsync
  */
 class GormAsyncStaticApi<D> implements PromiseDecoratorProvider{
 
+    /**
+     * The default number of instances saved in the same session by {@link #batchSave(java.lang.Iterable)}
+     */
+    public static final int DEFAULT_BATCH_SIZE = 100
+
+    private static final AsyncSessionExecutor COMMON_POOL_EXECUTOR = new AsyncSessionExecutor(ForkJoinPool.commonPool(), 0, 0)
+
     @DelegateAsync GormStaticOperations<D> staticApi
 
     /**
-     * Wraps each promise in a new persistence session
+     * The executor limiting the sessions opened by this API, if one is configured
+     */
+    final AsyncSessionExecutor sessionExecutor
+
+    /**
+     * Wraps each promise in a new persistence session, carrying the context of the thread that created the promise such as the current tenant.
+     * If an executor is configured the session is only opened once the executor grants a permit.
      */
     private List<PromiseDecorator> decorators = [ { Closure callable ->
-        return { args -> staticApi.withNewSession{ callable.call(*args) } }
+        ContextSnapshot context = ContextSnapshot.capture()
+        AsyncSessionExecutor executor = sessionExecutor
+        if (executor == null) {
+            return { args -> context.call { staticApi.withNewSession{ callable.call(*args) } } }
+        }
+        return { args -> executor.execute { context.call { staticApi.withNewSession{ callable.call(*args) } } } }
     } as PromiseDecorator ]
 
     GormAsyncStaticApi(GormStaticApi<D> staticApi) {
+        this(staticApi, AsyncSessionExecutors.find(staticApi.gormPersistentEntity.javaClass, staticApi.datastore))
+    }
+
+    GormAsyncStaticApi(GormStaticApi<D> staticApi, AsyncSessionExecutor sessionExecutor) {
         this.staticApi = staticApi
+        this.sessionExecutor = sessionExecutor
     }
 
     @Override
@@ -60,4 +88,84 @@ class GormAsyncStaticApi<D> implements PromiseDecoratorProvider{
         callable.delegate = staticApi.gormPersistentEntity.javaClass
         (Promise<T>)Promises.createPromise(callable, decorators)
     }
-}
\ No newline at end of file
+
+    /**
+     * Runs a sequence of operations in a new session on the configured executor, or on the common fork join pool if none is configured
+     *
+     * @param callable The callable
+     * @return A future completed with the result of the callable
+     */
+    @CompileStatic
+    public <T> CompletableFuture<T> submit(Closure<T> callable) {
+        callable.delegate = staticApi.gormPersistentEntity.javaClass
+        ContextSnapshot context = ContextSnapshot.capture()
+        (CompletableFuture<T>) executorOrDefault().submit { ->
+            context.call { staticApi.withNewSession(callable) }
+        }
+    }
+
+    /**
+     * Saves the given instances asynchronously in batches of {@link #DEFAULT_BATCH_SIZE}, see {@link #batchSave(java.lang.Iterable, int)}
+     *
+     * @param objectsToSave The instances to save
+     * @return A future completed with the identifiers of the saved instances
+     */
+    @CompileStatic
+    CompletableFuture<List<Serializable>> batchSave(Iterable<?> objectsToSave) {
+        batchSave(objectsToSave, DEFAULT_BATCH_SIZE)
+    }
+
+    /**
+     * Saves the given instances asynchronously. Rather than opening a session per instance, each batch of instances is saved and flushed
+     * in a single session, and the batches run concurrently within the limits of the configured executor.
+     *
+     * @param objectsToSave The instances to save
+     * @param batchSize The number of instances saved in the same session
+     * @return A future completed with the identifiers of the saved instances, in the order of the instances
+     */
+    @CompileStatic
+    CompletableFuture<List<Serializable>> batchSave(Iterable<?> objectsToSave, int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Argument [batchSize] must be greater than zero")
+        }
+        ContextSnapshot context = ContextSnapshot.capture()
+        AsyncSessionExecutor executor = executorOrDefault()
+        List<CompletableFuture<List<Serializable>>> batches = []
+        List<Object> batch = new ArrayList<>(batchSize)
+        for (Object instance in objectsToSave) {
+            batch.add(instance)
+            if (batch.size() == batchSize) {
+                batches.add(saveBatch(executor, context, batch))
+                batch = new ArrayList<>(batchSize)
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(saveBatch(executor, context, batch))
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[batches.size()])).thenApply { Void v ->
+            List<Serializable> identifiers = []
+            for (CompletableFuture<List<Serializable>> saved in batches) {
+                identifiers.addAll(saved.join())
+            }
+            return identifiers
+        }
+    }
+
+    @CompileStatic
+    private CompletableFuture<List<Serializable>> saveBatch(AsyncSessionExecutor executor, ContextSnapshot context, List<Object> batch) {
+        (CompletableFuture<List<Serializable>>) executor.submit { ->
+            context.call {
+                staticApi.withNewSession { Session session ->
+                    List<Serializable> identifiers = staticApi.saveAll(batch)
+                    session.flush()
+                    return identifiers
+                }
+            }
+        }
+    }
+
+    @CompileStatic
+    private AsyncSessionExecutor executorOrDefault() {
+        sessionExecutor != null ? sessionExecutor : COMMON_POOL_EXECUTOR
+    }
+}
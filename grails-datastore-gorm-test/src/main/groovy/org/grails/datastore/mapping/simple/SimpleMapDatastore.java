@@ -18,7 +18,6 @@ import java.io.Closeable;
 import java.io.IOException;
 import java.io.Serializable;
 import java.util.Collections;
-import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -30,10 +29,14 @@ import org.grails.datastore.gorm.GormValidationApi;
 import org.grails.datastore.gorm.events.*;
 import org.grails.datastore.gorm.multitenancy.MultiTenantEventListener;
 import org.grails.datastore.gorm.utils.ClasspathEntityScanner;
+import org.grails.datastore.mapping.cache.QueryResultCacheEventListener;
+import org.grails.datastore.mapping.cache.impl.CaffeineQueryResultCache;
 import org.grails.datastore.mapping.config.Settings;
 import org.grails.datastore.mapping.core.AbstractDatastore;
+import org.grails.datastore.mapping.core.AbstractSession;
 import org.grails.datastore.mapping.core.Datastore;
 import org.grails.datastore.mapping.core.DatastoreUtils;
+import org.grails.datastore.mapping.core.FirstLevelCachePolicy;
 import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.core.connections.*;
 import org.grails.datastore.mapping.core.exceptions.ConfigurationException;
@@ -44,6 +47,7 @@ import org.grails.datastore.mapping.multitenancy.MultiTenancySettings;
 import org.grails.datastore.mapping.multitenancy.SchemaMultiTenantCapableDatastore;
 import org.grails.datastore.mapping.multitenancy.TenantResolver;
 import org.grails.datastore.mapping.simple.connections.SimpleMapConnectionSourceFactory;
+import org.grails.datastore.mapping.simple.engine.SortedPropertyIndex;
 import org.grails.datastore.mapping.transactions.DatastoreTransactionManager;
 import org.grails.datastore.mapping.transactions.TransactionCapableDatastore;
 import org.springframework.context.ApplicationEventPublisher;
@@ -65,10 +69,11 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
     protected final GormEnhancer gormEnhancer;
     private final ConfigurableApplicationEventPublisher eventPublisher;
     private Map indices = new ConcurrentHashMap();
+    private final Map<String, SortedPropertyIndex> sortedIndices = new ConcurrentHashMap<>();
     private final PlatformTransactionManager transactionManager;
     private final ConnectionSources<Map<String,Map>, ConnectionSourceSettings> connectionSources;
     private final MultiTenancySettings.MultiTenancyMode multiTenancyMode;
-    protected final Map<String, SimpleMapDatastore> datastoresByConnectionSource = new LinkedHashMap<>();
+    protected final Map<String, SimpleMapDatastore> datastoresByConnectionSource = new ConcurrentHashMap<>();
     protected final boolean failOnError;
 
     public SimpleMapDatastore(ConnectionSources<Map<String,Map>, ConnectionSourceSettings> connectionSources, MappingContext mappingContext, ConfigurableApplicationEventPublisher eventPublisher) {
@@ -84,28 +89,32 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
         this.tenantResolver = multiTenancy.getTenantResolver();
         PropertyResolver config = connectionSources.getBaseConfiguration();
         this.failOnError = config.getProperty(Settings.SETTING_FAIL_ON_ERROR, Boolean.class, false);
-        if(!(connectionSources instanceof SingletonConnectionSources)) {
+        setFlushBatchSize(config.getProperty(Settings.SETTING_FLUSH_BATCH_SIZE, Integer.class, AbstractSession.DEFAULT_FLUSH_BATCH_SIZE));
+        setFirstLevelCachePolicy(FirstLevelCachePolicy.fromConfiguration(config));
+        setBatchFetchSize(config.getProperty(Settings.SETTING_BATCH_FETCH_SIZE, Integer.class, 0));
+        this.eventPublisher = eventPublisher;
+        if(connectionSources instanceof LazyConnectionSources) {
+            // child datastores are created on first access and dropped once their connection source is closed
+            datastoresByConnectionSource.put(ConnectionSource.DEFAULT, this);
+            ((LazyConnectionSources<Map<String, Map>, ConnectionSourceSettings>) connectionSources).addEvictionListener(connectionSource ->
+                    datastoresByConnectionSource.remove(connectionSource.getName())
+            );
+        }
+        else if(!(connectionSources instanceof SingletonConnectionSources)) {
 
             Iterable<ConnectionSource<Map<String,Map>, ConnectionSourceSettings>> allConnectionSources = connectionSources.getAllConnectionSources();
             for (ConnectionSource<Map<String,Map>, ConnectionSourceSettings> connectionSource : allConnectionSources) {
-                SingletonConnectionSources singletonConnectionSources = new SingletonConnectionSources(connectionSource, connectionSources.getBaseConfiguration());
-                SimpleMapDatastore childDatastore;
-
-                if(ConnectionSource.DEFAULT.equals(connectionSource.getName())) {
-                    childDatastore = this;
-                }
-                else {
-                    childDatastore = new SimpleMapDatastore(singletonConnectionSources, mappingContext, eventPublisher) {
-                        @Override
-                        protected GormEnhancer initialize(ConnectionSourceSettings settings) {
-                            return null;
-                        }
-                    };
-                }
-                datastoresByConnectionSource.put(connectionSource.getName(), childDatastore);
+                datastoresByConnectionSource.put(connectionSource.getName(), createChildDatastore(connectionSource));
             }
         }
-        this.eventPublisher = eventPublisher;
+        if(!(connectionSources instanceof SingletonConnectionSources)) {
+            dtm.setReplicaRouter(ReplicaRouter.fromSettings(this, defaultConnectionSource.getSettings()));
+        }
+        if(config.getProperty(Settings.SETTING_QUERY_CACHE_ENABLED, Boolean.class, false)) {
+            long maxSize = config.getProperty(Settings.SETTING_QUERY_CACHE_MAX_SIZE, Long.class, CaffeineQueryResultCache.DEFAULT_MAXIMUM_SIZE);
+            setQueryResultCache(new CaffeineQueryResultCache(maxSize));
+            eventPublisher.addApplicationListener(new QueryResultCacheEventListener(this, queryResultCache));
+        }
         this.gormEnhancer = initialize(defaultConnectionSource.getSettings());
     }
 
@@ -129,6 +138,10 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
         this(DatastoreUtils.createPropertyResolver(null),new DefaultApplicationEventPublisher(), classes);
     }
 
+    public SimpleMapDatastore(PropertyResolver configuration, Class...classes) {
+        this(configuration, new DefaultApplicationEventPublisher(), classes);
+    }
+
 
     public SimpleMapDatastore(PropertyResolver configuration, final Iterable<String> dataSourceNames, Class...classes) {
         this(createMultipleDataSources(dataSourceNames, configuration),new DefaultApplicationEventPublisher(), classes);
@@ -255,7 +268,7 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
                     if(connectionSource == null) {
                         throw new ConfigurationException("Invalid connection ["+defaultConnectionSourceName+"] configured for class ["+cls+"]");
                     }
-                    return SimpleMapDatastore.this.datastoresByConnectionSource.get(qualifier);
+                    return (SimpleMapDatastore) getDatastoreForConnection(qualifier);
                 }
             }
         };
@@ -273,6 +286,13 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
         return indices;
     }
 
+    /**
+     * @return The sorted property indices used for range queries and ordering, keyed by index root
+     */
+    public Map<String, SortedPropertyIndex> getSortedIndices() {
+        return sortedIndices;
+    }
+
     @Override
     protected Session createSession(PropertyResolver connectionDetails) {
         return new SimpleMapSession(this, getMappingContext(), eventPublisher);
@@ -290,6 +310,10 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
     public void clearData() {
         inmemoryData.clear();
         indices.clear();
+        sortedIndices.clear();
+        if(queryResultCache != null) {
+            queryResultCache.clear();
+        }
     }
 
     @Override
@@ -340,6 +364,18 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
     public Datastore getDatastoreForConnection(String connectionName) {
 
         SimpleMapDatastore childDatastore = datastoresByConnectionSource.get(connectionName);
+        if(connectionSources instanceof LazyConnectionSources && !ConnectionSource.DEFAULT.equals(connectionName)) {
+            // looking up the connection source records the access and recreates it if it was closed
+            ConnectionSource<Map<String, Map>, ConnectionSourceSettings> connectionSource = connectionSources.getConnectionSource(connectionName);
+            if(connectionSource == null) {
+                childDatastore = null;
+            }
+            else if(childDatastore == null || childDatastore.inmemoryData != connectionSource.getSource()) {
+                childDatastore = datastoresByConnectionSource.compute(connectionName, (name, existing) ->
+                        existing != null && existing.inmemoryData == connectionSource.getSource() ? existing : createChildDatastore(connectionSource)
+                );
+            }
+        }
         if(childDatastore == null) {
             throw new ConfigurationException("No datastore found for connection named ["+connectionName+"]");
         }
@@ -356,24 +392,53 @@ public class SimpleMapDatastore extends AbstractDatastore implements Closeable,
         gormEnhancer.close();
     }
 
-    @Override
-    public void addTenantForSchema(String schemaName) {
-        ConnectionSource<Map<String, Map>, ConnectionSourceSettings> connectionSource = this.connectionSources.addConnectionSource(schemaName, Collections.<String, Object>emptyMap());
-        SingletonConnectionSources singletonConnectionSources = new SingletonConnectionSources(connectionSource, connectionSources.getBaseConfiguration());
-        SimpleMapDatastore childDatastore;
-
+    private SimpleMapDatastore createChildDatastore(ConnectionSource<Map<String, Map>, ConnectionSourceSettings> connectionSource) {
         if(ConnectionSource.DEFAULT.equals(connectionSource.getName())) {
-            childDatastore = this;
+            return this;
         }
-        else {
-            childDatastore = new SimpleMapDatastore(singletonConnectionSources, mappingContext, eventPublisher) {
+        SingletonConnectionSources singletonConnectionSources = new SingletonConnectionSources(connectionSource, connectionSources.getBaseConfiguration());
+        if(connectionSources instanceof LazyConnectionSources) {
+            final LazyConnectionSources<Map<String, Map>, ConnectionSourceSettings> lazyConnectionSources = (LazyConnectionSources<Map<String, Map>, ConnectionSourceSettings>) connectionSources;
+            return new SimpleMapDatastore(singletonConnectionSources, mappingContext, eventPublisher) {
                 @Override
                 protected GormEnhancer initialize(ConnectionSourceSettings settings) {
                     return null;
                 }
+
+                @Override
+                protected Session createSession(PropertyResolver connectionDetails) {
+                    // the connection source is not closed while the session is open
+                    final ConnectionSource<Map<String, Map>, ConnectionSourceSettings> acquired = lazyConnectionSources.acquire(connectionSource.getName());
+                    return new SimpleMapSession(this, getMappingContext(), getApplicationEventPublisher()) {
+                        private boolean released;
+
+                        @Override
+                        public void disconnect() {
+                            try {
+                                super.disconnect();
+                            } finally {
+                                if (!released) {
+                                    released = true;
+                                    lazyConnectionSources.release(acquired);
+                                }
+                            }
+                        }
+                    };
+                }
             };
         }
-        datastoresByConnectionSource.put(connectionSource.getName(), childDatastore);
+        return new SimpleMapDatastore(singletonConnectionSources, mappingContext, eventPublisher) {
+            @Override
+            protected GormEnhancer initialize(ConnectionSourceSettings settings) {
+                return null;
+            }
+        };
+    }
+
+    @Override
+    public void addTenantForSchema(String schemaName) {
+        ConnectionSource<Map<String, Map>, ConnectionSourceSettings> connectionSource = this.connectionSources.addConnectionSource(schemaName, Collections.<String, Object>emptyMap());
+        datastoresByConnectionSource.put(connectionSource.getName(), createChildDatastore(connectionSource));
 
         for (PersistentEntity persistentEntity : mappingContext.getPersistentEntities()) {
             gormEnhancer.registerEntity(persistentEntity);
@@ -33,6 +33,8 @@ import org.grails.datastore.mapping.simple.SimpleMapDatastore
 import org.grails.datastore.mapping.simple.query.SimpleMapQuery
 import org.springframework.context.ApplicationEventPublisher
 
+import jakarta.persistence.FlushModeType
+
 /**
  * A simple implementation of the {@link org.grails.datastore.mapping.engine.EntityPersister} abstract class that backs onto an in-memory map.
  * Mainly used for mocking and testing scenarios
@@ -44,6 +46,7 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
 
     Map<String, Map> datastore
     Map indices
+    Map<String, SortedPropertyIndex> sortedIndices
     def lastKey
     String family
 
@@ -52,6 +55,7 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
         super(context, entity, session, publisher)
         this.datastore = datastore.backingMap
         this.indices = datastore.indices
+        this.sortedIndices = datastore.sortedIndices
         family = getFamily(entity, entity.getMapping())
         final identity = entity.getIdentity()
         def idType = identity?.type
@@ -78,8 +82,43 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
         return new SimpleMapQuery(session, getPersistentEntity(), this)
     }
 
+    @Override
+    boolean exists(Serializable key) {
+        if (key == null || hasQueryListeners()) {
+            return super.exists(key)
+        }
+        flushBeforeLookup()
+        def identityType = persistentEntity.rootEntity.identity?.type
+        if (identityType != null && !identityType.isInstance(key)) {
+            def conversionService = mappingContext.conversionService
+            if (!conversionService.canConvert(key.getClass(), identityType)) {
+                return false
+            }
+            key = (Serializable) conversionService.convert(key, identityType)
+        }
+        return datastore[family].containsKey(key)
+    }
+
+    @Override
+    long count() {
+        if (hasQueryListeners()) {
+            return super.count()
+        }
+        flushBeforeLookup()
+        return datastore[family].size()
+    }
+
+    private void flushBeforeLookup() {
+        if (session.flushMode == FlushModeType.AUTO) {
+            session.flush()
+        }
+    }
+
     protected void deleteEntry(String family, key, entry) {
-        datastore[family].remove(key)
+        Map existing = datastore[family].remove(key)
+        if (existing != null) {
+            deindexEntry(key, existing)
+        }
         def parent = persistentEntity.parentEntity
         while (parent != null) {
             def f = getFamily(parent, parent.mapping)
@@ -88,6 +127,22 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
         }
     }
 
+    /**
+     * Removes the property values of a deleted entry from the indices so that index lookups do not return
+     * the keys of deleted entries
+     */
+    protected void deindexEntry(key, Map entry) {
+        PersistentEntity entity = discriminatePersistentEntity(persistentEntity, entry)
+        getPropertyIndexer(entity.identity).deindex(key, key)
+        for (PersistentProperty property in entity.persistentProperties) {
+            String entryKey = property.mapping.mappedForm?.targetName ?: property.name
+            def value = entry[entryKey]
+            if (value != null) {
+                getPropertyIndexer(property).deindex(value, key)
+            }
+        }
+    }
+
     @Override
     protected boolean isPropertyIndexed(Property mappedProperty) {
         return true // index all
@@ -102,22 +157,24 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
 
             void deindex(value, primaryKey) {
                 def index = getIndexName(value)
-                List indexed = indices[index]
+                Set indexed = indices[index]
                 if (indexed) {
-                    indexed.removeElement(primaryKey)
+                    indexed.remove(primaryKey)
                 }
+                sortedIndices.get(indexRoot)?.deindex(primaryKey, value)
             }
 
             void index(value, primaryKey) {
 
                 def index = getIndexName(value)
-                def indexed = indices[index]
+                Set indexed = indices[index]
                 if (indexed == null) {
-                    indexed = []
+                    indexed = new LinkedHashSet()
                     indices[index] = indexed
                 }
-                if (!indexed.contains(primaryKey)) {
-                    indexed << primaryKey
+                indexed.add(primaryKey)
+                if (SortedPropertyIndex.supports(property)) {
+                    sortedIndices.computeIfAbsent(indexRoot) { new SortedPropertyIndex() }.index(primaryKey, value)
                 }
             }
 
@@ -128,11 +185,11 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
             List query(value, int offset, int max) {
                 def index = getIndexName(value)
 
-                def indexed = indices[index]
+                Set indexed = indices[index]
                 if (!indexed) {
                     return Collections.emptyList()
                 }
-                return indexed[offset..max]
+                return new ArrayList(indexed)[offset..max]
             }
 
             String getIndexName(value) {
@@ -141,6 +198,17 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
         }
     }
 
+    /**
+     * Obtains the sorted index for the given property
+     *
+     * @param property The property
+     * @return The index or null if no values have been indexed for the property or the index is not usable
+     */
+    SortedPropertyIndex getSortedIndex(PersistentProperty property) {
+        SortedPropertyIndex index = sortedIndices.get("~${property.owner.rootEntity.name}:${property.name}".toString())
+        return index?.usable ? index : null
+    }
+
     AssociationIndexer getAssociationIndexer(Map nativeEntry, Association association) {
         if(association?.associatedEntity == null) {
             return null
@@ -163,37 +231,30 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
             }
 
             void index(primaryKey, List foreignKeys) {
-                def indexed = getIndex(primaryKey)
-
-                indexed.addAll(foreignKeys)
-                def index = getIndexName(primaryKey)
-                indexed = indexed.unique()
-                indices[index] = indexed
+                getIndex(primaryKey).addAll(foreignKeys)
             }
 
-            private List getIndex(primaryKey) {
+            private Set getIndex(primaryKey) {
                 def index = getIndexName(primaryKey)
-                def indexed = indices[index]
+                Set indexed = indices[index]
                 if (indexed == null) {
-                    indexed = []
+                    indexed = new LinkedHashSet()
                     indices[index] = indexed
                 }
                 return indexed
             }
 
             void index(primaryKey, foreignKey) {
-                def indexed = getIndex(primaryKey)
-                if (!indexed.contains(foreignKey))
-                    indexed.add(foreignKey)
+                getIndex(primaryKey).add(foreignKey)
             }
 
             List query(primaryKey) {
                 def index = getIndexName(primaryKey)
-                def indexed = indices[index]
+                Set indexed = indices[index]
                 if (indexed == null) {
                     return Collections.emptyList()
                 }
-                return indexed
+                return new ArrayList(indexed)
             }
 
             PersistentEntity getIndexedEntity() {
@@ -258,6 +319,19 @@ class SimpleMapEntityPersister extends AbstractKeyValueEntityPersister<Map, Obje
         return null
     }
 
+    @Override
+    protected Map<Object, Map> retrieveEntries(PersistentEntity persistentEntity, String family, List<Object> keys) {
+        Map<Object, Map> entries = datastore[family]
+        Map<Object, Map> found = new HashMap<>(keys.size() * 2)
+        for (key in keys) {
+            Map entry = entries.get(key)
+            if (entry != null) {
+                found.put(key, new LinkedHashMap<>(entry))
+            }
+        }
+        return found
+    }
+
     protected generateIdentifier(PersistentEntity persistentEntity, Map id) {
         final isRoot = persistentEntity.root
         final type = isRoot ? persistentEntity.identity.type : persistentEntity.rootEntity.identity.type
@@ -0,0 +1,198 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.simple.engine;
+
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+import org.grails.datastore.mapping.model.PersistentProperty;
+import org.grails.datastore.mapping.model.types.Identity;
+import org.grails.datastore.mapping.model.types.Simple;
+import org.springframework.util.ClassUtils;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * A sorted index of the values of a single property used by the in-memory datastore to answer range queries and
+ * to order results without evaluating every entry. Values are compared using Groovy's comparison semantics so that
+ * the results match those of a full scan. Null values are not held in the index.
+ *
+ * <p>
+ * If a value that cannot be compared with the existing values is indexed, the index disables itself and queries
+ * fall back to scanning.
+ * </p>
+ *
+ * @since 9.0
+ */
+public class SortedPropertyIndex {
+
+    /**
+     * Compares values the same way Groovy's <code>&lt;=&gt;</code> operator does
+     */
+    public static final Comparator<Object> VALUE_COMPARATOR = DefaultTypeTransformation::compareTo;
+
+    private final NavigableMap<Object, Set<Object>> keysByValue = new TreeMap<>(VALUE_COMPARATOR);
+    private final Map<Object, Object> valuesByKey = new HashMap<>();
+    private boolean usable = true;
+
+    /**
+     * @param property The property
+     * @return Whether the values of the given property can be held in a sorted index
+     */
+    public static boolean supports(PersistentProperty property) {
+        if (!(property instanceof Simple) && !(property instanceof Identity)) {
+            return false;
+        }
+        Class<?> type = ClassUtils.resolvePrimitiveIfNecessary(property.getType());
+        return Comparable.class.isAssignableFrom(type);
+    }
+
+    /**
+     * Indexes the value for the given key, replacing any value previously indexed for the key
+     *
+     * @param key The primary key
+     * @param value The value
+     */
+    public synchronized void index(Object key, Object value) {
+        if (!usable) {
+            return;
+        }
+        remove(key);
+        if (value == null) {
+            return;
+        }
+        try {
+            keysByValue.computeIfAbsent(value, v -> new LinkedHashSet<>()).add(key);
+            valuesByKey.put(key, value);
+        } catch (IllegalArgumentException | ClassCastException e) {
+            // mixed value types that cannot be ordered, the index can no longer be trusted
+            usable = false;
+            keysByValue.clear();
+            valuesByKey.clear();
+        }
+    }
+
+    /**
+     * Removes the given key if it is currently indexed under the given value
+     *
+     * @param key The primary key
+     * @param value The value
+     */
+    public synchronized void deindex(Object key, Object value) {
+        Object current = valuesByKey.get(key);
+        if (current != null && value != null && VALUE_COMPARATOR.compare(current, value) == 0) {
+            remove(key);
+        }
+    }
+
+    /**
+     * Removes the given key regardless of its value
+     *
+     * @param key The primary key
+     */
+    public synchronized void remove(Object key) {
+        Object current = valuesByKey.remove(key);
+        if (current != null) {
+            Set<Object> keys = keysByValue.get(current);
+            if (keys != null) {
+                keys.remove(key);
+                if (keys.isEmpty()) {
+                    keysByValue.remove(current);
+                }
+            }
+        }
+    }
+
+    /**
+     * @return Whether the index holds every non-null value of the property and can be used for queries
+     */
+    public synchronized boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * @param key The primary key
+     * @return Whether a non-null value is indexed for the key
+     */
+    public synchronized boolean containsKey(Object key) {
+        return valuesByKey.containsKey(key);
+    }
+
+    /**
+     * @param key The primary key
+     * @return The value indexed for the key or null
+     */
+    public synchronized Object valueOf(Object key) {
+        return valuesByKey.get(key);
+    }
+
+    /**
+     * Finds the keys whose values lie within the given bounds, in ascending value order
+     *
+     * @param from The lower bound or null if unbounded
+     * @param fromInclusive Whether the lower bound is inclusive
+     * @param to The upper bound or null if unbounded
+     * @param toInclusive Whether the upper bound is inclusive
+     * @return The keys
+     */
+    public synchronized List<Object> range(Object from, boolean fromInclusive, Object to, boolean toInclusive) {
+        NavigableMap<Object, Set<Object>> range = keysByValue;
+        if (from != null && to != null) {
+            if (VALUE_COMPARATOR.compare(from, to) > 0) {
+                return new ArrayList<>();
+            }
+            range = range.subMap(from, fromInclusive, to, toInclusive);
+        }
+        else if (from != null) {
+            range = range.tailMap(from, fromInclusive);
+        }
+        else if (to != null) {
+            range = range.headMap(to, toInclusive);
+        }
+        return flatten(range.values());
+    }
+
+    /**
+     * @param descending Whether to return the keys in descending value order
+     * @return All the indexed keys ordered by their value
+     */
+    public synchronized List<Object> orderedKeys(boolean descending) {
+        return flatten(descending ? keysByValue.descendingMap().values() : keysByValue.values());
+    }
+
+    /**
+     * Clears the index
+     */
+    public synchronized void clear() {
+        keysByValue.clear();
+        valuesByKey.clear();
+        usable = true;
+    }
+
+    private static List<Object> flatten(Collection<Set<Object>> buckets) {
+        List<Object> keys = new ArrayList<>();
+        for (Set<Object> bucket : buckets) {
+            keys.addAll(bucket);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,45 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.simple.query;
+
+import java.util.Map;
+
+/**
+ * A compiled criterion that is evaluated against a single native entry of the in-memory datastore.
+ *
+ * @see SimpleMapQueryCompiler
+ * @since 9.0
+ */
+@FunctionalInterface
+@SuppressWarnings("rawtypes")
+public interface EntryPredicate {
+
+    /**
+     * Matches every entry
+     */
+    EntryPredicate ALL = (key, entry) -> true;
+
+    /**
+     * Matches no entry
+     */
+    EntryPredicate NONE = (key, entry) -> false;
+
+    /**
+     * @param key The primary key of the entry
+     * @param entry The native entry
+     * @return Whether the entry matches
+     */
+    boolean matches(Object key, Map entry);
+}
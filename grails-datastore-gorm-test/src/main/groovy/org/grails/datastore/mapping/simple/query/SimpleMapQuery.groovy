@@ -16,6 +16,11 @@ package org.grails.datastore.mapping.simple.query
 
 import java.util.regex.Pattern
 
+import groovy.transform.CompileStatic
+import org.codehaus.groovy.runtime.InvokerHelper
+import org.codehaus.groovy.runtime.NumberAwareComparator
+import org.codehaus.groovy.runtime.ScriptBytecodeAdapter
+import org.codehaus.groovy.runtime.typehandling.NumberMath
 import org.grails.datastore.mapping.engine.types.CustomTypeMarshaller
 import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValue
 import org.grails.datastore.mapping.model.PersistentEntity
@@ -30,6 +35,7 @@ import org.grails.datastore.mapping.query.api.QueryableCriteria
 import org.grails.datastore.mapping.query.criteria.FunctionCallingCriterion
 import org.grails.datastore.mapping.simple.SimpleMapSession
 import org.grails.datastore.mapping.simple.engine.SimpleMapEntityPersister
+import org.grails.datastore.mapping.simple.engine.SortedPropertyIndex
 import org.springframework.dao.InvalidDataAccessResourceUsageException
 import org.springframework.util.Assert
 
@@ -44,6 +50,7 @@ class SimpleMapQuery extends Query {
     Map<String, Map> datastore
     private String family
     private SimpleMapEntityPersister entityPersister
+    private Map scopedEntries
 
     SimpleMapQuery(SimpleMapSession session, PersistentEntity entity, SimpleMapEntityPersister entityPersister) {
         super(session, entity)
@@ -53,8 +60,32 @@ class SimpleMapQuery extends Query {
     }
 
     protected List executeQuery(PersistentEntity entity, Query.Junction criteria) {
+        List compiled = executeCompiledQuery(criteria)
+        if (compiled != null) {
+            return compiled
+        }
+        if (isCountOnly()) {
+            // counting needs only the matching keys, so no instance is retrieved
+            Map familyEntries = datastore[family]
+            if (criteria.isEmpty()) {
+                return [familyEntries.size()]
+            }
+            Set keys = new HashSet(executeSubQueryInternal(criteria, criteria.getCriteria()))
+            keys.retainAll(familyEntries.keySet())
+            return [keys.size()]
+        }
+
         def results = []
         def entityMap = [:]
+        SortedPropertyIndex orderIndex = projections.isEmpty() ? getOrderIndex() : null
+        if (orderIndex != null) {
+            // the order is known from the index, so only the entities of the requested page need to be retrieved
+            Map familyEntries = datastore[family]
+            Collection keys = criteria.isEmpty() ? familyEntries.keySet() : new LinkedHashSet(executeSubQueryInternal(criteria, criteria.getCriteria()))
+            List pageKeys = applyMaxAndOffset(orderKeys(keys.findAll { familyEntries.containsKey(it) }, orderIndex))
+            populateQueryResult(pageKeys, entityMap)
+            return entityMap.values().findAll { it != null } as List
+        }
         if (criteria.isEmpty()) {
             populateQueryResult(datastore[family].keySet().toList(), entityMap)
         }
@@ -160,6 +191,229 @@ class SimpleMapQuery extends Query {
         return Collections.emptyList()
     }
 
+    /**
+     * Executes the query using the predicates and comparator compiled by {@link SimpleMapQueryCompiler}, which
+     * are evaluated against the native entries. Ordered results are collected in a bounded heap of offset + max
+     * entries, entities are only retrieved for the requested page and projections are computed from the native
+     * values in a single pass.
+     *
+     * @param criteria The criteria
+     * @return The results or null if the query cannot be compiled, in which case the criterion handlers are used
+     */
+    @CompileStatic
+    protected List executeCompiledQuery(Query.Junction criteria) {
+        EntryPredicate predicate = SimpleMapQueryCompiler.compileCriteria(entity, criteria, entityPersister)
+        if (predicate == null) {
+            return null
+        }
+        Comparator<Map.Entry<Object, Map>> comparator = null
+        if (!orderBy.isEmpty()) {
+            comparator = SimpleMapQueryCompiler.compileOrder(entity, orderBy)
+            if (comparator == null) {
+                return null
+            }
+        }
+        List<Query.Projection> projectionList = projections.projectionList
+        List<SimpleMapQueryCompiler.ValueReader> projectionReaders = compileProjections(projectionList)
+        if (projectionReaders == null) {
+            return null
+        }
+
+        boolean entityResults = projectionList.isEmpty()
+        int limit = entityResults && max > -1 ? (int) Math.min((long) offset + max, Integer.MAX_VALUE) : -1
+        TopKBuffer<Map.Entry<Object, Map>> buffer = new TopKBuffer<Map.Entry<Object, Map>>(limit, comparator)
+        Map<Object, Map> familyEntries = (Map<Object, Map>) datastore[family]
+        Collection candidates = criteria.isEmpty() ? null : lookupCandidates(criteria)
+        if (candidates == null) {
+            for (Map.Entry<Object, Map> entry in familyEntries.entrySet()) {
+                if (buffer.isFull()) {
+                    break
+                }
+                if (predicate.matches(entry.key, entry.value)) {
+                    buffer.add(entry)
+                }
+            }
+        }
+        else {
+            for (key in candidates) {
+                if (buffer.isFull()) {
+                    break
+                }
+                Map entry = familyEntries.get(key)
+                if (entry != null && predicate.matches(key, entry)) {
+                    buffer.add(new AbstractMap.SimpleImmutableEntry<Object, Map>(key, entry))
+                }
+            }
+        }
+
+        List<Map.Entry<Object, Map>> matches = buffer.toList()
+        if (entityResults) {
+            List results = new ArrayList(Math.max(0, matches.size() - offset))
+            for (int i = offset; i < matches.size(); i++) {
+                def instance = session.retrieve(entity.javaClass, (Serializable) matches.get(i).key)
+                if (instance != null) {
+                    results.add(instance)
+                }
+            }
+            return results
+        }
+
+        List results = project(matches, projectionList, projectionReaders)
+        return results ? applyMaxAndOffset(results) : Collections.emptyList()
+    }
+
+    @CompileStatic
+    private boolean isCountOnly() {
+        List<Query.Projection> projectionList = projections.projectionList
+        projectionList.size() == 1 && projectionList.get(0).getClass() == Query.CountProjection
+    }
+
+    /**
+     * @return The keys of the most selective index lookup of a conjunction, which are a superset of the matches,
+     * or null if none of the criteria can be answered from an index
+     */
+    @CompileStatic
+    private Collection lookupCandidates(Query.Junction criteria) {
+        if (!(criteria instanceof Query.Conjunction)) {
+            return null
+        }
+        Collection candidates = null
+        for (Query.Criterion criterion in criteria.criteria) {
+            Collection keys = lookupIndex(criterion)
+            if (keys != null && (candidates == null || keys.size() < candidates.size())) {
+                candidates = keys
+            }
+        }
+        return candidates
+    }
+
+    /**
+     * @return A reader per projection, which is null for projections that do not read a property, or null if one
+     * of the projections cannot be computed from the native entries
+     */
+    @CompileStatic
+    private List<SimpleMapQueryCompiler.ValueReader> compileProjections(List<Query.Projection> projectionList) {
+        List<SimpleMapQueryCompiler.ValueReader> readers = new ArrayList<>(projectionList.size())
+        for (Query.Projection p in projectionList) {
+            if (p instanceof Query.PropertyProjection) {
+                SimpleMapQueryCompiler.ValueReader reader = SimpleMapQueryCompiler.compileReader(entity, ((Query.PropertyProjection) p).propertyName)
+                if (reader == null) {
+                    return null
+                }
+                boolean aggregate = p instanceof Query.CountDistinctProjection || p instanceof Query.MaxProjection ||
+                        p instanceof Query.MinProjection || p instanceof Query.SumProjection || p instanceof Query.AvgProjection
+                if ((aggregate && reader.isAssociation()) || (!aggregate && reader.isIdentity())) {
+                    return null
+                }
+                readers.add(reader)
+            }
+            else {
+                readers.add(null)
+            }
+        }
+        return readers
+    }
+
+    @CompileStatic
+    private List project(List<Map.Entry<Object, Map>> matches, List<Query.Projection> projectionList, List<SimpleMapQueryCompiler.ValueReader> readers) {
+        int projectionCount = projectionList.size()
+        List results = []
+        for (int i = 0; i < projectionCount; i++) {
+            Query.Projection p = projectionList.get(i)
+            SimpleMapQueryCompiler.ValueReader reader = readers.get(i)
+            if (p instanceof Query.IdProjection) {
+                List ids = new ArrayList(matches.size())
+                for (Map.Entry<Object, Map> match in matches) {
+                    ids.add(match.key)
+                }
+                if (projectionCount == 1) {
+                    results = ids
+                }
+                else {
+                    results.add(ids)
+                }
+            }
+            else if (p instanceof Query.CountProjection) {
+                results.add(matches.size())
+            }
+            else if (p instanceof Query.CountDistinctProjection) {
+                Set distinct = new TreeSet(new NumberAwareComparator())
+                for (Map.Entry<Object, Map> match in matches) {
+                    distinct.add(reader.read(match.key, match.value))
+                }
+                results.add(distinct.size())
+            }
+            else if (p instanceof Query.MaxProjection || p instanceof Query.MinProjection) {
+                boolean maximum = p instanceof Query.MaxProjection
+                def answer = null
+                for (Map.Entry<Object, Map> match in matches) {
+                    def value = reader.read(match.key, match.value)
+                    if (value != null && (answer == null ||
+                            (maximum ? ScriptBytecodeAdapter.compareGreaterThan(value, answer) : ScriptBytecodeAdapter.compareLessThan(value, answer)))) {
+                        answer = value
+                    }
+                }
+                results.add(answer)
+            }
+            else if (p instanceof Query.SumProjection || p instanceof Query.AvgProjection) {
+                def sum = null
+                boolean first = true
+                for (Map.Entry<Object, Map> match in matches) {
+                    def value = reader.read(match.key, match.value)
+                    if (first) {
+                        sum = value
+                        first = false
+                    }
+                    else if (sum instanceof Number && value instanceof Number) {
+                        sum = NumberMath.add((Number) sum, (Number) value)
+                    }
+                    else {
+                        sum = InvokerHelper.invokeMethod(sum, 'plus', value)
+                    }
+                }
+                if (p instanceof Query.AvgProjection) {
+                    results.add(matches.isEmpty() ? null : NumberMath.divide((Number) sum, matches.size()))
+                }
+                else {
+                    results.add(sum)
+                }
+            }
+            else if (p instanceof Query.PropertyProjection) {
+                List propertyValues = new ArrayList(matches.size())
+                for (Map.Entry<Object, Map> match in matches) {
+                    propertyValues.add(reader.read(match.key, match.value))
+                }
+                if (p instanceof Query.DistinctPropertyProjection) {
+                    propertyValues = propertyValues.unique()
+                }
+                if (reader.isAssociation()) {
+                    Class associatedType = reader.property.type
+                    List associated = new ArrayList(propertyValues.size())
+                    for (id in propertyValues) {
+                        associated.add(session.retrieve(associatedType, (Serializable) id))
+                    }
+                    propertyValues = associated
+                }
+                if (projectionCount == 1) {
+                    results.addAll(propertyValues)
+                }
+                else {
+                    results.add(propertyValues)
+                }
+            }
+        }
+
+        if (results.size() > 1 && projectionCount > 1) {
+            if (!(results.get(0) instanceof Collection)) {
+                results = [results]                             // [<col>, <col>, ...]
+            }
+            else {
+                results = results.transpose()                   // [[<col>, <col>, ...], ...]
+            }
+        }
+        return results
+    }
+
     private List applyMaxAndOffset(List sortedResults) {
         final def total = sortedResults.size()
         if (offset >= total) return Collections.emptyList()
@@ -365,13 +619,13 @@ class SimpleMapQuery extends Query {
         },
         (AssociationQuery): { AssociationQuery aq, PersistentProperty property ->
             Query.Junction queryCriteria = aq.criteria
-            return executeAssociationSubQuery(datastore[family], aq.association.associatedEntity, queryCriteria, property)
+            return executeAssociationSubQuery(getEntriesInScope(), aq.association.associatedEntity, queryCriteria, property)
         },
         (Query.EqualsAll):{ Query.EqualsAll equalsAll, PersistentProperty property, Closure function=null, boolean onValue = false ->
             def name = equalsAll.property
             final values = subqueryIfNecessary(equalsAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) == it  }
             }
@@ -381,7 +635,7 @@ class SimpleMapQuery extends Query {
             def name = notEqualsAll.property
             final values = subqueryIfNecessary(notEqualsAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) != it  }
             }
@@ -391,7 +645,7 @@ class SimpleMapQuery extends Query {
             def name = greaterThanAll.property
             final values = subqueryIfNecessary(greaterThanAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) > it  }
             }
@@ -401,7 +655,7 @@ class SimpleMapQuery extends Query {
             def name = lessThanAll.property
             final values = subqueryIfNecessary(lessThanAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) < it  }
             }
@@ -411,7 +665,7 @@ class SimpleMapQuery extends Query {
             def name = lessThanEqualsAll.property
             final values = subqueryIfNecessary(lessThanEqualsAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) <= it  }
             }
@@ -421,7 +675,7 @@ class SimpleMapQuery extends Query {
             def name = greaterThanAll.property
             final values = subqueryIfNecessary(greaterThanAll, false)
             Assert.isTrue(values.every { property.type.isInstance(it) }, "Subquery returned values that are not compatible with the type of property '$name': $values")
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             allEntities.findAll { entry ->
                 values.every { (function != null ? function(resolveIfEmbedded(name, entry.value)) : resolveIfEmbedded(name, entry.value)) >= it  }
             }
@@ -436,7 +690,7 @@ class SimpleMapQuery extends Query {
             }
 
             if (function != null) {
-                def allEntities = datastore[family]
+                def allEntities = getEntriesInScope()
                 allEntities.findAll {
                     def calculatedValue = function(it.value[property.name])
                     calculatedValue == value
@@ -444,7 +698,7 @@ class SimpleMapQuery extends Query {
             }
             else {
                 if (equals.property.contains('.') || value == null) {
-                    def allEntities = datastore[family]
+                    def allEntities = getEntriesInScope()
                     return allEntities.findAll { resolveIfEmbedded(equals.property, it.value) == value }.collect { it.key }
                 }
                 else {
@@ -504,7 +758,7 @@ class SimpleMapQuery extends Query {
             def from = between.from
             def to = between.to
             def name = between.property
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
 
             if (function != null) {
                 allEntities.findAll { function(resolveIfEmbedded(name, it.value)) >= from && function(resolveIfEmbedded(name, it.value)) <= to }.collect { it.key }
@@ -516,100 +770,100 @@ class SimpleMapQuery extends Query {
         (Query.GreaterThan): { Query.GreaterThan gt, PersistentProperty property, Closure function = null, boolean onValue = false ->
             def name = gt.property
             final value = subqueryIfNecessary(gt)
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
 
             allEntities.findAll { (function != null ? function(resolveIfEmbedded(name, it.value)) : resolveIfEmbedded(name, it.value)) > value }.collect { it.key }
         },
         (Query.GreaterThanProperty): { Query.GreaterThanProperty gt, PersistentProperty property, Closure function = null, boolean onValue = false ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
 
             allEntities.findAll { (function != null ? function(resolveIfEmbedded(name, it.value)) : resolveIfEmbedded(name, it.value)) > it.value[other] }.collect { it.key }
         },
         (Query.GreaterThanEqualsProperty): { Query.GreaterThanEqualsProperty gt, PersistentProperty property, Closure function = null, boolean onValue = false ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) >= it.value[other] }.collect { it.key }
         },
         (Query.LessThanProperty): { Query.LessThanProperty gt, PersistentProperty property ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) < it.value[other] }.collect { it.key }
         },
         (Query.LessThanEqualsProperty): { Query.LessThanEqualsProperty gt, PersistentProperty property ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) <= it.value[other] }.collect { it.key }
         },
         (Query.EqualsProperty): { Query.EqualsProperty gt, PersistentProperty property ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) == it.value[other] }.collect { it.key }
         },
         (Query.NotEqualsProperty): { Query.NotEqualsProperty gt, PersistentProperty property ->
             def name = gt.property
             def other = gt.otherProperty
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) != it.value[other] }.collect { it.key }
         },
         (Query.SizeEquals): { Query.SizeEquals se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() == value }
         },
        (Query.SizeNotEquals): { Query.SizeNotEquals se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() != value }
         },
         (Query.SizeGreaterThan): { Query.SizeGreaterThan se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() > value }
         },
         (Query.SizeGreaterThanEquals): { Query.SizeGreaterThanEquals se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() >= value }
         },
         (Query.SizeLessThan): { Query.SizeLessThan se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() < value }
         },
         (Query.SizeLessThanEquals): { Query.SizeLessThanEquals se, PersistentProperty property ->
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
             final value = subqueryIfNecessary(se)
             queryAssociationList(allEntities, property) { it.size() <= value }
         },
         (Query.GreaterThanEquals): { Query.GreaterThanEquals gt, PersistentProperty property ->
             def name = gt.property
             final value = subqueryIfNecessary(gt)
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) >= value }.collect { it.key }
         },
         (Query.LessThan): { Query.LessThan lt, PersistentProperty property ->
             def name = lt.property
             final value = subqueryIfNecessary(lt)
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) < value }.collect { it.key }
         },
         (Query.LessThanEquals): { Query.LessThanEquals lte, PersistentProperty property ->
             def name = lte.property
             final value = subqueryIfNecessary(lte)
-            def allEntities = datastore[family]
+            def allEntities = getEntriesInScope()
 
             allEntities.findAll { resolveIfEmbedded(name, it.value) <= value }.collect { it.key }
         }
@@ -664,10 +918,10 @@ class SimpleMapQuery extends Query {
         return result.toList()
     }
 
-    private ArrayList negateResults(List results) {
-        def entityMap = datastore[family]
+    private ArrayList negateResults(Collection results) {
+        def entityMap = getEntriesInScope()
         def allIds = new ArrayList(entityMap.keySet())
-        allIds.removeAll(results)
+        allIds.removeAll(results instanceof Set ? results : new HashSet(results))
         return allIds
     }
 
@@ -681,6 +935,12 @@ class SimpleMapQuery extends Query {
     }
 
     Collection executeSubQueryInternal(criteria, criteriaList) {
+        if (criteria instanceof Query.Conjunction && scopedEntries == null) {
+            Collection planned = executeIndexedConjunction((Query.Junction) criteria, (List<Query.Criterion>) criteriaList)
+            if (planned != null) {
+                return planned
+            }
+        }
         SimpleMapResultList resultList = new SimpleMapResultList(this)
         for (Query.Criterion criterion in criteriaList) {
             if (criterion instanceof Query.Junction) {
@@ -705,6 +965,179 @@ class SimpleMapQuery extends Query {
         return applyJunctionToResults(criteria,resultList.results)
     }
 
+    /**
+     * Plans the execution of a conjunction. Criteria that can be answered from an index are looked up first and
+     * the remaining criteria are only evaluated against the candidates left by the most selective lookups,
+     * rather than against every entry.
+     *
+     * @param criteria The conjunction
+     * @param criteriaList The criteria of the conjunction
+     * @return The matching keys or null if none of the criteria can be answered from an index
+     */
+    protected Collection executeIndexedConjunction(Query.Junction criteria, List<Query.Criterion> criteriaList) {
+        List<Collection> lookups = []
+        List<Query.Criterion> remaining = []
+        for (Query.Criterion criterion in criteriaList) {
+            Collection keys = lookupIndex(criterion)
+            if (keys == null) {
+                remaining << criterion
+            }
+            else {
+                lookups << keys
+            }
+        }
+        if (lookups.isEmpty()) {
+            return null
+        }
+
+        // most selective lookup first
+        lookups.sort { Collection keys -> keys.size() }
+        Collection candidates = lookups[0]
+        for (int i = 1; i < lookups.size() && !candidates.isEmpty(); i++) {
+            Collection lookup = lookups[i]
+            Set other = lookup instanceof Set ? (Set) lookup : new HashSet(lookup)
+            candidates = candidates.findAll { other.contains(it) }
+        }
+
+        if (remaining && !candidates.isEmpty()) {
+            Map allEntries = datastore[family]
+            Map scope = new LinkedHashMap()
+            for (key in candidates) {
+                def entry = allEntries.get(key)
+                if (entry != null) {
+                    scope.put(key, entry)
+                }
+            }
+            scopedEntries = scope
+            try {
+                Set matches = new HashSet(executeSubQueryInternal(new Query.Conjunction(remaining), remaining))
+                candidates = candidates.findAll { matches.contains(it) }
+            }
+            finally {
+                scopedEntries = null
+            }
+        }
+        return candidates as List
+    }
+
+    /**
+     * Answers the given criterion from the hash or sorted indices of the persister
+     *
+     * @param criterion The criterion
+     * @return The matching keys or null if the criterion cannot be answered from an index
+     */
+    protected Collection lookupIndex(Query.Criterion criterion) {
+        if (!(criterion instanceof Query.PropertyCriterion)) {
+            return null
+        }
+        Query.PropertyCriterion pc = (Query.PropertyCriterion) criterion
+        String name = pc.property
+        def value = pc.value
+        if (name.contains('.') || value == null || value instanceof QueryableCriteria) {
+            return null
+        }
+        PersistentProperty property = entity.getPropertyByName(name)
+        if (property == null && entity.identity?.name == name) {
+            property = entity.identity
+        }
+        if (property == null || property instanceof Custom) {
+            return null
+        }
+
+        Class criterionType = criterion.getClass()
+        if (criterionType == Query.Equals || criterionType == Query.IdEquals) {
+            return handlers[criterionType].call(criterion, property)
+        }
+        if (criterionType == Query.In) {
+            Query.In inList = (Query.In) criterion
+            if (inList.subquery != null || inList.values.any { it == null }) {
+                return null
+            }
+            return new LinkedHashSet(handlers[Query.In].call(inList, property))
+        }
+
+        SortedPropertyIndex index = SortedPropertyIndex.supports(property) ? entityPersister.getSortedIndex(property) : null
+        if (index == null) {
+            return null
+        }
+        try {
+            if (criterionType == Query.GreaterThan) {
+                return sortKeys(index.range(value, false, null, false))
+            }
+            if (criterionType == Query.GreaterThanEquals) {
+                return sortKeys(index.range(value, true, null, false))
+            }
+            if (criterionType == Query.LessThan) {
+                return sortKeys(index.range(null, false, value, false) + unindexedKeys(index))
+            }
+            if (criterionType == Query.LessThanEquals) {
+                return sortKeys(index.range(null, false, value, true) + unindexedKeys(index))
+            }
+            if (criterionType == Query.Between) {
+                Query.Between between = (Query.Between) criterion
+                if (between.from != null && between.to != null) {
+                    return sortKeys(index.range(between.from, true, between.to, true))
+                }
+            }
+        }
+        catch (IllegalArgumentException | ClassCastException ignored) {
+            // values that cannot be compared, let the scan report the problem
+        }
+        return null
+    }
+
+    /**
+     * Null values are not held in the sorted indices, but compare as less than any other value
+     */
+    private List unindexedKeys(SortedPropertyIndex index) {
+        getEntriesInScope().keySet().findAll { !index.containsKey(it) } as List
+    }
+
+    /**
+     * Range lookups return keys in value order, sort them back into key order to match the order of a scan
+     */
+    private static List sortKeys(List keys) {
+        keys.sort()
+    }
+
+    private SortedPropertyIndex getOrderIndex() {
+        if (orderBy.size() != 1) {
+            return null
+        }
+        String name = orderBy[0].property
+        if (name.contains('.')) {
+            return null
+        }
+        PersistentProperty property = entity.getPropertyByName(name)
+        if (property == null && entity.identity?.name == name) {
+            property = entity.identity
+        }
+        if (property == null || !SortedPropertyIndex.supports(property)) {
+            return null
+        }
+        return entityPersister.getSortedIndex(property)
+    }
+
+    private List orderKeys(Collection keys, SortedPropertyIndex index) {
+        Comparator comparator = { a, b ->
+            SortedPropertyIndex.VALUE_COMPARATOR.compare(index.valueOf(a), index.valueOf(b))
+        } as Comparator
+        if (orderBy[0].direction == Query.Order.Direction.DESC) {
+            comparator = comparator.reversed()
+        }
+        List ordered = new ArrayList(keys)
+        ordered.sort(comparator)
+        return ordered
+    }
+
+    /**
+     * @return The entries criteria are evaluated against, narrowed to the candidates of an index lookup while
+     * the remaining criteria of a planned conjunction are evaluated
+     */
+    protected Map getEntriesInScope() {
+        scopedEntries != null ? scopedEntries : datastore[family]
+    }
+
     private List applyJunctionToResults(Query.Junction criteria, List resultList) {
         def finalIdentifiers = []
         if (!resultList.isEmpty()) {
@@ -0,0 +1,394 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.simple.query;
+
+import org.codehaus.groovy.runtime.InvokerHelper;
+import org.codehaus.groovy.runtime.typehandling.DefaultTypeTransformation;
+import org.grails.datastore.mapping.config.Property;
+import org.grails.datastore.mapping.engine.Persister;
+import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.model.PersistentProperty;
+import org.grails.datastore.mapping.model.PropertyMapping;
+import org.grails.datastore.mapping.model.types.Embedded;
+import org.grails.datastore.mapping.model.types.Identity;
+import org.grails.datastore.mapping.model.types.Simple;
+import org.grails.datastore.mapping.model.types.ToOne;
+import org.grails.datastore.mapping.query.Query;
+import org.grails.datastore.mapping.query.api.QueryableCriteria;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles the criteria and ordering of a {@link SimpleMapQuery} once per execution into a tree of
+ * {@link EntryPredicate} instances and a {@link Comparator} that are evaluated directly against the native entries of
+ * the datastore, instead of dispatching dynamically to a handler closure per criterion and reading properties
+ * through dynamic property access for every entry.
+ *
+ * <p>
+ * The compiled form produces the same matches as the handlers of {@link SimpleMapQuery}. Criteria it does not
+ * support, such as association queries, subqueries, function calls, size criteria or criteria on embedded and custom
+ * properties, cause compilation to return null, in which case the query falls back to the handlers.
+ * </p>
+ *
+ * @since 9.0
+ */
+@SuppressWarnings("rawtypes")
+public final class SimpleMapQueryCompiler {
+
+    private SimpleMapQueryCompiler() {
+    }
+
+    /**
+     * Compiles the given criteria
+     *
+     * @param entity The entity being queried
+     * @param criteria The criteria
+     * @param persister The persister used to obtain the identifiers of associated instances used as values
+     * @return The predicate or null if the criteria cannot be compiled
+     */
+    public static EntryPredicate compileCriteria(PersistentEntity entity, Query.Junction criteria, Persister persister) {
+        if (criteria.isEmpty()) {
+            return EntryPredicate.ALL;
+        }
+        return compileJunction(entity, criteria, persister);
+    }
+
+    /**
+     * Compiles the given ordering into a comparator of native entries
+     *
+     * @param entity The entity being queried
+     * @param orderBy The ordering
+     * @return The comparator or null if the ordering cannot be compiled
+     */
+    public static Comparator<Map.Entry<Object, Map>> compileOrder(PersistentEntity entity, List<Query.Order> orderBy) {
+        int size = orderBy.size();
+        ValueReader[] readers = new ValueReader[size];
+        boolean[] descending = new boolean[size];
+        for (int i = 0; i < size; i++) {
+            Query.Order order = orderBy.get(i);
+            ValueReader reader = compileReader(entity, order.getProperty());
+            if (reader == null || reader.isAssociation()) {
+                return null;
+            }
+            readers[i] = reader;
+            descending[i] = order.getDirection() == Query.Order.Direction.DESC;
+        }
+        return (a, b) -> {
+            for (int i = 0; i < readers.length; i++) {
+                ValueReader reader = readers[i];
+                int cmp = DefaultTypeTransformation.compareTo(reader.read(a.getKey(), a.getValue()), reader.read(b.getKey(), b.getValue()));
+                if (cmp != 0) {
+                    return descending[i] ? -cmp : cmp;
+                }
+            }
+            return 0;
+        };
+    }
+
+    /**
+     * Compiles a reader for the value of the given property in a native entry
+     *
+     * @param entity The entity
+     * @param propertyName The property name
+     * @return The reader or null if the value of the property cannot be read from the native entry
+     */
+    public static ValueReader compileReader(PersistentEntity entity, String propertyName) {
+        if (propertyName == null || propertyName.indexOf('.') > -1) {
+            return null;
+        }
+        PersistentProperty property = entity.getPropertyByName(propertyName);
+        if (property == null) {
+            PersistentProperty identity = entity.getIdentity();
+            if (identity != null && identity.getName().equals(propertyName)) {
+                property = identity;
+            }
+        }
+        if (property == null) {
+            return null;
+        }
+        if (property instanceof Identity) {
+            return new ValueReader(property, null);
+        }
+        if (property instanceof Simple || (property instanceof ToOne && !(property instanceof Embedded))) {
+            PropertyMapping mapping = property.getMapping();
+            Property mappedForm = mapping != null ? mapping.getMappedForm() : null;
+            String key = mappedForm != null ? mappedForm.getTargetName() : null;
+            return new ValueReader(property, key != null ? key : property.getName());
+        }
+        return null;
+    }
+
+    private static EntryPredicate compileJunction(PersistentEntity entity, Query.Junction junction, Persister persister) {
+        List<Query.Criterion> criteria = junction.getCriteria();
+        if (criteria.isEmpty()) {
+            // a nested junction without criteria produces no results
+            return EntryPredicate.NONE;
+        }
+        EntryPredicate[] children = new EntryPredicate[criteria.size()];
+        for (int i = 0; i < children.length; i++) {
+            EntryPredicate child = compile(entity, criteria.get(i), persister);
+            if (child == null) {
+                return null;
+            }
+            children[i] = child;
+        }
+
+        if (junction instanceof Query.Negation) {
+            if (children.length == 1) {
+                return negate(children[0]);
+            }
+            return (key, entry) -> {
+                for (EntryPredicate child : children) {
+                    if (child.matches(key, entry)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        if (children.length == 1) {
+            return children[0];
+        }
+        if (junction instanceof Query.Conjunction) {
+            return (key, entry) -> {
+                for (EntryPredicate child : children) {
+                    if (!child.matches(key, entry)) {
+                        return false;
+                    }
+                }
+                return true;
+            };
+        }
+        return (key, entry) -> {
+            for (EntryPredicate child : children) {
+                if (child.matches(key, entry)) {
+                    return true;
+                }
+            }
+            return false;
+        };
+    }
+
+    private static EntryPredicate compile(PersistentEntity entity, Query.Criterion criterion, Persister persister) {
+        if (criterion instanceof Query.Junction) {
+            return compileJunction(entity, (Query.Junction) criterion, persister);
+        }
+        if (!(criterion instanceof Query.PropertyNameCriterion)) {
+            return null;
+        }
+        ValueReader reader = compileReader(entity, ((Query.PropertyNameCriterion) criterion).getProperty());
+        if (reader == null) {
+            return null;
+        }
+
+        Class<?> type = criterion.getClass();
+        if (type == Query.IsNull.class) {
+            return equalTo(reader, null, persister);
+        }
+        if (type == Query.IsNotNull.class) {
+            return negate(equalTo(reader, null, persister));
+        }
+        if (criterion instanceof Query.PropertyComparisonCriterion) {
+            return compileComparison(entity, (Query.PropertyComparisonCriterion) criterion, reader);
+        }
+        if (!(criterion instanceof Query.PropertyCriterion)) {
+            return null;
+        }
+
+        Object value = ((Query.PropertyCriterion) criterion).getValue();
+        if (value instanceof QueryableCriteria) {
+            return null;
+        }
+        if (type == Query.Equals.class) {
+            return equalTo(reader, value, persister);
+        }
+        if (type == Query.IdEquals.class) {
+            if (!reader.isIdentity()) {
+                return null;
+            }
+            return value == null ? EntryPredicate.NONE : equalTo(reader, value, persister);
+        }
+        if (type == Query.NotEquals.class) {
+            return negate(equalTo(reader, value, persister));
+        }
+        if (type == Query.In.class) {
+            Query.In in = (Query.In) criterion;
+            if (in.getSubquery() != null) {
+                return null;
+            }
+            Collection values = in.getValues();
+            List<EntryPredicate> alternatives = new ArrayList<>(values.size());
+            for (Object candidate : values) {
+                alternatives.add(equalTo(reader, candidate, persister));
+            }
+            EntryPredicate[] children = alternatives.toArray(new EntryPredicate[0]);
+            return (key, entry) -> {
+                for (EntryPredicate child : children) {
+                    if (child.matches(key, entry)) {
+                        return true;
+                    }
+                }
+                return false;
+            };
+        }
+
+        // comparisons and patterns are only compiled for plain values
+        if (reader.isAssociation()) {
+            return null;
+        }
+        if (type == Query.GreaterThan.class) {
+            return (key, entry) -> DefaultTypeTransformation.compareTo(reader.read(key, entry), value) > 0;
+        }
+        if (type == Query.GreaterThanEquals.class) {
+            return (key, entry) -> DefaultTypeTransformation.compareTo(reader.read(key, entry), value) >= 0;
+        }
+        if (type == Query.LessThan.class) {
+            return (key, entry) -> DefaultTypeTransformation.compareTo(reader.read(key, entry), value) < 0;
+        }
+        if (type == Query.LessThanEquals.class) {
+            return (key, entry) -> DefaultTypeTransformation.compareTo(reader.read(key, entry), value) <= 0;
+        }
+        if (type == Query.Between.class) {
+            Query.Between between = (Query.Between) criterion;
+            Object from = between.getFrom();
+            Object to = between.getTo();
+            return (key, entry) -> {
+                Object current = reader.read(key, entry);
+                return DefaultTypeTransformation.compareTo(current, from) >= 0 && DefaultTypeTransformation.compareTo(current, to) <= 0;
+            };
+        }
+        if (type == Query.Like.class) {
+            return matching(reader, Pattern.compile(((Query.Like) criterion).getPattern().replaceAll("%", ".*?")));
+        }
+        if (type == Query.ILike.class) {
+            return matching(reader, Pattern.compile(((Query.Like) criterion).getPattern().replaceAll("%", ".*?"), Pattern.CASE_INSENSITIVE));
+        }
+        if (type == Query.RLike.class) {
+            return matching(reader, Pattern.compile(((Query.Like) criterion).getPattern(), Pattern.CASE_INSENSITIVE));
+        }
+        return null;
+    }
+
+    private static EntryPredicate compileComparison(PersistentEntity entity, Query.PropertyComparisonCriterion criterion, ValueReader reader) {
+        ValueReader other = compileReader(entity, criterion.getOtherProperty());
+        if (other == null || reader.isAssociation() || other.isAssociation()) {
+            return null;
+        }
+        Class<?> type = criterion.getClass();
+        if (type == Query.EqualsProperty.class) {
+            return (key, entry) -> DefaultTypeTransformation.compareEqual(reader.read(key, entry), other.read(key, entry));
+        }
+        if (type == Query.NotEqualsProperty.class) {
+            return (key, entry) -> !DefaultTypeTransformation.compareEqual(reader.read(key, entry), other.read(key, entry));
+        }
+        if (type == Query.GreaterThanProperty.class) {
+            return (key, entry) -> DefaultTypeTransformation.compareTo(reader.read(key, entry), other.read(key, entry)) > 0;
+        }
+        if (type == Query.GreaterThanEqualsProperty.class) {
+            return (key, entry) -> DefaultTypeTransformation.compareTo(reader.read(key, entry), other.read(key, entry)) >= 0;
+        }
+        if (type == Query.LessThanProperty.class) {
+            return (key, entry) -> DefaultTypeTransformation.compareTo(reader.read(key, entry), other.read(key, entry)) < 0;
+        }
+        if (type == Query.LessThanEqualsProperty.class) {
+            return (key, entry) -> DefaultTypeTransformation.compareTo(reader.read(key, entry), other.read(key, entry)) <= 0;
+        }
+        return null;
+    }
+
+    /**
+     * Equality of non-null values uses the string form of the values, as the property indices of the datastore do
+     */
+    private static EntryPredicate equalTo(ValueReader reader, Object value, Persister persister) {
+        if (value == null) {
+            return (key, entry) -> reader.read(key, entry) == null;
+        }
+        Object expected = value;
+        if (reader.isAssociation() && reader.getProperty().getType().isInstance(value)) {
+            expected = persister.getObjectIdentifier(value);
+        }
+        String expectedString = indexString(expected);
+        return (key, entry) -> {
+            Object current = reader.read(key, entry);
+            return current != null && expectedString.equals(indexString(current));
+        };
+    }
+
+    private static EntryPredicate matching(ValueReader reader, Pattern pattern) {
+        return (key, entry) -> {
+            Object current = reader.read(key, entry);
+            return current != null && pattern.matcher(indexString(current)).matches();
+        };
+    }
+
+    private static EntryPredicate negate(EntryPredicate predicate) {
+        return (key, entry) -> !predicate.matches(key, entry);
+    }
+
+    private static String indexString(Object value) {
+        return value instanceof String ? (String) value : InvokerHelper.toString(value);
+    }
+
+    /**
+     * Reads the value of a property from a native entry. The identifier is read from the key of the entry and
+     * associations are read as the identifier of the associated entity.
+     */
+    public static final class ValueReader {
+        private final PersistentProperty property;
+        private final String entryKey;
+        private final boolean association;
+
+        ValueReader(PersistentProperty property, String entryKey) {
+            this.property = property;
+            this.entryKey = entryKey;
+            this.association = property instanceof ToOne;
+        }
+
+        /**
+         * @param key The primary key of the entry
+         * @param entry The native entry
+         * @return The value
+         */
+        public Object read(Object key, Map entry) {
+            return entryKey == null ? key : entry.get(entryKey);
+        }
+
+        /**
+         * @return The property
+         */
+        public PersistentProperty getProperty() {
+            return property;
+        }
+
+        /**
+         * @return Whether the property is the identifier
+         */
+        public boolean isIdentity() {
+            return entryKey == null;
+        }
+
+        /**
+         * @return Whether the property is a to-one association, in which case the value is the associated identifier
+         */
+        public boolean isAssociation() {
+            return association;
+        }
+    }
+}
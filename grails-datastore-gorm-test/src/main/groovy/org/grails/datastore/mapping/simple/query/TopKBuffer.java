@@ -0,0 +1,130 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.mapping.simple.query;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+
+/**
+ * Collects the first <code>limit</code> elements of a sequence according to a comparator without sorting the whole
+ * sequence. A bounded heap holds the best elements seen so far, so collecting n elements costs O(n log limit) time
+ * and O(limit) space. Elements that compare equally retain the order in which they were added, as a stable sort
+ * would.
+ *
+ * <p>
+ * Without a comparator the first <code>limit</code> elements in the order they were added are kept. A negative limit
+ * keeps every element.
+ * </p>
+ *
+ * @since 9.0
+ */
+public class TopKBuffer<T> {
+
+    private final int limit;
+    private final Comparator<? super T> comparator;
+    private final PriorityQueue<Slot<T>> heap;
+    private final List<T> elements;
+    private long sequence;
+
+    /**
+     * @param limit The maximum number of elements to keep or a negative number to keep every element
+     * @param comparator The comparator or null to keep the order the elements are added in
+     */
+    public TopKBuffer(int limit, Comparator<? super T> comparator) {
+        this.limit = limit;
+        this.comparator = comparator;
+        if (limit > -1 && comparator != null) {
+            Comparator<Slot<T>> slotOrder = slotComparator(comparator);
+            this.heap = new PriorityQueue<>(Math.max(1, Math.min(limit, 1024)), slotOrder.reversed());
+            this.elements = null;
+        }
+        else {
+            this.heap = null;
+            this.elements = new ArrayList<>();
+        }
+    }
+
+    /**
+     * Offers an element to the buffer
+     *
+     * @param element The element
+     */
+    public void add(T element) {
+        if (heap == null) {
+            if (!isFull()) {
+                elements.add(element);
+            }
+            return;
+        }
+        if (limit == 0) {
+            return;
+        }
+        Slot<T> slot = new Slot<>(element, sequence++);
+        if (heap.size() < limit) {
+            heap.offer(slot);
+        }
+        else if (comparator.compare(element, heap.peek().element) < 0) {
+            // later elements lose ties, so only strictly better elements displace the worst kept element
+            heap.poll();
+            heap.offer(slot);
+        }
+    }
+
+    /**
+     * @return Whether no further element can be kept, which is only the case when there is no comparator
+     */
+    public boolean isFull() {
+        return heap == null && limit > -1 && elements.size() >= limit;
+    }
+
+    /**
+     * @return The kept elements in order
+     */
+    public List<T> toList() {
+        if (heap == null) {
+            List<T> results = new ArrayList<>(elements);
+            if (comparator != null) {
+                results.sort(comparator);
+            }
+            return results;
+        }
+        List<Slot<T>> slots = new ArrayList<>(heap);
+        slots.sort(slotComparator(comparator));
+        List<T> results = new ArrayList<>(slots.size());
+        for (Slot<T> slot : slots) {
+            results.add(slot.element);
+        }
+        return results;
+    }
+
+    private static <T> Comparator<Slot<T>> slotComparator(Comparator<? super T> comparator) {
+        return (a, b) -> {
+            int cmp = comparator.compare(a.element, b.element);
+            return cmp != 0 ? cmp : Long.compare(a.sequence, b.sequence);
+        };
+    }
+
+    private static final class Slot<T> {
+        final T element;
+        final long sequence;
+
+        Slot(T element, long sequence) {
+            this.element = element;
+            this.sequence = sequence;
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package grails.gorm.tests
+
+import grails.gorm.MultiTenant
+import grails.gorm.annotation.Entity
+import grails.gorm.multitenancy.TenantResults
+import grails.gorm.multitenancy.Tenants
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.connections.ConnectionSource
+import org.grails.datastore.mapping.multitenancy.MultiTenancySettings
+import org.grails.datastore.mapping.multitenancy.exceptions.TenantException
+import org.grails.datastore.mapping.multitenancy.resolvers.SystemPropertyTenantResolver
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class EachTenantParallelSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(
+            DatastoreUtils.createPropertyResolver([(Settings.SETTING_MULTI_TENANCY_MODE)   : MultiTenancySettings.MultiTenancyMode.DATABASE,
+                                                   (Settings.SETTING_MULTI_TENANT_RESOLVER): new SystemPropertyTenantResolver()]),
+            [ConnectionSource.DEFAULT, "one", "two", "three", "four"],
+            ParallelTenantNote
+    )
+
+    void "test each tenant is executed in its own session with the tenant bound"() {
+        when:
+        TenantResults results = Tenants.eachTenantParallel(datastore, 2) { String tenantId ->
+            new ParallelTenantNote(text: "Note for $tenantId").save(flush: true)
+            return "${Tenants.currentId(datastore)}:${ParallelTenantNote.count()}".toString()
+        }
+
+        then:
+        results.successful
+        results.results == [one: "one:1", two: "two:1", three: "three:1", four: "four:1"]
+    }
+
+    void "test a failing tenant does not stop the others"() {
+        when:
+        TenantResults results = Tenants.eachTenantParallel(datastore, 3) { String tenantId ->
+            if (tenantId == "two") {
+                throw new IllegalStateException("Tenant two is broken")
+            }
+            return tenantId
+        }
+
+        then:
+        !results.successful
+        results.results.keySet() == ["one", "three", "four"] as Set
+        results.failures.keySet() == ["two"] as Set
+        results.failures.two instanceof IllegalStateException
+
+        when:
+        results.throwIfFailed()
+
+        then:
+        TenantException e = thrown()
+        e.cause.message == "Tenant two is broken"
+    }
+
+    void "test tenants are skipped once the executor rejects work"() {
+        given:
+        ExecutorService executor = Executors.newSingleThreadExecutor()
+        executor.shutdown()
+
+        when:
+        TenantResults results = Tenants.eachTenantParallel(datastore, executor, 2) { String tenantId -> tenantId }
+
+        then:
+        results.cancelled
+        results.results.isEmpty()
+        results.cancelledTenantIds.size() == 4
+    }
+
+    void "test running tenants complete before the results of an interrupted execution are returned"() {
+        given:
+        CountDownLatch started = new CountDownLatch(1)
+        CountDownLatch release = new CountDownLatch(1)
+        String firstTenantId = null
+        TenantResults results = null
+        boolean interrupted = false
+        Thread caller = Thread.start {
+            results = Tenants.eachTenantParallel(datastore, 1) { String tenantId ->
+                if (firstTenantId == null) {
+                    firstTenantId = tenantId
+                    started.countDown()
+                    release.await()
+                }
+                return tenantId
+            }
+            interrupted = Thread.currentThread().isInterrupted()
+        }
+
+        when:
+        started.await()
+        caller.interrupt()
+        Thread.sleep(100)
+        release.countDown()
+        caller.join()
+
+        then:
+        interrupted
+        results.cancelled
+        results.failures.isEmpty()
+        results.results[firstTenantId] == firstTenantId
+        results.results.size() + results.cancelledTenantIds.size() == 4
+    }
+
+    void "test the parallelism has to be positive"() {
+        when:
+        Tenants.eachTenantParallel(datastore, 0) { }
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
+
+@Entity
+class ParallelTenantNote implements MultiTenant<ParallelTenantNote> {
+    String text
+}
@@ -2,6 +2,7 @@ package grails.gorm.tests
 
 import grails.gorm.DetachedCriteria
 
+import org.grails.datastore.mapping.query.Query
 import org.grails.datastore.mapping.query.jpa.JpaQueryBuilder
 import org.springframework.dao.InvalidDataAccessResourceUsageException
 
@@ -220,4 +221,53 @@ class JpaQueryBuilderSpec extends GormDatastoreSpec{
         queryInfo.query == 'UPDATE grails.gorm.tests.Person person SET person.firstName=:p1'
         queryInfo.parameters == ["Fred"]
     }
+
+    void "Test queries of the same shape reuse the compiled query and bind their own parameters"() {
+        given:
+        JpaQueryBuilder.clearQueryCache()
+        def entity = session.mappingContext.getPersistentEntity(Person.name)
+        def build = { String name, List<Integer> ages ->
+            DetachedCriteria criteria = new DetachedCriteria(Person).build {
+                eq 'firstName', name
+                'in' 'age', ages
+            }
+            new JpaQueryBuilder(entity, criteria.criteria).buildSelect()
+        }
+
+        when: "Queries differing only in their parameter values are built"
+        def first = build("Bob", [10, 20])
+        def second = build("Fred", [30, 40])
+
+        then: "The query is compiled once and the parameters are bound to each"
+        first.query == 'SELECT DISTINCT person FROM grails.gorm.tests.Person AS person WHERE (person.firstName=:p1 AND person.age IN (:p2,:p3))'
+        second.query == first.query
+        first.parameters == ["Bob", 10, 20]
+        second.parameters == ["Fred", 30, 40]
+        JpaQueryBuilder.cachedQueryCount == 1
+
+        when: "A query with a different shape is built"
+        def third = build("Joe", [50])
+
+        then: "It is compiled separately"
+        third.query == 'SELECT DISTINCT person FROM grails.gorm.tests.Person AS person WHERE (person.firstName=:p1 AND person.age IN (:p2))'
+        third.parameters == ["Joe", 50]
+        JpaQueryBuilder.cachedQueryCount == 2
+    }
+
+    void "Test conjunctions and disjunctions with the same criteria are compiled separately"() {
+        given:
+        JpaQueryBuilder.clearQueryCache()
+        def entity = session.mappingContext.getPersistentEntity(Person.name)
+        def criteria = { -> [new Query.Equals('firstName', 'Bob'), new Query.Equals('lastName', 'Builder')] }
+
+        when: "A conjunction and a disjunction of the same criteria are built in sequence"
+        def conjunction = new JpaQueryBuilder(entity, new Query.Conjunction(criteria())).buildSelect()
+        def disjunction = new JpaQueryBuilder(entity, new Query.Disjunction(criteria())).buildSelect()
+
+        then: "Each is joined with its own operator"
+        conjunction.query == 'SELECT DISTINCT person FROM grails.gorm.tests.Person AS person WHERE (person.firstName=:p1 AND person.lastName=:p2)'
+        disjunction.query == 'SELECT DISTINCT person FROM grails.gorm.tests.Person AS person WHERE (person.firstName=:p1 OR person.lastName=:p2)'
+        disjunction.parameters == ["Bob", "Builder"]
+        JpaQueryBuilder.cachedQueryCount == 2
+    }
 }
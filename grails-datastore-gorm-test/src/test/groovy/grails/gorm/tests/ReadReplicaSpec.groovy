@@ -0,0 +1,164 @@
+package grails.gorm.tests
+
+import grails.gorm.annotation.Entity
+import grails.gorm.services.Service
+import grails.gorm.transactions.ReadOnly
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.core.connections.ConnectionSource
+import org.grails.datastore.mapping.core.connections.LeastInFlightReplicaLoadBalancer
+import org.grails.datastore.mapping.core.connections.ReplicaRouter
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.grails.datastore.mapping.transactions.DatastoreTransactionManager
+import spock.lang.Specification
+
+class ReadReplicaSpec extends Specification {
+
+    SimpleMapDatastore datastore
+
+    void cleanup() {
+        ReplicaRouter.unpin()
+        datastore?.close()
+    }
+
+    void "test read-only transactions are routed to the replicas in turn"() {
+        given:
+        createDatastore([:])
+
+        when:
+        List<String> readOnly = (1..4).collect {
+            ReplicaBook.withTransaction(readOnly: true) { ReplicaBook.list()*.title.join() }
+        }
+        List<String> readWrite = ReplicaBook.withTransaction { ReplicaBook.list()*.title }
+
+        then:
+        readOnly == ['one', 'two', 'one', 'two']
+        readWrite == ['primary']
+    }
+
+    void "test reads within a session that wrote stay on the primary"() {
+        given:
+        createDatastore([:])
+
+        when:
+        Map result = ReplicaBook.withNewSession { session ->
+            List<String> beforeWrite = ReplicaBook.withTransaction(readOnly: true) { ReplicaBook.list()*.title }
+            boolean sessionRestored = datastore.currentSession.is(session)
+            ReplicaBook.withTransaction { new ReplicaBook(title: 'written').save() }
+            List<String> afterWrite = ReplicaBook.withTransaction(readOnly: true) { ReplicaBook.list()*.title.sort() }
+            [beforeWrite: beforeWrite, sessionRestored: sessionRestored, afterWrite: afterWrite, pinned: ReplicaRouter.isPinnedToPrimary(session)]
+        }
+
+        then:
+        result.beforeWrite == ['one']
+        result.sessionRestored
+        result.afterWrite == ['primary', 'written']
+        result.pinned
+    }
+
+    void "test reads on a thread that wrote without a bound session stay on the primary"() {
+        given:
+        createDatastore([:])
+
+        when:
+        ReplicaBook.withTransaction { new ReplicaBook(title: 'written').save() }
+        List<String> afterTransaction = ReplicaBook.withTransaction(readOnly: true) { ReplicaBook.list()*.title.sort() }
+        ReplicaRouter.unpin()
+        ReplicaBook.withNewSession { new ReplicaBook(title: 'flushed').save(flush: true) }
+        List<String> afterFlush = ReplicaBook.withTransaction(readOnly: true) { ReplicaBook.list()*.title.sort() }
+        ReplicaRouter.unpin()
+        List<String> afterUnpin = ReplicaBook.withTransaction(readOnly: true) { ReplicaBook.list()*.title }
+
+        then:
+        afterTransaction == ['primary', 'written']
+        afterFlush == ['flushed', 'primary', 'written']
+        afterUnpin == ['one']
+    }
+
+    void "test the thread is pinned to the primary for the configured duration"() {
+        given:
+        createDatastore(('grails.gorm.replicas.pinDuration'): 0)
+
+        when:
+        ReplicaBook.withTransaction { new ReplicaBook(title: 'written').save() }
+
+        then:
+        ((DatastoreTransactionManager) datastore.transactionManager).replicaRouter.pinDuration == 0
+        ReplicaBook.withTransaction(readOnly: true) { ReplicaBook.list()*.title } == ['one']
+    }
+
+    void "test read-only data service methods are routed to a replica"() {
+        given:
+        createDatastore([:])
+        ReplicaBookService service = datastore.getService(ReplicaBookService)
+
+        when:
+        service.saveBook('saved')
+        Number afterWrite = service.countBooks()
+        ReplicaRouter.unpin()
+        Number laterRequest = service.countBooks()
+
+        then:
+        afterWrite == 2
+        laterRequest == 1
+        ReplicaBook.withNewSession { ReplicaBook.count() } == 2
+    }
+
+    void "test the least in flight load balancer chooses the least busy replica"() {
+        given:
+        LeastInFlightReplicaLoadBalancer loadBalancer = new LeastInFlightReplicaLoadBalancer()
+        List<String> replicas = ['one', 'two']
+
+        when:
+        String first = loadBalancer.acquire(replicas)
+        String second = loadBalancer.acquire(replicas)
+        loadBalancer.release(first)
+
+        then:
+        first == 'one'
+        second == 'two'
+        loadBalancer.getInFlight('one') == 0
+        loadBalancer.getInFlight('two') == 1
+        loadBalancer.acquire(replicas) == 'one'
+    }
+
+    void "test the load balancing strategy is read from the configuration"() {
+        when:
+        createDatastore(('grails.gorm.replicas.loadBalancing'): 'LEAST_IN_FLIGHT')
+        ReplicaRouter router = ((DatastoreTransactionManager) datastore.transactionManager).replicaRouter
+
+        then:
+        router.replicas == ['replicaOne', 'replicaTwo']
+        router.loadBalancer instanceof LeastInFlightReplicaLoadBalancer
+    }
+
+    private void createDatastore(Map config) {
+        Map<String, Object> configuration = [('grails.gorm.replicas.connections'): ['replicaOne', 'replicaTwo']]
+        configuration.putAll(config)
+        datastore = new SimpleMapDatastore(DatastoreUtils.createPropertyResolver(configuration), [ConnectionSource.DEFAULT, 'replicaOne', 'replicaTwo'], ReplicaBook)
+        ReplicaBook.withNewSession { new ReplicaBook(title: 'primary').save(flush: true) }
+        // instances saved through a replica datastore stand in for replicated data
+        ReplicaBook.replicaOne.withNewSession { Session session -> session.persist(new ReplicaBook(title: 'one')); session.flush() }
+        ReplicaBook.replicaTwo.withNewSession { Session session -> session.persist(new ReplicaBook(title: 'two')); session.flush() }
+        // the data was written before the request under test
+        ReplicaRouter.unpin()
+    }
+}
+
+@Entity
+class ReplicaBook {
+    String title
+
+    static mapping = {
+        datasources ConnectionSource.DEFAULT, 'replicaOne', 'replicaTwo'
+    }
+}
+
+@Service(ReplicaBook)
+interface ReplicaBookService {
+
+    @ReadOnly
+    Number countBooks()
+
+    ReplicaBook saveBook(String title)
+}
@@ -0,0 +1,121 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.tests.GormDatastoreSpec
+import grails.gorm.tests.Person
+import org.grails.datastore.gorm.async.AsyncSessionExecutor
+import org.grails.datastore.gorm.async.AsyncSessionExecutors
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.DatastoreUtils
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicInteger
+
+class AsyncSessionExecutorSpec extends GormDatastoreSpec {
+
+    ExecutorService pool = Executors.newFixedThreadPool(4)
+
+    void cleanup() {
+        AsyncSessionExecutors.unregister(Person)
+        pool.shutdownNow()
+    }
+
+    void "the number of concurrently running units of work is limited"() {
+        given:
+        AsyncSessionExecutor executor = new AsyncSessionExecutor(pool, 2, 0)
+        AtomicInteger running = new AtomicInteger()
+        AtomicInteger maxRunning = new AtomicInteger()
+
+        when:
+        List<CompletableFuture> futures = (1..6).collect {
+            executor.submit {
+                maxRunning.accumulateAndGet(running.incrementAndGet()) { int a, int b -> Math.max(a, b) }
+                Thread.sleep(20)
+                running.decrementAndGet()
+            }
+        }
+        futures*.get(5, TimeUnit.SECONDS)
+
+        then:
+        maxRunning.get() <= 2
+        executor.completedCount == 6
+        executor.activeCount == 0
+        executor.queuedCount == 0
+        executor.availableSessions == 2
+    }
+
+    void "work is rejected once the queue depth limit is reached"() {
+        given:
+        AsyncSessionExecutor executor = new AsyncSessionExecutor(pool, 1, 1)
+        CountDownLatch started = new CountDownLatch(1)
+        CountDownLatch release = new CountDownLatch(1)
+
+        when:
+        CompletableFuture first = executor.submit {
+            started.countDown()
+            release.await()
+        }
+        started.await(5, TimeUnit.SECONDS)
+        CompletableFuture second = executor.submit { "second" }
+        CompletableFuture third = executor.submit { "third" }
+        third.get()
+
+        then:
+        ExecutionException e = thrown()
+        e.cause instanceof RejectedExecutionException
+        executor.rejectedCount == 1
+
+        when:
+        release.countDown()
+
+        then:
+        second.get(5, TimeUnit.SECONDS) == "second"
+        first.get(5, TimeUnit.SECONDS) == null
+        executor.completedCount == 2
+    }
+
+    void "async methods run within the limits of the executor registered for the entity"() {
+        given:
+        new Person(firstName: "Homer", lastName: "Simpson").save(flush: true)
+        session.clear()
+        AsyncSessionExecutor executor = new AsyncSessionExecutor(pool, 1, 10)
+        AsyncSessionExecutors.register(Person, executor)
+
+        when:
+        def results = Person.async.list().get()
+
+        then:
+        results.size() == 1
+        Person.async.sessionExecutor.is(executor)
+        executor.completedCount == 1
+    }
+
+    void "instances are saved in batches sharing a session"() {
+        given:
+        AsyncSessionExecutors.register(Person, new AsyncSessionExecutor(pool, 2, 0))
+        List<Person> people = (1..5).collect { new Person(firstName: "Person $it", lastName: "Simpson") }
+
+        when:
+        List<Serializable> ids = Person.async.batchSave(people, 2).get(5, TimeUnit.SECONDS)
+        session.clear()
+
+        then:
+        ids.size() == 5
+        ids.every { it != null }
+        Person.count() == 5
+        Person.async.sessionExecutor.completedCount == 3
+    }
+
+    void "an unknown executor type cannot be configured"() {
+        when:
+        AsyncSessionExecutor.fromConfiguration(DatastoreUtils.createPropertyResolver((Settings.SETTING_ASYNC_EXECUTOR): "unknown"))
+
+        then:
+        thrown(IllegalArgumentException)
+    }
+}
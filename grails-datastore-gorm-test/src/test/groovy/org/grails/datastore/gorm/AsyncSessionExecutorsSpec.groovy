@@ -0,0 +1,44 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.gorm.async.AsyncSessionExecutor
+import org.grails.datastore.gorm.async.AsyncSessionExecutors
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.Specification
+
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.TimeUnit
+
+class AsyncSessionExecutorsSpec extends Specification {
+
+    void "executors created from the configuration are closed once the datastore is destroyed"() {
+        given:
+        SimpleMapDatastore datastore = new SimpleMapDatastore(DatastoreUtils.createPropertyResolver(
+                (Settings.SETTING_ASYNC_EXECUTOR): 'fixed',
+                (Settings.SETTING_ASYNC_POOL_SIZE): 1
+        ), AsyncConfiguredItem)
+        AsyncSessionExecutor executor = AsyncSessionExecutors.find(AsyncConfiguredItem, datastore)
+
+        expect:
+        executor != null
+        AsyncSessionExecutors.find(AsyncConfiguredItem, datastore).is(executor)
+        executor.submit { "before" }.get(5, TimeUnit.SECONDS) == "before"
+
+        when:
+        datastore.close()
+        executor.submit { "after" }.get(5, TimeUnit.SECONDS)
+
+        then:
+        ExecutionException e = thrown()
+        e.cause instanceof RejectedExecutionException
+        executor.rejectedCount == 1
+    }
+}
+
+@Entity
+class AsyncConfiguredItem {
+    String name
+}
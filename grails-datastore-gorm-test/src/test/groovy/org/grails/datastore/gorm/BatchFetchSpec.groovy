@@ -0,0 +1,74 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.AbstractSession
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.impl.BatchFetchRegistry
+import org.grails.datastore.mapping.proxy.ProxyFactory
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class BatchFetchSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(
+            DatastoreUtils.createPropertyResolver((Settings.SETTING_BATCH_FETCH_SIZE): 10),
+            FetchAuthor, FetchBook
+    )
+
+    void "test the batch fetch size is read from the configuration"() {
+        expect:
+        datastore.batchFetchSize == 10
+        ((AbstractSession) datastore.connect()).batchFetchSize == 10
+        new SimpleMapDatastore(FetchAuthor).batchFetchSize == 0
+    }
+
+    void "test initializing a proxy loads its pending siblings in the same batch"() {
+        given:
+        FetchAuthor.withNewSession {
+            25.times { i ->
+                FetchAuthor author = new FetchAuthor(name: "Author $i").save()
+                new FetchBook(title: "Book $i", author: author).save()
+            }
+            it.flush()
+        }
+
+        when:
+        List<Boolean> loaded = FetchBook.withNewSession { AbstractSession session ->
+            ProxyFactory proxyFactory = session.mappingContext.proxyFactory
+            List<FetchBook> books = FetchBook.list()
+            List<Serializable> authorIds = books.collect { proxyFactory.getIdentifier(it.author) }
+            books[0].author.name
+            authorIds.collect { session.getCachedInstance(FetchAuthor, it) != null }
+        }
+
+        then:
+        loaded.size() == 25
+        loaded.count { it } == 10
+        loaded.take(10).every { it }
+    }
+
+    void "test the registry hands out pending keys in batches"() {
+        given:
+        BatchFetchRegistry registry = new BatchFetchRegistry()
+        registry.registerAll(FetchAuthor, [1L, 2L, 3L, 4L])
+
+        expect:
+        registry.getPendingCount(FetchAuthor) == 4
+        registry.nextBatch(FetchAuthor, 2, { true }) == [1L, 2L]
+        registry.nextBatch(FetchAuthor, 5, { it != 3L }) == [4L]
+        registry.getPendingCount(FetchAuthor) == 0
+    }
+}
+
+@Entity
+class FetchAuthor {
+    String name
+}
+
+@Entity
+class FetchBook {
+    String title
+    FetchAuthor author
+}
@@ -0,0 +1,98 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import grails.gorm.multitenancy.Tenants
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.core.context.ContextSnapshot
+import org.grails.datastore.mapping.multitenancy.MultiTenancySettings
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.springframework.transaction.support.TransactionSynchronizationManager
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.concurrent.Callable
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+
+class ContextSnapshotSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(
+            DatastoreUtils.createPropertyResolver((Settings.SETTING_MULTI_TENANCY_MODE): MultiTenancySettings.MultiTenancyMode.DISCRIMINATOR),
+            ContextNote
+    )
+    @AutoCleanup("shutdownNow") ExecutorService executor = Executors.newSingleThreadExecutor()
+
+    void "test the current tenant is carried to another thread"() {
+        when:
+        ContextSnapshot snapshot = Tenants.withId(datastore, "acme") {
+            ContextSnapshot.capture()
+        }
+        Serializable tenantId = executor.submit(snapshot.wrap({ Tenants.CURRENT_TENANT.capture() } as Callable<Serializable>)).get()
+        Serializable afterwards = executor.submit({ Tenants.CURRENT_TENANT.capture() } as Callable<Serializable>).get()
+
+        then:
+        snapshot.get(Tenants.CURRENT_TENANT) == "acme"
+        tenantId == "acme"
+        afterwards == null
+    }
+
+    void "test a derived snapshot binds a value for the scope of the call only"() {
+        when:
+        List<Serializable> tenants = []
+        Tenants.withId(datastore, "outer") {
+            ContextSnapshot.capture().where(Tenants.CURRENT_TENANT, (Serializable) "inner").run {
+                tenants << Tenants.CURRENT_TENANT.capture()
+            }
+            tenants << Tenants.CURRENT_TENANT.capture()
+        }
+
+        then:
+        tenants == ["inner", "outer"]
+        Tenants.CURRENT_TENANT.capture() == null
+    }
+
+    void "test bound sessions are only carried when requested"() {
+        given:
+        Session session = datastore.connect()
+        DatastoreUtils.bindSession(session)
+
+        when:
+        Session plain = executor.submit(ContextSnapshot.capture().wrap({ currentSession() } as Callable<Session>)).get()
+        Session shared = executor.submit(ContextSnapshot.captureWithSessions().wrap({ currentSession() } as Callable<Session>)).get()
+        Session afterwards = executor.submit({ currentSession() } as Callable<Session>).get()
+
+        then:
+        plain == null
+        shared.is(session)
+        afterwards == null
+
+        cleanup:
+        DatastoreUtils.unbindSession(session)
+    }
+
+    void "test a scope has to be closed by the thread that opened it"() {
+        given:
+        ContextSnapshot.Scope scope = ContextSnapshot.empty().open()
+
+        when:
+        executor.submit({ scope.close() } as Callable<Object>).get()
+
+        then:
+        Exception e = thrown()
+        e.cause instanceof IllegalStateException
+
+        cleanup:
+        scope.close()
+    }
+
+    private Session currentSession() {
+        TransactionSynchronizationManager.hasResource(datastore) ? DatastoreUtils.getSession(datastore, false) : null
+    }
+}
+
+@Entity
+class ContextNote {
+    String text
+}
@@ -0,0 +1,108 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.model.config.GormEntityMetadata
+import org.grails.datastore.mapping.model.config.GormProperties
+import org.grails.datastore.mapping.model.types.OneToMany
+import org.grails.datastore.mapping.reflect.ClassPropertyFetcher
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class EntityMetadataSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(MetadataAuthor, MetadataBook, MetadataNovel)
+
+    void "test the static mapping declarations are generated at compile time"() {
+        when:
+        GormEntityMetadata metadata = GormEntityMetadata.forClass(MetadataAuthor)
+
+        then:
+        metadata.type == MetadataAuthor
+        metadata.staticProperties[GormProperties.HAS_MANY] == [books: MetadataBook]
+        metadata.staticProperties[GormProperties.TRANSIENT] == ['nickname']
+        !metadata.staticProperties.containsKey(GormProperties.BELONGS_TO)
+        GormEntityMetadata.forClass(String) == null
+    }
+
+    void "test the generated metadata matches the values read through reflection"() {
+        expect:
+        ClassPropertyFetcher.getStaticPropertyValuesFromInheritanceHierarchy(MetadataNovel, GormProperties.TRANSIENT, Collection) == [['summary'], ['genre']]
+        ClassPropertyFetcher.forClass(MetadataNovel).getStaticPropertyValue(GormProperties.BELONGS_TO, Object) == MetadataAuthor
+        ClassPropertyFetcher.forClass(MetadataNovel).getStaticPropertyValue(GormProperties.MAPPED_BY, Map) == null
+    }
+
+    void "test the mapping context is built from the generated metadata"() {
+        when:
+        PersistentEntity author = datastore.mappingContext.getPersistentEntity(MetadataAuthor.name)
+        PersistentEntity novel = datastore.mappingContext.getPersistentEntity(MetadataNovel.name)
+
+        then:
+        author.getPropertyByName('books') instanceof OneToMany
+        author.getPropertyByName('nickname') == null
+        novel.getPropertyByName('summary') == null
+        novel.getPropertyByName('genre') == null
+        novel.getPropertyByName('pages') != null
+    }
+
+    void "test class property fetchers are cached"() {
+        expect:
+        ClassPropertyFetcher.forClass(MetadataAuthor).is(ClassPropertyFetcher.forClass(MetadataAuthor))
+    }
+
+    void "test the generated metadata is only created once per class"() {
+        expect:
+        GormEntityMetadata.forClass(MetadataAuthor).is(GormEntityMetadata.forClass(MetadataAuthor))
+    }
+
+    void "test class property fetchers are recreated when an expando meta class is modified"() {
+        given:
+        MetaClass metaClass = MetadataPlainBean.metaClass
+        ClassPropertyFetcher fetcher = ClassPropertyFetcher.forClass(MetadataPlainBean)
+
+        expect:
+        metaClass instanceof ExpandoMetaClass
+        ClassPropertyFetcher.forClass(MetadataPlainBean).is(fetcher)
+
+        when:
+        MetadataPlainBean.metaClass.getShortTitle = { -> 'short' }
+
+        then:
+        !ClassPropertyFetcher.forClass(MetadataPlainBean).is(fetcher)
+        ClassPropertyFetcher.forClass(MetadataPlainBean).is(ClassPropertyFetcher.forClass(MetadataPlainBean))
+
+        cleanup:
+        GroovySystem.metaClassRegistry.removeMetaClass(MetadataPlainBean)
+    }
+}
+
+class MetadataPlainBean {
+    String title
+}
+
+@Entity
+class MetadataAuthor {
+    String name
+    String nickname
+
+    static hasMany = [books: MetadataBook]
+    static transients = ['nickname']
+}
+
+@Entity
+class MetadataBook {
+    String title
+    String summary
+
+    static belongsTo = MetadataAuthor
+    static transients = ['summary']
+}
+
+@Entity
+class MetadataNovel extends MetadataBook {
+    String genre
+    Integer pages
+
+    static transients = ['genre']
+}
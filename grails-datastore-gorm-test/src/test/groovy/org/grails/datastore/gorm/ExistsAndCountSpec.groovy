@@ -0,0 +1,122 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import jakarta.persistence.FlushModeType
+import org.grails.datastore.gorm.events.ConfigurableApplicationEventPublisher
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.query.event.PreQueryEvent
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.springframework.context.ApplicationEvent
+import org.springframework.context.ApplicationListener
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class ExistsAndCountSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(ExistsItem)
+
+    void setup() {
+        ExistsItem.loads = 0
+    }
+
+    void "test exists does not load the entity"() {
+        given:
+        Long id = ExistsItem.withNewSession {
+            new ExistsItem(name: "one").save(flush: true).id
+        }
+
+        when:
+        boolean found = ExistsItem.withNewSession { ExistsItem.exists(id) }
+        boolean foundAsString = ExistsItem.withNewSession { ExistsItem.exists(id.toString()) }
+        boolean missing = ExistsItem.withNewSession { ExistsItem.exists(id + 100) }
+
+        then:
+        found
+        foundAsString
+        !missing
+        !ExistsItem.exists(null)
+        ExistsItem.loads == 0
+    }
+
+    void "test exists and count see pending inserts"() {
+        when:
+        Map result = ExistsItem.withNewSession {
+            ExistsItem item = new ExistsItem(name: "two").save()
+            [exists: ExistsItem.exists(item.id), count: ExistsItem.count()]
+        }
+
+        then:
+        result.exists
+        result.count == 1
+    }
+
+    void "test exists sees instances saved but not flushed with the commit flush mode"() {
+        when:
+        Map result = ExistsItem.withNewSession { Session session ->
+            session.flushMode = FlushModeType.COMMIT
+            ExistsItem item = new ExistsItem(name: "pending").save()
+            [exists: ExistsItem.exists(item.id), existsAsString: ExistsItem.exists(item.id.toString()), get: ExistsItem.get(item.id)]
+        }
+
+        then:
+        result.exists
+        result.existsAsString
+        result.get != null
+    }
+
+    void "test countBy dynamic finders do not load the entity"() {
+        given:
+        ExistsItem.withNewSession {
+            new ExistsItem(name: "five").save()
+            new ExistsItem(name: "five").save()
+            new ExistsItem(name: "six").save(flush: true)
+        }
+
+        when:
+        Map result = ExistsItem.withNewSession {
+            [byName: ExistsItem.countByName("five"), byNames: ExistsItem.countByNameOrName("five", "six")]
+        }
+
+        then:
+        result.byName == 2
+        result.byNames == 3
+        ExistsItem.loads == 0
+    }
+
+    void "test exists and count execute queries when query listeners are registered"() {
+        given:
+        List<PreQueryEvent> events = []
+        ((ConfigurableApplicationEventPublisher) datastore.applicationEventPublisher).addApplicationListener(
+                { ApplicationEvent event ->
+                    if (event instanceof PreQueryEvent) {
+                        events << event
+                    }
+                } as ApplicationListener<ApplicationEvent>
+        )
+        Long id = ExistsItem.withNewSession {
+            new ExistsItem(name: "three").save(flush: true)
+            new ExistsItem(name: "four").save(flush: true).id
+        }
+
+        when:
+        boolean found = ExistsItem.withNewSession { ExistsItem.exists(id) }
+        int count = ExistsItem.withNewSession { ExistsItem.count() }
+
+        then:
+        found
+        count == 2
+        events.size() == 2
+        ExistsItem.loads == 0
+    }
+}
+
+@Entity
+class ExistsItem {
+    static int loads = 0
+
+    String name
+
+    def afterLoad() {
+        loads++
+    }
+}
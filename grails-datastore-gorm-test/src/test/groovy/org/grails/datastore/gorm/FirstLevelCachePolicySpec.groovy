@@ -0,0 +1,123 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.AbstractSession
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.FirstLevelCachePolicy
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.Specification
+
+class FirstLevelCachePolicySpec extends Specification {
+
+    SimpleMapDatastore datastore
+
+    void cleanup() {
+        datastore?.close()
+    }
+
+    void "test the policy is read from the configuration"() {
+        when:
+        FirstLevelCachePolicy policy = FirstLevelCachePolicy.fromConfiguration(DatastoreUtils.createPropertyResolver(
+                (Settings.SETTING_SESSION_CACHE_MAX_SIZE): 100,
+                (Settings.SETTING_SESSION_CACHE_REFERENCES): 'soft',
+                (Settings.SETTING_SESSION_CACHE_EVICT_AFTER_FLUSH): true
+        ))
+
+        then:
+        policy.maxSize == 100
+        policy.referenceType == FirstLevelCachePolicy.ReferenceType.SOFT
+        policy.evictAfterFlush
+        policy.bounded
+        FirstLevelCachePolicy.fromConfiguration(DatastoreUtils.createPropertyResolver(null)).is(FirstLevelCachePolicy.UNBOUNDED)
+    }
+
+    void "test the number of cached instances is bounded"() {
+        given:
+        createDatastore((Settings.SETTING_SESSION_CACHE_MAX_SIZE): 10)
+        List<Long> ids = CachePolicyItem.withNewSession {
+            (1..50).collect { new CachePolicyItem(name: "item $it").save(flush: true).id }
+        }
+
+        when:
+        int cachedInstances = CachePolicyItem.withNewSession { AbstractSession session ->
+            ids.each { CachePolicyItem.get(it) }
+            session.cachedInstanceCount
+        }
+
+        then:
+        cachedInstances <= 10
+    }
+
+    void "test instances with pending operations are not evicted"() {
+        given:
+        createDatastore((Settings.SETTING_SESSION_CACHE_MAX_SIZE): 5)
+
+        when:
+        Map result = CachePolicyItem.withNewSession { AbstractSession session ->
+            List<CachePolicyItem> items = (1..20).collect { new CachePolicyItem(name: "item $it").save() }
+            boolean allCached = items.every { session.contains(it) }
+            session.flush()
+            [allCached: allCached, afterFlush: session.cachedInstanceCount]
+        }
+
+        then:
+        result.allCached
+        result.afterFlush <= 5
+        CachePolicyItem.count() == 20
+    }
+
+    void "test instances changed after they were cached are not evicted"() {
+        given:
+        createDatastore((Settings.SETTING_SESSION_CACHE_MAX_SIZE): 5)
+        List<Long> ids = CachePolicyItem.withNewSession {
+            (1..20).collect { new CachePolicyItem(name: "item $it").save(flush: true).id }
+        }
+        PersistentEntity entity = datastore.mappingContext.getPersistentEntity(CachePolicyItem.name)
+
+        when:
+        Map result = CachePolicyItem.withNewSession { AbstractSession session ->
+            CachePolicyItem changed = CachePolicyItem.get(ids[0])
+            changed.name = "changed"
+            ids.drop(1).each { CachePolicyItem.get(it) }
+            [
+                    same    : CachePolicyItem.get(ids[0]).is(changed),
+                    snapshot: session.getCachedEntry(entity, ids[0], true) != null,
+                    cached  : session.cachedInstanceCount
+            ]
+        }
+
+        then:
+        result.same
+        result.snapshot
+        result.cached <= 6
+    }
+
+    void "test clean instances are evicted after flush"() {
+        given:
+        createDatastore((Settings.SETTING_SESSION_CACHE_EVICT_AFTER_FLUSH): true)
+
+        when:
+        Map result = CachePolicyItem.withNewSession { AbstractSession session ->
+            3.times { new CachePolicyItem(name: "item $it").save() }
+            int beforeFlush = session.cachedInstanceCount
+            session.flush()
+            [beforeFlush: beforeFlush, afterFlush: session.cachedInstanceCount, entries: session.cachedEntryCount]
+        }
+
+        then:
+        result.beforeFlush == 3
+        result.afterFlush == 0
+        result.entries == 0
+    }
+
+    private void createDatastore(Map config) {
+        datastore = new SimpleMapDatastore(DatastoreUtils.createPropertyResolver(config), CachePolicyItem)
+    }
+}
+
+@Entity
+class CachePolicyItem {
+    String name
+}
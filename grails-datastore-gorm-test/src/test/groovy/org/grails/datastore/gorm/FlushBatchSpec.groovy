@@ -0,0 +1,101 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.AbstractSession
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.impl.PendingInsertAdapter
+import org.grails.datastore.mapping.core.impl.EntityDependencyOrder
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class FlushBatchSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(
+            DatastoreUtils.createPropertyResolver((Settings.SETTING_FLUSH_BATCH_SIZE): 10),
+            BatchAuthor, BatchBook
+    )
+
+    void "test the batch size is read from the configuration"() {
+        expect:
+        datastore.flushBatchSize == 10
+        ((AbstractSession) datastore.connect()).flushBatchSize == 10
+        new SimpleMapDatastore(BatchAuthor).flushBatchSize == AbstractSession.DEFAULT_FLUSH_BATCH_SIZE
+    }
+
+    void "test entities are flushed after the entities they reference"() {
+        given:
+        PersistentEntity author = datastore.mappingContext.getPersistentEntity(BatchAuthor.name)
+        PersistentEntity book = datastore.mappingContext.getPersistentEntity(BatchBook.name)
+
+        expect:
+        EntityDependencyOrder.dependsOn(book, author)
+        !EntityDependencyOrder.dependsOn(author, book)
+        EntityDependencyOrder.sort([book, author]) == [author, book]
+        EntityDependencyOrder.sort([author, book]) == [author, book]
+    }
+
+    void "test pending inserts spanning several batches are all flushed"() {
+        when:
+        BatchAuthor.withNewSession { session ->
+            BatchAuthor author = new BatchAuthor(name: "Stephen King").save()
+            25.times { i ->
+                new BatchBook(title: "Book $i", author: author).save()
+            }
+            session.flush()
+        }
+
+        then:
+        BatchAuthor.count() == 1
+        BatchBook.count() == 25
+        BatchBook.findAllByAuthor(BatchAuthor.findByName("Stephen King")).size() == 25
+    }
+
+    void "test operations queued by the last batch are flushed"() {
+        given:
+        AbstractSession session = (AbstractSession) datastore.connect()
+        PersistentEntity book = datastore.mappingContext.getPersistentEntity(BatchBook.name)
+        List<String> executed = []
+
+        when:
+        12.times { i ->
+            session.addPendingInsert(new PendingInsertAdapter<Object, Object>(book, null, null, null) {
+                @Override
+                void run() {
+                    executed << "insert $i".toString()
+                    if (i == 11) {
+                        // queued while the final, partial batch is executed
+                        session.addPendingInsert(new PendingInsertAdapter<Object, Object>(book, null, null, null) {
+                            @Override
+                            void run() {
+                                executed << "cascade"
+                            }
+                        })
+                    }
+                }
+            })
+        }
+        session.flush()
+
+        then:
+        executed.size() == 13
+        executed.last() == "cascade"
+        session.pendingInserts.values().every { it.isEmpty() }
+
+        cleanup:
+        session?.disconnect()
+    }
+}
+
+@Entity
+class BatchAuthor {
+    String name
+}
+
+@Entity
+class BatchBook {
+    String title
+    BatchAuthor author
+}
@@ -0,0 +1,70 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.engine.NativeEntryEntityPersister
+import org.grails.datastore.mapping.model.AbstractPersistentEntity
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class HydrationPlanSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(PlanAuthor, PlanBook)
+
+    void "test the hydration plan is computed once per entity and resolves each property"() {
+        given:
+        PersistentEntity entity = datastore.mappingContext.getPersistentEntity(PlanBook.name)
+        NativeEntryEntityPersister persister = (NativeEntryEntityPersister) datastore.connect().getPersister(PlanBook)
+
+        when:
+        def plan = persister.getHydrationPlan(entity)
+
+        then:
+        plan.is(persister.getHydrationPlan(entity))
+        plan.assignIdentifier
+        plan.slots*.property == entity.persistentProperties
+        plan.slots.find { it.property.name == 'title' }.kind == NativeEntryEntityPersister.SlotKind.SIMPLE
+        plan.slots.find { it.property.name == 'author' }.kind == NativeEntryEntityPersister.SlotKind.TO_ONE
+        plan.slots.find { it.property.name == 'title' }.writer.propertyType() == String
+        plan.slots.find { it.property.name == 'pages' }.writer.propertyType() == Integer
+    }
+
+    void "test the hydration plan is shared by the persisters of every session"() {
+        given:
+        PersistentEntity entity = datastore.mappingContext.getPersistentEntity(PlanBook.name)
+        NativeEntryEntityPersister first = (NativeEntryEntityPersister) datastore.connect().getPersister(PlanBook)
+        NativeEntryEntityPersister second = (NativeEntryEntityPersister) datastore.connect().getPersister(PlanBook)
+
+        expect:
+        !first.is(second)
+        first.getHydrationPlan(entity).is(second.getHydrationPlan(entity))
+        ((AbstractPersistentEntity) entity).getPersisterState(first.getClass()).is(first.getHydrationPlan(entity))
+    }
+
+    void "test entities are loaded through the hydration plan"() {
+        when:
+        PlanBook.withNewSession {
+            PlanAuthor author = new PlanAuthor(name: "Stephen King").save()
+            new PlanBook(title: "It", pages: 1138, author: author).save(flush: true)
+        }
+        PlanBook book = PlanBook.withNewSession { PlanBook.findByTitle("It") }
+
+        then:
+        book.title == "It"
+        book.pages == 1138
+        book.author.id != null
+    }
+}
+
+@Entity
+class PlanAuthor {
+    String name
+}
+
+@Entity
+class PlanBook {
+    String title
+    Integer pages
+    PlanAuthor author
+}
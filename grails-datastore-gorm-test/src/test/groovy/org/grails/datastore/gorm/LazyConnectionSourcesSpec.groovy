@@ -0,0 +1,218 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.MultiTenant
+import grails.gorm.annotation.Entity
+import grails.gorm.multitenancy.Tenants
+import org.grails.datastore.gorm.events.DefaultApplicationEventPublisher
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.connections.ConnectionSource
+import org.grails.datastore.mapping.core.connections.ConnectionSourceFactory
+import org.grails.datastore.mapping.core.connections.ConnectionSourceSettings
+import org.grails.datastore.mapping.core.connections.LazyConnectionSources
+import org.grails.datastore.mapping.multitenancy.MultiTenancySettings
+import org.grails.datastore.mapping.multitenancy.resolvers.SystemPropertyTenantResolver
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.grails.datastore.mapping.simple.connections.SimpleMapConnectionSourceFactory
+import org.springframework.core.env.PropertyResolver
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+class LazyConnectionSourcesSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore
+
+    void "test connection sources are only created on first access"() {
+        given:
+        TestLazyConnectionSources connectionSources = createConnectionSources([:])
+
+        expect:
+        connectionSources.openCount == 0
+        connectionSources.createdCount == 0
+        connectionSources.connectionSourceNames == ["one", "two", "three"] as Set
+
+        when:
+        ConnectionSource first = connectionSources.getConnectionSource("one")
+
+        then:
+        first.name == "one"
+        connectionSources.getConnectionSource("one").is(first)
+        connectionSources.getConnectionSource("unknown") == null
+        connectionSources.openCount == 1
+        connectionSources.createdCount == 1
+    }
+
+    void "test the least recently used connection source is closed once the maximum is reached"() {
+        given:
+        TestLazyConnectionSources connectionSources = createConnectionSources((Settings.SETTING_CONNECTION_SOURCES_MAX_OPEN): 2)
+        List<String> evicted = []
+        connectionSources.addEvictionListener { ConnectionSource source -> evicted << source.name }
+
+        when:
+        connectionSources.getConnectionSource("one")
+        connectionSources.getConnectionSource("two")
+        connectionSources.getConnectionSource("one")
+        connectionSources.getConnectionSource("three")
+
+        then:
+        connectionSources.openCount == 2
+        connectionSources.evictedCount == 1
+        evicted == ["two"]
+
+        when:
+        connectionSources.getConnectionSource("two")
+
+        then:
+        connectionSources.createdCount == 4
+        evicted == ["two", "one"]
+    }
+
+    void "test connection sources in use are not closed until they are released"() {
+        given:
+        TestLazyConnectionSources connectionSources = createConnectionSources(
+                (Settings.SETTING_CONNECTION_SOURCES_MAX_OPEN): 1,
+                (Settings.SETTING_CONNECTION_SOURCES_IDLE_TIMEOUT): 60000L
+        )
+        List<String> evicted = []
+        connectionSources.addEvictionListener { ConnectionSource source -> evicted << source.name }
+
+        when:
+        ConnectionSource inUse = connectionSources.acquire("one")
+        connectionSources.getConnectionSource("two")
+        connectionSources.time = 70000
+        connectionSources.evictIdle()
+
+        then:
+        evicted == ["two"]
+        connectionSources.openCount == 1
+        connectionSources.getConnectionSource("one").is(inUse)
+
+        when:
+        connectionSources.release(inUse)
+        connectionSources.time = 140000
+        connectionSources.evictIdle()
+
+        then:
+        evicted == ["two", "one"]
+        connectionSources.openCount == 0
+
+        cleanup:
+        connectionSources.close()
+    }
+
+    void "test creating a connection source does not block the lookup of other connection sources"() {
+        given:
+        TestLazyConnectionSources connectionSources = createConnectionSources([:])
+        ExecutorService executor = Executors.newFixedThreadPool(3)
+        ConnectionSource first = connectionSources.getConnectionSource("one")
+        CountDownLatch creating = new CountDownLatch(1)
+        CountDownLatch release = new CountDownLatch(1)
+        connectionSources.beforeCreate = { String name ->
+            if (name == "two") {
+                creating.countDown()
+                release.await(5, TimeUnit.SECONDS)
+            }
+        }
+
+        when:
+        List<CompletableFuture<ConnectionSource>> lookups = (1..2).collect {
+            CompletableFuture.supplyAsync({ connectionSources.getConnectionSource("two") }, executor)
+        }
+        creating.await(5, TimeUnit.SECONDS)
+        ConnectionSource stillOpen = CompletableFuture.supplyAsync({ connectionSources.getConnectionSource("one") }, executor).get(5, TimeUnit.SECONDS)
+        release.countDown()
+        List<ConnectionSource> created = lookups*.get(5, TimeUnit.SECONDS)
+
+        then:
+        stillOpen.is(first)
+        created[0].is(created[1])
+        connectionSources.createdCount == 2
+
+        cleanup:
+        executor.shutdownNow()
+    }
+
+    void "test connection sources idle beyond the timeout are closed"() {
+        given:
+        TestLazyConnectionSources connectionSources = createConnectionSources((Settings.SETTING_CONNECTION_SOURCES_IDLE_TIMEOUT): 60000L)
+
+        when:
+        connectionSources.getConnectionSource("one")
+        connectionSources.time = 30000
+        connectionSources.getConnectionSource("two")
+        connectionSources.time = 70000
+        connectionSources.evictIdle()
+
+        then:
+        connectionSources.openCount == 1
+        connectionSources.evictedCount == 1
+
+        cleanup:
+        connectionSources.close()
+    }
+
+    void "test the datastore creates child datastores for tenants on demand"() {
+        given:
+        TestLazyConnectionSources connectionSources = createConnectionSources(
+                (Settings.SETTING_MULTI_TENANCY_MODE): MultiTenancySettings.MultiTenancyMode.DATABASE,
+                (Settings.SETTING_MULTI_TENANT_RESOLVER): new SystemPropertyTenantResolver()
+        )
+        datastore = new SimpleMapDatastore(connectionSources, new DefaultApplicationEventPublisher(), LazyTenantNote)
+
+        expect:
+        connectionSources.openCount == 0
+
+        when:
+        Tenants.withId(datastore, "two") {
+            new LazyTenantNote(text: "Hello").save(flush: true)
+        }
+
+        then:
+        connectionSources.openCount == 1
+        Tenants.withId(datastore, "two") { LazyTenantNote.count() } == 1
+        Tenants.withId(datastore, "three") { LazyTenantNote.count() } == 0
+        connectionSources.openCount == 2
+    }
+
+    private static TestLazyConnectionSources createConnectionSources(Map<String, Object> config) {
+        PropertyResolver configuration = DatastoreUtils.createPropertyResolver(config)
+        SimpleMapConnectionSourceFactory factory = new SimpleMapConnectionSourceFactory()
+        return new TestLazyConnectionSources(factory.create(ConnectionSource.DEFAULT, configuration), factory, configuration)
+    }
+
+    static class TestLazyConnectionSources extends LazyConnectionSources<Map<String, Map>, ConnectionSourceSettings> {
+        long time = 0
+        Closure beforeCreate
+
+        TestLazyConnectionSources(ConnectionSource<Map<String, Map>, ConnectionSourceSettings> defaultConnectionSource, ConnectionSourceFactory<Map<String, Map>, ConnectionSourceSettings> connectionSourceFactory, PropertyResolver configuration) {
+            super(defaultConnectionSource, connectionSourceFactory, configuration)
+        }
+
+        @Override
+        protected Iterable<String> getConnectionSourceNames(ConnectionSourceFactory<Map<String, Map>, ConnectionSourceSettings> connectionSourceFactory, PropertyResolver configuration) {
+            return ["one", "two", "three"]
+        }
+
+        @Override
+        protected long currentTime() {
+            return time
+        }
+
+        @Override
+        protected ConnectionSource<Map<String, Map>, ConnectionSourceSettings> createConnectionSource(String name) {
+            beforeCreate?.call(name)
+            return super.createConnectionSource(name)
+        }
+    }
+}
+
+@Entity
+class LazyTenantNote implements MultiTenant<LazyTenantNote> {
+    String text
+}
@@ -0,0 +1,66 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.cache.impl.CaffeineQueryResultCache
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class QueryResultCacheSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(
+            DatastoreUtils.createPropertyResolver((Settings.SETTING_QUERY_CACHE_ENABLED): true),
+            CachedCity
+    )
+
+    void "test cacheable queries are served from the query cache until the entity changes"() {
+        given:
+        CaffeineQueryResultCache cache = (CaffeineQueryResultCache) datastore.queryResultCache
+        CachedCity.withNewSession {
+            new CachedCity(name: "London", country: "UK").save(flush: true)
+            new CachedCity(name: "Leeds", country: "UK").save(flush: true)
+            new CachedCity(name: "Paris", country: "FR").save(flush: true)
+        }
+
+        when:"a cacheable query is executed twice"
+        List<CachedCity> first = CachedCity.withNewSession { CachedCity.findAllByCountry("UK", [cache: true, sort: 'name']) }
+        List<CachedCity> second = CachedCity.withNewSession { CachedCity.findAllByCountry("UK", [cache: true, sort: 'name']) }
+
+        then:"the second execution is a cache hit"
+        first*.name == ["Leeds", "London"]
+        second*.name == ["Leeds", "London"]
+        cache.hitCount == 1
+
+        when:"a query is not marked as cacheable"
+        CachedCity.withNewSession { CachedCity.findAllByCountry("UK") }
+
+        then:"the cache is not consulted"
+        cache.hitCount == 1
+
+        when:"an entity of the queried type is inserted"
+        CachedCity.withNewSession { new CachedCity(name: "Manchester", country: "UK").save(flush: true) }
+        List<CachedCity> third = CachedCity.withNewSession { CachedCity.findAllByCountry("UK", [cache: true, sort: 'name']) }
+
+        then:"the stale results are not used"
+        third*.name == ["Leeds", "London", "Manchester"]
+    }
+
+    void "test query caching is disabled by default"() {
+        given:
+        SimpleMapDatastore other = new SimpleMapDatastore(CachedCity)
+
+        expect:
+        other.queryResultCache == null
+
+        cleanup:
+        other.close()
+    }
+}
+
+@Entity
+class CachedCity {
+    String name
+    String country
+}
@@ -0,0 +1,133 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.query.Query
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.stream.Collectors
+import java.util.stream.Stream
+
+class QueryStreamSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(StreamedItem)
+
+    void setup() {
+        StreamedItem.withNewSession { Session session ->
+            25.times { i ->
+                new StreamedItem(name: "Item ${i.toString().padLeft(2, '0')}", position: i).save()
+            }
+            session.flush()
+        }
+    }
+
+    void "test a query streams all results across several fetches"() {
+        when:
+        List<String> names = StreamedItem.withNewSession { Session session ->
+            Query query = session.createQuery(StreamedItem)
+            query.order(Query.Order.asc('position'))
+            Stream<Object> stream = query.scroll(10)
+            try {
+                return stream.map { ((StreamedItem) it).name }.collect(Collectors.toList())
+            }
+            finally {
+                stream.close()
+            }
+        }
+
+        then:
+        names.size() == 25
+        names.first() == 'Item 00'
+        names.last() == 'Item 24'
+    }
+
+    void "test streaming without an order does not change the orders of the query"() {
+        when:
+        Query query
+        List<Integer> positions = StreamedItem.withNewSession { Session session ->
+            query = session.createQuery(StreamedItem)
+            Stream<Object> stream = query.scroll(10)
+            try {
+                return stream.map { ((StreamedItem) it).position }.collect(Collectors.toList())
+            }
+            finally {
+                stream.close()
+            }
+        }
+
+        then:
+        positions.size() == 25
+        query.orderBy.isEmpty()
+    }
+
+    void "test streaming sorted by a non-unique property returns every result once"() {
+        given:
+        StreamedItem.withNewSession { Session session ->
+            7.times { i ->
+                new StreamedItem(name: "Duplicate", position: 100 + i).save()
+            }
+            session.flush()
+        }
+
+        when:
+        List<Integer> positions = StreamedItem.withNewSession { Session session ->
+            Query query = session.createQuery(StreamedItem)
+            query.eq('name', 'Duplicate')
+            query.order(Query.Order.desc('name'))
+            Stream<Object> stream = query.scroll(3)
+            try {
+                return stream.map { ((StreamedItem) it).position }.collect(Collectors.toList())
+            }
+            finally {
+                stream.close()
+            }
+        }
+
+        then:
+        positions.size() == 7
+        positions.toSet() == (100..106).toSet()
+    }
+
+    void "test consumed entities are detached from the session"() {
+        when:
+        List<Boolean> attached = StreamedItem.withNewSession { Session session ->
+            List<StreamedItem> consumed = []
+            Stream<StreamedItem> stream = StreamedItem.stream(fetchSize: 5) { lt 'position', 10 }
+            try {
+                stream.forEach { consumed << it }
+            }
+            finally {
+                stream.close()
+            }
+            return consumed.collect { session.contains(it) }
+        }
+
+        then:
+        attached.size() == 10
+        attached.every { !it }
+    }
+
+    void "test streaming detached criteria respects max and offset"() {
+        when:
+        List<Integer> positions = StreamedItem.withNewSession {
+            Stream<StreamedItem> stream = StreamedItem.where { position >= 5 }.stream(max: 7, offset: 2, sort: 'position', fetchSize: 3)
+            try {
+                return stream.map { it.position }.collect(Collectors.toList())
+            }
+            finally {
+                stream.close()
+            }
+        }
+
+        then:
+        positions == (7..13).toList()
+    }
+}
+
+@Entity
+class StreamedItem {
+    String name
+    Integer position
+}
@@ -0,0 +1,120 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.AbstractSession
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.grails.datastore.mapping.transactions.DatastoreTransactionManager
+import org.springframework.dao.InvalidDataAccessApiUsageException
+import org.springframework.transaction.support.DefaultTransactionDefinition
+import org.springframework.transaction.support.TransactionTemplate
+import spock.lang.Specification
+
+class ReadOnlySessionSpec extends Specification {
+
+    SimpleMapDatastore datastore
+
+    void cleanup() {
+        datastore?.close()
+    }
+
+    void "test a read-only session does not keep dirty checking state"() {
+        given:
+        createDatastore([:])
+        Long id = ReadOnlyItem.withNewSession {
+            new ReadOnlyItem(name: "item").save(flush: true).id
+        }
+
+        when:
+        Map result = ReadOnlyItem.withNewSession { AbstractSession session ->
+            session.readOnly = true
+            ReadOnlyItem item = ReadOnlyItem.get(id)
+            item.name = "changed"
+            [cached: session.contains(item), entries: session.cachedEntryCount, dirty: item.listDirtyPropertyNames(),
+             changed: item.hasChanged(), evictable: session.isEvictable(item)]
+        }
+
+        then:
+        result.cached
+        result.entries == 1
+        result.dirty.isEmpty()
+        !result.changed
+        result.evictable
+
+        when:
+        result = ReadOnlyItem.withNewSession { AbstractSession session ->
+            ReadOnlyItem item = ReadOnlyItem.get(id)
+            item.name = "changed"
+            [entries: session.cachedEntryCount, dirty: item.listDirtyPropertyNames()]
+        }
+
+        then:
+        result.entries == 2
+        result.dirty == ['name']
+    }
+
+    void "test flushing pending changes of a read-only session fails"() {
+        given:
+        createDatastore([:])
+
+        when:
+        ReadOnlyItem.withNewSession { AbstractSession session ->
+            session.readOnly = true
+            new ReadOnlyItem(name: "item").save()
+            session.flush()
+        }
+
+        then:
+        thrown(InvalidDataAccessApiUsageException)
+        ReadOnlyItem.withNewSession { ReadOnlyItem.count() } == 0
+    }
+
+    void "test a read-only session can skip the identity map"() {
+        given:
+        createDatastore((Settings.SETTING_SESSION_READ_ONLY_IDENTITY_MAP): false)
+        Long id = ReadOnlyItem.withNewSession {
+            new ReadOnlyItem(name: "item").save(flush: true).id
+        }
+
+        when:
+        Map result = ReadOnlyItem.withNewSession { AbstractSession session ->
+            session.readOnly = true
+            ReadOnlyItem item = ReadOnlyItem.get(id)
+            [cached: session.contains(item), instances: session.cachedInstanceCount, sameInstance: item.is(ReadOnlyItem.get(id))]
+        }
+
+        then:
+        !result.cached
+        result.instances == 0
+        !result.sameInstance
+    }
+
+    void "test a read-only transaction makes the session read-only for its duration"() {
+        given:
+        createDatastore([:])
+        DatastoreTransactionManager transactionManager = new DatastoreTransactionManager(datastore: datastore)
+        DefaultTransactionDefinition definition = new DefaultTransactionDefinition(readOnly: true)
+
+        when:
+        Map result = ReadOnlyItem.withNewSession { AbstractSession session ->
+            boolean readOnlyInTransaction = new TransactionTemplate(transactionManager, definition).execute {
+                session.readOnly
+            }
+            [inTransaction: readOnlyInTransaction, afterTransaction: session.readOnly]
+        }
+
+        then:
+        result.inTransaction
+        !result.afterTransaction
+    }
+
+    private void createDatastore(Map config) {
+        datastore = new SimpleMapDatastore(DatastoreUtils.createPropertyResolver(config), ReadOnlyItem)
+    }
+}
+
+@Entity
+class ReadOnlyItem {
+    String name
+}
@@ -0,0 +1,65 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.grails.datastore.mapping.simple.engine.SimpleMapEntityPersister
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.concurrent.Executors
+
+class RetrieveEntriesSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(RetrievedItem)
+
+    void setup() {
+        RetrievedItem.withNewSession { Session session ->
+            10.times { i -> new RetrievedItem(name: "Item $i").save() }
+            session.flush()
+        }
+    }
+
+    void "test getAll preserves the order of the ids and returns null for missing ids"() {
+        when:
+        List<RetrievedItem> items = RetrievedItem.withNewSession {
+            RetrievedItem.getAll(3L, 1L, 99L, 3L, 2L)
+        }
+
+        then:
+        items*.name == ["Item 2", "Item 0", null, "Item 2", "Item 1"]
+        items[0].is(items[3])
+    }
+
+    void "test entries are fetched in chunks, optionally across an executor"() {
+        given:
+        def executor = Executors.newFixedThreadPool(2)
+
+        when:
+        List<RetrievedItem> items = RetrievedItem.withNewSession { Session session ->
+            SimpleMapEntityPersister persister = (SimpleMapEntityPersister) session.getPersister(RetrievedItem)
+            persister.retrieveBatchSize = 3
+            persister.retrieveExecutor = executor
+            persister.retrieveAll((1L..10L).toList() as List<Serializable>)
+        }
+
+        then:
+        items*.name == (0..9).collect { "Item $it" }
+
+        cleanup:
+        executor.shutdown()
+    }
+
+    void "test instances held by the session are reused"() {
+        expect:
+        RetrievedItem.withNewSession {
+            RetrievedItem first = RetrievedItem.get(1L)
+            RetrievedItem.getAll(1L, 2L)[0].is(first)
+        }
+    }
+}
+
+@Entity
+class RetrievedItem {
+    String name
+}
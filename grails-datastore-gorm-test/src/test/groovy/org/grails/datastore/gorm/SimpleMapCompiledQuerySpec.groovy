@@ -0,0 +1,145 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.grails.datastore.mapping.simple.query.TopKBuffer
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class SimpleMapCompiledQuerySpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(CompiledQueryItem)
+
+    void setup() {
+        CompiledQueryItem.withNewSession {
+            new CompiledQueryItem(name: "apple", category: "fruit", quantity: 5, stock: 5).save(flush: true)
+            new CompiledQueryItem(name: "carrot", category: "vegetable", quantity: 2, stock: 7).save(flush: true)
+            new CompiledQueryItem(name: "banana", category: "fruit", quantity: 8, stock: 1).save(flush: true)
+            new CompiledQueryItem(name: "cherry", category: "fruit", quantity: 1, stock: 1).save(flush: true)
+            new CompiledQueryItem(name: "leek", category: "vegetable", quantity: 8).save(flush: true)
+        }
+    }
+
+    void "test junctions and property comparisons are evaluated against the native entries"() {
+        expect:
+        CompiledQueryItem.withCriteria {
+            or {
+                eq 'name', 'leek'
+                and {
+                    eq 'category', 'fruit'
+                    lt 'quantity', 5
+                }
+            }
+        }*.name == ["cherry", "leek"]
+        CompiledQueryItem.withCriteria {
+            not {
+                eq 'category', 'fruit'
+            }
+        }*.name == ["carrot", "leek"]
+        CompiledQueryItem.withCriteria {
+            eqProperty 'quantity', 'stock'
+        }*.name == ["apple", "cherry"]
+        CompiledQueryItem.withCriteria {
+            gtProperty 'stock', 'quantity'
+        }*.name == ["carrot"]
+        CompiledQueryItem.withCriteria {
+            isNull 'stock'
+        }*.name == ["leek"]
+        CompiledQueryItem.withCriteria {
+            ne 'stock', 1
+        }*.name == ["apple", "carrot", "leek"]
+        CompiledQueryItem.withCriteria {
+            ilike 'name', 'C%'
+        }*.name == ["carrot", "cherry"]
+    }
+
+    void "test ordering by several properties with max and offset"() {
+        expect:
+        CompiledQueryItem.withCriteria {
+            order 'quantity', 'desc'
+            order 'name', 'asc'
+        }*.name == ["banana", "leek", "apple", "carrot", "cherry"]
+        CompiledQueryItem.withCriteria {
+            order 'category', 'asc'
+            order 'quantity', 'asc'
+            maxResults 2
+            firstResult 1
+        }*.name == ["apple", "banana"]
+        CompiledQueryItem.list(sort: 'quantity', order: 'desc', max: 1)*.name == ["banana"]
+        CompiledQueryItem.list(max: 2, offset: 3)*.name == ["cherry", "leek"]
+    }
+
+    void "test projections are computed from the native entries"() {
+        expect:
+        CompiledQueryItem.createCriteria().get {
+            projections {
+                count()
+            }
+            eq 'category', 'fruit'
+        } == 3
+        CompiledQueryItem.createCriteria().get {
+            projections {
+                max 'quantity'
+            }
+        } == 8
+        CompiledQueryItem.createCriteria().get {
+            projections {
+                min 'quantity'
+            }
+        } == 1
+        CompiledQueryItem.createCriteria().get {
+            projections {
+                sum 'quantity'
+            }
+            eq 'category', 'vegetable'
+        } == 10
+        CompiledQueryItem.createCriteria().get {
+            projections {
+                avg 'quantity'
+            }
+            eq 'category', 'fruit'
+        } == 14 / 3
+        CompiledQueryItem.createCriteria().get {
+            projections {
+                countDistinct 'category'
+            }
+        } == 2
+        CompiledQueryItem.withCriteria {
+            projections {
+                distinct 'category'
+            }
+            order 'category', 'desc'
+        } == ["vegetable", "fruit"]
+        CompiledQueryItem.withCriteria {
+            projections {
+                property 'name'
+                property 'quantity'
+            }
+            gt 'quantity', 4
+            order 'name'
+        } == [["apple", 5], ["banana", 8], ["leek", 8]]
+    }
+
+    void "test the bounded buffer keeps the best elements in a stable order"() {
+        given:
+        TopKBuffer<List> buffer = new TopKBuffer<List>(3, { List a, List b -> a[0] <=> b[0] } as Comparator)
+
+        when:
+        [[5, 'a'], [1, 'b'], [3, 'c'], [1, 'd'], [0, 'e'], [3, 'f']].each { buffer.add(it) }
+
+        then:
+        buffer.toList() == [[0, 'e'], [1, 'b'], [1, 'd']]
+    }
+}
+
+@Entity
+class CompiledQueryItem {
+    String name
+    String category
+    Integer quantity
+    Integer stock
+
+    static constraints = {
+        stock nullable: true
+    }
+}
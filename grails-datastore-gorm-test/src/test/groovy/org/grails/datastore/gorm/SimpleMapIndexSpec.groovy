@@ -0,0 +1,83 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+class SimpleMapIndexSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(IndexedItem)
+
+    void setup() {
+        IndexedItem.withNewSession {
+            new IndexedItem(name: "apple", category: "fruit", quantity: 5).save(flush: true)
+            new IndexedItem(name: "carrot", category: "vegetable", quantity: 2).save(flush: true)
+            new IndexedItem(name: "banana", category: "fruit", quantity: 8).save(flush: true)
+            new IndexedItem(name: "cherry", category: "fruit", quantity: 1).save(flush: true)
+            new IndexedItem(name: "leek", category: "vegetable", quantity: 8).save(flush: true)
+        }
+    }
+
+    void "test range queries are answered from the sorted index"() {
+        expect:
+        IndexedItem.findAllByQuantityGreaterThan(2)*.name == ["apple", "banana", "leek"]
+        IndexedItem.findAllByQuantityGreaterThanEquals(2)*.name == ["apple", "carrot", "banana", "leek"]
+        IndexedItem.findAllByQuantityLessThan(5)*.name == ["carrot", "cherry"]
+        IndexedItem.findAllByQuantityLessThanEquals(5)*.name == ["apple", "carrot", "cherry"]
+        IndexedItem.findAllByQuantityBetween(2, 5)*.name == ["apple", "carrot"]
+        IndexedItem.findAllByQuantityBetween(5, 2).isEmpty()
+    }
+
+    void "test conjunctions combine index lookups with the remaining criteria"() {
+        expect:
+        IndexedItem.withCriteria {
+            eq 'category', 'fruit'
+            gt 'quantity', 1
+            like 'name', '%an%'
+        }*.name == ["banana"]
+        IndexedItem.findAllByCategoryAndQuantity("vegetable", 8)*.name == ["leek"]
+        IndexedItem.findAllByCategoryInListAndQuantityLessThan(["fruit", "vegetable"], 3)*.name == ["carrot", "cherry"]
+    }
+
+    void "test ordering uses the sorted index"() {
+        expect:
+        IndexedItem.list(sort: 'quantity')*.quantity == [1, 2, 5, 8, 8]
+        IndexedItem.list(sort: 'quantity', order: 'desc', max: 2, offset: 1)*.name == ["leek", "apple"]
+        IndexedItem.findAllByCategory("fruit", [sort: 'name', order: 'desc'])*.name == ["cherry", "banana", "apple"]
+    }
+
+    void "test deleted entries are removed from the indices"() {
+        given:
+        IndexedItem.withNewSession {
+            IndexedItem.findByName("banana").delete(flush: true)
+        }
+
+        expect:
+        IndexedItem.findAllByQuantityGreaterThan(2)*.name == ["apple", "leek"]
+        IndexedItem.findAllByCategory("fruit")*.name == ["apple", "cherry"]
+        datastore.indices["~${IndexedItem.name}:category:fruit".toString()] instanceof Set
+        datastore.indices["~${IndexedItem.name}:category:fruit".toString()].size() == 2
+    }
+
+    void "test updated values are re-indexed"() {
+        given:
+        IndexedItem.withNewSession {
+            IndexedItem item = IndexedItem.findByName("cherry")
+            item.quantity = 10
+            item.save(flush: true)
+        }
+
+        expect:
+        IndexedItem.findAllByQuantityGreaterThan(8)*.name == ["cherry"]
+        IndexedItem.findAllByQuantityLessThan(2).isEmpty()
+        IndexedItem.list(sort: 'quantity', order: 'desc', max: 1)*.name == ["cherry"]
+    }
+}
+
+@Entity
+class IndexedItem {
+    String name
+    String category
+    Integer quantity
+}
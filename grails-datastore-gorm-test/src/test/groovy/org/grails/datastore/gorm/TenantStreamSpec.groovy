@@ -0,0 +1,64 @@
+package org.grails.datastore.gorm
+
+import grails.gorm.MultiTenant
+import grails.gorm.annotation.Entity
+import org.grails.datastore.mapping.config.Settings
+import org.grails.datastore.mapping.core.Session
+import org.grails.datastore.mapping.multitenancy.MultiTenancySettings
+import org.grails.datastore.mapping.multitenancy.resolvers.SystemPropertyTenantResolver
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+import java.util.stream.Collectors
+import java.util.stream.Stream
+
+class TenantStreamSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(
+            [(Settings.SETTING_MULTI_TENANCY_MODE): MultiTenancySettings.MultiTenancyMode.DISCRIMINATOR,
+             (Settings.SETTING_MULTI_TENANT_RESOLVER): new SystemPropertyTenantResolver()],
+            TenantStreamedItem
+    )
+
+    void setup() {
+        ['one', 'two'].each { String tenant ->
+            TenantStreamedItem.withTenant(tenant) { Serializable tenantId, Session session ->
+                5.times { i ->
+                    new TenantStreamedItem(name: "${tenant} ${i}", position: i).save()
+                }
+                session.flush()
+            }
+        }
+    }
+
+    void cleanup() {
+        System.setProperty(SystemPropertyTenantResolver.PROPERTY_NAME, "")
+    }
+
+    void "test every page of a tenant stream is read for the tenant"() {
+        given:
+        System.setProperty(SystemPropertyTenantResolver.PROPERTY_NAME, "two")
+
+        when:
+        List<String> names = TenantStreamedItem.withNewSession {
+            Stream<TenantStreamedItem> stream = TenantStreamedItem.withTenant('one').stream(sort: 'position', fetchSize: 2) {}
+            try {
+                return stream.map { it.name }.collect(Collectors.toList())
+            }
+            finally {
+                stream.close()
+            }
+        }
+
+        then:
+        names == (0..4).collect { "one ${it}".toString() }
+    }
+}
+
+@Entity
+class TenantStreamedItem implements MultiTenant<TenantStreamedItem> {
+    String tenantId
+    String name
+    Integer position
+}
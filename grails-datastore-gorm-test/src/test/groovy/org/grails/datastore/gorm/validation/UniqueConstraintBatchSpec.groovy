@@ -0,0 +1,166 @@
+package org.grails.datastore.gorm.validation
+
+import grails.gorm.annotation.Entity
+import grails.gorm.transactions.Transactional
+import grails.gorm.validation.ConstrainedEntity
+import org.grails.datastore.gorm.events.ConfigurableApplicationEventPublisher
+import org.grails.datastore.gorm.validation.constraints.MappingContextAwareConstraintFactory
+import org.grails.datastore.gorm.validation.constraints.builtin.UniqueConstraint
+import org.grails.datastore.gorm.validation.constraints.builtin.UniqueConstraintBatch
+import org.grails.datastore.gorm.validation.constraints.registry.ConstraintRegistry
+import org.grails.datastore.gorm.validation.constraints.registry.DefaultValidatorRegistry
+import org.grails.datastore.gorm.validation.listener.ValidationEventListener
+import org.grails.datastore.mapping.query.event.PreQueryEvent
+import org.grails.datastore.mapping.simple.SimpleMapDatastore
+import org.springframework.context.ApplicationEvent
+import org.springframework.context.ApplicationListener
+import org.springframework.context.support.StaticMessageSource
+import spock.lang.AutoCleanup
+import spock.lang.Specification
+
+@Transactional
+class UniqueConstraintBatchSpec extends Specification {
+
+    @AutoCleanup SimpleMapDatastore datastore = new SimpleMapDatastore(Account)
+
+    def setup() {
+        ConstraintRegistry constraintRegistry = new DefaultValidatorRegistry(
+                datastore.mappingContext,
+                datastore.connectionSources.defaultConnectionSource.settings
+        )
+        constraintRegistry.addConstraintFactory(
+                new MappingContextAwareConstraintFactory(UniqueConstraint.class, new StaticMessageSource(), datastore.mappingContext)
+        )
+        datastore.mappingContext.setValidatorRegistry(constraintRegistry)
+    }
+
+    void "duplicates within the batch are rejected"() {
+        given:
+        def first = new Account(username: 'homer', code: 'A', region: 'north')
+        def second = new Account(username: 'bart', code: 'B', region: 'north')
+        def duplicate = new Account(username: 'homer', code: 'C', region: 'north')
+
+        when:
+        List<Boolean> valid = UniqueConstraintBatch.withBatch(datastore.mappingContext, [first, second, duplicate]) {
+            [first, second, duplicate].collect { it.validate() }
+        }
+
+        then:
+        valid == [true, true, false]
+        duplicate.errors.getFieldError('username').code == 'unique'
+    }
+
+    void "conflicts with persisted instances are resolved with one query per chunk"() {
+        given:
+        new Account(username: 'homer', code: 'A', region: 'north').save(flush: true, failOnError: true)
+        def conflicting = new Account(username: 'homer', code: 'B', region: 'north')
+        def unique = new Account(username: 'bart', code: 'C', region: 'north')
+
+        when:
+        UniqueConstraintBatch batch = UniqueConstraintBatch.prepare(datastore.mappingContext, [conflicting, unique], 1)
+        UniqueConstraint usernameConstraint = uniqueConstraint('username')
+
+        then:
+        batch.isViolated(usernameConstraint, conflicting)
+        !batch.isViolated(usernameConstraint, unique)
+    }
+
+    void "group values are taken into account"() {
+        given:
+        new Account(username: 'homer', code: 'A', region: 'north').save(flush: true, failOnError: true)
+        def otherRegion = new Account(username: 'bart', code: 'A', region: 'south')
+        def sameRegion = new Account(username: 'lisa', code: 'A', region: 'north')
+
+        when:
+        UniqueConstraintBatch batch = UniqueConstraintBatch.prepare(datastore.mappingContext, [otherRegion, sameRegion], UniqueConstraintBatch.DEFAULT_CHUNK_SIZE)
+        UniqueConstraint codeConstraint = uniqueConstraint('code')
+
+        then:
+        !batch.isViolated(codeConstraint, otherRegion)
+        batch.isViolated(codeConstraint, sameRegion)
+    }
+
+    void "an unchanged persisted instance does not conflict with itself"() {
+        given:
+        new Account(username: 'homer', code: 'A', region: 'north').save(flush: true, failOnError: true)
+        datastore.currentSession.clear()
+        def existing = Account.findByUsername('homer')
+
+        when:
+        UniqueConstraintBatch batch = UniqueConstraintBatch.prepare(datastore.mappingContext, [existing], UniqueConstraintBatch.DEFAULT_CHUNK_SIZE)
+
+        then:
+        !batch.isViolated(uniqueConstraint('username'), existing)
+    }
+
+    void "saveAll does not query the unique constraints when no validation listener is registered"() {
+        given:
+        List<PreQueryEvent> events = recordQueries()
+
+        when:
+        List<Serializable> ids = Account.saveAll(
+                new Account(username: 'homer', code: 'A', region: 'north'),
+                new Account(username: 'homer', code: 'B', region: 'north')
+        )
+
+        then:
+        ids.size() == 2
+        events.isEmpty()
+    }
+
+    void "saveAll checks the unique constraints of all instances with one query per property"() {
+        given:
+        new Account(username: 'homer', code: 'A', region: 'north').save(flush: true, failOnError: true)
+        publisher.addApplicationListener(new ValidationEventListener(datastore))
+        List<PreQueryEvent> events = recordQueries()
+        def conflicting = new Account(username: 'homer', code: 'B', region: 'north')
+        def unique = new Account(username: 'bart', code: 'C', region: 'north')
+        def duplicate = new Account(username: 'bart', code: 'D', region: 'north')
+
+        when:
+        Account.saveAll(conflicting, unique, duplicate)
+        datastore.currentSession.flush()
+        int queries = events.size()
+
+        then:
+        queries == 2
+        conflicting.errors.getFieldError('username').code == 'unique'
+        !unique.hasErrors()
+        duplicate.errors.getFieldError('username').code == 'unique'
+        Account.list()*.username.sort() == ['bart', 'homer']
+    }
+
+    private ConfigurableApplicationEventPublisher getPublisher() {
+        (ConfigurableApplicationEventPublisher) datastore.applicationEventPublisher
+    }
+
+    private List<PreQueryEvent> recordQueries() {
+        List<PreQueryEvent> events = []
+        publisher.addApplicationListener(
+                { ApplicationEvent event ->
+                    if (event instanceof PreQueryEvent) {
+                        events << event
+                    }
+                } as ApplicationListener<ApplicationEvent>
+        )
+        events
+    }
+
+    private UniqueConstraint uniqueConstraint(String propertyName) {
+        def entity = datastore.mappingContext.getPersistentEntity(Account.name)
+        def validator = (ConstrainedEntity) datastore.mappingContext.getEntityValidator(entity)
+        (UniqueConstraint) validator.constrainedProperties.get(propertyName).getAppliedConstraint(UniqueConstraint.NAME)
+    }
+}
+
+@Entity
+class Account {
+    String username
+    String code
+    String region
+
+    static constraints = {
+        username unique: true
+        code unique: 'region'
+    }
+}
@@ -581,24 +581,23 @@ class DefaultConstrainedProperty implements ConstrainedProperty {
      * @param errors The Errors instances to report errors to
      */
     void validate(Object target, Object propertyValue, Errors errors) {
-        List<Constraint> delayedConstraints = new ArrayList<Constraint>()
+        Collection<Constraint> constraints = appliedConstraints.values()
 
-        // validate only vetoing constraints first, putting non-vetoing into delayedConstraints
-        for (Constraint c in appliedConstraints.values()) {
+        // validate only vetoing constraints first
+        for (Constraint c in constraints) {
             if (c instanceof VetoingConstraint) {
                 // stop validation process when constraint vetoes
                 if (((VetoingConstraint)c).validateWithVetoing(target, propertyValue, errors)) {
                     return
                 }
             }
-            else {
-                delayedConstraints.add(c)
-            }
         }
 
         // process non-vetoing constraints
-        for (Constraint c : delayedConstraints) {
-            c.validate(target, propertyValue, errors)
+        for (Constraint c in constraints) {
+            if (!(c instanceof VetoingConstraint)) {
+                c.validate(target, propertyValue, errors)
+            }
         }
     }
 
@@ -3,6 +3,7 @@ package grails.gorm.validation
 import groovy.transform.CompileDynamic
 import groovy.transform.CompileStatic
 import org.grails.datastore.gorm.support.BeforeValidateHelper
+import org.grails.datastore.gorm.validation.ValidationPlan
 import org.grails.datastore.gorm.validation.constraints.eval.ConstraintsEvaluator
 import org.grails.datastore.mapping.model.MappingContext
 import org.grails.datastore.mapping.model.PersistentEntity
@@ -40,6 +41,8 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
 
     protected final ProxyHandler proxyHandler
 
+    private volatile ValidationPlan validationPlan
+
     PersistentEntityValidator(PersistentEntity entity, MessageSource messageSource, ConstraintsEvaluator constraintsEvaluator) {
         this.entity = entity
         this.messageSource = messageSource
@@ -61,38 +64,36 @@ class PersistentEntityValidator implements CascadingValidator, ConstrainedEntity
             throw new IllegalArgumentException("Argument [$obj] is not an instance of [$targetClass] which this validator is configured for")
         }
 
-        Map<String, ConstrainedProperty> constrainedProperties = this.constrainedProperties
-        Set<String> constrainedPropertyNames = new HashSet<>(constrainedProperties.keySet())
-
-        def validatedObjects = new HashSet()
-        validatedObjects.add(obj)
-
-        for(PersistentProperty pp in entity.persistentProperties) {
-            def propertyName = pp.name
-
-            ConstrainedProperty constrainedProperty = constrainedProperties.get(propertyName)
-
-            if(constrainedProperty != null) {
-                validatePropertyWithConstraint(obj, propertyName, entityReflector, errors, constrainedProperty, pp)
+        Set validatedObjects = null
+        for (ValidationPlan.Step step in getValidationPlan().steps) {
+            ConstrainedProperty constrainedProperty = step.constrainedProperty
+            if (constrainedProperty != null && errors.getFieldError(step.propertyName) == null) {
+                if (step.persistentProperty != null || obj instanceof GroovyObject) {
+                    step.validate(obj, step.read(obj, entityReflector), errors)
+                }
             }
 
-            if(pp instanceof Association) {
-                Association association = (Association)pp
-                if(cascade) {
-                    cascadeToAssociativeProperty(obj, errors, entityReflector, association, validatedObjects)
+            Association association = step.association
+            if (association != null && cascade) {
+                if (validatedObjects == null) {
+                    validatedObjects = new HashSet()
+                    validatedObjects.add(obj)
                 }
+                cascadeToAssociativeProperty(obj, errors, entityReflector, association, validatedObjects)
             }
-
-            constrainedPropertyNames.remove(propertyName)
         }
+    }
 
-        for(String remainingProperty in constrainedPropertyNames) {
-            ConstrainedProperty constrainedProperty = constrainedProperties.get(remainingProperty)
-            if(remainingProperty != null) {
-                validatePropertyWithConstraint(obj, remainingProperty, entityReflector, errors, constrainedProperty, null)
-            }
+    /**
+     * @return The validation plan of the entity, compiled on first use
+     */
+    ValidationPlan getValidationPlan() {
+        ValidationPlan plan = validationPlan
+        if (plan == null) {
+            plan = ValidationPlan.compile(entity, entityReflector, constrainedProperties)
+            validationPlan = plan
         }
-
+        return plan
     }
 
     /**
@@ -0,0 +1,284 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.validation;
+
+import grails.gorm.validation.ConstrainedProperty;
+import grails.gorm.validation.Constraint;
+import grails.gorm.validation.DefaultConstrainedProperty;
+import grails.gorm.validation.VetoingConstraint;
+import groovy.lang.GroovyObject;
+import org.grails.datastore.gorm.validation.constraints.BlankConstraint;
+import org.grails.datastore.gorm.validation.constraints.CreditCardConstraint;
+import org.grails.datastore.gorm.validation.constraints.EmailConstraint;
+import org.grails.datastore.gorm.validation.constraints.InListConstraint;
+import org.grails.datastore.gorm.validation.constraints.MatchesConstraint;
+import org.grails.datastore.gorm.validation.constraints.MaxConstraint;
+import org.grails.datastore.gorm.validation.constraints.MaxSizeConstraint;
+import org.grails.datastore.gorm.validation.constraints.MinConstraint;
+import org.grails.datastore.gorm.validation.constraints.MinSizeConstraint;
+import org.grails.datastore.gorm.validation.constraints.NotEqualConstraint;
+import org.grails.datastore.gorm.validation.constraints.NullableConstraint;
+import org.grails.datastore.gorm.validation.constraints.RangeConstraint;
+import org.grails.datastore.gorm.validation.constraints.SizeConstraint;
+import org.grails.datastore.gorm.validation.constraints.UrlConstraint;
+import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.model.PersistentProperty;
+import org.grails.datastore.mapping.model.types.Association;
+import org.grails.datastore.mapping.reflect.EntityReflector;
+import org.springframework.validation.Errors;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The steps needed to validate an instance of an entity, compiled once from the evaluated constraints so that validating an instance
+ * does not look up constraints by name or allocate collections.
+ *
+ * <p>Each step holds the reader of a property together with its constraints. Vetoing constraints such as nullable and blank run first
+ * and stop the validation of the property when they veto. The remaining constraints are ordered by cost: simple comparisons such as
+ * size, range and inList run before pattern based constraints such as matches, email, url and creditCard, which are skipped once
+ * another constraint rejected the value. Custom validators and unknown constraints always run, last.</p>
+ *
+ * @since 9.0
+ */
+public class ValidationPlan {
+
+    private static final int COST_CHEAP = 0;
+    private static final int COST_PATTERN = 1;
+    private static final int COST_ALWAYS = 2;
+
+    private final Step[] steps;
+
+    protected ValidationPlan(Step[] steps) {
+        this.steps = steps;
+    }
+
+    /**
+     * Compiles the validation plan of the given entity
+     *
+     * @param entity The entity
+     * @param reflector The reflector of the entity
+     * @param constrainedProperties The evaluated constraints by property name
+     * @return The plan
+     */
+    public static ValidationPlan compile(PersistentEntity entity, EntityReflector reflector, Map<String, ConstrainedProperty> constrainedProperties) {
+        Map<String, ConstrainedProperty> remaining = new LinkedHashMap<>(constrainedProperties);
+        List<Step> steps = new ArrayList<>();
+        for (PersistentProperty property : entity.getPersistentProperties()) {
+            String name = property.getName();
+            ConstrainedProperty constrainedProperty = remaining.remove(name);
+            Association association = property instanceof Association ? (Association) property : null;
+            if (constrainedProperty == null && association == null) {
+                continue;
+            }
+            EntityReflector.PropertyReader reader;
+            try {
+                reader = reflector.getPropertyReader(name);
+            } catch (IllegalArgumentException e) {
+                reader = null;
+            }
+            steps.add(new Step(name, property, association, constrainedProperty, reader));
+        }
+        // constrained properties that are not persistent, such as transients, are read dynamically
+        for (Map.Entry<String, ConstrainedProperty> entry : remaining.entrySet()) {
+            if (entry.getValue() != null) {
+                steps.add(new Step(entry.getKey(), null, null, entry.getValue(), null));
+            }
+        }
+        return new ValidationPlan(steps.toArray(new Step[0]));
+    }
+
+    /**
+     * @return The steps in the order they are validated
+     */
+    public Step[] getSteps() {
+        return steps;
+    }
+
+    /**
+     * @return Whether any step cascades to an association
+     */
+    public boolean hasAssociations() {
+        for (Step step : steps) {
+            if (step.association != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int cost(Constraint constraint) {
+        if (constraint instanceof SizeConstraint || constraint instanceof MinSizeConstraint || constraint instanceof MaxSizeConstraint ||
+                constraint instanceof MinConstraint || constraint instanceof MaxConstraint || constraint instanceof RangeConstraint ||
+                constraint instanceof NotEqualConstraint || constraint instanceof InListConstraint) {
+            return COST_CHEAP;
+        }
+        if (constraint instanceof MatchesConstraint || constraint instanceof EmailConstraint ||
+                constraint instanceof UrlConstraint || constraint instanceof CreditCardConstraint) {
+            return COST_PATTERN;
+        }
+        return COST_ALWAYS;
+    }
+
+    private static int vetoingCost(Constraint constraint) {
+        if (constraint instanceof NullableConstraint) {
+            return 0;
+        }
+        if (constraint instanceof BlankConstraint) {
+            return 1;
+        }
+        return 2;
+    }
+
+    /**
+     * Validates a single property of an entity
+     */
+    public static final class Step {
+        private final String propertyName;
+        private final PersistentProperty persistentProperty;
+        private final Association association;
+        private final ConstrainedProperty constrainedProperty;
+        private final EntityReflector.PropertyReader reader;
+        private final VetoingConstraint[] vetoingConstraints;
+        private final Constraint[] constraints;
+        private final boolean[] skippable;
+
+        Step(String propertyName, PersistentProperty persistentProperty, Association association, ConstrainedProperty constrainedProperty, EntityReflector.PropertyReader reader) {
+            this.propertyName = propertyName;
+            this.persistentProperty = persistentProperty;
+            this.association = association;
+            this.constrainedProperty = constrainedProperty;
+            this.reader = reader;
+
+            if (constrainedProperty instanceof DefaultConstrainedProperty) {
+                Collection<Constraint> applied = constrainedProperty.getAppliedConstraints();
+                List<VetoingConstraint> vetoing = new ArrayList<>();
+                List<Constraint> others = new ArrayList<>();
+                for (Constraint constraint : applied) {
+                    if (constraint instanceof VetoingConstraint) {
+                        vetoing.add((VetoingConstraint) constraint);
+                    }
+                    else {
+                        others.add(constraint);
+                    }
+                }
+                // stable sorts, so constraints of the same cost keep their declared order
+                vetoing.sort(Comparator.comparingInt(ValidationPlan::vetoingCost));
+                others.sort(Comparator.comparingInt(ValidationPlan::cost));
+                this.vetoingConstraints = vetoing.toArray(new VetoingConstraint[0]);
+                this.constraints = others.toArray(new Constraint[0]);
+                this.skippable = new boolean[constraints.length];
+                for (int i = 0; i < constraints.length; i++) {
+                    skippable[i] = cost(constraints[i]) == COST_PATTERN;
+                }
+            }
+            else {
+                // a custom constrained property keeps control over how its constraints are applied
+                this.vetoingConstraints = null;
+                this.constraints = null;
+                this.skippable = null;
+            }
+        }
+
+        /**
+         * @return The name of the property
+         */
+        public String getPropertyName() {
+            return propertyName;
+        }
+
+        /**
+         * @return The persistent property or null if the constrained property is not persistent
+         */
+        public PersistentProperty getPersistentProperty() {
+            return persistentProperty;
+        }
+
+        /**
+         * @return The association to cascade validation to, or null if the property is not an association
+         */
+        public Association getAssociation() {
+            return association;
+        }
+
+        /**
+         * @return The constrained property or null if the property has no constraints
+         */
+        public ConstrainedProperty getConstrainedProperty() {
+            return constrainedProperty;
+        }
+
+        /**
+         * @return The vetoing constraints in the order they run, or null if a custom constrained property applies its own constraints
+         */
+        public VetoingConstraint[] getVetoingConstraints() {
+            return vetoingConstraints;
+        }
+
+        /**
+         * @return The non-vetoing constraints in the order they run, or null if a custom constrained property applies its own constraints
+         */
+        public Constraint[] getConstraints() {
+            return constraints;
+        }
+
+        /**
+         * Reads the value of the property
+         *
+         * @param target The instance
+         * @param reflector The reflector used when no reader is available
+         * @return The value
+         */
+        public Object read(Object target, EntityReflector reflector) {
+            if (reader != null) {
+                return reader.read(target);
+            }
+            if (persistentProperty != null) {
+                return reflector.getProperty(target, propertyName);
+            }
+            return ((GroovyObject) target).getProperty(propertyName);
+        }
+
+        /**
+         * Validates the given value of the property
+         *
+         * @param target The instance
+         * @param propertyValue The value of the property
+         * @param errors The errors
+         */
+        public void validate(Object target, Object propertyValue, Errors errors) {
+            if (constraints == null) {
+                constrainedProperty.validate(target, propertyValue, errors);
+                return;
+            }
+            for (VetoingConstraint constraint : vetoingConstraints) {
+                if (constraint.validateWithVetoing(target, propertyValue, errors)) {
+                    return;
+                }
+            }
+            int errorCount = errors.getErrorCount();
+            for (int i = 0; i < constraints.length; i++) {
+                if (skippable[i] && errors.getErrorCount() > errorCount) {
+                    continue;
+                }
+                constraints[i].validate(target, propertyValue, errors);
+            }
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package grails.gorm.validation
+
+import org.grails.datastore.gorm.validation.ValidationPlan
+import org.grails.datastore.gorm.validation.constraints.MatchesConstraint
+import org.grails.datastore.gorm.validation.constraints.NullableConstraint
+import org.grails.datastore.gorm.validation.constraints.SizeConstraint
+import org.grails.datastore.gorm.validation.constraints.registry.DefaultValidatorRegistry
+import org.grails.datastore.mapping.core.connections.ConnectionSourceSettings
+import org.grails.datastore.mapping.keyvalue.mapping.config.KeyValueMappingContext
+import org.grails.datastore.mapping.model.MappingContext
+import org.grails.datastore.mapping.validation.ValidationErrors
+import spock.lang.Shared
+import spock.lang.Specification
+
+import jakarta.persistence.Entity
+
+class ValidationPlanSpec extends Specification {
+
+    @Shared PersistentEntityValidator validator
+
+    void setupSpec() {
+        MappingContext mappingContext = new KeyValueMappingContext("test")
+        def entity = mappingContext.addPersistentEntity(Subscriber)
+        validator = (PersistentEntityValidator) new DefaultValidatorRegistry(mappingContext, new ConnectionSourceSettings()).getValidator(entity)
+    }
+
+    void "the plan runs vetoing constraints first and cheap constraints before pattern constraints"() {
+        when:
+        ValidationPlan.Step step = validator.validationPlan.steps.find { it.propertyName == 'code' }
+
+        then:
+        step.vetoingConstraints*.getClass().contains(NullableConstraint)
+        step.constraints*.getClass() == [SizeConstraint, MatchesConstraint]
+        ((MatchesConstraint) step.constraints[1]).pattern.pattern() == '[A-Z]{3}'
+    }
+
+    void "pattern constraints are skipped once a cheaper constraint rejected the value"() {
+        given:
+        def subscriber = new Subscriber(code: 'abcd')
+        def errors = new ValidationErrors(subscriber, Subscriber.simpleName)
+
+        when:
+        validator.validate(subscriber, errors)
+
+        then:
+        errors.getFieldErrors('code').size() == 1
+        errors.getFieldError('code').codes.contains('size.toobig')
+    }
+
+    void "pattern constraints run when the cheaper constraints pass"() {
+        given:
+        def subscriber = new Subscriber(code: 'ab1', email: 'not an email')
+        def errors = new ValidationErrors(subscriber, Subscriber.simpleName)
+
+        when:
+        validator.validate(subscriber, errors)
+
+        then:
+        errors.getFieldError('code').codes.contains('matches.invalid')
+        errors.getFieldError('email').codes.contains('email.invalid')
+
+        when:
+        subscriber = new Subscriber(code: 'ABC', email: 'someone@example.com')
+        errors = new ValidationErrors(subscriber, Subscriber.simpleName)
+        validator.validate(subscriber, errors)
+
+        then:
+        !errors.hasErrors()
+    }
+}
+
+@Entity
+class Subscriber {
+    Long id
+    Long version
+    String code
+    String email
+
+    static constraints = {
+        code matches: /[A-Z]{3}/, size: 3..3
+        email email: true, nullable: true
+    }
+}
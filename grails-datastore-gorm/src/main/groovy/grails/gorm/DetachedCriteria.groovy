@@ -31,6 +31,7 @@ import org.grails.datastore.mapping.query.api.QueryArgumentsAware
 import org.grails.datastore.mapping.query.api.QueryableCriteria
 
 import jakarta.persistence.criteria.JoinType
+import java.util.stream.Stream
 
 /**
  * Represents criteria that is not bound to the current connection and can be built up and re-used at a later date.
@@ -149,6 +150,32 @@ class DetachedCriteria<T> extends AbstractDetachedCriteria<T> implements GormOpe
         list(Collections.emptyMap(), additionalCriteria)
     }
 
+    /**
+     * Streams all records matching the criterion contained within this DetachedCriteria instance. Unlike {@link #list(java.util.Map, groovy.lang.Closure)}
+     * the results are fetched as they are consumed and detached from the session afterwards. The stream should be consumed
+     * within a session and closed once done
+     *
+     * @param args The query arguments, where the {@code fetchSize} argument specifies the number of results to fetch at a time
+     * @return A stream of matching instances
+     * @see Query#scroll(int)
+     */
+    Stream<T> stream(Map args = Collections.emptyMap(), @DelegatesTo(DetachedCriteria) Closure additionalCriteria = null) {
+        (Stream<T>)withPopulatedQuery(args, additionalCriteria) { Query query ->
+            def fetchSize = args?.get(DynamicFinder.ARGUMENT_FETCH_SIZE)
+            return fetchSize != null ? query.scroll(fetchSize as int) : query.stream()
+        }
+    }
+
+    /**
+     * Streams all records matching the criterion contained within this DetachedCriteria instance
+     *
+     * @return A stream of matching instances
+     * @see #stream(java.util.Map, groovy.lang.Closure)
+     */
+    Stream<T> stream(@DelegatesTo(DetachedCriteria) Closure additionalCriteria) {
+        stream(Collections.emptyMap(), additionalCriteria)
+    }
+
     @Override
     Iterator<T> iterator() {
         return list().iterator()
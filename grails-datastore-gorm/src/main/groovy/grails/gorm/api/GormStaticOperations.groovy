@@ -8,6 +8,8 @@ import org.grails.datastore.mapping.query.api.BuildableCriteria
 import org.grails.datastore.mapping.query.api.Criteria
 import org.springframework.transaction.TransactionDefinition
 
+import java.util.stream.Stream
+
 /**
  * Interface for the default static methods in GORM
  *
@@ -64,6 +66,25 @@ interface GormStaticOperations<D> {
      */
     List<D> findAll(Map args, Closure callable)
 
+    /**
+     * Uses detached criteria to build a query and then execute it returning a stream that fetches the results as they are
+     * consumed. The stream should be consumed within a session and closed once done
+     *
+     * @param callable The callable
+     * @return A Stream of entities
+     */
+    Stream<D> stream(Closure callable)
+
+    /**
+     * Uses detached criteria to build a query and then execute it returning a stream that fetches the results as they are
+     * consumed. The stream should be consumed within a session and closed once done
+     *
+     * @param args pagination parameters and the fetch size
+     * @param callable The callable
+     * @return A Stream of entities
+     */
+    Stream<D> stream(Map args, Closure callable)
+
     /**
      * Uses detached criteria to build a query and then execute it returning a list
      *
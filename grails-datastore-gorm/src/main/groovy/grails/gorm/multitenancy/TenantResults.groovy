@@ -0,0 +1,94 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package grails.gorm.multitenancy
+
+import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.multitenancy.exceptions.TenantException
+
+/**
+ * The outcome of executing a closure for each tenant in parallel. A failure of one tenant does not prevent the others
+ * from running, instead the failures are collected by tenant id.
+ *
+ * @since 9.0
+ * @see Tenants#eachTenantParallel(int, groovy.lang.Closure)
+ */
+@CompileStatic
+class TenantResults {
+
+    private final Map<Serializable, Object> results = new LinkedHashMap<>()
+    private final Map<Serializable, Throwable> failures = new LinkedHashMap<>()
+    private final List<Serializable> cancelled = []
+
+    /**
+     * @return The value returned by the closure for each tenant that completed successfully
+     */
+    synchronized Map<Serializable, Object> getResults() {
+        Collections.unmodifiableMap(new LinkedHashMap<>(results))
+    }
+
+    /**
+     * @return The exception thrown by the closure for each tenant that failed
+     */
+    synchronized Map<Serializable, Throwable> getFailures() {
+        Collections.unmodifiableMap(new LinkedHashMap<>(failures))
+    }
+
+    /**
+     * @return The ids of the tenants that were not executed because the execution was cancelled
+     */
+    synchronized List<Serializable> getCancelledTenantIds() {
+        Collections.unmodifiableList(new ArrayList<>(cancelled))
+    }
+
+    /**
+     * @return Whether the closure completed for every tenant
+     */
+    synchronized boolean isSuccessful() {
+        failures.isEmpty() && cancelled.isEmpty()
+    }
+
+    /**
+     * @return Whether the execution was cancelled before every tenant was executed
+     */
+    synchronized boolean isCancelled() {
+        !cancelled.isEmpty()
+    }
+
+    /**
+     * Throws a {@link TenantException} if the closure failed for any tenant, with the failure of each tenant added as a
+     * suppressed exception
+     */
+    synchronized void throwIfFailed() {
+        if (!failures.isEmpty()) {
+            TenantException exception = new TenantException("Execution failed for tenants ${failures.keySet()}", failures.values().first())
+            for (Throwable failure in failures.values().drop(1)) {
+                exception.addSuppressed(failure)
+            }
+            throw exception
+        }
+    }
+
+    protected synchronized void addResult(Serializable tenantId, Object result) {
+        results.put(tenantId, result)
+    }
+
+    protected synchronized void addFailure(Serializable tenantId, Throwable failure) {
+        failures.put(tenantId, failure)
+    }
+
+    protected synchronized void addCancelled(Serializable tenantId) {
+        cancelled.add(tenantId)
+    }
+}
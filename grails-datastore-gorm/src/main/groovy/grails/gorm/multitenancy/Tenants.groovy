@@ -6,10 +6,26 @@ import org.grails.datastore.gorm.GormEnhancer
 import org.grails.datastore.mapping.core.Datastore
 import org.grails.datastore.mapping.core.connections.ConnectionSource
 import org.grails.datastore.mapping.core.connections.ConnectionSources
+import org.grails.datastore.mapping.core.connections.LazyConnectionSources
+import org.grails.datastore.mapping.core.context.ContextElement
+import org.grails.datastore.mapping.core.context.ContextSnapshot
 import org.grails.datastore.mapping.multitenancy.AllTenantsResolver
 import org.grails.datastore.mapping.multitenancy.MultiTenancySettings
 import org.grails.datastore.mapping.multitenancy.MultiTenantCapableDatastore
 import org.grails.datastore.mapping.multitenancy.TenantResolver
+import org.grails.datastore.mapping.multitenancy.exceptions.TenantException
+
+import java.util.concurrent.CompletableFuture
+import java.util.concurrent.ConcurrentLinkedQueue
+import java.util.concurrent.ExecutionException
+import java.util.concurrent.Executor
+import java.util.concurrent.ExecutorService
+import java.util.concurrent.Executors
+import java.util.concurrent.RejectedExecutionException
+import java.util.concurrent.ThreadFactory
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicBoolean
+import java.util.concurrent.atomic.AtomicInteger
 
 /**
  * Helper methods for working with multi tenancy
@@ -20,6 +36,16 @@ import org.grails.datastore.mapping.multitenancy.TenantResolver
 @CompileStatic
 @Slf4j
 class Tenants {
+
+    /**
+     * The current tenant as a {@link ContextElement}, which allows carrying it to other threads with a {@link ContextSnapshot}
+     */
+    static final ContextElement<Serializable> CURRENT_TENANT = new CurrentTenantContextElement()
+
+    static {
+        ContextSnapshot.register(CURRENT_TENANT)
+    }
+
     /**
      * Execute the given closure for each tenant.
      *
@@ -281,19 +307,187 @@ class Tenants {
      * @return The result of the closure
      */
     static void eachTenant(MultiTenantCapableDatastore multiTenantCapableDatastore, Closure callable) {
+        for (tenantId in resolveTenantIds(multiTenantCapableDatastore)) {
+            withId(multiTenantCapableDatastore, tenantId, callable)
+        }
+    }
+
+    /**
+     * Execute the given closure for each tenant in parallel, running at most the given number of tenants at a time.
+     *
+     * @param parallelism The maximum number of tenants executed at the same time
+     * @param callable The closure
+     * @return The results of the closure for each tenant
+     * @see #eachTenantParallel(MultiTenantCapableDatastore, Executor, int, Closure)
+     */
+    static TenantResults eachTenantParallel(int parallelism, Closure callable) {
+        eachTenantParallel(toMultiTenantCapableDatastore(GormEnhancer.findSingleDatastore()), parallelism, callable)
+    }
+
+    /**
+     * Execute the given closure for each tenant of the given datastore type in parallel, running at most the given number of tenants at a time.
+     *
+     * @param datastoreClass The datastore class
+     * @param parallelism The maximum number of tenants executed at the same time
+     * @param callable The closure
+     * @return The results of the closure for each tenant
+     * @see #eachTenantParallel(MultiTenantCapableDatastore, Executor, int, Closure)
+     */
+    static TenantResults eachTenantParallel(Class<? extends Datastore> datastoreClass, int parallelism, Closure callable) {
+        eachTenantParallel(toMultiTenantCapableDatastore(GormEnhancer.findDatastoreByType(datastoreClass)), parallelism, callable)
+    }
+
+    /**
+     * Execute the given closure for each tenant of the given datastore in parallel, using a thread pool of the given size that is shut down once every tenant was executed.
+     *
+     * @param multiTenantCapableDatastore The multi tenant capable datastore
+     * @param parallelism The maximum number of tenants executed at the same time
+     * @param callable The closure
+     * @return The results of the closure for each tenant
+     * @see #eachTenantParallel(MultiTenantCapableDatastore, Executor, int, Closure)
+     */
+    static TenantResults eachTenantParallel(MultiTenantCapableDatastore multiTenantCapableDatastore, int parallelism, Closure callable) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1 but was $parallelism")
+        }
+        ExecutorService executor = Executors.newFixedThreadPool(parallelism, new TenantThreadFactory())
+        try {
+            return eachTenantParallel(multiTenantCapableDatastore, executor, parallelism, callable)
+        } finally {
+            awaitTermination(executor)
+        }
+    }
+
+    /**
+     * Execute the given closure for each tenant of the given datastore in parallel on the given executor, running at most the given number of tenants at a time.
+     * Each tenant is executed like {@link #withId(MultiTenantCapableDatastore, Serializable, Closure)} on a worker thread, with the tenant bound to that thread
+     * and within a new session. The closure hence has to be safe to call concurrently.
+     *
+     * <p>A failure of one tenant does not stop the others, instead it is recorded in the returned {@link TenantResults}. This method blocks until every tenant
+     * was executed. If the calling thread is interrupted, or the executor rejects the work, the tenants that were not started yet are skipped and reported as
+     * cancelled, whereas tenants already running are allowed to complete before the results are returned.</p>
+     *
+     * @param multiTenantCapableDatastore The multi tenant capable datastore
+     * @param executor The executor to run the tenants on
+     * @param parallelism The maximum number of tenants executed at the same time
+     * @param callable The closure
+     * @return The results of the closure for each tenant
+     */
+    static TenantResults eachTenantParallel(MultiTenantCapableDatastore multiTenantCapableDatastore, Executor executor, int parallelism, Closure callable) {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1 but was $parallelism")
+        }
+        TenantResults results = new TenantResults()
+        Queue<Serializable> pending = new ConcurrentLinkedQueue<Serializable>(resolveTenantIds(multiTenantCapableDatastore))
+        AtomicBoolean cancelled = new AtomicBoolean(false)
+        Runnable worker = {
+            Serializable tenantId
+            while (!cancelled.get() && (tenantId = pending.poll()) != null) {
+                try {
+                    results.addResult(tenantId, withIdInNewSession(multiTenantCapableDatastore, tenantId, callable))
+                } catch (Throwable e) {
+                    log.error("Execution failed for tenant [$tenantId]: ${e.message}", e)
+                    results.addFailure(tenantId, e)
+                }
+            }
+        } as Runnable
+
+        int workerCount = Math.min(parallelism, pending.size())
+        List<CompletableFuture<Void>> workers = new ArrayList<>(workerCount)
+        try {
+            for (int i = 0; i < workerCount; i++) {
+                workers.add(CompletableFuture.runAsync(worker, executor))
+            }
+            CompletableFuture.allOf(workers.toArray(new CompletableFuture[workers.size()])).get()
+        } catch (RejectedExecutionException e) {
+            log.warn("Executor rejected tenant execution, skipping the remaining tenants: ${e.message}")
+            cancelled.set(true)
+            awaitWorkers(workers)
+        } catch (InterruptedException e) {
+            cancelled.set(true)
+            // the running tenants still add their results, so wait for them before the results are returned
+            awaitWorkers(workers)
+            Thread.currentThread().interrupt()
+        } catch (ExecutionException e) {
+            throw new TenantException("Error executing tenants in parallel: ${e.cause?.message}", e.cause ?: e)
+        }
+
+        Serializable tenantId
+        while ((tenantId = pending.poll()) != null) {
+            results.addCancelled(tenantId)
+        }
+        return results
+    }
+
+    /**
+     * Waits for the given workers to complete, also if the calling thread is interrupted, whose interrupt status is restored afterwards
+     */
+    private static void awaitWorkers(List<CompletableFuture<Void>> workers) {
+        CompletableFuture<Void> all = CompletableFuture.allOf(workers.toArray(new CompletableFuture[workers.size()]))
+        boolean interrupted = Thread.interrupted()
+        try {
+            while (true) {
+                try {
+                    all.get()
+                    return
+                } catch (InterruptedException e) {
+                    interrupted = true
+                } catch (ExecutionException e) {
+                    throw new TenantException("Error executing tenants in parallel: ${e.cause?.message}", e.cause ?: e)
+                }
+            }
+        } finally {
+            if (interrupted) {
+                Thread.currentThread().interrupt()
+            }
+        }
+    }
+
+    private static void awaitTermination(ExecutorService executor) {
+        executor.shutdown()
+        try {
+            while (!executor.awaitTermination(1L, TimeUnit.MINUTES)) {
+                log.debug("Waiting for the tenant executions to terminate")
+            }
+        } catch (InterruptedException e) {
+            executor.shutdownNow()
+            Thread.currentThread().interrupt()
+        }
+    }
+
+    private static Object withIdInNewSession(MultiTenantCapableDatastore multiTenantCapableDatastore, Serializable tenantId, Closure callable) {
+        if (multiTenantCapableDatastore.getMultiTenancyMode().isSharedConnection()) {
+            // withId() only binds a session for the database per tenant mode, so bind one for the worker thread
+            return multiTenantCapableDatastore.withNewSession(tenantId) { session ->
+                withId(multiTenantCapableDatastore, tenantId, callable)
+            }
+        }
+        return withId(multiTenantCapableDatastore, tenantId, callable)
+    }
+
+    /**
+     * Resolves the ids of all tenants of the given datastore
+     *
+     * @param multiTenantCapableDatastore The multi tenant capable datastore
+     * @return The tenant ids
+     */
+    protected static List<Serializable> resolveTenantIds(MultiTenantCapableDatastore multiTenantCapableDatastore) {
+        List<Serializable> tenantIds = []
         MultiTenancySettings.MultiTenancyMode multiTenancyMode = multiTenantCapableDatastore.multiTenancyMode
         if (multiTenancyMode == MultiTenancySettings.MultiTenancyMode.DATABASE) {
             if (multiTenantCapableDatastore.tenantResolver instanceof AllTenantsResolver) {
-                def tenantIds = ((AllTenantsResolver) multiTenantCapableDatastore.tenantResolver).resolveTenantIds()
-                for (tenantId in tenantIds) {
-                    withId(multiTenantCapableDatastore, tenantId, callable)
+                for (tenantId in ((AllTenantsResolver) multiTenantCapableDatastore.tenantResolver).resolveTenantIds()) {
+                    tenantIds.add((Serializable) tenantId)
                 }
+            } else if (multiTenantCapableDatastore.connectionSources instanceof LazyConnectionSources) {
+                // avoid creating every connection source just to learn its name
+                tenantIds.addAll(((LazyConnectionSources) multiTenantCapableDatastore.connectionSources).getConnectionSourceNames())
             } else {
                 ConnectionSources connectionSources = multiTenantCapableDatastore.connectionSources
                 for (ConnectionSource connectionSource in connectionSources.allConnectionSources) {
                     def tenantId = connectionSource.name
                     if (tenantId != ConnectionSource.DEFAULT) {
-                        withId(multiTenantCapableDatastore, tenantId, callable)
+                        tenantIds.add(tenantId)
                     }
                 }
             }
@@ -301,7 +495,7 @@ class Tenants {
             TenantResolver tenantResolver = multiTenantCapableDatastore.tenantResolver
             if (tenantResolver instanceof AllTenantsResolver) {
                 for (tenantId in ((AllTenantsResolver) tenantResolver).resolveTenantIds()) {
-                    withId(multiTenantCapableDatastore, tenantId, callable)
+                    tenantIds.add((Serializable) tenantId)
                 }
             } else {
                 throw new UnsupportedOperationException("Multi tenancy mode $multiTenancyMode is configured, but the configured TenantResolver does not implement the [org.grails.datastore.mapping.multitenancy.AllTenantsResolver] interface")
@@ -309,6 +503,14 @@ class Tenants {
         } else {
             throw new UnsupportedOperationException("Method not supported in multi tenancy mode $multiTenancyMode")
         }
+        return tenantIds
+    }
+
+    private static MultiTenantCapableDatastore toMultiTenantCapableDatastore(Datastore datastore) {
+        if (datastore instanceof MultiTenantCapableDatastore) {
+            return (MultiTenantCapableDatastore) datastore
+        }
+        throw new UnsupportedOperationException("Datastore implementation does not support multi-tenancy")
     }
 
     private static void eachTenantInternal(Datastore datastore, Closure callable) {
@@ -320,6 +522,36 @@ class Tenants {
         }
     }
 
+    @CompileStatic
+    private static class CurrentTenantContextElement implements ContextElement<Serializable> {
+        @Override
+        Serializable capture() {
+            CurrentTenant.get()
+        }
+
+        @Override
+        Serializable bind(Serializable tenantId) {
+            CurrentTenant.bind(tenantId)
+        }
+
+        @Override
+        void restore(Serializable previous) {
+            CurrentTenant.bind(previous)
+        }
+    }
+
+    @CompileStatic
+    private static class TenantThreadFactory implements ThreadFactory {
+        private static final AtomicInteger THREAD_COUNT = new AtomicInteger()
+
+        @Override
+        Thread newThread(Runnable runnable) {
+            Thread thread = new Thread(runnable, "gorm-tenant-${THREAD_COUNT.incrementAndGet()}")
+            thread.setDaemon(true)
+            return thread
+        }
+    }
+
     @CompileStatic
     protected static class CurrentTenant  {
 
@@ -345,6 +577,23 @@ class Tenants {
             currentTenantThreadLocal.remove()
         }
 
+        /**
+         * Bind the given tenant, removing the current tenant if it is null
+         *
+         * @param tenantId The tenant id
+         * @return The previous tenant
+         */
+        static Serializable bind(Serializable tenantId) {
+            def previous = get()
+            if (tenantId == null) {
+                remove()
+            }
+            else {
+                set(tenantId)
+            }
+            return previous
+        }
+
         /**
          * Execute with the current tenant
          *
@@ -15,6 +15,7 @@ import org.codehaus.groovy.control.CompilationUnit
 import org.codehaus.groovy.control.SourceUnit
 import org.codehaus.groovy.transform.sc.StaticCompilationVisitor
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable
+import org.grails.datastore.mapping.dirty.checking.DirtyCheckingSupport
 import org.grails.datastore.mapping.model.config.GormProperties
 import org.grails.datastore.mapping.reflect.AstUtils
 import org.grails.datastore.mapping.reflect.ClassUtils
@@ -48,6 +49,8 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
     public static final ClassNode DIRTY_CHECKED_PROPERTY_CLASS_NODE = ClassHelper.make(DirtyCheckedProperty)
     public static final ClassNode DIRTY_CHECK_CLASS_NODE = ClassHelper.make(DirtyCheck)
     public static final AnnotationNode DIRTY_CHECKED_PROPERTY_ANNOTATION_NODE = new AnnotationNode(DIRTY_CHECKED_PROPERTY_CLASS_NODE)
+    public static final String DIRTY_CHECKING_INDEX_FIELD_PREFIX = '$dirtyCheckingIndex$'
+    private static final ClassNode DIRTY_CHECKING_SUPPORT_CLASS_NODE = ClassHelper.make(DirtyCheckingSupport)
 
     static {
         if(ClassUtils.isPresent("jakarta.validation.Constraint")) {
@@ -77,6 +80,7 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
             changeTrackableClassNode.setSuperClass(new ClassNode(DirtyCheckable).getPlainNodeReference())
         }
         final MethodNode markDirtyMethodNode = changeTrackableClassNode.getMethod(METHOD_NAME_MARK_DIRTY, new Parameter(ClassHelper.STRING_TYPE, "propertyName"), new Parameter(ClassHelper.OBJECT_TYPE, "newValue"))
+        final MethodNode markDirtyIndexedMethodNode = changeTrackableClassNode.getMethod(METHOD_NAME_MARK_DIRTY, new Parameter(ClassHelper.int_TYPE, "propertyIndex"), new Parameter(ClassHelper.STRING_TYPE, "propertyName"), new Parameter(ClassHelper.OBJECT_TYPE, "newValue"), new Parameter(ClassHelper.OBJECT_TYPE, "oldValue"))
 
 
         ClassNode superClass = classNode.getSuperClass()
@@ -230,9 +234,10 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
                         }
                     }
 
-                    // now add the setter that tracks changes. Each setters becomes:
-                    // void setFoo(String foo) { markDirty("foo", foo); this.foo = foo }
-                    addDirtyCheckingSetter(classNode, propertyName, fieldName, returnType, markDirtyMethodNode, staticCompilationVisitor)
+                    // now add the setter that tracks changes. As the getter reads the field, the field provides the old value
+                    // and each setter becomes:
+                    // void setFoo(String foo) { markDirty($dirtyCheckingIndex$foo, "foo", foo, this.foo); this.foo = foo }
+                    addDirtyCheckingSetter(classNode, propertyName, fieldName, returnType, markDirtyMethodNode, staticCompilationVisitor, markDirtyIndexedMethodNode, propertyField)
                 }
                 else if(getterAndSetter.hasBoth()) {
                     // if both a setter and getter are present, we get hold of the setter and weave the markDirty method call into it
@@ -309,13 +314,20 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
         returnType
     }
 
-    private void addDirtyCheckingSetter(ClassNode classNode, String propertyName, String fieldName, ClassNode returnType, MethodNode markDirtyMethodNode, StaticCompilationVisitor staticCompilationVisitor) {
+    private void addDirtyCheckingSetter(ClassNode classNode, String propertyName, String fieldName, ClassNode returnType, MethodNode markDirtyMethodNode, StaticCompilationVisitor staticCompilationVisitor,
+                                        MethodNode markDirtyIndexedMethodNode = null, FieldNode propertyField = null) {
         final String setterName = NameUtils.getSetterName(propertyName)
         final Parameter setterParameter = param(returnType, propertyName)
         MethodNode setter = classNode.getMethod(setterName, setterParameter)
         if (setter == null) {
             final BlockStatement setterBody = new BlockStatement()
-            MethodCallExpression markDirtyMethodCall = createMarkDirtyMethodCall(markDirtyMethodNode, propertyName, setterParameter)
+            MethodCallExpression markDirtyMethodCall
+            if (markDirtyIndexedMethodNode != null && propertyField != null) {
+                markDirtyMethodCall = createIndexedMarkDirtyMethodCall(classNode, markDirtyIndexedMethodNode, propertyName, propertyField, setterParameter)
+            }
+            else {
+                markDirtyMethodCall = createMarkDirtyMethodCall(markDirtyMethodNode, propertyName, setterParameter)
+            }
             setterBody.addStatement(stmt(markDirtyMethodCall))
             setterBody.addStatement(assignS(propX(varX("this"), fieldName), varX(setterParameter)))
 
@@ -408,6 +420,24 @@ class DirtyCheckingTransformer implements CompilationUnitAware {
         return markDirtyMethodCall
     }
 
+    /**
+     * Creates a call to {@link DirtyCheckable#markDirty(int, String, Object, Object)} that passes the current value of the
+     * field as the old value. The index of the property is resolved once, when the class is initialized, and held in a
+     * static field.
+     */
+    protected MethodCallExpression createIndexedMarkDirtyMethodCall(ClassNode classNode, MethodNode markDirtyMethodNode, String propertyName, FieldNode propertyField, Variable value) {
+        String indexFieldName = DIRTY_CHECKING_INDEX_FIELD_PREFIX + propertyName
+        FieldNode indexField = classNode.getDeclaredField(indexFieldName)
+        if (indexField == null) {
+            indexField = classNode.addField(indexFieldName, PRIVATE | STATIC | FINAL, ClassHelper.int_TYPE,
+                    callX(DIRTY_CHECKING_SUPPORT_CLASS_NODE, "propertyIndex", args(classX(classNode.plainNodeReference), constX(propertyName))))
+        }
+        def args = args(fieldX(indexField), constX(propertyName), varX(value), fieldX(propertyField))
+        final markDirtyMethodCall = callX(varX("this"), markDirtyMethodNode.name, args)
+        markDirtyMethodCall.methodTarget = markDirtyMethodNode
+        return markDirtyMethodCall
+    }
+
     protected GetterAndSetter getGetterAndSetterForPropertyName(LinkedHashMap<String, GetterAndSetter> gettersAndSetters, String propertyName) {
         def getterAndSetter = gettersAndSetters[propertyName]
         if (getterAndSetter == null) {
@@ -25,6 +25,7 @@ import org.codehaus.groovy.ast.AnnotatedNode
 import org.codehaus.groovy.ast.AnnotationNode
 import org.codehaus.groovy.ast.ClassHelper
 import org.codehaus.groovy.ast.ClassNode
+import org.codehaus.groovy.ast.FieldNode
 import org.codehaus.groovy.ast.GenericsType
 import org.codehaus.groovy.ast.InnerClassNode
 import org.codehaus.groovy.ast.MethodNode
@@ -54,10 +55,12 @@ import org.codehaus.groovy.control.SourceUnit
 import org.codehaus.groovy.transform.ASTTransformation
 import org.codehaus.groovy.transform.AbstractASTTransformation
 import org.codehaus.groovy.transform.GroovyASTTransformation
+import org.codehaus.groovy.transform.trait.Traits
 import org.grails.datastore.gorm.GormEnhancer
 import org.grails.datastore.gorm.GormEntity
 import org.grails.datastore.gorm.GormEntityDirtyCheckable
 import org.grails.datastore.gorm.query.GormQueryOperations
+import org.grails.datastore.mapping.model.config.GormEntityMetadata
 import org.grails.datastore.mapping.model.config.GormProperties
 import org.grails.datastore.mapping.reflect.AstUtils
 import org.grails.datastore.mapping.reflect.ClassUtils
@@ -370,6 +373,10 @@ class GormEntityTransformation extends AbstractASTTransformation implements Comp
             }
         }
 
+        if(!isJpaEntity) {
+            injectEntityMetadata(classNode)
+        }
+
         if(compilationUnit != null && !isRxEntity) {
             org.codehaus.groovy.transform.trait.TraitComposer.doExtendTraits(classNode, sourceUnit, compilationUnit);
         }
@@ -674,6 +681,36 @@ class GormEntityTransformation extends AbstractASTTransformation implements Comp
         return setNode
     }
 
+    /**
+     * Adds a static method returning the static mapping declarations of the class, such as hasMany or mapping, so that the mapping context
+     * can read them without resolving the static properties through the meta class
+     */
+    private void injectEntityMetadata(ClassNode classNode) {
+        if(classNode.getDeclaredMethod(GormEntityMetadata.METHOD_NAME, Parameter.EMPTY_ARRAY) != null) {
+            return
+        }
+        for(ClassNode interfaceNode in classNode.getInterfaces()) {
+            // static properties of other traits are only woven into the class later
+            if(Traits.isTrait(interfaceNode) && !interfaceNode.name.startsWith('org.grails.datastore.') && !interfaceNode.name.startsWith('grails.gorm.')) {
+                return
+            }
+        }
+        MapExpression staticProperties = new MapExpression()
+        for(String name in GormEntityMetadata.STATIC_PROPERTIES) {
+            MethodNode getter = classNode.getDeclaredMethod(NameUtils.getGetterName(name), Parameter.EMPTY_ARRAY)
+            if(getter != null && getter.isStatic()) {
+                // a custom getter may compute the value, so it is read at runtime
+                return
+            }
+            FieldNode field = classNode.getDeclaredField(name)
+            if(field != null && field.isStatic()) {
+                staticProperties.addMapEntryExpression(constX(name), fieldX(field))
+            }
+        }
+        Statement body = returnS(ctorX(ClassHelper.make(GormEntityMetadata), args(classX(classNode.plainNodeReference), staticProperties)))
+        classNode.addMethod(GormEntityMetadata.METHOD_NAME, Modifier.PUBLIC | Modifier.STATIC, ClassHelper.make(GormEntityMetadata), Parameter.EMPTY_ARRAY, null, body)
+    }
+
     private void addAssociationForKey(String key, List<PropertyNode> properties, ClassNode declaringType, ClassNode propertyType) {
         properties.add(new PropertyNode(key, Modifier.PUBLIC, propertyType, declaringType, null, null, null));
     }
@@ -30,9 +30,11 @@ import org.grails.datastore.gorm.query.NamedCriteriaProxy
 import org.grails.datastore.gorm.query.NamedQueriesBuilder
 import org.grails.datastore.mapping.core.Datastore
 import org.grails.datastore.mapping.core.connections.ConnectionSource
+import org.grails.datastore.mapping.core.connections.ConnectionSourceEvictionListener
 import org.grails.datastore.mapping.core.connections.ConnectionSourceSettings
 import org.grails.datastore.mapping.core.connections.ConnectionSourcesProvider
 import org.grails.datastore.mapping.core.connections.ConnectionSourcesSupport
+import org.grails.datastore.mapping.core.connections.LazyConnectionSources
 import org.grails.datastore.mapping.core.connections.MultipleConnectionSourceCapableDatastore
 import org.grails.datastore.mapping.model.PersistentEntity
 import org.grails.datastore.mapping.model.config.GormProperties
@@ -78,6 +80,11 @@ class GormEnhancer implements Closeable {
 
     private static final Map<Class, Datastore> DATASTORES_BY_TYPE = new ConcurrentHashMap<Class, Datastore>()
 
+    /**
+     * The enhancers of entities whose APIs for connection sources created on demand are registered on first use
+     */
+    private static final Map<String, GormEnhancer> LAZY_ENHANCERS = new ConcurrentHashMap<String, GormEnhancer>()
+
     final Datastore datastore
     PlatformTransactionManager transactionManager
     List<FinderMethod> finders
@@ -122,6 +129,13 @@ class GormEnhancer implements Closeable {
         NAMED_QUERIES.clear()
         DATASTORES_BY_TYPE.put(datastore.getClass(), datastore)
 
+        LazyConnectionSources lazyConnectionSources = findLazyConnectionSources(datastore)
+        if(lazyConnectionSources != null) {
+            lazyConnectionSources.addEvictionListener({ ConnectionSource connectionSource ->
+                unregisterQualifier(connectionSource.name)
+            } as ConnectionSourceEvictionListener)
+        }
+
         for(entity in datastore.mappingContext.persistentEntities) {
             registerEntity(entity)
         }
@@ -151,18 +165,85 @@ class GormEnhancer implements Closeable {
 
             }
             for (qualifier in qualifiers) {
-                def staticApi = getStaticApi(cls, qualifier)
-                def name = entity.name
-                STATIC_APIS.get(qualifier).put(name, staticApi)
-                def instanceApi = getInstanceApi(cls, qualifier)
-                INSTANCE_APIS.get(qualifier).put(name, instanceApi)
-                def validationApi = getValidationApi(cls, qualifier)
-                VALIDATION_APIS.get(qualifier).put(name, validationApi)
-                DATASTORES.get(qualifier).put(name, this.datastore)
+                registerQualifier(entity, qualifier)
+            }
+            if(isRegisteredLazily(datastore, entity)) {
+                LAZY_ENHANCERS.put(entity.name, this)
             }
         }
     }
 
+    private void registerQualifier(PersistentEntity entity, String qualifier) {
+        def cls = entity.javaClass
+        def staticApi = getStaticApi(cls, qualifier)
+        def name = entity.name
+        STATIC_APIS.get(qualifier).put(name, staticApi)
+        def instanceApi = getInstanceApi(cls, qualifier)
+        INSTANCE_APIS.get(qualifier).put(name, instanceApi)
+        def validationApi = getValidationApi(cls, qualifier)
+        VALIDATION_APIS.get(qualifier).put(name, validationApi)
+        DATASTORES.get(qualifier).put(name, this.datastore)
+    }
+
+    /**
+     * Registers the APIs of an entity for a connection source created on demand the first time they are requested
+     *
+     * @param className The entity class name
+     * @param qualifier The qualifier
+     * @return Whether the APIs are registered
+     */
+    private synchronized boolean registerQualifierOnDemand(String className, String qualifier) {
+        if(STATIC_APIS.get(qualifier).containsKey(className)) {
+            return true
+        }
+        LazyConnectionSources lazyConnectionSources = findLazyConnectionSources(datastore)
+        if(lazyConnectionSources == null || !lazyConnectionSources.getConnectionSourceNames().contains(qualifier)) {
+            return false
+        }
+        PersistentEntity entity = datastore.mappingContext.getPersistentEntity(className)
+        if(entity == null) {
+            return false
+        }
+        registerQualifier(entity, qualifier)
+        return true
+    }
+
+    private synchronized void unregisterQualifier(String qualifier) {
+        for(entity in datastore.mappingContext.persistentEntities) {
+            String name = entity.name
+            if(LAZY_ENHANCERS.get(name).is(this)) {
+                STATIC_APIS.get(qualifier)?.remove(name)
+                INSTANCE_APIS.get(qualifier)?.remove(name)
+                VALIDATION_APIS.get(qualifier)?.remove(name)
+                DATASTORES.get(qualifier)?.remove(name)
+            }
+        }
+    }
+
+    private static boolean registerOnDemand(Class entity, String qualifier) {
+        if(qualifier == null) {
+            return false
+        }
+        String className = NameUtils.getClassName(entity)
+        GormEnhancer enhancer = LAZY_ENHANCERS.get(className)
+        return enhancer != null && enhancer.registerQualifierOnDemand(className, qualifier)
+    }
+
+    private static boolean isRegisteredLazily(Datastore datastore, PersistentEntity entity) {
+        return findLazyConnectionSources(datastore) != null &&
+                (MultiTenant.isAssignableFrom(entity.javaClass) || ConnectionSourcesSupport.getConnectionSourceNames(entity).contains(ConnectionSource.ALL))
+    }
+
+    private static LazyConnectionSources findLazyConnectionSources(Datastore datastore) {
+        if(datastore instanceof ConnectionSourcesProvider) {
+            def connectionSources = ((ConnectionSourcesProvider) datastore).getConnectionSources()
+            if(connectionSources instanceof LazyConnectionSources) {
+                return (LazyConnectionSources) connectionSources
+            }
+        }
+        return null
+    }
+
     /**
      * Obtain all of the qualifiers (typically the connection names) for the datastore and entity
      *
@@ -177,10 +258,13 @@ class GormEnhancer implements Closeable {
             qualifiers.clear()
             qualifiers.add(ConnectionSource.DEFAULT)
 
-            Iterable<ConnectionSource> allConnectionSources = ((ConnectionSourcesProvider) datastore).getConnectionSources().allConnectionSources
-            Collection<String> allConnectionSourceNames = allConnectionSources.findAll() { ConnectionSource connectionSource -> connectionSource.name != ConnectionSource.DEFAULT }
-                                                                              .collect() { ((ConnectionSource)it).name }
-            qualifiers.addAll allConnectionSourceNames
+            // connection sources created on demand are registered on first use instead
+            if(findLazyConnectionSources(datastore) == null) {
+                Iterable<ConnectionSource> allConnectionSources = ((ConnectionSourcesProvider) datastore).getConnectionSources().allConnectionSources
+                Collection<String> allConnectionSourceNames = allConnectionSources.findAll() { ConnectionSource connectionSource -> connectionSource.name != ConnectionSource.DEFAULT }
+                                                                                  .collect() { ((ConnectionSource)it).name }
+                qualifiers.addAll allConnectionSourceNames
+            }
         }
         return qualifiers
     }
@@ -294,6 +378,9 @@ class GormEnhancer implements Closeable {
     static <D> GormStaticApi<D> findStaticApi(Class<D> entity, String qualifier = findTenantId(entity)) {
         String className = NameUtils.getClassName(entity)
         def staticApi = STATIC_APIS.get(qualifier)?.get(className)
+        if(staticApi == null && registerOnDemand(entity, qualifier)) {
+            staticApi = STATIC_APIS.get(qualifier)?.get(className)
+        }
         if(staticApi == null) {
             throw stateException(entity)
         }
@@ -311,6 +398,9 @@ class GormEnhancer implements Closeable {
      */
     static <D> GormInstanceApi<D> findInstanceApi(Class<D> entity, String qualifier = findTenantId(entity)) {
         def instanceApi = INSTANCE_APIS.get(qualifier)?.get(NameUtils.getClassName(entity))
+        if(instanceApi == null && registerOnDemand(entity, qualifier)) {
+            instanceApi = INSTANCE_APIS.get(qualifier)?.get(NameUtils.getClassName(entity))
+        }
         if(instanceApi == null) {
             throw stateException(entity)
         }
@@ -328,6 +418,9 @@ class GormEnhancer implements Closeable {
      */
     static <D> GormValidationApi<D> findValidationApi(Class<D> entity, String qualifier = findTenantId(entity)) {
         def instanceApi = VALIDATION_APIS.get(qualifier)?.get(NameUtils.getClassName(entity))
+        if(instanceApi == null && registerOnDemand(entity, qualifier)) {
+            instanceApi = VALIDATION_APIS.get(qualifier)?.get(NameUtils.getClassName(entity))
+        }
         if(instanceApi == null) {
             throw stateException(entity)
         }
@@ -345,6 +438,9 @@ class GormEnhancer implements Closeable {
      */
     static Datastore findDatastore(Class entity, String qualifier = findTenantId(entity)) {
         def datastore = DATASTORES.get(qualifier)?.get(entity.name)
+        if(datastore == null && registerOnDemand(entity, qualifier)) {
+            datastore = DATASTORES.get(qualifier)?.get(entity.name)
+        }
         if(datastore == null) {
             throw stateException(entity)
         }
@@ -438,6 +534,10 @@ class GormEnhancer implements Closeable {
         for(entity in datastore.mappingContext.persistentEntities) {
 
             List<String> qualifiers = allQualifiers(datastore, entity)
+            LazyConnectionSources lazyConnectionSources = findLazyConnectionSources(datastore)
+            if(lazyConnectionSources != null && LAZY_ENHANCERS.remove(entity.name) != null) {
+                qualifiers.addAll(lazyConnectionSources.getConnectionSourceNames())
+            }
             def cls = entity.javaClass
             def className = cls.name
             for(q in qualifiers) {
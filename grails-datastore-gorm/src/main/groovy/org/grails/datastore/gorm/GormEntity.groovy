@@ -35,6 +35,8 @@ import org.springframework.transaction.TransactionDefinition
 
 import jakarta.persistence.Transient
 
+import java.util.stream.Stream
+
 /**
  *
  * A trait that turns any class into a GORM entity
@@ -477,6 +479,29 @@ trait GormEntity<D> implements GormValidateable, DirtyCheckable, GormEntityApi<D
         currentGormStaticApi().findAll args, callable
     }
 
+    /**
+     * Uses detached criteria to build a query and then execute it returning a stream that fetches the results as they are
+     * consumed. The stream should be consumed within a session and closed once done
+     *
+     * @param callable The callable
+     * @return A Stream of entities
+     */
+    static Stream<D> stream(Closure callable) {
+        currentGormStaticApi().stream callable
+    }
+
+    /**
+     * Uses detached criteria to build a query and then execute it returning a stream that fetches the results as they are
+     * consumed. The stream should be consumed within a session and closed once done
+     *
+     * @param args pagination parameters and the fetch size
+     * @param callable The callable
+     * @return A Stream of entities
+     */
+    static Stream<D> stream(Map args, Closure callable) {
+        currentGormStaticApi().stream args, callable
+    }
+
     /**
      * Uses detached criteria to build a query and then execute it returning a list
      *
@@ -30,15 +30,20 @@ import org.grails.datastore.gorm.finders.DynamicFinder
 import org.grails.datastore.gorm.finders.FinderMethod
 import org.grails.datastore.gorm.multitenancy.TenantDelegatingGormOperations
 import org.grails.datastore.gorm.query.NamedCriteriaProxy
+import org.grails.datastore.gorm.validation.constraints.builtin.UniqueConstraintBatch
+import org.grails.datastore.gorm.validation.listener.ValidationEventListener
 import org.grails.datastore.mapping.core.Datastore
 import org.grails.datastore.mapping.core.DatastoreUtils
 import org.grails.datastore.mapping.core.Session
 import org.grails.datastore.mapping.core.SessionCallback
 import org.grails.datastore.mapping.core.StatelessDatastore
+import org.grails.datastore.mapping.core.SessionImplementor
 import org.grails.datastore.mapping.core.connections.ConnectionSource
 import org.grails.datastore.mapping.core.connections.ConnectionSourceSettings
 import org.grails.datastore.mapping.core.connections.ConnectionSources
 import org.grails.datastore.mapping.core.connections.ConnectionSourcesProvider
+import org.grails.datastore.mapping.engine.EntityPersister
+import org.grails.datastore.mapping.engine.event.ListenerAwareEventPublisher
 import org.grails.datastore.mapping.model.PersistentEntity
 import org.grails.datastore.mapping.model.PersistentProperty
 import org.grails.datastore.mapping.model.types.Association
@@ -53,6 +58,9 @@ import org.springframework.transaction.TransactionDefinition
 import org.springframework.transaction.support.DefaultTransactionDefinition
 import org.springframework.util.Assert
 
+import java.util.concurrent.ConcurrentHashMap
+import java.util.stream.Stream
+
 /**
  * Static methods of the GORM API.
  *
@@ -63,6 +71,7 @@ import org.springframework.util.Assert
 class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D> {
 
     protected final List<FinderMethod> gormDynamicFinders
+    protected final Map<String, FinderMethod> gormDynamicFindersByName = new ConcurrentHashMap<String, FinderMethod>()
 
     protected final PlatformTransactionManager transactionManager
     protected final String defaultQualifier
@@ -135,7 +144,13 @@ class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D
      */
     @CompileDynamic
     def methodMissing(String methodName, Object args) {
-        FinderMethod method = gormDynamicFinders.find { FinderMethod f -> f.isMethodMatch(methodName) }
+        FinderMethod method = gormDynamicFindersByName.get(methodName)
+        if (method == null) {
+            method = gormDynamicFinders.find { FinderMethod f -> f.isMethodMatch(methodName) }
+            if (method != null) {
+                gormDynamicFindersByName.put(methodName, method)
+            }
+        }
         if (!method) {
             if(args && args[-1] instanceof Closure) {
                 NamedCriteriaProxy proxy = GormEnhancer.createNamedQuery(persistentClass, methodName)
@@ -152,7 +167,7 @@ class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D
         }
 
         // if the class is multi tenant, don't cache the method because the tenant will need to be resolved
-        // for each method call
+        // for each method call. The finder itself still caches the parsed form of the method name
         if(!MultiTenant.isAssignableFrom(persistentClass)) {
 
             def mc = persistentClass.getMetaClass()
@@ -235,6 +250,33 @@ class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D
         return criteria.list(args)
     }
 
+    /**
+     * Uses detached criteria to build a query and then execute it returning a stream that fetches the results as they are
+     * consumed. The stream should be consumed within a session and closed once done
+     *
+     * @param callable The callable
+     * @return A Stream of entities
+     * @see DetachedCriteria#stream(java.util.Map, groovy.lang.Closure)
+     */
+    Stream<D> stream(Closure callable) {
+        def criteria = new DetachedCriteria<D>(persistentClass).build(callable)
+        return criteria.stream()
+    }
+
+    /**
+     * Uses detached criteria to build a query and then execute it returning a stream that fetches the results as they are
+     * consumed. The stream should be consumed within a session and closed once done
+     *
+     * @param args pagination parameters and the fetch size
+     * @param callable The callable
+     * @return A Stream of entities
+     * @see DetachedCriteria#stream(java.util.Map, groovy.lang.Closure)
+     */
+    Stream<D> stream(Map args, Closure callable) {
+        def criteria = new DetachedCriteria<D>(persistentClass).build(callable)
+        return criteria.stream(args)
+    }
+
     /**
      * Uses detached criteria to build a query and then execute it returning a list
      *
@@ -252,17 +294,41 @@ class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D
      * @return A list of object identifiers
      */
     List<Serializable> saveAll(Object... objectsToSave) {
-        (List<Serializable>)execute({ Session session ->
-            session.persist Arrays.asList(objectsToSave)
-        } as SessionCallback)
+        saveAll(Arrays.asList(objectsToSave))
     }
 
     /**
-     * Saves a list of objects in one go
+     * Saves a list of objects in one go. If a {@link ValidationEventListener} is registered the objects are validated before they are
+     * persisted and their unique constraints are checked together, see {@link UniqueConstraintBatch}. Objects with errors are not inserted
+     * or updated when the session is flushed.
+     *
      * @param objectToSave Collection of objects to save
      * @return A list of object identifiers
      */
     List<Serializable> saveAll(Iterable<?> objectsToSave) {
+        if(!ListenerAwareEventPublisher.hasListener(datastore.applicationEventPublisher, ValidationEventListener)) {
+            return persistAll(objectsToSave)
+        }
+        UniqueConstraintBatch.withBatch(datastore.mappingContext, objectsToSave) {
+            for(object in objectsToSave) {
+                if(object instanceof GormValidateable) {
+                    GormValidateable validateable = (GormValidateable) object
+                    validateable.skipValidation(false)
+                    if(defaultQualifier != ConnectionSource.DEFAULT) {
+                        GormEnhancer.findValidationApi((Class<Object>)object.getClass(), defaultQualifier).validate(object)
+                    }
+                    else {
+                        validateable.validate()
+                    }
+                    // the unique constraints were resolved by the batch, don't revalidate on flush
+                    validateable.skipValidation(true)
+                }
+            }
+            persistAll(objectsToSave)
+        }
+    }
+
+    private List<Serializable> persistAll(Iterable<?> objectsToSave) {
         (List<Serializable>)execute({ Session session ->
             session.persist objectsToSave
         } as SessionCallback)
@@ -553,9 +619,16 @@ class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D
     Integer count() {
         (Integer)execute ({ Session session ->
 
-            def q = session.createQuery(persistentClass)
-            q.projections().count()
-            def result = q.singleResult()
+            def persister = session.getPersister(persistentClass)
+            def result
+            if (persister instanceof EntityPersister) {
+                result = ((EntityPersister) persister).count()
+            }
+            else {
+                def q = session.createQuery(persistentClass)
+                q.projections().count()
+                result = q.singleResult()
+            }
             if (!(result instanceof Number)) {
                 result = result.toString()
             }
@@ -576,10 +649,28 @@ class GormStaticApi<D> extends AbstractGormApi<D> implements GormAllOperations<D
     }
 
     /**
-     * Checks whether an entity exists
+     * Checks whether an entity exists without loading it
      */
     boolean exists(Serializable id) {
-        get(id) != null
+        (boolean)execute ({ Session session ->
+            // instances saved but not yet flushed are only known to the session
+            if (id != null && session instanceof SessionImplementor) {
+                Serializable key = id
+                Class idType = persistentEntity.identity?.type
+                def conversionService = persistentEntity.mappingContext.conversionService
+                if (idType != null && !idType.isInstance(id) && conversionService.canConvert(id.getClass(), idType)) {
+                    key = (Serializable) conversionService.convert(id, idType)
+                }
+                if (((SessionImplementor) session).getCachedInstance(persistentClass, key) != null) {
+                    return true
+                }
+            }
+            def persister = session.getPersister(persistentClass)
+            if (persister instanceof EntityPersister) {
+                return ((EntityPersister) persister).exists(id)
+            }
+            return session.retrieve((Class)persistentClass, id) != null
+        } as SessionCallback)
     }
 
     /**
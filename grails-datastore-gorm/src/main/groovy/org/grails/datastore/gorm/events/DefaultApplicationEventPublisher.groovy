@@ -1,57 +1,111 @@
 package org.grails.datastore.gorm.events
 
 import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.engine.event.ListenerAwareEventPublisher
 import org.springframework.context.ApplicationEvent
 import org.springframework.context.ApplicationListener
 import org.springframework.context.PayloadApplicationEvent
 import org.springframework.context.event.SmartApplicationListener
 
+import java.util.concurrent.ConcurrentHashMap
+
 /**
- * Simple implementation that just iterates over a sequence of listeners
+ * Simple implementation that dispatches events to a sequence of listeners.
+ *
+ * The listeners interested in an event are resolved once per event type and source type and kept in a dispatch
+ * table, so that publishing an event does not have to ask every {@link SmartApplicationListener} whether it supports
+ * the event. The table is discarded whenever a listener is added.
  *
  * @author Graeme Rocher
  * @since 6.0
  */
 @CompileStatic
-class DefaultApplicationEventPublisher implements ConfigurableApplicationEventPublisher {
+class DefaultApplicationEventPublisher implements ConfigurableApplicationEventPublisher, ListenerAwareEventPublisher {
+
+    private static final ApplicationListener[] NO_LISTENERS = new ApplicationListener[0]
+
+    private volatile List<ApplicationListener> applicationListeners = Collections.emptyList()
+    private volatile Map<Class, Map<Class, ApplicationListener[]>> dispatchTable = new ConcurrentHashMap<>()
 
-    private List<ApplicationListener> applicationListeners = []
     @Override
     void publishEvent(ApplicationEvent event) {
-        for(listener in applicationListeners) {
-            if(listener instanceof SmartApplicationListener) {
-                SmartApplicationListener smartApplicationListener = (SmartApplicationListener) listener
-                if( !smartApplicationListener.supportsEventType((Class<ApplicationEvent>)event.getClass()) ) {
-                    continue
-                }
-                else if(!smartApplicationListener.supportsSourceType(event.source.getClass())) {
-                    continue
-                }
-            }
+        ApplicationListener[] listeners = findListeners(event.getClass(), event.source.getClass())
+        for(listener in listeners) {
             listener.onApplicationEvent(event)
         }
     }
 
     @Override
     void publishEvent(Object event) {
+        if(event instanceof ApplicationEvent) {
+            publishEvent((ApplicationEvent) event)
+            return
+        }
+        ApplicationListener[] listeners = findListeners(PayloadApplicationEvent, getClass())
+        if(listeners.length == 0) {
+            return
+        }
+        def eventObject = new PayloadApplicationEvent<Object>(this, event)
+        for(listener in listeners) {
+            listener.onApplicationEvent(eventObject)
+        }
+    }
+
+    @Override
+    boolean hasListeners(Class<? extends ApplicationEvent> eventType, Class<?> sourceType) {
+        findListeners(eventType, sourceType).length > 0
+    }
+
+    @Override
+    boolean hasListener(Class<?> listenerType) {
+        for(listener in applicationListeners) {
+            if(listenerType.isInstance(listener)) {
+                return true
+            }
+        }
+        return false
+    }
+
+    @Override
+    synchronized void addApplicationListener(ApplicationListener<?> listener) {
+        List<ApplicationListener> newListeners = new ArrayList<>(applicationListeners)
+        newListeners.add(listener)
+        applicationListeners = Collections.unmodifiableList(newListeners)
+        dispatchTable = new ConcurrentHashMap<>()
+    }
+
+    protected ApplicationListener[] findListeners(Class eventType, Class sourceType) {
+        Map<Class, Map<Class, ApplicationListener[]>> table = dispatchTable
+        Map<Class, ApplicationListener[]> bySourceType = table.get(eventType)
+        if(bySourceType == null) {
+            bySourceType = new ConcurrentHashMap<>()
+            Map<Class, ApplicationListener[]> existing = table.putIfAbsent(eventType, bySourceType)
+            if(existing != null) {
+                bySourceType = existing
+            }
+        }
+        ApplicationListener[] listeners = bySourceType.get(sourceType)
+        if(listeners == null) {
+            listeners = resolveListeners(eventType, sourceType)
+            bySourceType.put(sourceType, listeners)
+        }
+        return listeners
+    }
+
+    private ApplicationListener[] resolveListeners(Class eventType, Class sourceType) {
+        List<ApplicationListener> resolved = []
         for(listener in applicationListeners) {
-            def eventObject = new PayloadApplicationEvent<Object>(this, event)
             if(listener instanceof SmartApplicationListener) {
                 SmartApplicationListener smartApplicationListener = (SmartApplicationListener) listener
-                if( !smartApplicationListener.supportsEventType((Class<ApplicationEvent>)eventObject.getClass()) ) {
+                if( !smartApplicationListener.supportsEventType((Class<ApplicationEvent>)eventType) ) {
                     continue
                 }
-                else if(!smartApplicationListener.supportsSourceType(eventObject.source.getClass())) {
+                else if(!smartApplicationListener.supportsSourceType(sourceType)) {
                     continue
                 }
             }
-
-            listener.onApplicationEvent(eventObject)
+            resolved.add(listener)
         }
-    }
-
-    @Override
-    void addApplicationListener(ApplicationListener<?> listener) {
-        applicationListeners.add(listener)
+        return resolved.isEmpty() ? NO_LISTENERS : resolved.toArray(new ApplicationListener[resolved.size()])
     }
 }
@@ -23,8 +23,10 @@ import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
 import org.grails.datastore.mapping.core.Datastore;
+import org.grails.datastore.mapping.core.Session;
 import org.grails.datastore.mapping.core.connections.ConnectionSourcesProvider;
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable;
+import org.grails.datastore.mapping.dirty.checking.DirtyCheckingSupport;
 import org.grails.datastore.mapping.engine.EntityAccess;
 import org.grails.datastore.mapping.engine.event.*;
 import org.grails.datastore.mapping.model.MappingContext;
@@ -229,7 +231,17 @@ public class DomainEventListener extends AbstractPersistenceEventListener
     }
 
     public void afterLoad(final PersistentEntity entity, final EntityAccess ea, PostLoadEvent event) {
-        activateDirtyChecking(ea);
+        // instances loaded by a read-only session are never flushed, so they are marked clean and do not track changes
+        Session session = event != null ? event.getSession() : null;
+        if (session != null && session.isReadOnly()) {
+            Object e = ea.getEntity();
+            if (e instanceof DirtyCheckable) {
+                ((DirtyCheckable) e).trackChanges(DirtyCheckingSupport.READ_ONLY_MARKER);
+            }
+        }
+        else {
+            activateDirtyChecking(ea);
+        }
         if (autowireEntities || ( entity != null &&  entity.getMapping().getMappedForm().isAutowire() )) {
             autowireBeanProperties(ea.getEntity());
         }
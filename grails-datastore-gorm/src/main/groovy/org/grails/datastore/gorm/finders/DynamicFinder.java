@@ -20,7 +20,9 @@ import groovy.lang.MissingMethodException;
 
 import java.lang.reflect.Constructor;
 import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -49,6 +51,7 @@ import org.grails.datastore.gorm.query.criteria.AbstractDetachedCriteria;
 import org.grails.datastore.mapping.core.Datastore;
 import org.grails.datastore.mapping.model.MappingContext;
 import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.model.PersistentProperty;
 import org.grails.datastore.mapping.model.types.Basic;
 import org.grails.datastore.mapping.query.Query;
 import org.grails.datastore.mapping.query.api.BuildableCriteria;
@@ -97,7 +100,10 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
 
     private static final String NOT = "Not";
     private static final Map<String, Constructor> methodExpressions = new LinkedHashMap<String, Constructor>();
+    private static volatile int methodExpressionsVersion;
     protected final MappingContext mappingContext;
+    private final Map<Class, Map<String, DynamicFinderPlan>> finderPlans = new ConcurrentHashMap<>();
+    private final boolean customMethodExpressions;
 
     static {
         defaultOperationPatterns = new Pattern[2];
@@ -133,6 +139,7 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
         this.operators = operators;
         this.operatorPatterns = new Pattern[operators.length];
         populateOperators(operators);
+        this.customMethodExpressions = overridesFindMethodExpression();
     }
 
     protected DynamicFinder(final Pattern pattern, final String[] operators, final MappingContext mappingContext) {
@@ -142,6 +149,7 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
         this.operators = operators;
         this.operatorPatterns = new Pattern[operators.length];
         populateOperators(operators);
+        this.customMethodExpressions = overridesFindMethodExpression();
     }
 
     /**
@@ -155,6 +163,8 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
             methodExpressions.put(methodExpression.getSimpleName(), methodExpression.getConstructor(
                     Class.class, String.class));
             resetMethodExpressionPattern();
+            // previously compiled finder plans may have parsed a clause differently
+            methodExpressionsVersion++;
         } catch (SecurityException e) {
             throw new IllegalArgumentException("Class [" + methodExpression +
                     "] does not provide a constructor that takes parameters of type Class and String: " +
@@ -237,6 +247,7 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
      */
     public void setPattern(String pattern) {
         this.pattern = Pattern.compile(pattern);
+        finderPlans.clear();
     }
 
     /**
@@ -265,90 +276,56 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
     public DynamicFinderInvocation createFinderInvocation(Class clazz, String methodName,
             Closure additionalCriteria, Object[] arguments) {
 
-        List expressions = new ArrayList();
         if (arguments == null) arguments = EMPTY_OBJECT_ARRAY;
         else {
             Object[] tmp = new Object[arguments.length];
             System.arraycopy(arguments,0,tmp, 0, arguments.length);
             arguments = tmp;
         }
-        Matcher match = pattern.matcher(methodName);
-        // find match
-        match.find();
+        DynamicFinderPlan plan = getFinderPlan(clazz, methodName);
+        List<DynamicFinderPlan.ExpressionTemplate> templates = plan.getExpressions();
+        List expressions = new ArrayList(templates.size() + 1);
 
-        String[] queryParameters;
-        int totalRequiredArguments = 0;
-        // get the sequence clauses
-        final String querySequence;
-        int groupCount = match.groupCount();
-        if (groupCount == 6) {
-            String booleanProperty = match.group(3);
-            if (booleanProperty == null) {
-                booleanProperty = match.group(6);
-                querySequence = null;
-            }
-            else {
-                querySequence = match.group(5);
-            }
-            Boolean arg = Boolean.TRUE;
-            if (booleanProperty.matches("Not[A-Z].*")) {
-                booleanProperty = booleanProperty.substring(3);
-                arg = Boolean.FALSE;
-            }
-            MethodExpression booleanExpression = findMethodExpression(clazz, booleanProperty);
-            booleanExpression.setArguments(new Object[]{arg});
+        DynamicFinderPlan.ExpressionTemplate booleanTemplate = plan.getBooleanExpression();
+        if (booleanTemplate != null) {
+            MethodExpression booleanExpression = newMethodExpression(clazz, booleanTemplate);
+            booleanExpression.setArguments(new Object[]{plan.getBooleanValue()});
             expressions.add(booleanExpression);
         }
-        else {
-            querySequence = match.group(2);
-        }
-        // if it contains operator and split
-        boolean containsOperator = false;
-        String operatorInUse = null;
-        if (querySequence != null) {
-            for (int i = 0; i < operators.length; i++) {
-                Matcher currentMatcher = operatorPatterns[i].matcher(querySequence);
-                if (currentMatcher.find()) {
-                    containsOperator = true;
-                    operatorInUse = operators[i];
-
-                    queryParameters = querySequence.split(operatorInUse);
-
-                    // loop through query parameters and create expressions
-                    // calculating the number of arguments required for the expression
-                    int argumentCursor = 0;
-                    for (String queryParameter : queryParameters) {
-                        MethodExpression currentExpression = findMethodExpression(clazz, queryParameter);
-                        final int requiredArgs = currentExpression.getArgumentsRequired();
-                        // populate the arguments into the GrailsExpression from the argument list
-                        Object[] currentArguments = new Object[requiredArgs];
-                        if ((argumentCursor + requiredArgs) > arguments.length) {
-                            throw new MissingMethodException(methodName, clazz, arguments);
-                        }
-
-                        for (int k = 0; k < requiredArgs; k++, argumentCursor++) {
-                            currentArguments[k] = arguments[argumentCursor];
-                        }
-                        currentExpression = getInitializedExpression(currentExpression, currentArguments);
-                        PersistentEntity persistentEntity = mappingContext.getPersistentEntity(clazz.getName());
-
-                        try {
-                            currentExpression.convertArguments(persistentEntity);
-                        } catch (ConversionException e) {
-                            throw new MissingMethodException(methodName, clazz, arguments);
-                        }
 
-                        // add to list of expressions
-                        totalRequiredArguments += currentExpression.argumentsRequired;
-                        expressions.add(currentExpression);
-                    }
-                    break;
+        int totalRequiredArguments = 0;
+        PersistentEntity persistentEntity = plan.getEntity();
+        if (persistentEntity == null) {
+            persistentEntity = mappingContext.getPersistentEntity(clazz.getName());
+        }
+        if (plan.getOperator() != null) {
+            // populate the arguments into each expression from the argument list
+            int argumentCursor = 0;
+            for (DynamicFinderPlan.ExpressionTemplate template : templates) {
+                MethodExpression currentExpression = newMethodExpression(clazz, template);
+                final int requiredArgs = currentExpression.getArgumentsRequired();
+                if ((argumentCursor + requiredArgs) > arguments.length) {
+                    throw new MissingMethodException(methodName, clazz, arguments);
+                }
+                Object[] currentArguments = new Object[requiredArgs];
+                System.arraycopy(arguments, argumentCursor, currentArguments, 0, requiredArgs);
+                argumentCursor += requiredArgs;
+                currentExpression = getInitializedExpression(currentExpression, currentArguments);
+
+                try {
+                    currentExpression.convertArguments(persistentEntity);
+                } catch (ConversionException e) {
+                    throw new MissingMethodException(methodName, clazz, arguments);
                 }
+
+                totalRequiredArguments += currentExpression.argumentsRequired;
+                expressions.add(currentExpression);
             }
         }
         // otherwise there is only one expression
-        if (!containsOperator && querySequence != null) {
-            MethodExpression solo =findMethodExpression(clazz,querySequence);
+        else if (!templates.isEmpty()) {
+            DynamicFinderPlan.ExpressionTemplate template = templates.get(0);
+            MethodExpression solo = newMethodExpression(clazz, template);
 
             final int requiredArguments = solo.getArgumentsRequired();
             if (requiredArguments  > arguments.length) {
@@ -356,14 +333,15 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
             }
 
             totalRequiredArguments += requiredArguments;
-            Object[] soloArgs = new Object[requiredArguments];
-            System.arraycopy(arguments, 0, soloArgs, 0, requiredArguments);
             solo = getInitializedExpression(solo, arguments);
-            PersistentEntity persistentEntity = mappingContext.getPersistentEntity(clazz.getName());
             try {
                 solo.convertArguments(persistentEntity);
             } catch (ConversionException e) {
-                if (!(persistentEntity.getPropertyByName(solo.propertyName) instanceof Basic)) {
+                PersistentProperty property = template.getProperty();
+                if (property == null) {
+                    property = persistentEntity.getPropertyByName(solo.propertyName);
+                }
+                if (!(property instanceof Basic)) {
                     throw new MissingMethodException(methodName, clazz, arguments);
                 }
             }
@@ -379,13 +357,91 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
         // calculate the remaining arguments
         Object[] remainingArguments = new Object[arguments.length - totalRequiredArguments];
         if (remainingArguments.length > 0) {
-            for (int i = 0, j = totalRequiredArguments; i < remainingArguments.length; i++,j++) {
-                remainingArguments[i] = arguments[j];
-            }
+            System.arraycopy(arguments, totalRequiredArguments, remainingArguments, 0, remainingArguments.length);
         }
 
         return new DynamicFinderInvocation(clazz, methodName, remainingArguments,
-                expressions, additionalCriteria, operatorInUse);
+                expressions, additionalCriteria, plan.getOperator());
+    }
+
+    /**
+     * Obtains the compiled plan for the given finder method, parsing the method name on first use only.
+     *
+     * @param clazz The target class
+     * @param methodName The finder method name
+     * @return The plan
+     */
+    public DynamicFinderPlan getFinderPlan(Class clazz, String methodName) {
+        Map<String, DynamicFinderPlan> plansForClass = finderPlans.get(clazz);
+        if (plansForClass == null) {
+            plansForClass = finderPlans.computeIfAbsent(clazz, c -> new ConcurrentHashMap<>());
+        }
+        DynamicFinderPlan plan = plansForClass.get(methodName);
+        if (plan == null || plan.getVersion() != methodExpressionsVersion) {
+            plan = compileFinderPlan(clazz, methodName);
+            plansForClass.put(methodName, plan);
+        }
+        return plan;
+    }
+
+    /**
+     * Parses the given finder method name into a {@link DynamicFinderPlan}
+     *
+     * @param clazz The target class
+     * @param methodName The finder method name
+     * @return The plan
+     */
+    protected DynamicFinderPlan compileFinderPlan(Class clazz, String methodName) {
+        final int version = methodExpressionsVersion;
+        List<DynamicFinderPlan.ExpressionTemplate> expressions = new ArrayList<>();
+        Matcher match = pattern.matcher(methodName);
+        // find match
+        match.find();
+
+        PersistentEntity persistentEntity = mappingContext.getPersistentEntity(clazz.getName());
+        DynamicFinderPlan.ExpressionTemplate booleanExpression = null;
+        Boolean booleanValue = null;
+        // get the sequence clauses
+        final String querySequence;
+        int groupCount = match.groupCount();
+        if (groupCount == 6) {
+            String booleanProperty = match.group(3);
+            if (booleanProperty == null) {
+                booleanProperty = match.group(6);
+                querySequence = null;
+            }
+            else {
+                querySequence = match.group(5);
+            }
+            booleanValue = Boolean.TRUE;
+            if (booleanProperty.matches("Not[A-Z].*")) {
+                booleanProperty = booleanProperty.substring(3);
+                booleanValue = Boolean.FALSE;
+            }
+            booleanExpression = parseMethodExpression(booleanProperty);
+        }
+        else {
+            querySequence = match.group(2);
+        }
+        // if it contains operator and split
+        String operatorInUse = null;
+        if (querySequence != null) {
+            for (int i = 0; i < operators.length; i++) {
+                Matcher currentMatcher = operatorPatterns[i].matcher(querySequence);
+                if (currentMatcher.find()) {
+                    operatorInUse = operators[i];
+                    for (String queryParameter : querySequence.split(operatorInUse)) {
+                        expressions.add(resolveProperty(persistentEntity, parseMethodExpression(queryParameter)));
+                    }
+                    break;
+                }
+            }
+            // otherwise there is only one expression
+            if (operatorInUse == null) {
+                expressions.add(resolveProperty(persistentEntity, parseMethodExpression(querySequence)));
+            }
+        }
+        return new DynamicFinderPlan(methodName, persistentEntity, booleanExpression, booleanValue, expressions, operatorInUse, version);
     }
 
     public Object invoke(final Class clazz, String methodName, Object[] arguments) {
@@ -634,7 +690,10 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
     }
 
     private static MethodExpression findMethodExpressionInternal(final Class clazz, String expression) {
-        MethodExpression me = null;
+        return parseMethodExpression(expression).newExpression(clazz);
+    }
+
+    private static DynamicFinderPlan.ExpressionTemplate parseMethodExpression(String expression) {
         final Matcher matcher = methodExpressinPattern.matcher(expression);
         Class methodExpressionClass = Equal.class;
         Constructor methodExpressionConstructor = null;
@@ -660,41 +719,28 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
         }
 
         propertyName = NameUtils.decapitalizeFirstChar(propertyName);
-        if(methodExpressionConstructor != null) {
-            try {
-                me = (MethodExpression) methodExpressionConstructor.newInstance(clazz, propertyName);
-            } catch (Exception e) {
-                // ignore
-            }
+        return new DynamicFinderPlan.ExpressionTemplate(expression, propertyName, methodExpressionConstructor, negation);
+    }
+
+    private static DynamicFinderPlan.ExpressionTemplate resolveProperty(PersistentEntity persistentEntity, DynamicFinderPlan.ExpressionTemplate template) {
+        if (persistentEntity == null) {
+            return template;
         }
-        if (me == null) {
-            me = new Equal(clazz, propertyName);
+        PersistentProperty property = persistentEntity.getPropertyByName(template.getPropertyName());
+        if (property == null) {
+            PersistentProperty identity = persistentEntity.getIdentity();
+            if (identity != null && template.getPropertyName().equals(identity.getName())) {
+                property = identity;
+            }
         }
-        if(negation) {
-            final MethodExpression finalMe = me;
-            return new MethodExpression(clazz, propertyName) {
-                @Override
-                public Query.Criterion createCriterion() {
-                    return new Query.Negation().add(finalMe.createCriterion());
-                }
-
-                @Override
-                public void setArguments(Object[] arguments) {
-                    finalMe.setArguments(arguments);
-                }
-
-                @Override
-                public int getArgumentsRequired() {
-                    return finalMe.getArgumentsRequired();
-                }
+        return property == null ? template : template.withProperty(property);
+    }
 
-                @Override
-                public Object[] getArguments() {
-                    return finalMe.getArguments();
-                }
-            };
+    private MethodExpression newMethodExpression(Class clazz, DynamicFinderPlan.ExpressionTemplate template) {
+        if (customMethodExpressions) {
+            return findMethodExpression(clazz, template.getClause());
         }
-        return me;
+        return template.newExpression(clazz);
     }
 
     private static void handleFetchType(BuildableCriteria q, String associationName, FetchType fetchType) {
@@ -726,6 +772,11 @@ public abstract class DynamicFinder extends AbstractFinder implements QueryBuild
         q.order(o);
     }
 
+    private boolean overridesFindMethodExpression() {
+        Method method = ReflectionUtils.findMethod(getClass(), "findMethodExpression", Class.class, String.class);
+        return method != null && method.getDeclaringClass() != DynamicFinder.class;
+    }
+
     private void populateOperators(String[] operators) {
         for (int i = 0; i < operators.length; i++) {
             operatorPatterns[i] = Pattern.compile("(\\w+)(" + operators[i] + ")(\\p{Upper})(\\w+)");
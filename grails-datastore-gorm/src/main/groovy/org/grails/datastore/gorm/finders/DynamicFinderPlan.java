@@ -0,0 +1,226 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.finders;
+
+import org.grails.datastore.mapping.model.PersistentEntity;
+import org.grails.datastore.mapping.model.PersistentProperty;
+import org.grails.datastore.mapping.query.Query;
+
+import java.lang.reflect.Constructor;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * An immutable, precompiled form of a dynamic finder method name for a given class. Parsing the method name into
+ * expressions is done once, so that invoking the finder only involves binding the arguments to fresh
+ * {@link MethodExpression} instances and executing the query.
+ *
+ * @since 9.0
+ */
+@SuppressWarnings("rawtypes")
+public final class DynamicFinderPlan {
+
+    private final String methodName;
+    private final PersistentEntity entity;
+    private final ExpressionTemplate booleanExpression;
+    private final Boolean booleanValue;
+    private final List<ExpressionTemplate> expressions;
+    private final String operator;
+    private final int requiredArguments;
+    private final int version;
+
+    DynamicFinderPlan(String methodName, PersistentEntity entity, ExpressionTemplate booleanExpression, Boolean booleanValue,
+                      List<ExpressionTemplate> expressions, String operator, int version) {
+        this.methodName = methodName;
+        this.entity = entity;
+        this.booleanExpression = booleanExpression;
+        this.booleanValue = booleanValue;
+        this.expressions = Collections.unmodifiableList(expressions);
+        this.operator = operator;
+        this.version = version;
+        int required = 0;
+        for (ExpressionTemplate expression : expressions) {
+            required += expression.getArgumentsRequired();
+        }
+        this.requiredArguments = required;
+    }
+
+    /**
+     * @return The finder method name
+     */
+    public String getMethodName() {
+        return methodName;
+    }
+
+    /**
+     * @return The entity the finder was compiled for, or null if it was not known to the mapping context at the time
+     */
+    public PersistentEntity getEntity() {
+        return entity;
+    }
+
+    /**
+     * @return The expression for the boolean property of finders such as <code>findAllActiveBy</code>, if any
+     */
+    public ExpressionTemplate getBooleanExpression() {
+        return booleanExpression;
+    }
+
+    /**
+     * @return The value the boolean property is compared against
+     */
+    public Boolean getBooleanValue() {
+        return booleanValue;
+    }
+
+    /**
+     * @return The expressions in the order they appear in the method name
+     */
+    public List<ExpressionTemplate> getExpressions() {
+        return expressions;
+    }
+
+    /**
+     * @return The operator joining the expressions or null if there is a single expression
+     */
+    public String getOperator() {
+        return operator;
+    }
+
+    /**
+     * @return The total number of arguments consumed by the expressions
+     */
+    public int getRequiredArguments() {
+        return requiredArguments;
+    }
+
+    int getVersion() {
+        return version;
+    }
+
+    /**
+     * A parsed clause of a finder method name such as <code>AgeGreaterThan</code>.
+     */
+    public static final class ExpressionTemplate {
+        private final String clause;
+        private final String propertyName;
+        private final Constructor constructor;
+        private final boolean negation;
+        private final int argumentsRequired;
+        private final PersistentProperty property;
+
+        ExpressionTemplate(String clause, String propertyName, Constructor constructor, boolean negation) {
+            this.clause = clause;
+            this.propertyName = propertyName;
+            this.constructor = constructor;
+            this.negation = negation;
+            this.property = null;
+            this.argumentsRequired = newExpression(null).getArgumentsRequired();
+        }
+
+        private ExpressionTemplate(String clause, String propertyName, Constructor constructor, boolean negation, int argumentsRequired, PersistentProperty property) {
+            this.clause = clause;
+            this.propertyName = propertyName;
+            this.constructor = constructor;
+            this.negation = negation;
+            this.argumentsRequired = argumentsRequired;
+            this.property = property;
+        }
+
+        ExpressionTemplate withProperty(PersistentProperty property) {
+            return new ExpressionTemplate(clause, propertyName, constructor, negation, argumentsRequired, property);
+        }
+
+        /**
+         * @return The clause of the method name this expression was parsed from
+         */
+        public String getClause() {
+            return clause;
+        }
+
+        /**
+         * @return The name of the property the expression applies to
+         */
+        public String getPropertyName() {
+            return propertyName;
+        }
+
+        /**
+         * @return The resolved property, or null if it could not be resolved
+         */
+        public PersistentProperty getProperty() {
+            return property;
+        }
+
+        /**
+         * @return Whether the expression is negated
+         */
+        public boolean isNegation() {
+            return negation;
+        }
+
+        /**
+         * @return The number of arguments the expression consumes
+         */
+        public int getArgumentsRequired() {
+            return argumentsRequired;
+        }
+
+        /**
+         * Creates a new, unbound {@link MethodExpression} for this clause
+         *
+         * @param clazz The target class
+         * @return The expression
+         */
+        public MethodExpression newExpression(Class clazz) {
+            MethodExpression me = null;
+            if (constructor != null) {
+                try {
+                    me = (MethodExpression) constructor.newInstance(clazz, propertyName);
+                } catch (Exception e) {
+                    // ignore
+                }
+            }
+            if (me == null) {
+                me = new MethodExpression.Equal(clazz, propertyName);
+            }
+            if (negation) {
+                final MethodExpression finalMe = me;
+                return new MethodExpression(clazz, propertyName) {
+                    @Override
+                    public Query.Criterion createCriterion() {
+                        return new Query.Negation().add(finalMe.createCriterion());
+                    }
+
+                    @Override
+                    public void setArguments(Object[] arguments) {
+                        finalMe.setArguments(arguments);
+                    }
+
+                    @Override
+                    public int getArgumentsRequired() {
+                        return finalMe.getArgumentsRequired();
+                    }
+
+                    @Override
+                    public Object[] getArguments() {
+                        return finalMe.getArguments();
+                    }
+                };
+            }
+            return me;
+        }
+    }
+}
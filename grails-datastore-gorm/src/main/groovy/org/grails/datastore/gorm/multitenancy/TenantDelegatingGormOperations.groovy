@@ -4,13 +4,23 @@ import grails.gorm.DetachedCriteria
 import grails.gorm.api.GormAllOperations
 import grails.gorm.multitenancy.Tenants
 import groovy.transform.CompileStatic
+import org.grails.datastore.gorm.CurrentTenant
+import org.grails.datastore.gorm.GormEnhancer
 import org.grails.datastore.gorm.finders.FinderMethod
 import org.grails.datastore.mapping.core.Datastore
+import org.grails.datastore.mapping.core.DatastoreUtils
+import org.grails.datastore.mapping.core.Session
 import org.grails.datastore.mapping.model.PersistentEntity
+import org.grails.datastore.mapping.multitenancy.MultiTenantCapableDatastore
 import org.grails.datastore.mapping.query.api.BuildableCriteria
 import org.grails.datastore.mapping.query.api.Criteria
 import org.springframework.transaction.TransactionDefinition
 
+import java.util.Spliterator
+import java.util.Spliterators
+import java.util.stream.Stream
+import java.util.stream.StreamSupport
+
 /**
  * Wraps each method call in the the given tenant id
  *
@@ -193,6 +203,20 @@ class TenantDelegatingGormOperations<D> implements GormAllOperations<D> {
         }
     }
 
+    @Override
+    Stream<D> stream(Closure callable) {
+        tenantStream {
+            allOperations.stream(callable)
+        }
+    }
+
+    @Override
+    Stream<D> stream(Map args, Closure callable) {
+        tenantStream {
+            allOperations.stream(args, callable)
+        }
+    }
+
     @Override
     D find(Closure callable) {
         Tenants.withId((Class<Datastore>)datastore.getClass(), tenantId) {
@@ -744,4 +768,57 @@ class TenantDelegatingGormOperations<D> implements GormAllOperations<D> {
     GormAllOperations<D> withTenant(Serializable tenantId) {
         allOperations.withTenant(tenantId)
     }
+
+    /**
+     * Opens a stream for the tenant. Streams read their results lazily, so every result is read within the scope of the tenant
+     * and, if each tenant has its own connection, the session of the tenant is kept open until the stream is closed.
+     */
+    private Stream<D> tenantStream(Closure<Stream<D>> openStream) {
+        Datastore targetDatastore = GormEnhancer.findDatastoreByType((Class<Datastore>)datastore.getClass())
+        if (!(targetDatastore instanceof MultiTenantCapableDatastore)) {
+            throw new UnsupportedOperationException("Datastore implementation does not support multi-tenancy")
+        }
+        MultiTenantCapableDatastore multiTenantCapableDatastore = (MultiTenantCapableDatastore)targetDatastore
+        Session session = multiTenantCapableDatastore.multiTenancyMode.isSharedConnection() ? null :
+                multiTenantCapableDatastore.getDatastoreForTenantId(tenantId).connect()
+        try {
+            Stream<D> stream = withinTenant(session, openStream)
+            Iterator<D> results = stream.iterator()
+            Iterator<D> tenantResults = new Iterator<D>() {
+                @Override
+                boolean hasNext() {
+                    (boolean)withinTenant(session) { results.hasNext() }
+                }
+
+                @Override
+                D next() {
+                    (D)withinTenant(session) { results.next() }
+                }
+            }
+            return StreamSupport.stream(Spliterators.spliteratorUnknownSize(tenantResults, Spliterator.ORDERED), false).onClose {
+                try {
+                    stream.close()
+                } finally {
+                    session?.disconnect()
+                }
+            }
+        } catch (Throwable e) {
+            session?.disconnect()
+            throw e
+        }
+    }
+
+    private <T> T withinTenant(Session session, Closure<T> callable) {
+        CurrentTenant.withTenant(tenantId) {
+            if (session == null) {
+                return callable.call()
+            }
+            DatastoreUtils.bindNewSession(session)
+            try {
+                return callable.call()
+            } finally {
+                DatastoreUtils.unbindSession(session)
+            }
+        }
+    }
 }
@@ -52,45 +52,32 @@ class UniqueConstraint extends AbstractConstraint {
 
     @Override
     protected void processValidate(Object target, Object propertyValue, Errors errors) {
-
-        DetachedCriteria detachedCriteria = new DetachedCriteria(constraintOwningClass)
-
-        MappingContext mappingContext = detachedCriteria.getPersistentEntity()
-                                                        .getMappingContext()
-        PersistentEntity targetEntity = mappingContext.getPersistentEntity(mappingContext.getProxyHandler().getProxiedClass(target).getName())
-
-        // Determine the GORM class that actually defines this field
-        Class<?> constraintClass = constraintOwningClass
-        if (!targetEntity.isRoot()) {
-            def property = targetEntity.getPropertyByName(constraintPropertyName)
-            while (property.isInherited() && targetEntity != null) {
-                targetEntity = mappingContext.getPersistentEntity(targetEntity.javaClass.superclass.name)
-                if (targetEntity != null) {
-                    property = targetEntity.getPropertyByName(constraintPropertyName)
-                }
+        UniqueConstraintBatch batch = UniqueConstraintBatch.current()
+        Boolean violated = batch != null ? batch.isViolated(this, target) : null
+        if (violated != null) {
+            if (violated) {
+                rejectNotUnique(target, errors, propertyValue)
             }
-            constraintClass = targetEntity != null? targetEntity.javaClass: constraintClass
+            return
         }
 
-        // Re-create the detached criteria based on the new constraint class
-        detachedCriteria = new DetachedCriteria(constraintClass)
+        MappingContext mappingContext = new DetachedCriteria(constraintOwningClass).getPersistentEntity()
+                                                                                    .getMappingContext()
+        PersistentEntity targetEntity = resolveDefiningEntity(mappingContext, target)
 
         if(targetEntity == null) {
             throw new IllegalStateException("Cannot validate object [$target]. It is not a persistent entity")
         }
 
+        // Re-create the detached criteria based on the new constraint class
+        DetachedCriteria detachedCriteria = new DetachedCriteria(targetEntity.javaClass)
+
         EntityReflector reflector = targetEntity.reflector
         String constraintPropertyName = this.constraintPropertyName
         List group = this.group
-        
-        if(target instanceof DirtyCheckable) {
-            Boolean anyChanges = target.hasChanged(constraintPropertyName)
-            for(prop in group) {
-                anyChanges |= target.hasChanged(prop.toString())
-            }
-            if(!anyChanges) {
-                return
-            }
+
+        if(!hasChanges(target)) {
+            return
         }
 
         PersistentProperty persistentProperty = targetEntity.getPropertyByName(constraintPropertyName)
@@ -144,26 +131,178 @@ class UniqueConstraint extends AbstractConstraint {
             if (shouldValidate) {
                 def existingId = detachedCriteria.get()
                 if (existingId != null) {
-                    // We are merely verifying that the object is not transient here
-                    def targetId
-                    if (proxyHandler.isProxy(target)) {
-                        if (proxyHandler.isInitialized(target)) {
-                            targetId = reflector.getIdentifier(proxyHandler.unwrap(target))
-                        } else {
-                            targetId = proxyHandler.getIdentifier(target)
+                    def targetId = identifierOf(target, reflector, proxyHandler)
+                    if (targetId != existingId) {
+                        rejectNotUnique(target, errors, propertyValue)
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks the uniqueness of many instances of the same type at once, see {@link UniqueConstraintBatch}. The values of the instances are
+     * checked against each other in memory and against the datastore with one {@code in} query per chunk of values.
+     *
+     * @param targets The instances, all of the same type
+     * @param chunkSize The maximum number of values checked by a single query
+     * @return Whether the value of each instance violates the constraint, by identity. Instances missing from the result are validated
+     * individually, which is the case for unique associations and for values the datastore considers equal but Groovy does not.
+     */
+    Map<Object, Boolean> validateBatch(List<Object> targets, int chunkSize) {
+        Map<Object, Boolean> results = new IdentityHashMap<>()
+        if (!constraintParameter || targets.isEmpty()) {
+            return results
+        }
+        MappingContext mappingContext = new DetachedCriteria(constraintOwningClass).getPersistentEntity()
+                                                                                    .getMappingContext()
+        PersistentEntity targetEntity = resolveDefiningEntity(mappingContext, targets.get(0))
+        PersistentProperty persistentProperty = targetEntity?.getPropertyByName(constraintPropertyName)
+        if (persistentProperty == null || persistentProperty instanceof Association) {
+            return results
+        }
+        EntityReflector reflector = targetEntity.reflector
+        ProxyHandler proxyHandler = mappingContext.proxyHandler
+
+        // duplicates within the batch
+        Map<List<Object>, Object> firstByKey = new HashMap<>()
+        Map<Object, List<Object>> candidatesByValue = new LinkedHashMap<>()
+        Map<Object, List<Object>> groupValuesByTarget = new IdentityHashMap<>()
+        for (Object target in targets) {
+            Object value = reflector.getProperty(target, constraintPropertyName)
+            if (value == null) {
+                // null values are not validated by the constraint
+                continue
+            }
+            List<Object> groupValues = groupValuesOf(target, targetEntity, reflector, proxyHandler)
+            if (groupValues == null || !hasChanges(target)) {
+                results.put(target, false)
+                continue
+            }
+            List<Object> key = [value]
+            key.addAll(groupValues)
+            Object first = firstByKey.get(key)
+            if (first != null) {
+                Object firstId = identifierOf(first, reflector, proxyHandler)
+                results.put(target, firstId == null || firstId != identifierOf(target, reflector, proxyHandler))
+                continue
+            }
+            firstByKey.put(key, target)
+            results.put(target, false)
+            groupValuesByTarget.put(target, groupValues)
+            List<Object> candidates = candidatesByValue.get(value)
+            if (candidates == null) {
+                candidates = []
+                candidatesByValue.put(value, candidates)
+            }
+            candidates.add(target)
+        }
+
+        // conflicts with persisted instances
+        List<Object> values = new ArrayList<>(candidatesByValue.keySet())
+        for (int i = 0; i < values.size(); i += chunkSize) {
+            List<Object> chunk = values.subList(i, Math.min(i + chunkSize, values.size()))
+            List existing = new DetachedCriteria(targetEntity.javaClass).inList(constraintPropertyName, chunk).list()
+            for (Object row in existing) {
+                List<Object> candidates = candidatesByValue.get(reflector.getProperty(row, constraintPropertyName))
+                if (candidates == null) {
+                    // the datastore matched a value Groovy considers different, for example because of a case insensitive collation
+                    for (Object value in chunk) {
+                        for (Object target in candidatesByValue.get(value)) {
+                            results.remove(target)
                         }
-                    } else {
-                        targetId = reflector.getIdentifier(target)
                     }
-                    if (targetId != existingId) {
-                        def args = [constraintPropertyName, constraintOwningClass, propertyValue] as Object[]
-                        rejectValue(target, errors, "unique", args, getDefaultMessage("default.not.unique.message"))
+                    break
+                }
+                Object rowId = reflector.getIdentifier(row)
+                List<Object> rowGroupValues = groupValuesOf(row, targetEntity, reflector, proxyHandler)
+                for (Object target in candidates) {
+                    if (results.get(target) || rowId == identifierOf(target, reflector, proxyHandler)) {
+                        continue
+                    }
+                    if (groupMatches(groupValuesByTarget.get(target), rowGroupValues)) {
+                        results.put(target, true)
                     }
                 }
             }
         }
+        return results
+    }
+
+    /**
+     * Determines the GORM class that actually defines the constrained property
+     */
+    protected PersistentEntity resolveDefiningEntity(MappingContext mappingContext, Object target) {
+        PersistentEntity targetEntity = mappingContext.getPersistentEntity(mappingContext.getProxyHandler().getProxiedClass(target).getName())
+        if (targetEntity != null && !targetEntity.isRoot()) {
+            def property = targetEntity.getPropertyByName(constraintPropertyName)
+            while (property.isInherited() && targetEntity != null) {
+                targetEntity = mappingContext.getPersistentEntity(targetEntity.javaClass.superclass.name)
+                if (targetEntity != null) {
+                    property = targetEntity.getPropertyByName(constraintPropertyName)
+                }
+            }
+        }
+        return targetEntity
+    }
+
+    protected void rejectNotUnique(Object target, Errors errors, Object propertyValue) {
+        def args = [constraintPropertyName, constraintOwningClass, propertyValue] as Object[]
+        rejectValue(target, errors, "unique", args, getDefaultMessage("default.not.unique.message"))
+    }
+
+    private boolean hasChanges(Object target) {
+        if(target instanceof DirtyCheckable) {
+            boolean anyChanges = target.hasChanged(constraintPropertyName)
+            for(prop in group) {
+                anyChanges |= target.hasChanged(prop.toString())
+            }
+            return anyChanges
+        }
+        return true
+    }
+
+    /**
+     * @return The values of the group properties with associations replaced by their identifier, or null if an association is unsaved
+     */
+    private List<Object> groupValuesOf(Object instance, PersistentEntity targetEntity, EntityReflector reflector, ProxyHandler proxyHandler) {
+        List<Object> groupValues = new ArrayList<>(group.size())
+        for (prop in group) {
+            String propName = prop.toString()
+            Object value = reflector.getProperty(instance, propName)
+            PersistentProperty associated = targetEntity.getPropertyByName(propName)
+            if (value != null && associated instanceof ToOne) {
+                value = proxyHandler.isProxy(value) ? proxyHandler.getIdentifier(value) : ((Association) associated).getAssociatedEntity().getReflector().getIdentifier(value)
+                if (value == null) {
+                    return null
+                }
+            }
+            groupValues.add(value)
+        }
+        return groupValues
     }
 
+    private static boolean groupMatches(List<Object> targetGroupValues, List<Object> rowGroupValues) {
+        for (int i = 0; i < targetGroupValues.size(); i++) {
+            Object value = targetGroupValues.get(i)
+            // like the query of a single instance, a null group value matches any value
+            if (value != null && value != rowGroupValues.get(i)) {
+                return false
+            }
+        }
+        return true
+    }
+
+    private static Object identifierOf(Object target, EntityReflector reflector, ProxyHandler proxyHandler) {
+        // We are merely verifying that the object is not transient here
+        if (proxyHandler.isProxy(target)) {
+            if (proxyHandler.isInitialized(target)) {
+                return reflector.getIdentifier(proxyHandler.unwrap(target))
+            }
+            return proxyHandler.getIdentifier(target)
+        }
+        return reflector.getIdentifier(target)
+    }
 
     @Override
     boolean supports(Class type) {
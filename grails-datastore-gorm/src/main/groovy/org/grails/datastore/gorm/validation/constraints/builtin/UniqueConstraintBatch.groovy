@@ -0,0 +1,155 @@
+/* Copyright (C) original authors
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.grails.datastore.gorm.validation.constraints.builtin
+
+import grails.gorm.validation.ConstrainedEntity
+import grails.gorm.validation.ConstrainedProperty
+import grails.gorm.validation.Constraint
+import groovy.transform.CompileStatic
+import org.grails.datastore.mapping.model.MappingContext
+import org.grails.datastore.mapping.model.PersistentEntity
+import org.springframework.validation.Validator
+
+/**
+ * Resolves the {@link UniqueConstraint unique constraints} of many instances at once. Instead of one query per instance and unique
+ * property, the candidate values of each unique property are checked with one {@code in} query per chunk, and duplicates within the
+ * instances themselves are detected in memory.
+ *
+ * <p>While the closure passed to {@link #withBatch(MappingContext, Iterable, Closure)} runs, validating one of the instances uses the
+ * resolved result instead of querying the datastore. Instances that are modified after the batch was prepared may therefore be validated
+ * against stale values, so the instances should be fully populated before the batch is created.</p>
+ *
+ * @since 9.0
+ */
+@CompileStatic
+class UniqueConstraintBatch {
+
+    /**
+     * The default number of values checked by a single query
+     */
+    public static final int DEFAULT_CHUNK_SIZE = 500
+
+    private static final ThreadLocal<UniqueConstraintBatch> CURRENT = new ThreadLocal<>()
+
+    private final Map<UniqueConstraint, Map<Object, Boolean>> results = new IdentityHashMap<>()
+
+    /**
+     * @return The batch bound to the current thread, if any
+     */
+    static UniqueConstraintBatch current() {
+        CURRENT.get()
+    }
+
+    /**
+     * Resolves the unique constraints of the given instances and runs the closure with the results bound to the current thread
+     *
+     * @param mappingContext The mapping context of the instances
+     * @param instances The instances that will be validated
+     * @param callable The closure validating or saving the instances
+     * @return The result of the closure
+     */
+    static <T> T withBatch(MappingContext mappingContext, Iterable<?> instances, Closure<T> callable) {
+        withBatch(mappingContext, instances, DEFAULT_CHUNK_SIZE, callable)
+    }
+
+    /**
+     * Resolves the unique constraints of the given instances and runs the closure with the results bound to the current thread
+     *
+     * @param mappingContext The mapping context of the instances
+     * @param instances The instances that will be validated
+     * @param chunkSize The maximum number of values checked by a single query
+     * @param callable The closure validating or saving the instances
+     * @return The result of the closure
+     */
+    static <T> T withBatch(MappingContext mappingContext, Iterable<?> instances, int chunkSize, Closure<T> callable) {
+        UniqueConstraintBatch batch = prepare(mappingContext, instances, chunkSize)
+        if (batch.isEmpty()) {
+            return callable.call()
+        }
+        UniqueConstraintBatch previous = CURRENT.get()
+        CURRENT.set(batch)
+        try {
+            return callable.call()
+        } finally {
+            if (previous == null) {
+                CURRENT.remove()
+            } else {
+                CURRENT.set(previous)
+            }
+        }
+    }
+
+    /**
+     * Resolves the unique constraints of the given instances
+     *
+     * @param mappingContext The mapping context of the instances
+     * @param instances The instances
+     * @param chunkSize The maximum number of values checked by a single query
+     * @return The batch
+     */
+    static UniqueConstraintBatch prepare(MappingContext mappingContext, Iterable<?> instances, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new IllegalArgumentException("Argument [chunkSize] must be greater than zero")
+        }
+        UniqueConstraintBatch batch = new UniqueConstraintBatch()
+        Map<Class, List<Object>> instancesByType = new LinkedHashMap<>()
+        for (Object instance in instances) {
+            if (instance != null) {
+                Class type = mappingContext.proxyHandler.getProxiedClass(instance)
+                List<Object> sameType = instancesByType.get(type)
+                if (sameType == null) {
+                    sameType = []
+                    instancesByType.put(type, sameType)
+                }
+                sameType.add(instance)
+            }
+        }
+        for (Map.Entry<Class, List<Object>> entry in instancesByType.entrySet()) {
+            PersistentEntity entity = mappingContext.getPersistentEntity(entry.key.name)
+            Validator validator = entity != null ? mappingContext.getEntityValidator(entity) : null
+            if (!(validator instanceof ConstrainedEntity)) {
+                continue
+            }
+            for (ConstrainedProperty constrainedProperty in ((ConstrainedEntity) validator).constrainedProperties.values()) {
+                Constraint constraint = constrainedProperty.getAppliedConstraint(UniqueConstraint.NAME)
+                if (constraint instanceof UniqueConstraint) {
+                    UniqueConstraint uniqueConstraint = (UniqueConstraint) constraint
+                    Map<Object, Boolean> resolved = uniqueConstraint.validateBatch(entry.value, chunkSize)
+                    if (!resolved.isEmpty()) {
+                        batch.results.put(uniqueConstraint, resolved)
+                    }
+                }
+            }
+        }
+        return batch
+    }
+
+    /**
+     * @param constraint The constraint
+     * @param target The validated instance
+     * @return Whether the value of the instance violates the constraint, or null if the batch does not cover the instance
+     */
+    Boolean isViolated(UniqueConstraint constraint, Object target) {
+        Map<Object, Boolean> resolved = results.get(constraint)
+        return resolved != null ? resolved.get(target) : null
+    }
+
+    /**
+     * @return Whether the batch covers no instance
+     */
+    boolean isEmpty() {
+        results.isEmpty()
+    }
+}
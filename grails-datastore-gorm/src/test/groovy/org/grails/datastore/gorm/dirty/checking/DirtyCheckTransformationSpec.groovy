@@ -2,7 +2,9 @@ package org.grails.datastore.gorm.dirty.checking
 
 import grails.gorm.annotation.Entity
 import grails.gorm.dirty.checking.DirtyCheck
+import org.grails.compiler.gorm.DirtyCheckingTransformer
 import org.grails.datastore.mapping.dirty.checking.DirtyCheckable
+import org.grails.datastore.mapping.dirty.checking.DirtyCheckingSupport
 import spock.lang.Ignore
 import spock.lang.Specification
 import spock.lang.Issue
@@ -448,6 +450,51 @@ class Practice {
         child.hasChanged("name")
         child.hasChanged("parent")
     }
+
+    void "Test generated setters track changes by property index"() {
+        given:
+        KidsBook book = new KidsBook(title: "The Gruffalo", age: 3)
+        book.trackChanges()
+
+        expect: "each generated setter resolves a distinct index within the class hierarchy"
+        indexOf(Book, "title") != indexOf(KidsBook, "age")
+        indexOf(Book, "title") == DirtyCheckingSupport.propertyIndex(KidsBook, "title")
+        !book.hasChanged()
+        book.listDirtyPropertyNames().isEmpty()
+
+        when: "a property is set to the same value"
+        book.title = "The Gruffalo"
+
+        then:
+        !book.hasChanged()
+
+        when: "properties are changed"
+        book.title = "The Gruffalo's Child"
+        book.age = 4
+        book.title = "Room on the Broom"
+
+        then: "the original values are kept"
+        book.hasChanged()
+        book.hasChanged("title")
+        book.hasChanged("age")
+        !book.hasChanged("releaseDate")
+        book.getOriginalValue("title") == "The Gruffalo"
+        book.getOriginalValue("age") == 3
+        book.listDirtyPropertyNames() == ["title", "age"]
+
+        when: "changes are tracked again"
+        book.trackChanges()
+
+        then:
+        !book.hasChanged()
+        !book.hasChanged("title")
+    }
+
+    private static int indexOf(Class type, String propertyName) {
+        def field = type.getDeclaredField(DirtyCheckingTransformer.DIRTY_CHECKING_INDEX_FIELD_PREFIX + propertyName)
+        field.accessible = true
+        field.getInt(null)
+    }
 }
 
 @DirtyCheck
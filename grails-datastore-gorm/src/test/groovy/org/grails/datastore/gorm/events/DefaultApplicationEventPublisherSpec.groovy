@@ -0,0 +1,113 @@
+package org.grails.datastore.gorm.events
+
+import org.springframework.context.ApplicationEvent
+import org.springframework.context.ApplicationListener
+import org.springframework.context.PayloadApplicationEvent
+import org.springframework.context.event.SmartApplicationListener
+import spock.lang.Specification
+
+class DefaultApplicationEventPublisherSpec extends Specification {
+
+    DefaultApplicationEventPublisher publisher = new DefaultApplicationEventPublisher()
+
+    void "test events are only dispatched to listeners supporting the event and source type"() {
+        given:
+        RecordingListener fooListener = new RecordingListener(eventType: FooEvent, sourceType: String)
+        RecordingListener barListener = new RecordingListener(eventType: BarEvent, sourceType: String)
+        List<ApplicationEvent> all = []
+        publisher.addApplicationListener(fooListener)
+        publisher.addApplicationListener(barListener)
+        publisher.addApplicationListener({ ApplicationEvent event -> all << event } as ApplicationListener<ApplicationEvent>)
+
+        when:
+        publisher.publishEvent(new FooEvent("source"))
+        publisher.publishEvent(new FooEvent("source"))
+        publisher.publishEvent(new BarEvent(1))
+
+        then:
+        fooListener.received.size() == 2
+        barListener.received.isEmpty()
+        all.size() == 3
+        fooListener.supportChecks == 2
+    }
+
+    void "test the dispatch table is rebuilt when a listener is added"() {
+        given:
+        RecordingListener first = new RecordingListener(eventType: FooEvent, sourceType: String)
+        RecordingListener second = new RecordingListener(eventType: FooEvent, sourceType: String)
+        publisher.addApplicationListener(first)
+
+        when:
+        publisher.publishEvent(new FooEvent("source"))
+        publisher.addApplicationListener(second)
+        publisher.publishEvent(new FooEvent("source"))
+
+        then:
+        first.received.size() == 2
+        second.received.size() == 1
+    }
+
+    void "test whether listeners are registered for an event type"() {
+        given:
+        publisher.addApplicationListener(new RecordingListener(eventType: FooEvent, sourceType: String))
+
+        expect:
+        publisher.hasListeners(FooEvent, String)
+        !publisher.hasListeners(FooEvent, Integer)
+        !publisher.hasListeners(BarEvent, String)
+        publisher.hasListener(RecordingListener)
+        !publisher.hasListener(Runnable)
+    }
+
+    void "test payload events are created once and only when there are listeners"() {
+        given:
+        RecordingListener payloadListener = new RecordingListener(eventType: PayloadApplicationEvent, sourceType: DefaultApplicationEventPublisher)
+        RecordingListener otherListener = new RecordingListener(eventType: PayloadApplicationEvent, sourceType: DefaultApplicationEventPublisher)
+
+        when:
+        publisher.publishEvent((Object) "ignored")
+        publisher.addApplicationListener(payloadListener)
+        publisher.addApplicationListener(otherListener)
+        publisher.publishEvent((Object) "payload")
+
+        then:
+        payloadListener.received.size() == 1
+        ((PayloadApplicationEvent) payloadListener.received[0]).payload == "payload"
+        payloadListener.received[0].is(otherListener.received[0])
+    }
+}
+
+class FooEvent extends ApplicationEvent {
+    FooEvent(Object source) {
+        super(source)
+    }
+}
+
+class BarEvent extends ApplicationEvent {
+    BarEvent(Object source) {
+        super(source)
+    }
+}
+
+class RecordingListener implements SmartApplicationListener {
+    Class<? extends ApplicationEvent> eventType
+    Class<?> sourceType
+    List<ApplicationEvent> received = []
+    int supportChecks = 0
+
+    @Override
+    boolean supportsEventType(Class<? extends ApplicationEvent> type) {
+        supportChecks++
+        eventType.isAssignableFrom(type)
+    }
+
+    @Override
+    boolean supportsSourceType(Class<?> type) {
+        sourceType.isAssignableFrom(type)
+    }
+
+    @Override
+    void onApplicationEvent(ApplicationEvent event) {
+        received << event
+    }
+}
@@ -1,5 +1,6 @@
 package org.grails.datastore.gorm.finders
 
+import org.grails.datastore.mapping.model.MappingContext
 import spock.lang.Specification
 
 /**
@@ -24,4 +25,27 @@ class DynamicFinderSpec extends Specification {
         "findBy" | "findByTitleBetween"    | 2          |    1        | "TitleBetween"     |  ['title']
         "findBy" | "findByTitleAndAuthor"  | 2          |    2        | "TitleAndAuthor"   |  ['title', 'author']
     }
+
+    void "test finder plans are compiled once per class and method name"() {
+        given:
+        FindAllByFinder finder = new FindAllByFinder(Stub(MappingContext))
+
+        when:
+        DynamicFinderPlan plan = finder.getFinderPlan(String, "findAllByTitleLikeAndPagesGreaterThan")
+
+        then:
+        plan.is(finder.getFinderPlan(String, "findAllByTitleLikeAndPagesGreaterThan"))
+        !plan.is(finder.getFinderPlan(Integer, "findAllByTitleLikeAndPagesGreaterThan"))
+        plan.operator == "And"
+        plan.expressions*.propertyName == ['title', 'pages']
+
+        when:
+        plan = finder.getFinderPlan(String, "findAllByTitleBetweenOrAuthorNotEqual")
+
+        then:
+        plan.operator == "Or"
+        plan.expressions*.propertyName == ['title', 'author']
+        plan.expressions*.argumentsRequired == [2, 1]
+        plan.requiredArguments == 3
+    }
 }